@@ -0,0 +1,261 @@
+package com.automation.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Cache of authenticated browser state to skip the UI login in test setup
+ * The first test of a user logs in through the UI; cookies plus local and session storage
+ * are then captured and injected into the fresh sessions of later tests. If the injected
+ * state is rejected (expired, invalidated server-side) the cache entry is dropped and the
+ * UI login runs again.
+ *
+ * Scope (auth.cache.scope):
+ *     run    - one login per user shared by all threads of the JVM
+ *     worker - one login per user and thread
+ *
+ * Configuration (config.properties):
+ *     auth.cache.enabled=true
+ *     auth.cache.scope=run
+ *     auth.cache.max.age.minutes=30
+ *
+ * Example:
+ *     boolean restored = AuthStateCache.ensureLoggedIn(driver, "saucedemo:standard_user",
+ *             baseUrl, baseUrl + "inventory.html",
+ *             d -> loginPage.loginWithValidCredentials(),
+ *             d -> d.getCurrentUrl().contains("inventory"));
+ */
+public class AuthStateCache {
+
+    private static final Logger logger = LogManager.getLogger(AuthStateCache.class);
+
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("auth.cache.enabled", true);
+    private static final boolean PER_WORKER = "worker".equalsIgnoreCase(ConfigReader.getProperty("auth.cache.scope", "run"));
+    private static final long MAX_AGE_MILLIS = ConfigReader.getIntProperty("auth.cache.max.age.minutes", 30) * 60_000L;
+
+    private static final Map<String, AuthState> states = new ConcurrentHashMap<>();
+    private static final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    // Setup statistics: UI logins vs restored sessions
+    private static final AtomicLong uiLogins = new AtomicLong();
+    private static final AtomicLong uiLoginMillis = new AtomicLong();
+    private static final AtomicLong restores = new AtomicLong();
+    private static final AtomicLong restoreMillis = new AtomicLong();
+    private static final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Captured authentication state of one user
+     */
+    public static class AuthState {
+        private final List<Cookie> cookies;
+        private final Map<String, String> localStorage;
+        private final Map<String, String> sessionStorage;
+        private final long capturedAt;
+
+        private AuthState(List<Cookie> cookies, Map<String, String> localStorage, Map<String, String> sessionStorage) {
+            this.cookies = cookies;
+            this.localStorage = localStorage;
+            this.sessionStorage = sessionStorage;
+            this.capturedAt = System.currentTimeMillis();
+        }
+
+        public List<Cookie> getCookies() {
+            return Collections.unmodifiableList(cookies);
+        }
+
+        public Map<String, String> getLocalStorage() {
+            return Collections.unmodifiableMap(localStorage);
+        }
+
+        public Map<String, String> getSessionStorage() {
+            return Collections.unmodifiableMap(sessionStorage);
+        }
+
+        public long getCapturedAt() {
+            return capturedAt;
+        }
+
+        private boolean isExpired() {
+            if (System.currentTimeMillis() - capturedAt > MAX_AGE_MILLIS) {
+                return true;
+            }
+            Date now = new Date();
+            for (Cookie cookie : cookies) {
+                if (cookie.getExpiry() != null && cookie.getExpiry().before(now)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Make sure the session is logged in, restoring cached state when possible
+     * @param driver Fresh or reset WebDriver session
+     * @param key Cache key, usually application and user (e.g. "saucedemo:standard_user")
+     * @param originUrl Page on the application's origin used to set cookies and storage
+     * @param landingUrl Page opened after injecting the state
+     * @param uiLogin Full UI login, starting from originUrl and ending logged in
+     * @param isAuthenticated Check of the page opened from landingUrl
+     * @return true if the cached state was restored, false if the UI login ran
+     */
+    public static boolean ensureLoggedIn(WebDriver driver, String key, String originUrl, String landingUrl,
+                                         Consumer<WebDriver> uiLogin, Predicate<WebDriver> isAuthenticated) {
+        if (!ENABLED) {
+            driver.get(originUrl);
+            timedUiLogin(driver, key, uiLogin);
+            return false;
+        }
+
+        String cacheKey = PER_WORKER ? key + "@" + Thread.currentThread().getId() : key;
+        if (tryRestore(driver, cacheKey, originUrl, landingUrl, isAuthenticated)) {
+            return true;
+        }
+
+        // One UI login per key; concurrent tests of the same user wait and then restore
+        synchronized (locks.computeIfAbsent(cacheKey, k -> new Object())) {
+            if (states.containsKey(cacheKey) && tryRestore(driver, cacheKey, originUrl, landingUrl, isAuthenticated)) {
+                return true;
+            }
+
+            driver.get(originUrl);
+            timedUiLogin(driver, key, uiLogin);
+            AuthState state = capture(driver);
+            states.put(cacheKey, state);
+            logger.info("Cached auth state for {} ({} cookies, {} localStorage, {} sessionStorage entries)", cacheKey,
+                    state.cookies.size(), state.localStorage.size(), state.sessionStorage.size());
+            return false;
+        }
+    }
+
+    /**
+     * Drop cached state of a key (e.g. after a test changed the user's password)
+     * @param key Cache key
+     */
+    public static void invalidate(String key) {
+        states.keySet().removeIf(cacheKey -> cacheKey.equals(key) || cacheKey.startsWith(key + "@"));
+    }
+
+    /**
+     * Get a one-line summary of setup time with and without cached state
+     */
+    public static String getStatisticsSummary() {
+        long logins = uiLogins.get();
+        long restored = restores.get();
+        double avgLogin = logins == 0 ? 0.0 : uiLoginMillis.get() / (double) logins;
+        double avgRestore = restored == 0 ? 0.0 : restoreMillis.get() / (double) restored;
+        return String.format("uiLogins=%d (avg %.0fms), restored=%d (avg %.0fms), rejected=%d, saved=%ds, scope=%s",
+                logins, avgLogin, restored, avgRestore, rejected.get(),
+                logins == 0 ? 0 : Math.round(restored * Math.max(0, avgLogin - avgRestore) / 1000),
+                !ENABLED ? "disabled" : PER_WORKER ? "worker" : "run");
+    }
+
+    /**
+     * Inject cached state and check it is accepted; a rejected state is dropped
+     */
+    private static boolean tryRestore(WebDriver driver, String cacheKey, String originUrl, String landingUrl,
+                                      Predicate<WebDriver> isAuthenticated) {
+        AuthState state = states.get(cacheKey);
+        if (state == null) {
+            return false;
+        }
+        if (state.isExpired()) {
+            logger.info("Cached auth state for {} expired", cacheKey);
+            states.remove(cacheKey, state);
+            return false;
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            driver.get(originUrl);
+            inject(driver, state);
+            driver.get(landingUrl);
+            if (isAuthenticated.test(driver)) {
+                long elapsed = System.currentTimeMillis() - start;
+                restores.incrementAndGet();
+                restoreMillis.addAndGet(elapsed);
+                logger.debug("Restored auth state for {} in {}ms", cacheKey, elapsed);
+                return true;
+            }
+        } catch (WebDriverException e) {
+            logger.debug("Injecting auth state for {} failed: {}", cacheKey, e.getMessage());
+        }
+
+        rejected.incrementAndGet();
+        states.remove(cacheKey, state);
+        logger.warn("Cached auth state for {} was rejected, logging in again", cacheKey);
+        driver.manage().deleteAllCookies();
+        clearStorage(driver);
+        return false;
+    }
+
+    private static void timedUiLogin(WebDriver driver, String key, Consumer<WebDriver> uiLogin) {
+        long start = System.currentTimeMillis();
+        uiLogin.accept(driver);
+        long elapsed = System.currentTimeMillis() - start;
+        uiLogins.incrementAndGet();
+        uiLoginMillis.addAndGet(elapsed);
+        logger.debug("UI login for {} took {}ms", key, elapsed);
+    }
+
+    /**
+     * Capture cookies and web storage of the current page; storage values are kept out of the command recording
+     */
+    private static AuthState capture(WebDriver driver) {
+        List<Cookie> cookies = new ArrayList<>(driver.manage().getCookies());
+        return CommandRecorder.withResultsRedacted(() ->
+                new AuthState(cookies, readStorage(driver, "localStorage"), readStorage(driver, "sessionStorage")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> readStorage(WebDriver driver, String storage) {
+        Object entries = ((JavascriptExecutor) driver).executeScript(
+                "var s = window." + storage + ", r = {};"
+                        + "for (var i = 0; i < s.length; i++) { var k = s.key(i); r[k] = s.getItem(k); }"
+                        + "return r;");
+        Map<String, String> values = new HashMap<>();
+        if (entries instanceof Map) {
+            ((Map<String, Object>) entries).forEach((name, value) -> values.put(name, String.valueOf(value)));
+        }
+        return values;
+    }
+
+    /**
+     * Set cookies and web storage on the current page of the application's origin
+     */
+    private static void inject(WebDriver driver, AuthState state) {
+        driver.manage().deleteAllCookies();
+        for (Cookie cookie : state.cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        CommandRecorder.withResultsRedacted(() -> ((JavascriptExecutor) driver).executeScript(
+                "var local = arguments[0], session = arguments[1];"
+                        + "window.localStorage.clear(); window.sessionStorage.clear();"
+                        + "Object.keys(local).forEach(function (k) { window.localStorage.setItem(k, local[k]); });"
+                        + "Object.keys(session).forEach(function (k) { window.sessionStorage.setItem(k, session[k]); });",
+                state.localStorage, state.sessionStorage));
+    }
+
+    private static void clearStorage(WebDriver driver) {
+        try {
+            ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+        } catch (WebDriverException e) {
+            logger.debug("Failed to clear web storage: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.automation.core;
+
+import com.automation.enums.FailureCategory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-application circuit breaker for infrastructure failures
+ * The circuit opens when the pre-flight health check fails or after a number of
+ * consecutive infrastructure-class failures (see FailureCategory), where a timeout counts
+ * only if a health probe of the application fails as well (a result younger than the probe
+ * interval is reused, and one probe in flight answers for every thread); while open, tests of
+ * the application are skipped with the reason instead of launching a browser. An open
+ * circuit is probed with EnvironmentHealthCheck at most once per probe interval and
+ * closes again when the application answers.
+ *
+ * Configuration (config.properties):
+ *     circuit.breaker.enabled=true
+ *     circuit.breaker.threshold=3
+ *     circuit.breaker.probe.seconds=60
+ *
+ * Example:
+ *     if (CircuitBreaker.isOpen("saucedemo")) {
+ *         throw new SkipException(CircuitBreaker.getOpenReason("saucedemo"));
+ *     }
+ *     CircuitBreaker.recordFailure("saucedemo", FailureClassifier.classify(error));
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("circuit.breaker.enabled", true);
+    private static final int THRESHOLD = ConfigReader.getIntProperty("circuit.breaker.threshold", 3);
+    private static final long PROBE_INTERVAL_MILLIS = ConfigReader.getIntProperty("circuit.breaker.probe.seconds", 60) * 1000L;
+
+    private static final long RUN_STARTED = System.currentTimeMillis();
+    private static final Map<String, State> states = new ConcurrentHashMap<>();
+
+    /**
+     * Breaker state of one application
+     */
+    private static class State {
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicReference<CompletableFuture<EnvironmentHealthCheck.HealthResult>> timeoutProbe =
+                new AtomicReference<>();
+        private volatile String openReason;
+        private volatile long openedAt;
+        private volatile long lastProbeAt;
+        private volatile long firstVerdictMillis = -1;
+    }
+
+    /**
+     * Check if tests of an application should be skipped, probing an open circuit when due
+     * @param application Application name
+     * @return true if the circuit is open
+     */
+    public static boolean isOpen(String application) {
+        if (!ENABLED || application == null) {
+            return false;
+        }
+        State state = states.get(application);
+        if (state == null || state.openReason == null) {
+            return false;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - state.lastProbeAt >= PROBE_INTERVAL_MILLIS) {
+            synchronized (state) {
+                if (state.openReason != null && now - state.lastProbeAt >= PROBE_INTERVAL_MILLIS) {
+                    state.lastProbeAt = now;
+                    EnvironmentHealthCheck.HealthResult probe = EnvironmentHealthCheck.check(application);
+                    if (probe.isHealthy()) {
+                        logger.info("Circuit for {} closed after {}s: {}", application, (now - state.openedAt) / 1000, probe);
+                        state.openReason = null;
+                        state.consecutiveFailures.set(0);
+                    }
+                }
+            }
+        }
+        return state.openReason != null;
+    }
+
+    /**
+     * Get the reason an application's circuit is open
+     * @param application Application name
+     * @return Reason, or null if the circuit is closed
+     */
+    public static String getOpenReason(String application) {
+        State state = application != null ? states.get(application) : null;
+        return state != null ? state.openReason : null;
+    }
+
+    /**
+     * Open the circuit of an application
+     * @param application Application name
+     * @param reason Reason shown on skipped tests
+     */
+    public static void trip(String application, String reason) {
+        if (!ENABLED) {
+            return;
+        }
+        State state = states.computeIfAbsent(application, key -> new State());
+        synchronized (state) {
+            if (state.openReason != null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            state.openReason = "Environment unavailable (" + application + "): " + reason;
+            state.openedAt = now;
+            state.lastProbeAt = now;
+            if (state.firstVerdictMillis < 0) {
+                state.firstVerdictMillis = now - RUN_STARTED;
+            }
+        }
+        logger.error("Circuit for {} opened: {}", application, reason);
+    }
+
+    /**
+     * Record a passed test, resetting the consecutive failure count
+     * @param application Application name
+     */
+    public static void recordSuccess(String application) {
+        State state = application != null ? states.get(application) : null;
+        if (state != null) {
+            state.consecutiveFailures.set(0);
+        }
+    }
+
+    /**
+     * Record a failure; consecutive infrastructure-class failures open the circuit
+     * A timeout is counted only when a health probe confirms the application is unavailable
+     * @param application Application name
+     * @param category Classified failure category
+     */
+    public static void recordFailure(String application, FailureCategory category) {
+        if (!ENABLED || application == null) {
+            return;
+        }
+        State state = states.computeIfAbsent(application, key -> new State());
+        boolean confirmedTimeout = category == FailureCategory.TIMEOUT && isConfirmedDown(application, state);
+        if (!category.isInfrastructure() && !confirmedTimeout) {
+            state.consecutiveFailures.set(0);
+            return;
+        }
+        int failures = state.consecutiveFailures.incrementAndGet();
+        if (failures >= THRESHOLD) {
+            trip(application, failures + " consecutive infrastructure failures (last: " + category + ")");
+        }
+    }
+
+    /**
+     * Check whether a health probe says the application is down, reusing a result younger than
+     * the probe interval; concurrent callers wait for the one probe in flight instead of starting their own
+     */
+    private static boolean isConfirmedDown(String application, State state) {
+        EnvironmentHealthCheck.HealthResult recent = EnvironmentHealthCheck.getLastResult(application);
+        if (recent != null && System.currentTimeMillis() - recent.getCheckedAt() < PROBE_INTERVAL_MILLIS) {
+            return !recent.isHealthy();
+        }
+
+        CompletableFuture<EnvironmentHealthCheck.HealthResult> probe = new CompletableFuture<>();
+        if (!state.timeoutProbe.compareAndSet(null, probe)) {
+            CompletableFuture<EnvironmentHealthCheck.HealthResult> running = state.timeoutProbe.get();
+            if (running != null) {
+                return !running.join().isHealthy();
+            }
+            // The probe finished in between, so its result is the latest one
+            recent = EnvironmentHealthCheck.getLastResult(application);
+            return recent != null && !recent.isHealthy();
+        }
+        try {
+            probe.complete(EnvironmentHealthCheck.check(application));
+        } catch (RuntimeException e) {
+            probe.completeExceptionally(e);
+            throw e;
+        } finally {
+            state.timeoutProbe.set(null);
+        }
+        return !probe.join().isHealthy();
+    }
+
+    /**
+     * Record a test skipped because the circuit was open
+     * @param application Application name
+     */
+    public static void recordSkip(String application) {
+        states.computeIfAbsent(application, key -> new State()).skipped.incrementAndGet();
+    }
+
+    /**
+     * Get application of a test class from its package (com.automation.tests.saucedemo -> saucedemo)
+     * @param testClass Test class
+     * @return Application name
+     */
+    public static String applicationOf(Class<?> testClass) {
+        String packageName = testClass.getPackage() != null ? testClass.getPackage().getName() : "";
+        return packageName.substring(packageName.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Get a one-line summary of circuits, skipped tests and time to verdict
+     */
+    public static String getStatisticsSummary() {
+        if (!ENABLED) {
+            return "disabled";
+        }
+        StringBuilder summary = new StringBuilder();
+        states.forEach((application, state) -> {
+            if (state.firstVerdictMillis < 0) {
+                return;
+            }
+            summary.append(summary.length() == 0 ? "" : "; ").append(String.format(
+                    "%s %s, skipped=%d, timeToVerdict=%.1fs", application,
+                    state.openReason != null ? "open" : "recovered", state.skipped.get(), state.firstVerdictMillis / 1000.0));
+        });
+        return summary.length() == 0 ? "all circuits closed" : summary.toString();
+    }
+}
@@ -0,0 +1,461 @@
+package com.automation.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-test recording of WebDriver commands and their responses
+ * Sessions created by DriverFactory are decorated with a listener that writes one compact
+ * JSON line per command to recording.dir/<Class.method>[-n].ndjson: offset from the test
+ * start and duration in ms (t, d), target (o: driver, element ref or sub-interface),
+ * method (m), arguments (a) and result (r) or error (e, x). Elements are written as
+ * references; typed text, cookie values and the string and map arguments passed to scripts
+ * only as their length or size; screenshots are not recorded. Other results, including values
+ * returned by scripts, are recorded verbatim, so code reading secrets from the page (e.g.
+ * AuthStateCache reading web storage) runs them through withResultsRedacted. ReplayWebDriver
+ * serves a recording back so page-object code can be re-executed offline.
+ * Recordings of passing tests are deleted unless recording.keep=all.
+ *
+ * Configuration (config.properties):
+ *     recording.enabled=true
+ *     recording.keep=failed          (failed | all)
+ *     recording.dir=reports/recordings
+ *     replay.enabled=false           (serve recordings instead of starting browsers)
+ *
+ * Example:
+ *     CommandRecorder.startTest("LoginTest.testValidLogin");
+ *     WebDriver driver = DriverFactory.createDriver();   // decorated via CommandRecorder.record
+ *     ...
+ *     Path recording = CommandRecorder.stopTest(failed);   // kept file or null
+ */
+public class CommandRecorder {
+
+    private static final Logger logger = LogManager.getLogger(CommandRecorder.class);
+
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("recording.enabled", true);
+    private static final boolean KEEP_ALL = "all".equalsIgnoreCase(ConfigReader.getProperty("recording.keep", "failed"));
+    private static final Path RECORDING_DIR = Paths.get(ConfigReader.getProperty("recording.dir", "reports/recordings"));
+    private static final boolean REPLAY = ConfigReader.getBooleanProperty("replay.enabled", false);
+
+    static final String DRIVER_REF = "driver";
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonNodeFactory nodes = JsonNodeFactory.instance;
+
+    private static final ThreadLocal<Recording> currentRecording = new ThreadLocal<>();
+    private static final Map<String, AtomicInteger> invocations = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger recordedTests = new AtomicInteger();
+    private static final AtomicInteger keptRecordings = new AtomicInteger();
+    private static final AtomicLong recordedCommands = new AtomicLong();
+    private static final AtomicLong recordedBytes = new AtomicLong();
+    private static final AtomicLong recordingNanos = new AtomicLong();
+    private static final AtomicLong commandNanos = new AtomicLong();
+
+    /**
+     * Recording of one test on one thread
+     */
+    private static class Recording {
+        private final String testName;
+        private final Path file;
+        private final long startNanos = System.nanoTime();
+        private final Map<Object, String> elementRefs = new IdentityHashMap<>();
+        private BufferedWriter writer;
+        private boolean closed;
+        private long commandStartNanos;
+        private long commands;
+        private int redactedResultsDepth;
+
+        private Recording(String testName, Path file) {
+            this.testName = testName;
+            this.file = file;
+        }
+    }
+
+    /**
+     * Listener writing the commands of a decorated session
+     */
+    private static class RecordingListener implements WebDriverListener {
+        private final Recording recording;
+
+        private RecordingListener(Recording recording) {
+            this.recording = recording;
+        }
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            recording.commandStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            write(recording, target, method, args, result, null);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            write(recording, target, method, args, null, e.getTargetException());
+        }
+    }
+
+    /**
+     * Start a recording for the current thread; repeated names (data providers, retries) get a -n suffix
+     * @param testName Test name, e.g. Class.method
+     */
+    public static void startTest(String testName) {
+        if (!ENABLED && !REPLAY) {
+            return;
+        }
+        int invocation = invocations.computeIfAbsent(testName, name -> new AtomicInteger()).incrementAndGet();
+        String fileName = testName.replaceAll("[^A-Za-z0-9._-]", "_") + (invocation > 1 ? "-" + invocation : "") + ".ndjson";
+        currentRecording.set(new Recording(testName, RECORDING_DIR.resolve(fileName)));
+    }
+
+    /**
+     * Decorate a session so its commands are recorded for the current test
+     * @param driver Undecorated driver
+     * @return Decorated driver, or the driver itself when recording is disabled or replaying
+     */
+    public static WebDriver record(WebDriver driver) {
+        if (!ENABLED || REPLAY) {
+            return driver;
+        }
+        if (currentRecording.get() == null) {
+            startTest(Thread.currentThread().getName());
+        }
+        return DriverDecorator.decorate(driver, new RecordingListener(currentRecording.get()));
+    }
+
+    /**
+     * Close the current thread's recording; recordings of passing tests are deleted unless recording.keep=all
+     * @param failed Whether the test failed
+     * @return Recording file if it was kept, null otherwise
+     */
+    public static Path stopTest(boolean failed) {
+        Recording recording = currentRecording.get();
+        currentRecording.remove();
+        if (recording == null) {
+            return null;
+        }
+
+        try {
+            synchronized (recording) {
+                recording.closed = true;
+                if (recording.writer == null) {
+                    return null;
+                }
+                recording.writer.close();
+            }
+            recordedTests.incrementAndGet();
+            if (failed || KEEP_ALL) {
+                keptRecordings.incrementAndGet();
+                logger.info("Recorded {} commands of {}: {}", recording.commands, recording.testName, recording.file);
+                return recording.file;
+            }
+            Files.deleteIfExists(recording.file);
+        } catch (IOException e) {
+            logger.error("Failed to close recording {}: {}", recording.file, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Run an action whose command results must not reach the recording of the current thread
+     * Strings in its results are recorded only as their length and maps only as their size.
+     * @param action Action calling the recorded session, e.g. reading tokens from web storage
+     * @return Result of the action
+     */
+    public static <T> T withResultsRedacted(Supplier<T> action) {
+        Recording recording = currentRecording.get();
+        if (recording == null) {
+            return action.get();
+        }
+        recording.redactedResultsDepth++;
+        try {
+            return action.get();
+        } finally {
+            recording.redactedResultsDepth--;
+        }
+    }
+
+    /**
+     * Run an action whose command results must not reach the recording of the current thread
+     * @param action Action calling the recorded session
+     */
+    public static void withResultsRedacted(Runnable action) {
+        withResultsRedacted(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Get the recording file of the current thread's test
+     * @return Recording file, or null if startTest was not called
+     */
+    public static Path getCurrentRecordingFile() {
+        Recording recording = currentRecording.get();
+        return recording != null ? recording.file : null;
+    }
+
+    /**
+     * Check if DriverFactory should serve recordings instead of starting browsers
+     */
+    public static boolean isReplayEnabled() {
+        return REPLAY;
+    }
+
+    /**
+     * Get a one-line summary of recorded commands and the recording overhead
+     */
+    public static String getStatisticsSummary() {
+        if (REPLAY) {
+            return ReplayWebDriver.getStatisticsSummary();
+        }
+        if (!ENABLED) {
+            return "disabled";
+        }
+        long commands = recordedCommands.get();
+        long commandTime = commandNanos.get();
+        return String.format("tests=%d, kept=%d (%s), commands=%d, size=%dKB (%d bytes/command), "
+                        + "overhead=%.1fus/command (%.2f%% of driver time), dir=%s",
+                recordedTests.get(), keptRecordings.get(), KEEP_ALL ? "all" : "failed", commands,
+                recordedBytes.get() / 1024, commands == 0 ? 0 : recordedBytes.get() / commands,
+                commands == 0 ? 0.0 : recordingNanos.get() / 1000.0 / commands,
+                commandTime == 0 ? 0.0 : recordingNanos.get() * 100.0 / commandTime, RECORDING_DIR);
+    }
+
+    /**
+     * Check if a return type is a navigation object (Options, Navigation, TargetLocator, ...)
+     * Such results are not recorded; ReplayWebDriver answers them with its own proxies.
+     */
+    static boolean isNavigationType(Class<?> type) {
+        return type.isInterface() && type.getName().startsWith("org.openqa.selenium.")
+                && type != WebElement.class && !Collection.class.isAssignableFrom(type)
+                && !Map.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Check if a call is recorded; screenshots and Object methods are answered by ReplayWebDriver itself
+     */
+    static boolean isRecorded(Method method) {
+        return method.getDeclaringClass() != Object.class && !"getScreenshotAs".equals(method.getName());
+    }
+
+    /**
+     * Write one command line (called on the test thread)
+     */
+    private static void write(Recording recording, Object target, Method method, Object[] args, Object result,
+                              Throwable error) {
+        long start = System.nanoTime();
+        if (!isRecorded(method)) {
+            return;
+        }
+        ObjectNode line = mapper.createObjectNode();
+        line.put("t", (recording.commandStartNanos - recording.startNanos) / 1_000_000);
+        line.put("d", (start - recording.commandStartNanos) / 1_000_000);
+        line.put("o", targetRef(recording, target, method));
+        line.put("m", method.getName());
+        if (args != null && args.length > 0) {
+            ArrayNode arguments = line.putArray("a");
+            boolean script = isScript(method);
+            for (int i = 0; i < args.length; i++) {
+                // The script source is kept for matching, the values passed to it are redacted
+                arguments.add(script && i > 0 ? redacted(recording, args[i]) : toJson(recording, args[i]));
+            }
+        }
+        if (error != null) {
+            line.put("e", error.getClass().getName());
+            String message = error.getMessage();
+            line.put("x", message == null ? "" : message.split("\n", 2)[0]);
+        } else if (method.getReturnType() != void.class && !isNavigationType(method.getReturnType())) {
+            line.set("r", recording.redactedResultsDepth > 0 ? redacted(recording, result) : toJson(recording, result));
+        }
+
+        // The watchdog may quit a hung session from another thread; commands after stopTest are dropped
+        synchronized (recording) {
+            if (recording.closed) {
+                return;
+            }
+            try {
+                if (recording.writer == null) {
+                    Files.createDirectories(RECORDING_DIR);
+                    recording.writer = Files.newBufferedWriter(recording.file, StandardCharsets.UTF_8);
+                }
+                String json = mapper.writeValueAsString(line);
+                recording.writer.write(json);
+                recording.writer.newLine();
+                recording.commands++;
+                recordedCommands.incrementAndGet();
+                recordedBytes.addAndGet(json.length() + 1);
+            } catch (IOException e) {
+                logger.debug("Failed to record command {}: {}", method.getName(), e.getMessage());
+            }
+        }
+        commandNanos.addAndGet(start - recording.commandStartNanos);
+        recordingNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private static boolean isScript(Method method) {
+        return "executeScript".equals(method.getName()) || "executeAsyncScript".equals(method.getName());
+    }
+
+    /**
+     * Convert a script argument or redacted result to JSON, writing strings only as their length
+     * and maps only as their size
+     */
+    private static JsonNode redacted(Recording recording, Object value) {
+        if (value instanceof String) {
+            return nodes.objectNode().put("@len", ((String) value).length());
+        }
+        if (value instanceof Map) {
+            return nodes.objectNode().put("@map", ((Map<?, ?>) value).size());
+        }
+        if (value instanceof Object[]) {
+            return redacted(recording, Arrays.asList((Object[]) value));
+        }
+        if (value instanceof Collection) {
+            ArrayNode array = nodes.arrayNode();
+            for (Object item : (Collection<?>) value) {
+                array.add(redacted(recording, item));
+            }
+            return array;
+        }
+        return toJson(recording, value);
+    }
+
+    private static String targetRef(Recording recording, Object target, Method method) {
+        if (target instanceof WebElement) {
+            return elementRef(recording, (WebElement) target);
+        }
+        if (target instanceof WebDriver) {
+            return DRIVER_REF;
+        }
+        return method.getDeclaringClass().getSimpleName();
+    }
+
+    private static String elementRef(Recording recording, WebElement element) {
+        WebElement original = element;
+        while (original instanceof WrapsElement) {
+            original = ((WrapsElement) original).getWrappedElement();
+        }
+        return recording.elementRefs.computeIfAbsent(original, key -> "e" + (recording.elementRefs.size() + 1));
+    }
+
+    /**
+     * Convert an argument or result to JSON; non-JSON values are tagged with @-keys
+     */
+    private static JsonNode toJson(Recording recording, Object value) {
+        if (value == null) {
+            return nodes.nullNode();
+        }
+        if (value instanceof String) {
+            return nodes.textNode((String) value);
+        }
+        if (value instanceof Boolean) {
+            return nodes.booleanNode((Boolean) value);
+        }
+        if (value instanceof Long || value instanceof Integer) {
+            return nodes.numberNode(((Number) value).longValue());
+        }
+        if (value instanceof Number) {
+            return nodes.numberNode(((Number) value).doubleValue());
+        }
+        if (value instanceof WebElement) {
+            return nodes.objectNode().put("@el", elementRef(recording, (WebElement) value));
+        }
+        if (value instanceof By) {
+            return nodes.objectNode().put("@by", value.toString());
+        }
+        if (value instanceof CharSequence[]) {
+            int length = 0;
+            for (CharSequence keys : (CharSequence[]) value) {
+                length += keys == null ? 0 : keys.length();
+            }
+            return nodes.objectNode().put("@keys", length);
+        }
+        if (value instanceof Dimension) {
+            Dimension dimension = (Dimension) value;
+            return nodes.objectNode().set("@dim", nodes.arrayNode().add(dimension.getWidth()).add(dimension.getHeight()));
+        }
+        if (value instanceof Point) {
+            Point point = (Point) value;
+            return nodes.objectNode().set("@pt", nodes.arrayNode().add(point.getX()).add(point.getY()));
+        }
+        if (value instanceof Rectangle) {
+            Rectangle rectangle = (Rectangle) value;
+            return nodes.objectNode().set("@rect", nodes.arrayNode().add(rectangle.getX()).add(rectangle.getY())
+                    .add(rectangle.getWidth()).add(rectangle.getHeight()));
+        }
+        if (value instanceof Cookie) {
+            Cookie cookie = (Cookie) value;
+            ObjectNode json = nodes.objectNode();
+            json.putObject("@cookie").put("name", cookie.getName()).put("valueLength", cookie.getValue().length())
+                    .put("domain", cookie.getDomain()).put("path", cookie.getPath())
+                    .put("expiry", cookie.getExpiry() == null ? null : cookie.getExpiry().getTime())
+                    .put("secure", cookie.isSecure()).put("httpOnly", cookie.isHttpOnly())
+                    .put("sameSite", cookie.getSameSite());
+            return json;
+        }
+        if (value instanceof Duration) {
+            return nodes.objectNode().put("@dur", ((Duration) value).toMillis());
+        }
+        if (value instanceof OutputType) {
+            return nodes.objectNode().put("@out", value.toString());
+        }
+        if (value instanceof Collection) {
+            ArrayNode array = nodes.arrayNode();
+            for (Object item : (Collection<?>) value) {
+                array.add(toJson(recording, item));
+            }
+            return value instanceof Set ? nodes.objectNode().set("@set", array) : array;
+        }
+        if (value instanceof Map) {
+            ObjectNode object = nodes.objectNode();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                object.set(String.valueOf(entry.getKey()), toJson(recording, entry.getValue()));
+            }
+            return object;
+        }
+        if (value instanceof Object[]) {
+            return toJson(recording, Arrays.asList((Object[]) value));
+        }
+        if (value instanceof Enum) {
+            return nodes.textNode(((Enum<?>) value).name());
+        }
+        return nodes.objectNode().put("@str", value.toString());
+    }
+}
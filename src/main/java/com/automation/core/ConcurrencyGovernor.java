@@ -0,0 +1,387 @@
+package com.automation.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive limit on the number of tests running at once
+ * Test threads acquire a permit before starting a browser and release it when the test
+ * ends; the number of permits starts at a baseline and is adjusted by a sampler thread
+ * from host CPU load, available memory and the resident memory of the browser and
+ * driver processes started by this JVM. Scaling up requires the headroom to hold for several samples and a cooldown
+ * since the last change; memory pressure scales down immediately, CPU overload after
+ * the same number of samples (hysteresis). The TestNG pool must have at least the maximum
+ * number of threads (see ConcurrencyGovernorListener).
+ *
+ * Configuration (config.properties):
+ *     governor.enabled=false
+ *     governor.initial.workers=4
+ *     governor.min.workers=1
+ *     governor.max.workers=0           (0 = number of CPU cores)
+ *     governor.sample.seconds=5
+ *     governor.sustain.samples=3
+ *     governor.cooldown.seconds=15
+ *     governor.cpu.low=0.60
+ *     governor.cpu.high=0.85
+ *     governor.memory.reserve.mb=1024
+ *     governor.browser.rss.mb=400      (assumed per-browser memory until measured)
+ *
+ * Example:
+ *     ConcurrencyGovernor.acquire();
+ *     try { ... } finally { ConcurrencyGovernor.release(); }
+ */
+public class ConcurrencyGovernor {
+
+    private static final Logger logger = LogManager.getLogger(ConcurrencyGovernor.class);
+
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("governor.enabled", false);
+    private static final int MIN_WORKERS = Math.max(1, ConfigReader.getIntProperty("governor.min.workers", 1));
+    private static final int MAX_WORKERS = Math.max(MIN_WORKERS, ConfigReader.getIntProperty("governor.max.workers", 0) > 0
+            ? ConfigReader.getIntProperty("governor.max.workers", 0) : Runtime.getRuntime().availableProcessors());
+    private static final int INITIAL_WORKERS = Math.min(MAX_WORKERS, Math.max(MIN_WORKERS,
+            ConfigReader.getIntProperty("governor.initial.workers", ConfigReader.getIntProperty("thread.count", 4))));
+    private static final int SAMPLE_SECONDS = Math.max(1, ConfigReader.getIntProperty("governor.sample.seconds", 5));
+    private static final int SUSTAIN_SAMPLES = Math.max(1, ConfigReader.getIntProperty("governor.sustain.samples", 3));
+    private static final long COOLDOWN_MILLIS = ConfigReader.getIntProperty("governor.cooldown.seconds", 15) * 1000L;
+    private static final double CPU_LOW = Double.parseDouble(ConfigReader.getProperty("governor.cpu.low", "0.60"));
+    private static final double CPU_HIGH = Double.parseDouble(ConfigReader.getProperty("governor.cpu.high", "0.85"));
+    private static final long MEMORY_RESERVE_MB = ConfigReader.getIntProperty("governor.memory.reserve.mb", 1024);
+    private static final long DEFAULT_BROWSER_RSS_MB = ConfigReader.getIntProperty("governor.browser.rss.mb", 400);
+
+    private static final String TIMELINE_FILE = "reports/concurrency-timeline.csv";
+    private static final String[] BROWSER_PROCESSES = {"chrome", "chromium", "chromedriver", "firefox", "geckodriver",
+            "msedge", "msedgedriver"};
+
+    private static final Object lock = new Object();
+    private static final ThreadLocal<Boolean> holdsPermit = ThreadLocal.withInitial(() -> false);
+    private static final List<Sample> timeline = new ArrayList<>();
+
+    // Guarded by lock
+    private static int limit = INITIAL_WORKERS;
+    private static int active;
+    private static int peakActive;
+    private static long completed;
+    private static long lastChangeAt;
+    private static long lastActiveChangeNanos;
+    private static double activeSeconds;
+    private static int upVotes;
+    private static int downVotes;
+    private static long startedAt;
+    private static long stoppedAt;
+
+    private static ScheduledExecutorService sampler;
+
+    /**
+     * Host measurements and the limit decided from them
+     */
+    private static class Sample {
+        private final long offsetMillis;
+        private final int limit;
+        private final int active;
+        private final double cpuLoad;
+        private final long availableMb;
+        private final long browserRssMb;
+        private final String decision;
+
+        private Sample(long offsetMillis, int limit, int active, double cpuLoad, long availableMb, long browserRssMb,
+                       String decision) {
+            this.offsetMillis = offsetMillis;
+            this.limit = limit;
+            this.active = active;
+            this.cpuLoad = cpuLoad;
+            this.availableMb = availableMb;
+            this.browserRssMb = browserRssMb;
+            this.decision = decision;
+        }
+    }
+
+    /**
+     * Check if the governor limits concurrency in this run
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Get the largest number of workers the governor may allow
+     */
+    public static int getMaxWorkers() {
+        return MAX_WORKERS;
+    }
+
+    /**
+     * Wait for a permit to run a test; no-op when disabled or already held by this thread
+     */
+    public static void acquire() {
+        if (!ENABLED || holdsPermit.get()) {
+            return;
+        }
+        start();
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (active >= limit) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            accumulateActiveTime();
+            active++;
+            peakActive = Math.max(peakActive, active);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        holdsPermit.set(true);
+    }
+
+    /**
+     * Release the permit of this thread, if it holds one
+     */
+    public static void release() {
+        if (!holdsPermit.get()) {
+            return;
+        }
+        holdsPermit.set(false);
+        synchronized (lock) {
+            accumulateActiveTime();
+            active--;
+            completed++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Start the sampler thread
+     */
+    public static void start() {
+        synchronized (lock) {
+            if (!ENABLED || sampler != null) {
+                return;
+            }
+            startedAt = System.currentTimeMillis();
+            lastChangeAt = startedAt;
+            lastActiveChangeNanos = System.nanoTime();
+            sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "concurrency-governor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleWithFixedDelay(ConcurrencyGovernor::sample, SAMPLE_SECONDS, SAMPLE_SECONDS, TimeUnit.SECONDS);
+        }
+        logger.info("Concurrency governor started: {} workers (min {}, max {})", INITIAL_WORKERS, MIN_WORKERS, MAX_WORKERS);
+    }
+
+    /**
+     * Stop sampling and write the concurrency timeline to reports/concurrency-timeline.csv
+     */
+    public static void stop() {
+        ScheduledExecutorService running;
+        synchronized (lock) {
+            running = sampler;
+            if (running == null || stoppedAt > 0) {
+                return;
+            }
+            accumulateActiveTime();
+            stoppedAt = System.currentTimeMillis();
+        }
+        running.shutdownNow();
+        writeTimeline(Paths.get(TIMELINE_FILE));
+    }
+
+    /**
+     * Get a one-line summary of limits, average concurrency and throughput
+     */
+    public static String getStatisticsSummary() {
+        if (!ENABLED) {
+            return "disabled";
+        }
+        synchronized (lock) {
+            if (startedAt == 0) {
+                return "not started";
+            }
+            long wallMillis = Math.max(1, (stoppedAt > 0 ? stoppedAt : System.currentTimeMillis()) - startedAt);
+            int minLimit = INITIAL_WORKERS;
+            int maxLimit = INITIAL_WORKERS;
+            int changes = 0;
+            for (Sample sample : timeline) {
+                minLimit = Math.min(minLimit, sample.limit);
+                maxLimit = Math.max(maxLimit, sample.limit);
+                if (!"hold".equals(sample.decision)) {
+                    changes++;
+                }
+            }
+            return String.format("workers=%d..%d (start %d, now %d, %d changes), peakActive=%d, avgActive=%.1f, "
+                            + "tests=%d, throughput=%.1f tests/min, timeline=%s", minLimit, maxLimit, INITIAL_WORKERS,
+                    limit, changes, peakActive, activeSeconds * 1000 / wallMillis, completed,
+                    completed * 60_000.0 / wallMillis, TIMELINE_FILE);
+        }
+    }
+
+    /**
+     * Sampler: measure the host and adjust the limit
+     */
+    private static void sample() {
+        try {
+            double cpuLoad = getCpuLoad();
+            long availableMb = getAvailableMemoryMb();
+            long browserRssMb = getBrowserRssMb();
+
+            synchronized (lock) {
+                long now = System.currentTimeMillis();
+                long perBrowserMb = active > 0 && browserRssMb > 0 ? browserRssMb / active : DEFAULT_BROWSER_RSS_MB;
+                boolean memoryPressure = availableMb >= 0 && availableMb < MEMORY_RESERVE_MB;
+                boolean cpuOverload = cpuLoad > CPU_HIGH;
+                boolean headroom = cpuLoad >= 0 && cpuLoad < CPU_LOW && active >= limit
+                        && (availableMb < 0 || availableMb - MEMORY_RESERVE_MB > perBrowserMb * 3 / 2);
+
+                upVotes = headroom ? upVotes + 1 : 0;
+                downVotes = cpuOverload ? downVotes + 1 : 0;
+
+                String decision = "hold";
+                if (memoryPressure && limit > MIN_WORKERS) {
+                    decision = "down (memory)";
+                    setLimit(limit - 1, now);
+                } else if (downVotes >= SUSTAIN_SAMPLES && limit > MIN_WORKERS) {
+                    decision = "down (cpu)";
+                    setLimit(limit - 1, now);
+                } else if (upVotes >= SUSTAIN_SAMPLES && limit < MAX_WORKERS && now - lastChangeAt >= COOLDOWN_MILLIS) {
+                    decision = "up";
+                    setLimit(limit + 1, now);
+                }
+
+                timeline.add(new Sample(now - startedAt, limit, active, cpuLoad, availableMb, browserRssMb, decision));
+                if (!"hold".equals(decision)) {
+                    logger.info("Concurrency {} to {} workers (cpu={}%, available={}MB, browsers={}MB, active={})",
+                            decision, limit, Math.round(cpuLoad * 100), availableMb, browserRssMb, active);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Concurrency sample failed: {}", e.getMessage());
+        }
+    }
+
+    private static void setLimit(int newLimit, long now) {
+        limit = newLimit;
+        lastChangeAt = now;
+        upVotes = 0;
+        downVotes = 0;
+        lock.notifyAll();
+    }
+
+    private static void accumulateActiveTime() {
+        long now = System.nanoTime();
+        activeSeconds += active * (now - lastActiveChangeNanos) / 1e9;
+        lastActiveChangeNanos = now;
+    }
+
+    /**
+     * Host CPU load between 0 and 1, or -1 if unknown
+     */
+    // getSystemCpuLoad is deprecated since Java 14; its replacement getCpuLoad does not exist on Java 11
+    @SuppressWarnings("deprecation")
+    private static double getCpuLoad() {
+        java.lang.management.OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            double load = ((com.sun.management.OperatingSystemMXBean) bean).getSystemCpuLoad();
+            if (load >= 0) {
+                return load;
+            }
+        }
+        double average = bean.getSystemLoadAverage();
+        return average < 0 ? -1 : Math.min(1.0, average / bean.getAvailableProcessors());
+    }
+
+    /**
+     * Memory available for new processes in MB (MemAvailable on Linux), or -1 if unknown
+     */
+    // getFreePhysicalMemorySize is deprecated since Java 14; its replacement getFreeMemorySize does not exist on Java 11
+    @SuppressWarnings("deprecation")
+    private static long getAvailableMemoryMb() {
+        Path meminfo = Paths.get("/proc/meminfo");
+        if (Files.isReadable(meminfo)) {
+            try {
+                for (String line : Files.readAllLines(meminfo)) {
+                    if (line.startsWith("MemAvailable:")) {
+                        return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                logger.debug("Failed to read {}: {}", meminfo, e.getMessage());
+            }
+        }
+        java.lang.management.OperatingSystemMXBean bean = ManagementFactory.getOperatingSystemMXBean();
+        if (bean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) bean).getFreePhysicalMemorySize() / (1024 * 1024);
+        }
+        return -1;
+    }
+
+    /**
+     * Resident memory of browser and driver processes descending from this JVM in MB (Linux),
+     * 0 if none or unknown. Browsers of other runs on the same host are not counted.
+     */
+    private static long getBrowserRssMb() {
+        long pageSize = 4096;
+        long[] totalPages = new long[1];
+        ProcessHandle.current().descendants().forEach(process -> {
+            String command = process.info().command().orElse("").toLowerCase(Locale.ROOT);
+            String name = command.substring(command.lastIndexOf('/') + 1);
+            for (String browser : BROWSER_PROCESSES) {
+                if (name.startsWith(browser)) {
+                    totalPages[0] += readResidentPages(process.pid());
+                    return;
+                }
+            }
+        });
+        return totalPages[0] * pageSize / (1024 * 1024);
+    }
+
+    private static long readResidentPages(long pid) {
+        try {
+            String[] statm = new String(Files.readAllBytes(Paths.get("/proc", String.valueOf(pid), "statm")),
+                    StandardCharsets.US_ASCII).trim().split(" ");
+            return Long.parseLong(statm[1]);
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static void writeTimeline(Path target) {
+        List<Sample> samples;
+        synchronized (lock) {
+            samples = new ArrayList<>(timeline);
+        }
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                writer.write("offsetSeconds,limit,active,cpuLoad,availableMb,browserRssMb,decision");
+                writer.newLine();
+                for (Sample sample : samples) {
+                    writer.write(String.format(Locale.ROOT, "%.1f,%d,%d,%.2f,%d,%d,%s", sample.offsetMillis / 1000.0,
+                            sample.limit, sample.active, sample.cpuLoad, sample.availableMb, sample.browserRssMb,
+                            sample.decision));
+                    writer.newLine();
+                }
+            }
+            logger.info("Concurrency timeline written: {} ({} samples)", target, samples.size());
+        } catch (IOException e) {
+            logger.error("Failed to write concurrency timeline to {}: {}", target, e.getMessage());
+        }
+    }
+}
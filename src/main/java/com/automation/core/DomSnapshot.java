@@ -0,0 +1,353 @@
+package com.automation.core;
+
+import com.automation.utils.LocatorUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DOM Snapshot for read-only verifications evaluated in the JVM
+ * Pulls the serialized DOM (or a subtree) in a single script call and serves
+ * many queries against the parsed tree without further remote round trips
+ *
+ * Only CSS-compatible locators (id, className, cssSelector, tagName, name) are supported.
+ * Use isStale() before relying on a snapshot after interacting with the page.
+ * Hidden elements are marked in a detached copy of the DOM before it is serialized, so
+ * visibility travels with the element through parsing; if the parsed tree lost any of the
+ * marks, isDisplayed asks the live page instead.
+ *
+ * Example:
+ *     DomSnapshot snapshot = DomSnapshot.capture(driver);
+ *     List<String> names = snapshot.getTexts(By.className("inventory_item_name"));
+ *     int count = snapshot.count(By.className("inventory_item"));
+ */
+public class DomSnapshot {
+
+    private static final Logger logger = LogManager.getLogger(DomSnapshot.class);
+
+    // Run-wide statistics
+    private static final AtomicLong snapshotsTaken = new AtomicLong();
+    private static final AtomicLong queriesServed = new AtomicLong();
+    private static final AtomicLong roundTripsUsed = new AtomicLong();
+    private static final AtomicLong roundTripsAvoided = new AtomicLong();
+
+    // Marks hidden elements in the serialized copy of the DOM
+    private static final String HIDDEN_ATTRIBUTE = "data-dom-snapshot-hidden";
+
+    // Resolves the root from a script locator, installs a mutation counter once per page and returns
+    // a serialized copy of the DOM with hidden elements marked (the copy is detached, so marking it
+    // does not count as a mutation); returns null if the root is not found
+    private static final String CAPTURE_SCRIPT =
+            "function findRoot(loc) {" +
+            "  if (loc.using === 'css') { return document.querySelector(loc.value); }" +
+            "  if (loc.using === 'xpath') {" +
+            "    return document.evaluate(loc.value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)" +
+            "      .singleNodeValue;" +
+            "  }" +
+            "  return Array.prototype.slice.call(document.querySelectorAll('a')).filter(function(a) {" +
+            "    var text = (a.innerText || '').trim();" +
+            "    return loc.using === 'linkText' ? text === loc.value : text.indexOf(loc.value) >= 0;" +
+            "  })[0] || null;" +
+            "}" +
+            "var root = arguments[0] ? findRoot(arguments[0]) : document.documentElement;" +
+            "if (!root) { return null; }" +
+            "var state = window.__domSnapshotState;" +
+            "if (!state) {" +
+            "  state = window.__domSnapshotState = {page: String(Date.now()) + Math.random(), mutations: 0};" +
+            "  new MutationObserver(function(records) { state.mutations += records.length; })" +
+            "    .observe(document, {subtree: true, childList: true, attributes: true, characterData: true});" +
+            "}" +
+            "var copy = root.cloneNode(true);" +
+            "var all = [root].concat(Array.prototype.slice.call(root.querySelectorAll('*')));" +
+            "var copies = [copy].concat(Array.prototype.slice.call(copy.querySelectorAll('*')));" +
+            "var hidden = 0;" +
+            "for (var i = 0; i < all.length; i++) {" +
+            "  var style = window.getComputedStyle(all[i]);" +
+            "  if (all[i].getClientRects().length === 0 || style.visibility === 'hidden' || style.opacity === '0') {" +
+            "    copies[i].setAttribute('" + HIDDEN_ATTRIBUTE + "', '');" +
+            "    hidden++;" +
+            "  }" +
+            "}" +
+            "return {html: copy.outerHTML, page: state.page, mutations: state.mutations," +
+            "        hidden: hidden, total: all.length, url: window.location.href};";
+
+    private static final String STALE_CHECK_SCRIPT =
+            "var state = window.__domSnapshotState;" +
+            "return !state || state.page !== arguments[0] || state.mutations !== arguments[1];";
+
+    private final WebDriver driver;
+    private final By rootLocator;
+    private final Element root;
+    private final String pageId;
+    private final long mutationMark;
+    private final String url;
+    private final Set<Element> hiddenElements;
+    private final boolean visibilityKnown;
+    private final long capturedAt;
+    private long queryCount;
+
+    private DomSnapshot(WebDriver driver, By rootLocator, Element root, String pageId, long mutationMark, String url,
+                        Set<Element> hiddenElements, boolean visibilityKnown) {
+        this.driver = driver;
+        this.rootLocator = rootLocator;
+        this.root = root;
+        this.pageId = pageId;
+        this.mutationMark = mutationMark;
+        this.url = url;
+        this.hiddenElements = hiddenElements;
+        this.visibilityKnown = visibilityKnown;
+        this.capturedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Capture a snapshot of the whole document
+     * @param driver WebDriver instance
+     * @return DomSnapshot of the current page
+     */
+    public static DomSnapshot capture(WebDriver driver) {
+        return capture(driver, null);
+    }
+
+    /**
+     * Capture a snapshot of the subtree under the given root element
+     * The root is resolved inside the capture script, so this costs a single round trip
+     * @param driver WebDriver instance
+     * @param rootLocator Locator of the subtree root, or null for the whole document
+     * @return DomSnapshot of the subtree
+     * @throws NoSuchElementException if no element matches rootLocator
+     */
+    @SuppressWarnings("unchecked")
+    public static DomSnapshot capture(WebDriver driver, By rootLocator) {
+        long start = System.currentTimeMillis();
+        Map<String, String> scriptLocator = rootLocator != null ? LocatorUtils.toScriptLocator(rootLocator) : null;
+
+        Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+                .executeScript(CAPTURE_SCRIPT, scriptLocator);
+        roundTripsUsed.incrementAndGet();
+        if (result == null) {
+            throw new NoSuchElementException("Snapshot root not found: " + rootLocator);
+        }
+
+        String html = (String) result.get("html");
+        Element root;
+        if (rootLocator == null) {
+            Document document = Jsoup.parse(html, (String) result.get("url"));
+            root = document.child(0);
+        } else {
+            Document fragment = Jsoup.parseBodyFragment(html, (String) result.get("url"));
+            root = fragment.body().childrenSize() == 1 ? fragment.body().child(0) : fragment.body();
+        }
+
+        // Collect the marked hidden elements and remove the marks so attribute queries are unaffected
+        Set<Element> hiddenElements = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Element element : root.select("[" + HIDDEN_ATTRIBUTE + "]")) {
+            hiddenElements.add(element);
+            element.removeAttr(HIDDEN_ATTRIBUTE);
+        }
+        int hidden = ((Number) result.get("hidden")).intValue();
+        int total = ((Number) result.get("total")).intValue();
+        boolean visibilityKnown = hiddenElements.size() == hidden;
+        if (!visibilityKnown) {
+            logger.warn("Snapshot tree lost hidden elements ({} of {}), visibility checks use the live page",
+                    hiddenElements.size(), hidden);
+        }
+
+        snapshotsTaken.incrementAndGet();
+        logger.debug("Captured DOM snapshot of {} elements ({} chars) in {}ms",
+                total, html.length(), System.currentTimeMillis() - start);
+
+        return new DomSnapshot(driver, rootLocator, root, (String) result.get("page"),
+                ((Number) result.get("mutations")).longValue(), (String) result.get("url"),
+                hiddenElements, visibilityKnown);
+    }
+
+    /**
+     * Check if the live page has changed since this snapshot was captured
+     * Costs one round trip; returns true after navigation or any DOM mutation
+     * @return true if snapshot no longer reflects the page
+     */
+    public boolean isStale() {
+        roundTripsUsed.incrementAndGet();
+        Object stale = ((JavascriptExecutor) driver).executeScript(STALE_CHECK_SCRIPT, pageId, mutationMark);
+        boolean isStale = Boolean.TRUE.equals(stale);
+        if (isStale) {
+            logger.debug("DOM snapshot of {} is stale", url);
+        }
+        return isStale;
+    }
+
+    /**
+     * Select matching elements from the snapshot
+     * @param locator CSS-compatible By locator
+     * @return Matching snapshot elements
+     */
+    public Elements select(By locator) {
+        return select(locator, 1);
+    }
+
+    /**
+     * Check if at least one element matches the locator
+     * @param locator CSS-compatible By locator
+     * @return true if present in snapshot
+     */
+    public boolean isPresent(By locator) {
+        return !select(locator, 1).isEmpty();
+    }
+
+    /**
+     * Check if the first matching element was displayed when captured
+     * Asks the live page if the snapshot's visibility data is incomplete
+     * @param locator CSS-compatible By locator
+     * @return true if present and displayed
+     */
+    public boolean isDisplayed(By locator) {
+        Elements elements = select(locator, 2);
+        if (elements.isEmpty()) {
+            return false;
+        }
+        if (!visibilityKnown) {
+            return isDisplayedLive(locator);
+        }
+        for (Element element = elements.first(); element != null; element = element.parent()) {
+            if (hiddenElements.contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check the first matching element on the live page, within the snapshot root
+     */
+    private boolean isDisplayedLive(By locator) {
+        SearchContext context = driver;
+        if (rootLocator != null) {
+            roundTripsUsed.incrementAndGet();
+            List<WebElement> roots = driver.findElements(rootLocator);
+            if (roots.isEmpty()) {
+                return false;
+            }
+            context = roots.get(0);
+        }
+        roundTripsUsed.incrementAndGet();
+        List<WebElement> elements = context.findElements(locator);
+        if (elements.isEmpty()) {
+            return false;
+        }
+        roundTripsUsed.incrementAndGet();
+        return elements.get(0).isDisplayed();
+    }
+
+    /**
+     * Count elements matching the locator
+     * @param locator CSS-compatible By locator
+     * @return Number of matching elements
+     */
+    public int count(By locator) {
+        return select(locator, 1).size();
+    }
+
+    /**
+     * Get trimmed text of the first matching element
+     * @param locator CSS-compatible By locator
+     * @return Element text, or null if not present
+     */
+    public String getText(By locator) {
+        Elements elements = select(locator, 2);
+        return elements.isEmpty() ? null : elements.first().text().trim();
+    }
+
+    /**
+     * Get trimmed texts of all matching elements in document order
+     * @param locator CSS-compatible By locator
+     * @return List of element texts
+     */
+    public List<String> getTexts(By locator) {
+        Elements elements = select(locator, 1);
+        roundTripsAvoided.addAndGet(elements.size());
+
+        List<String> texts = new ArrayList<>();
+        for (Element element : elements) {
+            texts.add(element.text().trim());
+        }
+        return texts;
+    }
+
+    /**
+     * Get attribute value of the first matching element
+     * @param locator CSS-compatible By locator
+     * @param attributeName Attribute name
+     * @return Attribute value, or null if element or attribute missing
+     */
+    public String getAttribute(By locator, String attributeName) {
+        Elements elements = select(locator, 2);
+        if (elements.isEmpty() || !elements.first().hasAttr(attributeName)) {
+            return null;
+        }
+        return elements.first().attr(attributeName);
+    }
+
+    /**
+     * Run the selector and account for the remote calls it replaces
+     */
+    private Elements select(By locator, int replacedRoundTrips) {
+        queryCount++;
+        queriesServed.incrementAndGet();
+        roundTripsAvoided.addAndGet(replacedRoundTrips);
+        return root.select(LocatorUtils.toCssSelector(locator));
+    }
+
+    /**
+     * Get number of queries served by this snapshot
+     */
+    public long getQueryCount() {
+        return queryCount;
+    }
+
+    /**
+     * Get snapshot capture time in epoch millis
+     */
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    /**
+     * Get the URL the snapshot was captured from
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Get estimated remote round trips saved across the run
+     * @return Round trips the served queries would have cost minus round trips spent on snapshots
+     */
+    public static long getRoundTripsSaved() {
+        return roundTripsAvoided.get() - roundTripsUsed.get();
+    }
+
+    /**
+     * Get a one-line summary of snapshot usage across the run
+     */
+    public static String getStatisticsSummary() {
+        return String.format("snapshots=%d, queries=%d, roundTripsUsed=%d, roundTripsSaved=%d",
+                snapshotsTaken.get(), queriesServed.get(), roundTripsUsed.get(), getRoundTripsSaved());
+    }
+}
@@ -0,0 +1,228 @@
+package com.automation.core;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openqa.selenium.virtualauthenticator.VirtualAuthenticator;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decorator passing the calls of a driver, and of the objects it hands out, to a WebDriverListener
+ * Replaces Selenium's EventFiringDecorator, which builds a ByteBuddy proxy for every decorated
+ * object, including each element a find returns (milliseconds per command). Here every object
+ * gets a JDK proxy over the public interfaces of its class, looked up once per class.
+ * Like EventFiringDecorator it decorates returned drivers, elements, lists of elements, alerts
+ * and the navigation objects (Options, Navigation, TargetLocator, Timeouts, Window), unwraps
+ * decorated arguments before they reach the driver, and implements WrapsDriver/WrapsElement:
+ * a decorated driver or element unwraps to its target, while the driver of a decorated
+ * element (WrapsDriver) is the decorated driver.
+ * Only beforeAnyCall, afterAnyCall and onError are called on the listener; Object methods and
+ * WrapsDriver/WrapsElement calls are not reported.
+ *
+ * Example:
+ *     WebDriver decorated = DriverDecorator.decorate(driver, listener);
+ */
+public final class DriverDecorator {
+
+    private static final Map<Class<?>, Class<?>[]> interfacesByClass = new ConcurrentHashMap<>();
+
+    private DriverDecorator() {
+    }
+
+    /**
+     * Decorate a driver so its calls are passed to the listener
+     * @param driver Driver to decorate
+     * @param listener Listener receiving beforeAnyCall, afterAnyCall and onError
+     * @return Decorated driver implementing the public interfaces of the driver and WrapsDriver
+     */
+    public static WebDriver decorate(WebDriver driver, WebDriverListener listener) {
+        Session session = new Session(driver, listener);
+        session.decoratedDriver = (WebDriver) session.decorate(driver);
+        return session.decoratedDriver;
+    }
+
+    /**
+     * Driver and listener shared by all objects decorated for one driver
+     */
+    private static class Session {
+        private final WebDriver driver;
+        private final WebDriverListener listener;
+        private WebDriver decoratedDriver;
+
+        private Session(WebDriver driver, WebDriverListener listener) {
+            this.driver = driver;
+            this.listener = listener;
+        }
+
+        private Object decorate(Object target) {
+            Class<?> type = target.getClass();
+            ClassLoader loader = type.getClassLoader() != null ? type.getClassLoader() : DriverDecorator.class.getClassLoader();
+            return Proxy.newProxyInstance(loader, interfacesOf(type), new CallHandler(this, target));
+        }
+
+        /**
+         * Decorate the result of a call (same types as EventFiringDecorator)
+         */
+        private Object decorateResult(Object result) {
+            if (result == null) {
+                return null;
+            }
+            if (result == driver) {
+                return decoratedDriver;
+            }
+            if (result instanceof WebDriver || result instanceof WebElement || result instanceof Alert
+                    || result instanceof VirtualAuthenticator || result instanceof WebDriver.Navigation
+                    || result instanceof WebDriver.Options || result instanceof WebDriver.TargetLocator
+                    || result instanceof WebDriver.Timeouts || result instanceof WebDriver.Window) {
+                return decorate(result);
+            }
+            if (result instanceof List) {
+                List<Object> decorated = new ArrayList<>(((List<?>) result).size());
+                for (Object item : (List<?>) result) {
+                    decorated.add(decorateResult(item));
+                }
+                return decorated;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Forwards the calls of one decorated object
+     */
+    private static class CallHandler implements InvocationHandler {
+        private final Session session;
+        private final Object target;
+
+        private CallHandler(Session session, Object target) {
+            this.session = session;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Class<?> declaringClass = method.getDeclaringClass();
+            if (declaringClass == WrapsDriver.class && target instanceof WebDriver
+                    || declaringClass == WrapsElement.class && target instanceof WebElement) {
+                return target;
+            }
+            // Elements lead back to the decorated driver, so Actions, waits and page objects stay watched
+            if (declaringClass == WrapsDriver.class) {
+                return session.decoratedDriver;
+            }
+            Object[] arguments = unwrapArguments(args);
+            if (declaringClass == Object.class) {
+                return invokeTarget(method, arguments);
+            }
+
+            session.listener.beforeAnyCall(target, method, arguments);
+            Object result;
+            try {
+                result = method.invoke(target, arguments);
+            } catch (InvocationTargetException e) {
+                session.listener.onError(target, method, arguments, e);
+                throw e.getTargetException();
+            }
+            session.listener.afterAnyCall(target, method, arguments, result);
+            return session.decorateResult(result);
+        }
+
+        private Object invokeTarget(Method method, Object[] arguments) throws Throwable {
+            try {
+                return method.invoke(target, arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    /**
+     * Replace decorated arguments, and decorated items of array and list arguments, by their targets
+     */
+    private static Object[] unwrapArguments(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        Object[] arguments = args;
+        for (int i = 0; i < args.length; i++) {
+            Object unwrapped = unwrapArgument(args[i]);
+            if (unwrapped != args[i]) {
+                if (arguments == args) {
+                    arguments = args.clone();
+                }
+                arguments[i] = unwrapped;
+            }
+        }
+        return arguments;
+    }
+
+    private static Object unwrapArgument(Object arg) {
+        if (arg instanceof Object[]) {
+            return unwrapArguments((Object[]) arg);
+        }
+        if (arg instanceof List && containsDecorated((List<?>) arg)) {
+            List<Object> unwrapped = new ArrayList<>();
+            for (Object item : (List<?>) arg) {
+                unwrapped.add(unwrap(item));
+            }
+            return unwrapped;
+        }
+        return unwrap(arg);
+    }
+
+    private static boolean containsDecorated(List<?> list) {
+        for (Object item : list) {
+            if (unwrap(item) != item) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object unwrap(Object value) {
+        if (value != null && Proxy.isProxyClass(value.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(value);
+            if (handler instanceof CallHandler) {
+                return ((CallHandler) handler).target;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Public interfaces of a class and its superclasses, plus WrapsDriver or WrapsElement
+     */
+    private static Class<?>[] interfacesOf(Class<?> type) {
+        return interfacesByClass.computeIfAbsent(type, key -> {
+            Set<Class<?>> interfaces = new LinkedHashSet<>();
+            for (Class<?> current = key; current != null; current = current.getSuperclass()) {
+                for (Class<?> candidate : current.getInterfaces()) {
+                    if (Modifier.isPublic(candidate.getModifiers())) {
+                        interfaces.add(candidate);
+                    }
+                }
+            }
+            if (WebDriver.class.isAssignableFrom(key)) {
+                interfaces.add(WrapsDriver.class);
+            }
+            if (WebElement.class.isAssignableFrom(key)) {
+                interfaces.add(WrapsElement.class);
+            }
+            return interfaces.toArray(new Class<?>[0]);
+        });
+    }
+}
@@ -20,6 +20,9 @@ import java.time.Duration;
 /**
  * WebDriver Factory class for creating WebDriver instances
  * Supports local and remote (Selenium Grid) execution
+ * Sessions handed out are recorded by CommandRecorder and decorated by SessionWatchdog,
+ * which enforces per-test and per-command time budgets. With replay.enabled=true the test's
+ * recording is served by ReplayWebDriver instead of a browser.
  *
  * Example:
  *     WebDriver driver = DriverFactory.createDriver("chrome", false);
@@ -29,6 +32,7 @@ public class DriverFactory {
 
     private static final Logger logger = LogManager.getLogger(DriverFactory.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<Long> startupMillisThreadLocal = new ThreadLocal<>();
 
     /**
      * Create WebDriver instance based on browser configuration
@@ -37,6 +41,22 @@ public class DriverFactory {
      * @return WebDriver instance
      */
     public static WebDriver createDriver(String browserName, boolean isHeadless) {
+        long start = System.currentTimeMillis();
+        WebDriver driver = CommandRecorder.isReplayEnabled() ? ReplayWebDriver.forCurrentTest()
+                : launchDriver(browserName, isHeadless);
+
+        driver = SessionWatchdog.watch(CommandRecorder.record(driver));
+        setDriver(driver);
+        long startupMillis = System.currentTimeMillis() - start;
+        startupMillisThreadLocal.set(startupMillis);
+        logger.info("{} driver created successfully in {}ms", browserName, startupMillis);
+        return driver;
+    }
+
+    /**
+     * Launch and configure a new driver without binding it to the thread
+     */
+    private static WebDriver launchDriver(String browserName, boolean isHeadless) {
         WebDriver driver;
         String environment = ConfigReader.getProperty("environment", "local");
 
@@ -54,9 +74,6 @@ public class DriverFactory {
                 Integer.parseInt(ConfigReader.getProperty("implicit.wait", "10"))
         ));
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-
-        setDriver(driver);
-        logger.info("{} driver created successfully", browserName);
         return driver;
     }
 
@@ -200,15 +217,32 @@ public class DriverFactory {
     }
 
     /**
-     * Quit driver and remove from ThreadLocal
+     * Get and clear the startup time of the last driver created on this thread
+     * Clearing keeps a pooled thread from reporting it again for a later test without a new driver
+     * @return Startup time in milliseconds, or -1 if no driver was created since the last call
+     */
+    public static long takeLastStartupMillis() {
+        Long startupMillis = startupMillisThreadLocal.get();
+        startupMillisThreadLocal.remove();
+        return startupMillis != null ? startupMillis : -1;
+    }
+
+    /**
+     * Quit driver, remove from ThreadLocal and end the session watchdog's watch
      */
     public static void quitDriver() {
         WebDriver driver = driverThreadLocal.get();
         if (driver != null) {
-            logger.info("Quitting driver");
-            driver.quit();
+            // A rescued session was already quit (or abandoned) by the watchdog
+            if (SessionWatchdog.isRescued()) {
+                logger.info("Driver was quit by the session watchdog");
+            } else {
+                logger.info("Quitting driver");
+                driver.quit();
+            }
             driverThreadLocal.remove();
         }
+        SessionWatchdog.endTest();
     }
 
     /**
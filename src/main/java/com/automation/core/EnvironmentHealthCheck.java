@@ -0,0 +1,204 @@
+package com.automation.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-flight health check of the applications under test
+ * Every configured application's base URL is requested in parallel before the suite
+ * starts; an application that does not answer, or answers with a 5xx status, trips its
+ * circuit breaker so its tests are skipped immediately instead of each one waiting for
+ * browser timeouts. The same check is used by CircuitBreaker to probe an open circuit.
+ *
+ * Configuration (config.properties):
+ *     health.check.enabled=true
+ *     health.check.applications=saucedemo,orangehrm
+ *     health.check.timeout.ms=5000
+ *
+ * Example:
+ *     EnvironmentHealthCheck.runPreflight();
+ *     EnvironmentHealthCheck.HealthResult result = EnvironmentHealthCheck.check("saucedemo");
+ */
+public class EnvironmentHealthCheck {
+
+    private static final Logger logger = LogManager.getLogger(EnvironmentHealthCheck.class);
+
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("health.check.enabled", true);
+    private static final String APPLICATIONS = ConfigReader.getProperty("health.check.applications", "saucedemo,orangehrm");
+    private static final int TIMEOUT_MS = ConfigReader.getIntProperty("health.check.timeout.ms", 5000);
+
+    private static final Map<String, HealthResult> lastResults = new ConcurrentHashMap<>();
+
+    /**
+     * Result of checking one application
+     */
+    public static class HealthResult {
+        private final String application;
+        private final String url;
+        private final boolean healthy;
+        private final int statusCode;
+        private final String detail;
+        private final long elapsedMs;
+        private final long checkedAt = System.currentTimeMillis();
+
+        private HealthResult(String application, String url, boolean healthy, int statusCode, String detail, long elapsedMs) {
+            this.application = application;
+            this.url = url;
+            this.healthy = healthy;
+            this.statusCode = statusCode;
+            this.detail = detail;
+            this.elapsedMs = elapsedMs;
+        }
+
+        public String getApplication() {
+            return application;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public long getElapsedMs() {
+            return elapsedMs;
+        }
+
+        public long getCheckedAt() {
+            return checkedAt;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s=%s(%s, %dms)", application, healthy ? "UP" : "DOWN", detail, elapsedMs);
+        }
+    }
+
+    /**
+     * Check all configured applications in parallel and trip the circuit breaker of unhealthy ones
+     * @return Results per application
+     */
+    public static Map<String, HealthResult> runPreflight() {
+        Map<String, HealthResult> results = new LinkedHashMap<>();
+        if (!ENABLED) {
+            return results;
+        }
+
+        long start = System.currentTimeMillis();
+        Map<String, CompletableFuture<HealthResult>> checks = new LinkedHashMap<>();
+        for (String application : getApplications()) {
+            checks.put(application, CompletableFuture.supplyAsync(() -> check(application)));
+        }
+        checks.forEach((application, check) -> results.put(application, check.join()));
+
+        for (HealthResult result : results.values()) {
+            if (!result.isHealthy()) {
+                CircuitBreaker.trip(result.getApplication(), "pre-flight health check failed for "
+                        + result.getUrl() + ": " + result.getDetail());
+            }
+        }
+        logger.info("Pre-flight health check completed in {}ms: {}", System.currentTimeMillis() - start, results.values());
+        return results;
+    }
+
+    /**
+     * Check one application's base URL
+     * @param application Application name (e.g. "saucedemo")
+     * @return Health result; healthy if the URL answers with a status below 500
+     */
+    public static HealthResult check(String application) {
+        String url = ConfigReader.getBaseUrl(application);
+        HealthResult result = url == null
+                ? new HealthResult(application, null, true, 0, "no base url configured", 0)
+                : request(application, url);
+        lastResults.put(application, result);
+        return result;
+    }
+
+    /**
+     * Get the latest result of checking an application
+     * @param application Application name
+     * @return Latest result, or null if the application was not checked yet
+     */
+    public static HealthResult getLastResult(String application) {
+        return lastResults.get(application);
+    }
+
+    /**
+     * Get configured applications
+     */
+    public static List<String> getApplications() {
+        List<String> applications = new ArrayList<>();
+        for (String application : APPLICATIONS.split(",")) {
+            if (!application.trim().isEmpty()) {
+                applications.add(application.trim());
+            }
+        }
+        return applications;
+    }
+
+    /**
+     * Get a one-line summary of the latest check per application
+     */
+    public static String getStatisticsSummary() {
+        if (lastResults.isEmpty()) {
+            return ENABLED ? "not run" : "disabled";
+        }
+        StringBuilder summary = new StringBuilder();
+        for (String application : getApplications()) {
+            HealthResult result = lastResults.get(application);
+            if (result != null) {
+                summary.append(summary.length() == 0 ? "" : ", ").append(result);
+            }
+        }
+        return summary.toString();
+    }
+
+    private static HealthResult request(String application, String url) {
+        long start = System.currentTimeMillis();
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(TIMEOUT_MS);
+            connection.setReadTimeout(TIMEOUT_MS);
+            connection.setInstanceFollowRedirects(true);
+            int statusCode = connection.getResponseCode();
+            try (InputStream body = statusCode < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+                // Reading the body releases the connection for keep-alive
+                if (body != null) {
+                    body.skip(Long.MAX_VALUE);
+                }
+            }
+            return new HealthResult(application, url, statusCode < 500, statusCode, "HTTP " + statusCode,
+                    System.currentTimeMillis() - start);
+        } catch (IOException | IllegalArgumentException e) {
+            return new HealthResult(application, url, false, 0, e.getClass().getSimpleName() + ": " + e.getMessage(),
+                    System.currentTimeMillis() - start);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+}
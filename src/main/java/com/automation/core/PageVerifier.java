@@ -0,0 +1,257 @@
+package com.automation.core;
+
+import com.automation.utils.LocatorUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Batched soft-assertion verifier
+ * Collects page expectations and evaluates all of them in a single script call,
+ * polling the whole group until every expectation passes or the timeout expires.
+ * All failures are reported together instead of stopping at the first one.
+ *
+ * Example:
+ *     new PageVerifier(driver, 10)
+ *             .expectVisible(By.id("inventory_container"), "Product container should be displayed")
+ *             .expectCount(By.className("inventory_item"), 6, "Six products should be listed")
+ *             .expectTextEquals(By.className("title"), "Products", "Page title should match")
+ *             .verifyAll();
+ */
+public class PageVerifier {
+
+    private static final Logger logger = LogManager.getLogger(PageVerifier.class);
+    private static final long POLL_INTERVAL_MILLIS = 250;
+
+    // Evaluates every expectation and returns null (pass) or the actual state per expectation
+    private static final String EVALUATE_SCRIPT =
+            "function find(loc) {" +
+            "  if (loc.using === 'css') { return Array.prototype.slice.call(document.querySelectorAll(loc.value)); }" +
+            "  if (loc.using === 'xpath') {" +
+            "    var result = document.evaluate(loc.value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+            "    var nodes = [];" +
+            "    for (var i = 0; i < result.snapshotLength; i++) { nodes.push(result.snapshotItem(i)); }" +
+            "    return nodes;" +
+            "  }" +
+            "  return Array.prototype.slice.call(document.querySelectorAll('a')).filter(function(a) {" +
+            "    var text = (a.innerText || '').trim();" +
+            "    return loc.using === 'linkText' ? text === loc.value : text.indexOf(loc.value) >= 0;" +
+            "  });" +
+            "}" +
+            "function visible(el) {" +
+            "  var style = window.getComputedStyle(el);" +
+            "  return el.getClientRects().length > 0 && style.visibility !== 'hidden' && style.opacity !== '0';" +
+            "}" +
+            "return arguments[0].map(function(e) {" +
+            "  var els;" +
+            "  try { els = find(e); } catch (err) { return 'invalid locator: ' + err.message; }" +
+            "  if (e.type === 'count') { return String(els.length) === e.expected ? null : 'count was ' + els.length; }" +
+            "  if (els.length === 0) { return 'element not found'; }" +
+            "  var el = els[0];" +
+            "  if (e.type === 'visible') { return visible(el) ? null : 'element present but not displayed'; }" +
+            "  if (e.type === 'enabled') { return !el.disabled ? null : 'element disabled'; }" +
+            "  if (e.type === 'textEquals' || e.type === 'textContains') {" +
+            "    var text = (el.innerText || el.textContent || '').trim();" +
+            "    var ok = e.type === 'textEquals' ? text === e.expected : text.indexOf(e.expected) >= 0;" +
+            "    return ok ? null : 'text was \\'' + text + '\\'';" +
+            "  }" +
+            "  if (e.type === 'attribute') {" +
+            "    var value = el.getAttribute(e.attribute);" +
+            "    if (value === null && e.attribute in el) { value = String(el[e.attribute]); }" +
+            "    return value === e.expected ? null : 'attribute \\'' + e.attribute + '\\' was ' + (value === null ? 'missing' : '\\'' + value + '\\'');" +
+            "  }" +
+            "  return 'unknown expectation type: ' + e.type;" +
+            "});";
+
+    private final WebDriver driver;
+    private final int timeoutSeconds;
+    private final List<Map<String, Object>> expectations = new ArrayList<>();
+    private final List<String> descriptions = new ArrayList<>();
+    private Consumer<List<String>> failureHandler;
+
+    public PageVerifier(WebDriver driver, int timeoutSeconds) {
+        this.driver = driver;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Expect element to be displayed
+     * @param locator By locator
+     * @param message Assertion message
+     * @return this verifier
+     */
+    public PageVerifier expectVisible(By locator, String message) {
+        return addExpectation(locator, "visible", null, null, message + " [" + locator + " visible]");
+    }
+
+    /**
+     * Expect element to be enabled
+     * @param locator By locator
+     * @param message Assertion message
+     * @return this verifier
+     */
+    public PageVerifier expectEnabled(By locator, String message) {
+        return addExpectation(locator, "enabled", null, null, message + " [" + locator + " enabled]");
+    }
+
+    /**
+     * Expect element text to equal the expected text (trimmed)
+     * @param locator By locator
+     * @param expectedText Expected text
+     * @param message Assertion message
+     * @return this verifier
+     */
+    public PageVerifier expectTextEquals(By locator, String expectedText, String message) {
+        return addExpectation(locator, "textEquals", expectedText, null,
+                message + " [" + locator + " text = '" + expectedText + "']");
+    }
+
+    /**
+     * Expect element text to contain the expected text
+     * @param locator By locator
+     * @param expectedText Expected text to be contained
+     * @param message Assertion message
+     * @return this verifier
+     */
+    public PageVerifier expectTextContains(By locator, String expectedText, String message) {
+        return addExpectation(locator, "textContains", expectedText, null,
+                message + " [" + locator + " text contains '" + expectedText + "']");
+    }
+
+    /**
+     * Expect number of matching elements
+     * @param locator By locator
+     * @param expectedCount Expected element count
+     * @param message Assertion message
+     * @return this verifier
+     */
+    public PageVerifier expectCount(By locator, int expectedCount, String message) {
+        return addExpectation(locator, "count", String.valueOf(expectedCount), null,
+                message + " [" + locator + " count = " + expectedCount + "]");
+    }
+
+    /**
+     * Expect element attribute value
+     * @param locator By locator
+     * @param attributeName Attribute name
+     * @param expectedValue Expected attribute value
+     * @param message Assertion message
+     * @return this verifier
+     */
+    public PageVerifier expectAttribute(By locator, String attributeName, String expectedValue, String message) {
+        return addExpectation(locator, "attribute", expectedValue, attributeName,
+                message + " [" + locator + " @" + attributeName + " = '" + expectedValue + "']");
+    }
+
+    /**
+     * Register a handler invoked with all failure messages before the assertion error is thrown
+     * @param failureHandler Failure handler (e.g. screenshot capture)
+     * @return this verifier
+     */
+    public PageVerifier onFailure(Consumer<List<String>> failureHandler) {
+        this.failureHandler = failureHandler;
+        return this;
+    }
+
+    /**
+     * Evaluate all expectations, polling as a group until all pass or the timeout expires
+     * @throws AssertionError listing every failed expectation
+     */
+    public void verifyAll() {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeoutSeconds * 1000L;
+        int rounds = 0;
+        List<String> failures;
+
+        while (true) {
+            rounds++;
+            failures = evaluate();
+            if (failures.isEmpty() || System.currentTimeMillis() >= deadline) {
+                break;
+            }
+            sleep();
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+
+        if (failures.isEmpty()) {
+            logger.info("Verified {} expectations in {} round trip(s) ({}ms)", expectations.size(), rounds, elapsed);
+            return;
+        }
+
+        logger.error("{} of {} expectations failed after {}ms:", failures.size(), expectations.size(), elapsed);
+        for (String failure : failures) {
+            logger.error("  - {}", failure);
+        }
+
+        if (failureHandler != null) {
+            failureHandler.accept(failures);
+        }
+
+        throw new AssertionError(failures.size() + " of " + expectations.size()
+                + " expectations failed:\n  - " + String.join("\n  - ", failures));
+    }
+
+    /**
+     * Run one evaluation round
+     * @return List of failure messages, empty if all expectations pass
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> evaluate() {
+        List<String> failures = new ArrayList<>();
+
+        try {
+            List<Object> results = (List<Object>) ((JavascriptExecutor) driver)
+                    .executeScript(EVALUATE_SCRIPT, expectations);
+
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i) != null) {
+                    failures.add(descriptions.get(i) + ": " + results.get(i));
+                }
+            }
+        } catch (WebDriverException e) {
+            // Page may be mid-navigation; treat the whole round as failed and poll again
+            logger.debug("Verification round failed: {}", e.getMessage());
+            for (String description : descriptions) {
+                failures.add(description + ": evaluation failed (" + e.getClass().getSimpleName() + ")");
+            }
+        }
+
+        return failures;
+    }
+
+    /**
+     * Add an expectation entry
+     */
+    private PageVerifier addExpectation(By locator, String type, String expected, String attribute, String description) {
+        Map<String, Object> expectation = new HashMap<>(LocatorUtils.toScriptLocator(locator));
+        expectation.put("type", type);
+        expectation.put("expected", expected);
+        expectation.put("attribute", attribute);
+
+        expectations.add(expectation);
+        descriptions.add(description);
+        return this;
+    }
+
+    /**
+     * Sleep between polling rounds
+     */
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Verification interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.automation.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Interactive;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WebDriver serving the responses of a CommandRecorder recording
+ * Page-object code runs against the recording instead of a browser: each call is matched
+ * to the next recorded command on the same target with the same method, and answered with
+ * the recorded result or exception without waiting. String, locator and element arguments
+ * must match as well; a call that is not in the recording is looked for up to 50 commands ahead (e.g.
+ * when a fallback path runs in replay only) before the replay fails with "Replay diverged".
+ * Screenshots return a blank image, cookies come back with empty values (they are not
+ * recorded); quit and close are no-ops.
+ *
+ * Configuration (config.properties):
+ *     replay.enabled=true            (DriverFactory serves recordings of recording.dir)
+ *
+ * Example:
+ *     WebDriver driver = ReplayWebDriver.load(Paths.get("reports/recordings/LoginTest.testValidLogin.ndjson"));
+ *     new LoginPage(driver).login("user", "secret");
+ */
+public class ReplayWebDriver {
+
+    private static final Logger logger = LogManager.getLogger(ReplayWebDriver.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final int LOOKAHEAD = 50;
+
+    // 1x1 transparent PNG served for screenshots
+    private static final byte[] EMPTY_PNG = Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==");
+
+    private static final AtomicInteger replayedSessions = new AtomicInteger();
+    private static final AtomicInteger divergences = new AtomicInteger();
+    private static final AtomicLong replayedCommands = new AtomicLong();
+    private static final AtomicLong skippedCommands = new AtomicLong();
+
+    /**
+     * Recorded commands of one session and the position reached
+     */
+    private static class Session {
+        private final Path file;
+        private final List<JsonNode> commands;
+        private final Map<String, WebElement> elements = new HashMap<>();
+        private WebDriver driver;
+        private int cursor;
+
+        private Session(Path file, List<JsonNode> commands) {
+            this.file = file;
+            this.commands = commands;
+        }
+    }
+
+    /**
+     * Handler of the driver, element and navigation proxies of a session
+     */
+    private static class ReplayHandler implements InvocationHandler {
+        private final Session session;
+        private final String ref;
+
+        private ReplayHandler(Session session, String ref) {
+            this.session = session;
+            this.ref = ref;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "Replay[" + ref + "@" + session.file.getFileName() + "]";
+                }
+            }
+            if (!CommandRecorder.isRecorded(method)) {
+                return OutputType.class.cast(args[0]).convertFromPngBytes(EMPTY_PNG);
+            }
+
+            String target = ref != null ? ref : method.getDeclaringClass().getSimpleName();
+            JsonNode command = next(session, target, method, args);
+            if (command == null) {
+                if ("quit".equals(method.getName()) || "close".equals(method.getName())) {
+                    return null;
+                }
+                divergences.incrementAndGet();
+                JsonNode expected = session.cursor < session.commands.size() ? session.commands.get(session.cursor) : null;
+                throw new WebDriverException(String.format("Replay diverged at command %d of %s: called %s.%s, recorded %s",
+                        session.cursor + 1, session.file, target, method.getName(),
+                        expected == null ? "end of recording" : expected.path("o").asText() + "." + expected.path("m").asText()));
+            }
+            replayedCommands.incrementAndGet();
+
+            if (command.has("e")) {
+                throw toException(command.path("e").asText(), command.path("x").asText());
+            }
+            Class<?> returnType = method.getReturnType();
+            if (returnType == void.class) {
+                return null;
+            }
+            if (returnType == WebDriver.class) {
+                return session.driver;
+            }
+            if (CommandRecorder.isNavigationType(returnType)) {
+                return Proxy.newProxyInstance(ReplayWebDriver.class.getClassLoader(), new Class<?>[]{returnType},
+                        new ReplayHandler(session, null));
+            }
+            return fromJson(session, command.path("r"), returnType);
+        }
+    }
+
+    /**
+     * Load a recording as a driver
+     * @param recording Recording written by CommandRecorder
+     * @return Driver implementing WebDriver, JavascriptExecutor, TakesScreenshot and Interactive
+     * @throws WebDriverException if the recording cannot be read
+     */
+    public static WebDriver load(Path recording) {
+        List<JsonNode> commands = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(recording, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    commands.add(mapper.readTree(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new WebDriverException("Failed to read recording " + recording + ": " + e.getMessage(), e);
+        }
+
+        Session session = new Session(recording, commands);
+        session.driver = (WebDriver) Proxy.newProxyInstance(ReplayWebDriver.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class, Interactive.class},
+                new ReplayHandler(session, CommandRecorder.DRIVER_REF));
+        replayedSessions.incrementAndGet();
+        logger.info("Replaying {} commands from {}", commands.size(), recording);
+        return session.driver;
+    }
+
+    /**
+     * Load the recording of the current thread's test (see CommandRecorder.startTest)
+     * @throws WebDriverException if the test has no recording
+     */
+    public static WebDriver forCurrentTest() {
+        Path recording = CommandRecorder.getCurrentRecordingFile();
+        if (recording == null || !Files.exists(recording)) {
+            throw new WebDriverException("No recording to replay for the current test: " + recording
+                    + " (recordings of passing tests are kept with recording.keep=all)");
+        }
+        return load(recording);
+    }
+
+    /**
+     * Get a one-line summary of replayed sessions and commands
+     */
+    public static String getStatisticsSummary() {
+        return String.format("replayed sessions=%d, commands=%d, skipped=%d, diverged=%d",
+                replayedSessions.get(), replayedCommands.get(), skippedCommands.get(), divergences.get());
+    }
+
+    /**
+     * Find the recorded command for a call, looking ahead past commands the replay does not make
+     * @return Command, or null if the call is not in the recording
+     */
+    private static JsonNode next(Session session, String target, Method method, Object[] args) {
+        int last = Math.min(session.commands.size(), session.cursor + LOOKAHEAD + 1);
+        for (int i = session.cursor; i < last; i++) {
+            JsonNode command = session.commands.get(i);
+            if (target.equals(command.path("o").asText()) && method.getName().equals(command.path("m").asText())
+                    && argumentsMatch(session, command.path("a"), args)) {
+                if (i > session.cursor) {
+                    skippedCommands.addAndGet(i - session.cursor);
+                    logger.debug("Replay skipped {} recorded commands before {}.{}", i - session.cursor, target, method.getName());
+                }
+                session.cursor = i + 1;
+                return command;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compare string, locator and element arguments with the recorded ones; other arguments are not compared
+     */
+    private static boolean argumentsMatch(Session session, JsonNode recorded, Object[] args) {
+        if (args == null) {
+            return true;
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof String && !args[i].equals(recorded.path(i).asText(null))) {
+                return false;
+            }
+            if (args[i] instanceof By && !args[i].toString().equals(recorded.path(i).path("@by").asText(null))) {
+                return false;
+            }
+            if (args[i] instanceof WebElement && Proxy.isProxyClass(args[i].getClass())
+                    && session.elements.get(recorded.path(i).path("@el").asText()) != args[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuild a recorded value as the type the called method returns
+     */
+    private static Object fromJson(Session session, JsonNode value, Class<?> type) {
+        if (value == null || value.isNull() || value.isMissingNode()) {
+            return null;
+        }
+        if (value.isTextual()) {
+            return value.asText();
+        }
+        if (value.isBoolean()) {
+            return value.asBoolean();
+        }
+        if (value.isNumber()) {
+            if (type == int.class || type == Integer.class) {
+                return value.asInt();
+            }
+            if (type == double.class || type == Double.class) {
+                return value.asDouble();
+            }
+            return value.isIntegralNumber() ? (Object) value.asLong() : (Object) value.asDouble();
+        }
+        if (value.isArray()) {
+            Collection<Object> items = Set.class.isAssignableFrom(type) ? new LinkedHashSet<>() : new ArrayList<>();
+            for (JsonNode item : value) {
+                items.add(fromJson(session, item, Object.class));
+            }
+            return items;
+        }
+        if (value.has("@el")) {
+            return element(session, value.path("@el").asText());
+        }
+        if (value.has("@set")) {
+            return fromJson(session, value.path("@set"), Set.class);
+        }
+        if (value.has("@dim")) {
+            return new Dimension(value.path("@dim").path(0).asInt(), value.path("@dim").path(1).asInt());
+        }
+        if (value.has("@pt")) {
+            return new Point(value.path("@pt").path(0).asInt(), value.path("@pt").path(1).asInt());
+        }
+        if (value.has("@rect")) {
+            JsonNode rect = value.path("@rect");
+            return new Rectangle(rect.path(0).asInt(), rect.path(1).asInt(), rect.path(3).asInt(), rect.path(2).asInt());
+        }
+        if (value.has("@cookie")) {
+            JsonNode cookie = value.path("@cookie");
+            return new Cookie.Builder(cookie.path("name").asText(), "")
+                    .domain(cookie.path("domain").asText(null))
+                    .path(cookie.path("path").asText(null))
+                    .expiresOn(cookie.path("expiry").isNumber() ? new Date(cookie.path("expiry").asLong()) : null)
+                    .isSecure(cookie.path("secure").asBoolean())
+                    .isHttpOnly(cookie.path("httpOnly").asBoolean())
+                    .sameSite(cookie.path("sameSite").asText(null))
+                    .build();
+        }
+        if (value.has("@dur")) {
+            return Duration.ofMillis(value.path("@dur").asLong());
+        }
+        if (value.has("@str")) {
+            return value.path("@str").asText();
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            map.put(field.getKey(), fromJson(session, field.getValue(), Object.class));
+        }
+        return map;
+    }
+
+    /**
+     * Get the proxy of a recorded element reference; the same reference always yields the same proxy
+     */
+    private static WebElement element(Session session, String ref) {
+        return session.elements.computeIfAbsent(ref, key -> (WebElement) Proxy.newProxyInstance(
+                ReplayWebDriver.class.getClassLoader(), new Class<?>[]{WebElement.class},
+                new ReplayHandler(session, key)));
+    }
+
+    /**
+     * Rebuild a recorded exception, falling back to WebDriverException for unknown or checked types
+     */
+    private static RuntimeException toException(String className, String message) {
+        try {
+            Class<?> type = Class.forName(className);
+            if (RuntimeException.class.isAssignableFrom(type)) {
+                return (RuntimeException) type.getConstructor(String.class).newInstance(message);
+            }
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.debug("Cannot rebuild recorded {}: {}", className, e.getMessage());
+        }
+        return new WebDriverException(className + ": " + message);
+    }
+}
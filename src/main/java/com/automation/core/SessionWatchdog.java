@@ -0,0 +1,431 @@
+package com.automation.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watchdog enforcing per-test and per-command time budgets on browser sessions
+ * pageLoadTimeout only covers navigation; any other hung driver call blocks the test thread
+ * until the HTTP client gives up. Sessions created by DriverFactory are decorated with a
+ * listener that records the command in flight, and a monitor thread checks the budgets of
+ * all running tests. When a budget is exceeded the watchdog writes a diagnostic snapshot
+ * (worker stack, command in flight, screenshot if the browser still answers), quits the
+ * session from another thread and interrupts the worker if it is still blocked, so the
+ * test fails and the thread moves on to the next test.
+ *
+ * Configuration (config.properties):
+ *     watchdog.enabled=true
+ *     watchdog.test.budget.seconds=300
+ *     watchdog.command.budget.seconds=60
+ *     watchdog.poll.ms=1000
+ *     watchdog.snapshot.timeout.seconds=5
+ *     watchdog.quit.timeout.seconds=10
+ *     watchdog.hang.bound.seconds=180   (HTTP read timeout a hung command would otherwise wait for)
+ *
+ * The test budget starts when the session is attached by watch(); a test without a session
+ * is never rescued.
+ *
+ * Example:
+ *     SessionWatchdog.startTest("testValidLogin");
+ *     WebDriver driver = DriverFactory.createDriver();   // decorated via SessionWatchdog.watch
+ *     ...
+ *     DriverFactory.quitDriver();                        // ends the watch
+ */
+public class SessionWatchdog {
+
+    private static final Logger logger = LogManager.getLogger(SessionWatchdog.class);
+
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("watchdog.enabled", true);
+    private static final long TEST_BUDGET_MILLIS = ConfigReader.getIntProperty("watchdog.test.budget.seconds", 300) * 1000L;
+    private static final long COMMAND_BUDGET_MILLIS = ConfigReader.getIntProperty("watchdog.command.budget.seconds", 60) * 1000L;
+    private static final long POLL_MILLIS = Math.max(100, ConfigReader.getIntProperty("watchdog.poll.ms", 1000));
+    private static final long SNAPSHOT_TIMEOUT_MILLIS = ConfigReader.getIntProperty("watchdog.snapshot.timeout.seconds", 5) * 1000L;
+    private static final long QUIT_TIMEOUT_MILLIS = ConfigReader.getIntProperty("watchdog.quit.timeout.seconds", 10) * 1000L;
+    private static final long HANG_BOUND_MILLIS = ConfigReader.getIntProperty("watchdog.hang.bound.seconds", 180) * 1000L;
+
+    private static final Path DIAGNOSTICS_DIR = Paths.get(ConfigReader.getProperty("reports.dir", "reports"), "watchdog");
+    private static final long RELEASE_GRACE_MILLIS = 1000;
+    private static final int MAX_ARGUMENT_LENGTH = 120;
+
+    private static final Map<Thread, Watch> watches = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Watch> currentWatch = new ThreadLocal<>();
+
+    private static final AtomicInteger watchedTests = new AtomicInteger();
+    private static final AtomicInteger commandRescues = new AtomicInteger();
+    private static final AtomicInteger testRescues = new AtomicInteger();
+    private static final AtomicInteger quitFailures = new AtomicInteger();
+    private static final AtomicInteger freedWorkers = new AtomicInteger();
+    private static final AtomicLong reclaimedMillis = new AtomicLong();
+    private static final AtomicLong rescueLatencyMillis = new AtomicLong();
+
+    private static ScheduledExecutorService monitor;
+    private static ExecutorService rescuer;
+
+    /**
+     * Budgets and command in flight of one test on one worker thread
+     */
+    private static class Watch {
+        private final String testName;
+        private final Thread worker;
+        private volatile long startedAt = System.currentTimeMillis();
+        private volatile WebDriver driver;
+        private volatile String command;
+        private volatile long commandStartedAt;
+        private volatile long finishedCommands;
+
+        // Guarded by this
+        private boolean active = true;
+        private boolean rescued;
+        private String reason;
+        private long breachAt;
+        private long hangEndAt;
+        private long finishedCommandsAtBreach;
+
+        private Watch(String testName, Thread worker) {
+            this.testName = testName;
+            this.worker = worker;
+        }
+
+        private void commandStarted(String description) {
+            command = description;
+            commandStartedAt = System.currentTimeMillis();
+        }
+
+        private void commandFinished() {
+            commandStartedAt = 0;
+            finishedCommands++;
+        }
+
+        /**
+         * Check the budgets and mark the watch as rescued on the first breach
+         * @return Breach reason, or null if the test is within its budgets
+         */
+        private synchronized String checkBudgets(long now) {
+            // Nothing to rescue before a session is attached (e.g. while waiting for a worker slot)
+            if (!active || rescued || driver == null) {
+                return null;
+            }
+            long commandStart = commandStartedAt;
+            if (commandStart > 0 && now - commandStart > COMMAND_BUDGET_MILLIS) {
+                reason = String.format("command %s exceeded the %ds command budget (running %ds)", command,
+                        COMMAND_BUDGET_MILLIS / 1000, (now - commandStart) / 1000);
+                hangEndAt = commandStart + HANG_BOUND_MILLIS;
+                commandRescues.incrementAndGet();
+            } else if (now - startedAt > TEST_BUDGET_MILLIS) {
+                reason = String.format("test exceeded the %ds test budget%s", TEST_BUDGET_MILLIS / 1000,
+                        commandStart > 0 ? " in command " + command : "");
+                // Without a command in flight the remaining time of the test is unknown
+                hangEndAt = commandStart > 0 ? commandStart + HANG_BOUND_MILLIS : now;
+                testRescues.incrementAndGet();
+            } else {
+                return null;
+            }
+            rescued = true;
+            breachAt = now;
+            finishedCommandsAtBreach = finishedCommands;
+            return reason;
+        }
+
+        /**
+         * Interrupt the worker if it is still in the test and has not completed a command since the breach
+         */
+        private synchronized boolean interruptIfBlocked() {
+            if (!active || finishedCommands != finishedCommandsAtBreach) {
+                return false;
+            }
+            worker.interrupt();
+            return true;
+        }
+    }
+
+    /**
+     * Listener recording the command in flight of a decorated session
+     */
+    private static class CommandListener implements WebDriverListener {
+        private final Watch watch;
+
+        private CommandListener(Watch watch) {
+            this.watch = watch;
+        }
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            watch.commandStarted(describe(method, args));
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            watch.commandFinished();
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            watch.commandFinished();
+        }
+    }
+
+    /**
+     * Start the test budget for the current thread, ending any previous watch on it
+     * @param testName Test name (used in logs and diagnostic file names)
+     */
+    public static void startTest(String testName) {
+        if (!ENABLED) {
+            return;
+        }
+        endTest();
+        ensureStarted();
+        Watch watch = new Watch(testName, Thread.currentThread());
+        currentWatch.set(watch);
+        watches.put(watch.worker, watch);
+        watchedTests.incrementAndGet();
+    }
+
+    /**
+     * Decorate a session so its commands are checked against the command budget
+     * Starts a watch named after the thread if startTest was not called on this thread.
+     * @param driver Undecorated driver
+     * @return Decorated driver, or the driver itself if the watchdog is disabled
+     */
+    public static WebDriver watch(WebDriver driver) {
+        if (!ENABLED) {
+            return driver;
+        }
+        if (currentWatch.get() == null) {
+            startTest(Thread.currentThread().getName());
+        }
+        Watch watch = currentWatch.get();
+        // The test budget runs from the moment the session is attached
+        watch.startedAt = System.currentTimeMillis();
+        watch.driver = driver;
+        return DriverDecorator.decorate(driver, new CommandListener(watch));
+    }
+
+    /**
+     * Check if the current thread's session was quit by the watchdog
+     */
+    public static boolean isRescued() {
+        return getRescueReason() != null;
+    }
+
+    /**
+     * Get the reason the current thread's session was rescued
+     * @return Breach reason, or null if the session was not rescued
+     */
+    public static String getRescueReason() {
+        Watch watch = currentWatch.get();
+        if (watch == null) {
+            return null;
+        }
+        synchronized (watch) {
+            return watch.rescued ? watch.reason : null;
+        }
+    }
+
+    /**
+     * Stop watching the current thread; clears an interrupt left by a rescue
+     */
+    public static void endTest() {
+        Watch watch = currentWatch.get();
+        if (watch == null) {
+            return;
+        }
+        currentWatch.remove();
+        watches.remove(watch.worker, watch);
+
+        synchronized (watch) {
+            watch.active = false;
+            if (watch.rescued) {
+                Thread.interrupted();
+                long now = System.currentTimeMillis();
+                freedWorkers.incrementAndGet();
+                rescueLatencyMillis.addAndGet(now - watch.breachAt);
+                reclaimedMillis.addAndGet(Math.max(0, watch.hangEndAt - now));
+                logger.info("Worker {} freed {}ms after the watchdog rescued {}", watch.worker.getName(),
+                        now - watch.breachAt, watch.testName);
+            }
+        }
+    }
+
+    /**
+     * Check if the watchdog is enabled
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Get number of workers rescued from a hung session
+     */
+    public static int getRescuedCount() {
+        return commandRescues.get() + testRescues.get();
+    }
+
+    /**
+     * Get a one-line summary of rescued workers and reclaimed time
+     */
+    public static String getStatisticsSummary() {
+        if (!ENABLED) {
+            return "disabled";
+        }
+        int freed = freedWorkers.get();
+        return String.format("tests=%d, rescued=%d (command budget=%d, test budget=%d), quitFailures=%d, "
+                        + "reclaimed=%.1fs (hung commands vs %ds hang bound), avgRescueLatency=%dms, diagnostics=%s",
+                watchedTests.get(), getRescuedCount(), commandRescues.get(), testRescues.get(), quitFailures.get(),
+                reclaimedMillis.get() / 1000.0, HANG_BOUND_MILLIS / 1000,
+                freed == 0 ? 0 : rescueLatencyMillis.get() / freed, DIAGNOSTICS_DIR);
+    }
+
+    private static synchronized void ensureStarted() {
+        if (monitor != null) {
+            return;
+        }
+        monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rescuer = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "session-watchdog-rescue");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(SessionWatchdog::checkWatches, POLL_MILLIS, POLL_MILLIS, TimeUnit.MILLISECONDS);
+        logger.info("Session watchdog started (test budget {}s, command budget {}s)",
+                TEST_BUDGET_MILLIS / 1000, COMMAND_BUDGET_MILLIS / 1000);
+    }
+
+    private static void checkWatches() {
+        long now = System.currentTimeMillis();
+        for (Watch watch : watches.values()) {
+            String reason = watch.checkBudgets(now);
+            if (reason != null) {
+                logger.warn("Watchdog: {} on {} - {}", watch.testName, watch.worker.getName(), reason);
+                rescuer.submit(() -> rescue(watch, reason));
+            }
+        }
+    }
+
+    /**
+     * Capture diagnostics, quit the session and free the worker
+     */
+    private static void rescue(Watch watch, String reason) {
+        WebDriver driver = watch.driver;
+        Path diagnostics = writeDiagnostics(watch, reason, driver);
+
+        if (driver != null) {
+            boolean quit = runWithTimeout(() -> {
+                driver.quit();
+                return Boolean.TRUE;
+            }, QUIT_TIMEOUT_MILLIS) != null;
+            if (!quit) {
+                quitFailures.incrementAndGet();
+                logger.warn("Watchdog could not quit the session of {} within {}ms", watch.testName, QUIT_TIMEOUT_MILLIS);
+            }
+        }
+
+        try {
+            Thread.sleep(RELEASE_GRACE_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (watch.interruptIfBlocked()) {
+            logger.warn("Watchdog interrupted {} which was still blocked in {}", watch.worker.getName(), watch.testName);
+        }
+        logger.info("Watchdog rescued {} (diagnostics: {})", watch.testName, diagnostics);
+    }
+
+    /**
+     * Write worker stack, command in flight and, if the browser still answers, URL and screenshot
+     * @return Path of the text diagnostics, or null if writing failed
+     */
+    private static Path writeDiagnostics(Watch watch, String reason, WebDriver driver) {
+        String baseName = watch.testName.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + System.currentTimeMillis();
+        StringBuilder text = new StringBuilder();
+        text.append("test: ").append(watch.testName).append('\n')
+                .append("worker: ").append(watch.worker.getName()).append('\n')
+                .append("reason: ").append(reason).append('\n')
+                .append("elapsed: ").append(System.currentTimeMillis() - watch.startedAt).append("ms\n")
+                .append("command: ").append(watch.commandStartedAt > 0 ? watch.command : "none").append('\n');
+
+        try {
+            Files.createDirectories(DIAGNOSTICS_DIR);
+            if (driver != null) {
+                String url = runWithTimeout(driver::getCurrentUrl, SNAPSHOT_TIMEOUT_MILLIS);
+                text.append("url: ").append(url != null ? url : "no response").append('\n');
+                if (url != null && driver instanceof TakesScreenshot) {
+                    byte[] screenshot = runWithTimeout(() -> ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES),
+                            SNAPSHOT_TIMEOUT_MILLIS);
+                    if (screenshot != null) {
+                        Path screenshotFile = DIAGNOSTICS_DIR.resolve(baseName + ".png");
+                        Files.write(screenshotFile, screenshot);
+                        text.append("screenshot: ").append(screenshotFile).append('\n');
+                    }
+                }
+            }
+
+            text.append("\nworker stack:\n");
+            for (StackTraceElement element : watch.worker.getStackTrace()) {
+                text.append("    at ").append(element).append('\n');
+            }
+            Path file = DIAGNOSTICS_DIR.resolve(baseName + ".txt");
+            Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+            return file;
+        } catch (IOException e) {
+            logger.error("Failed to write watchdog diagnostics for {}: {}", watch.testName, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Run a driver call on the rescue pool, abandoning it after the timeout
+     * @return Call result, or null if it failed or timed out
+     */
+    private static <T> T runWithTimeout(Callable<T> call, long timeoutMillis) {
+        Future<T> future = rescuer.submit(call);
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.debug("Watchdog driver call failed: {}", e.getMessage());
+        }
+        future.cancel(true);
+        return null;
+    }
+
+    private static String describe(Method method, Object[] args) {
+        StringBuilder description = new StringBuilder(method.getDeclaringClass().getSimpleName())
+                .append('.').append(method.getName()).append('(');
+        // Typed text may be a credential
+        if (args != null && !"sendKeys".equals(method.getName())) {
+            for (int i = 0; i < args.length; i++) {
+                String arg = String.valueOf(args[i]);
+                description.append(i == 0 ? "" : ", ")
+                        .append(arg.length() > MAX_ARGUMENT_LENGTH ? arg.substring(0, MAX_ARGUMENT_LENGTH) + "..." : arg);
+            }
+        }
+        return description.append(')').toString();
+    }
+}
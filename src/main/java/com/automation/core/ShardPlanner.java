@@ -0,0 +1,210 @@
+package com.automation.core;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Duration-balanced shard planner for splitting test runs across CI nodes
+ * Items (single tests or dependency chains that must stay together) are packed greedily,
+ * longest first, onto the least loaded shard. Ties are broken by item key and shard index,
+ * so every node computes the same plan from the same history. Items without a recorded
+ * duration get the median of the known ones; without any timings items are distributed
+ * round-robin in key order.
+ *
+ * Configuration (system properties or config.properties):
+ *     shard.index=0    (0-based index of this node)
+ *     shard.total=1
+ *
+ * Example:
+ *     Map<String, Long> durations = new HashMap<>();
+ *     durations.put("com.automation.tests.LoginTest.testValidLogin", 12000L);
+ *     ShardPlanner.Plan plan = ShardPlanner.plan(durations, 4);
+ *     boolean mine = plan.getShard("com.automation.tests.LoginTest.testValidLogin") == ShardPlanner.getShardIndex();
+ */
+public class ShardPlanner {
+
+    private static final Logger logger = LogManager.getLogger(ShardPlanner.class);
+
+    /**
+     * Assignment of items to shards with expected loads
+     */
+    public static class Plan {
+        private final Map<String, Integer> assignment;
+        private final long[] expectedLoadsMs;
+        private final int[] itemCounts;
+        private final boolean balanced;
+
+        private Plan(Map<String, Integer> assignment, long[] expectedLoadsMs, int[] itemCounts, boolean balanced) {
+            this.assignment = assignment;
+            this.expectedLoadsMs = expectedLoadsMs;
+            this.itemCounts = itemCounts;
+            this.balanced = balanced;
+        }
+
+        /**
+         * Get shard of an item
+         * @param key Item key
+         * @return 0-based shard index, or -1 if the item was not planned
+         */
+        public int getShard(String key) {
+            Integer shard = assignment.get(key);
+            return shard != null ? shard : -1;
+        }
+
+        public long[] getExpectedLoadsMs() {
+            return expectedLoadsMs.clone();
+        }
+
+        public int[] getItemCounts() {
+            return itemCounts.clone();
+        }
+
+        /**
+         * Check if the plan is based on recorded durations (false for round-robin)
+         */
+        public boolean isBalanced() {
+            return balanced;
+        }
+
+        /**
+         * Get expected makespan (largest shard load)
+         */
+        public long getMakespanMs() {
+            return Arrays.stream(expectedLoadsMs).max().orElse(0);
+        }
+
+        /**
+         * Get a short hash of the assignment; equal on all nodes when they computed the same plan
+         */
+        public String getFingerprint() {
+            StringBuilder canonical = new StringBuilder();
+            new TreeMap<>(assignment).forEach((key, shard) -> canonical.append(key).append('=').append(shard).append('\n'));
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+                StringBuilder hex = new StringBuilder();
+                for (int i = 0; i < 6; i++) {
+                    hex.append(String.format("%02x", digest[i]));
+                }
+                return hex.toString();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        /**
+         * Describe per-shard loads in one line
+         */
+        public String describe() {
+            StringBuilder description = new StringBuilder(balanced ? "balanced" : "round-robin");
+            for (int shard = 0; shard < expectedLoadsMs.length; shard++) {
+                description.append(String.format(", shard%d=%d items/%ds", shard, itemCounts[shard], expectedLoadsMs[shard] / 1000));
+            }
+            long min = Arrays.stream(expectedLoadsMs).min().orElse(0);
+            description.append(String.format(", makespan=%ds, max/min=%.2f, fingerprint=%s",
+                    getMakespanMs() / 1000, min == 0 ? 0.0 : getMakespanMs() / (double) min, getFingerprint()));
+            return description.toString();
+        }
+    }
+
+    /**
+     * Get index of this shard
+     * @return 0-based shard index
+     */
+    public static int getShardIndex() {
+        return ConfigReader.getIntProperty("shard.index", 0);
+    }
+
+    /**
+     * Get total number of shards
+     * @return Shard count (1 means sharding is off)
+     */
+    public static int getShardTotal() {
+        return Math.max(1, ConfigReader.getIntProperty("shard.total", 1));
+    }
+
+    /**
+     * Check if sharding is enabled for this run
+     */
+    public static boolean isShardingEnabled() {
+        int total = getShardTotal();
+        int index = getShardIndex();
+        if (total > 1 && (index < 0 || index >= total)) {
+            throw new IllegalArgumentException("shard.index " + index + " is out of range for shard.total " + total);
+        }
+        return total > 1;
+    }
+
+    /**
+     * Plan items onto shards
+     * @param expectedDurationsMs Expected duration per item key (negative if unknown)
+     * @param shardTotal Number of shards
+     * @return Plan assigning every item to exactly one shard
+     */
+    public static Plan plan(Map<String, Long> expectedDurationsMs, int shardTotal) {
+        if (shardTotal < 1) {
+            throw new IllegalArgumentException("shardTotal must be at least 1, was " + shardTotal);
+        }
+
+        List<String> keys = new ArrayList<>(expectedDurationsMs.keySet());
+        Collections.sort(keys);
+
+        List<Long> known = new ArrayList<>();
+        for (String key : keys) {
+            long duration = expectedDurationsMs.get(key);
+            if (duration >= 0) {
+                known.add(duration);
+            }
+        }
+
+        Map<String, Integer> assignment = new HashMap<>();
+        long[] loads = new long[shardTotal];
+        int[] counts = new int[shardTotal];
+
+        if (known.isEmpty()) {
+            for (int i = 0; i < keys.size(); i++) {
+                assignment.put(keys.get(i), i % shardTotal);
+                counts[i % shardTotal]++;
+            }
+            logger.debug("No recorded durations, planned {} items round-robin on {} shards", keys.size(), shardTotal);
+            return new Plan(assignment, loads, counts, false);
+        }
+
+        Collections.sort(known);
+        long fallback = known.get(known.size() / 2);
+        Map<String, Long> durations = new HashMap<>();
+        for (String key : keys) {
+            long duration = expectedDurationsMs.get(key);
+            durations.put(key, duration >= 0 ? duration : fallback);
+        }
+
+        // Longest first; key order makes the plan identical on every node
+        keys.sort(Comparator.comparingLong((String key) -> durations.get(key)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+
+        for (String key : keys) {
+            int target = 0;
+            for (int shard = 1; shard < shardTotal; shard++) {
+                if (loads[shard] < loads[target] || loads[shard] == loads[target] && counts[shard] < counts[target]) {
+                    target = shard;
+                }
+            }
+            assignment.put(key, target);
+            loads[target] += durations.get(key);
+            counts[target]++;
+        }
+
+        return new Plan(assignment, loads, counts, true);
+    }
+}
@@ -0,0 +1,111 @@
+package com.automation.core;
+
+import com.automation.reporting.TestHistoryStore;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line simulation of shard plans for a recorded test history
+ * Prints the expected duration of every shard for the duration-balanced plan and for
+ * plain round-robin, so shard counts can be chosen before changing the CI matrix.
+ * Tests are planned per method like ShardingMethodInterceptor: the invocations of a
+ * parameterized method stay together and their durations are summed. Dependency chains
+ * are only known at run time.
+ *
+ * Configuration (system properties or config.properties):
+ *     history.file=test-history/history.ndjson
+ *
+ * Example:
+ *     java -cp ... com.automation.core.ShardSimulator 2 4 8
+ *     java -Dhistory.file=ci-cache/history.ndjson -cp ... com.automation.core.ShardSimulator 6
+ */
+public class ShardSimulator {
+
+    private static final Logger logger = LogManager.getLogger(ShardSimulator.class);
+
+    public static void main(String[] args) {
+        List<Integer> shardCounts = new ArrayList<>();
+        for (String arg : args) {
+            shardCounts.add(Integer.parseInt(arg));
+        }
+        if (shardCounts.isEmpty()) {
+            shardCounts.add(2);
+            shardCounts.add(4);
+            shardCounts.add(8);
+        }
+
+        Map<String, Long> durations = getMethodDurations();
+        if (durations.isEmpty()) {
+            logger.warn("Test history is empty, nothing to simulate");
+            return;
+        }
+        long total = durations.values().stream().mapToLong(duration -> Math.max(0, duration)).sum();
+        logger.info("Simulating {} test methods with {}s total expected duration", durations.size(), total / 1000);
+
+        for (int shards : shardCounts) {
+            ShardPlanner.Plan balanced = ShardPlanner.plan(durations, shards);
+            logger.info("{} shards, balanced:    {}", shards, balanced.describe());
+            logger.info("{} shards, round-robin: {}", shards, describeRoundRobin(durations, shards));
+        }
+    }
+
+    /**
+     * Get expected durations keyed by class.method, the planning key of ShardingMethodInterceptor
+     * A method's own entry wins; otherwise the entries of its parameterized invocations are summed
+     */
+    private static Map<String, Long> getMethodDurations() {
+        Map<String, Long> durations = new HashMap<>();
+        Map<String, Long> invocationTotals = new HashMap<>();
+        for (String testId : TestHistoryStore.getTestIds()) {
+            long duration = TestHistoryStore.getExpectedDurationMs(testId);
+            int parameters = testId.indexOf('[');
+            if (parameters < 0) {
+                durations.put(testId, duration);
+            } else {
+                invocationTotals.merge(testId.substring(0, parameters), Math.max(0, duration), Long::sum);
+            }
+        }
+        invocationTotals.forEach(durations::putIfAbsent);
+        return durations;
+    }
+
+    /**
+     * Describe shard loads when tests are distributed round-robin in id order
+     */
+    private static String describeRoundRobin(Map<String, Long> durations, int shards) {
+        Map<String, Long> unknown = new HashMap<>();
+        durations.keySet().forEach(testId -> unknown.put(testId, -1L));
+        ShardPlanner.Plan plan = ShardPlanner.plan(unknown, shards);
+
+        long fallback = median(durations);
+        long[] loads = new long[shards];
+        durations.forEach((testId, duration) -> loads[plan.getShard(testId)] += duration >= 0 ? duration : fallback);
+
+        StringBuilder description = new StringBuilder();
+        long max = 0;
+        long min = Long.MAX_VALUE;
+        for (int shard = 0; shard < shards; shard++) {
+            description.append(String.format("shard%d=%ds, ", shard, loads[shard] / 1000));
+            max = Math.max(max, loads[shard]);
+            min = Math.min(min, loads[shard]);
+        }
+        return description.append(String.format("makespan=%ds, max/min=%.2f", max / 1000,
+                min == 0 ? 0.0 : max / (double) min)).toString();
+    }
+
+    private static long median(Map<String, Long> durations) {
+        List<Long> known = new ArrayList<>();
+        durations.values().forEach(duration -> {
+            if (duration >= 0) {
+                known.add(duration);
+            }
+        });
+        known.sort(null);
+        return known.isEmpty() ? 0 : known.get(known.size() / 2);
+    }
+}
@@ -0,0 +1,33 @@
+package com.automation.enums;
+
+/**
+ * Failure category assigned by FailureClassifier
+ * Infrastructure-class failures say nothing about the application under test and feed
+ * the circuit breaker; retryable failures may pass on a second attempt. Timeouts are not
+ * infrastructure-class on their own (a slow page or a wrong wait also times out); the
+ * circuit breaker counts them only when a health probe confirms the application is down.
+ */
+public enum FailureCategory {
+    INFRASTRUCTURE(true, true),
+    TIMEOUT(false, true),
+    STALE_ELEMENT(false, true),
+    ELEMENT_NOT_FOUND(false, false),
+    ASSERTION(false, false),
+    UNKNOWN(false, false);
+
+    private final boolean infrastructure;
+    private final boolean retryable;
+
+    FailureCategory(boolean infrastructure, boolean retryable) {
+        this.infrastructure = infrastructure;
+        this.retryable = retryable;
+    }
+
+    public boolean isInfrastructure() {
+        return infrastructure;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
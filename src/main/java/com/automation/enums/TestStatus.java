@@ -1,4 +1,12 @@
 package com.automation.enums;
 
-public class TestStatus {
+/**
+ * Test execution status recorded by TestResultCollector
+ */
+public enum TestStatus {
+    RUNNING,
+    PASSED,
+    FAILED,
+    SKIPPED,
+    FAILED_WITHIN_SUCCESS_PERCENTAGE
 }
@@ -1,25 +1,56 @@
 package com.automation.reporting;
 
 import com.automation.core.ConfigReader;
+import com.automation.utils.ScreenshotWriter;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Media;
+import com.aventstack.extentreports.model.Test;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * ExtentReports Manager for generating HTML test reports
  * Provides centralized management of ExtentReports functionality
+ * All report mutations go through ReportEventBus, so steps, status and media
+ * are enqueued by test threads and applied by a single consumer thread.
+ *
+ * The report is flushed incrementally (periodically and every N completed tests) so
+ * it stays viewable during the run. The details of completed tests are spilled to
+ * per-test HTML files and replaced in memory by a one-line summary link. Every flush
+ * renders the whole report, so threshold flushing only applies while spilling keeps
+ * the report small; without spilling only the periodic flush runs.
+ *
+ * Configuration (config.properties):
+ *     report.flush.interval.seconds=60   (0 disables periodic flushing)
+ *     report.flush.every.tests=0         (0 disables threshold flushing, ignored without spilling)
+ *     report.spill.enabled=true
  *
  * Example:
  *     ExtentReportManager.initializeReport();
  *     ExtentTest test = ExtentReportManager.createTest("Test Name", "Test Description");
- *     test.pass("Step passed");
+ *     ExtentReportManager.logPass("Step passed");
  *     ExtentReportManager.flushReport();
  */
 public class ExtentReportManager {
@@ -27,10 +58,28 @@ public class ExtentReportManager {
     private static final Logger logger = LogManager.getLogger(ExtentReportManager.class);
     private static ExtentReports extentReports;
     private static ExtentSparkReporter sparkReporter;
+    private static Path reportFile;
     private static final ThreadLocal<ExtentTest> extentTestThreadLocal = new ThreadLocal<>();
 
     private static final String REPORTS_DIR = "reports";
     private static final String SCREENSHOTS_DIR = "reports/screenshots";
+    private static final long SCREENSHOT_WRITE_TIMEOUT_SECONDS = 60;
+    private static final long REPORT_EVENT_DRAIN_TIMEOUT_SECONDS = 60;
+    private static final String TEST_DETAILS_DIR_NAME = "test-details";
+
+    private static final int FLUSH_INTERVAL_SECONDS = ConfigReader.getIntProperty("report.flush.interval.seconds", 60);
+    private static final int FLUSH_EVERY_TESTS = ConfigReader.getIntProperty("report.flush.every.tests", 0);
+    private static final boolean SPILL_ENABLED = ConfigReader.getBooleanProperty("report.spill.enabled", true);
+
+    private static ScheduledExecutorService flushScheduler;
+
+    // Incremental flush statistics (updated by report events, which ReportEventBus applies one at a time)
+    private static final AtomicLong completedTests = new AtomicLong();
+    private static final AtomicLong incrementalFlushes = new AtomicLong();
+    private static final AtomicLong flushNanos = new AtomicLong();
+    private static final AtomicLong spilledTests = new AtomicLong();
+    private static final AtomicLong spilledLogs = new AtomicLong();
+    private static final AtomicLong completedSinceFlush = new AtomicLong();
 
     /**
      * Initialize ExtentReports with configuration
@@ -41,6 +90,7 @@ public class ExtentReportManager {
 
             String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
             String reportPath = REPORTS_DIR + "/ExtentReport_" + timestamp + ".html";
+            reportFile = Paths.get(reportPath);
 
             // Create Spark Reporter
             sparkReporter = new ExtentSparkReporter(reportPath);
@@ -50,6 +100,7 @@ public class ExtentReportManager {
             extentReports = new ExtentReports();
             extentReports.attachReporter(sparkReporter);
             setSystemInformation();
+            startFlushScheduler();
 
             logger.info("ExtentReports initialized. Report will be generated at: {}", reportPath);
         }
@@ -119,10 +170,10 @@ public class ExtentReportManager {
      * Create a new test in ExtentReports
      * @param testName Test name
      * @param testDescription Test description
-     * @return ExtentTest instance
+     * @return ExtentTest instance (mutate it through this manager, not directly)
      */
     public static ExtentTest createTest(String testName, String testDescription) {
-        ExtentTest test = extentReports.createTest(testName, testDescription);
+        ExtentTest test = ReportEventBus.call(() -> extentReports.createTest(testName, testDescription));
         extentTestThreadLocal.set(test);
         logger.debug("Created ExtentTest: {}", testName);
         return test;
@@ -136,8 +187,8 @@ public class ExtentReportManager {
      * @return ExtentTest instance
      */
     public static ExtentTest createTest(String testName, String testDescription, String category) {
-        ExtentTest test = extentReports.createTest(testName, testDescription);
-        test.assignCategory(category);
+        ExtentTest test = ReportEventBus.call(() -> extentReports.createTest(testName, testDescription)
+                .assignCategory(category));
         extentTestThreadLocal.set(test);
         logger.debug("Created ExtentTest with category: {} - {}", testName, category);
         return test;
@@ -164,15 +215,20 @@ public class ExtentReportManager {
      * @param title Screenshot title
      */
     public static void addScreenshot(String screenshotPath, String title) {
-        ExtentTest test = getCurrentTest();
-        if (test != null) {
-            try {
-                test.addScreenCaptureFromPath(screenshotPath, title);
-                logger.debug("Added screenshot to test: {}", title);
-            } catch (Exception e) {
-                logger.error("Failed to add screenshot: {}", e.getMessage());
-            }
-        }
+        addScreenshot(getCurrentTest(), screenshotPath, title);
+    }
+
+    /**
+     * Add screenshot to the given test
+     * @param test ExtentTest instance
+     * @param screenshotPath Path to screenshot
+     * @param title Screenshot title
+     */
+    public static void addScreenshot(ExtentTest test, String screenshotPath, String title) {
+        publish(test, target -> {
+            ReportMediaManager.attach(target, screenshotPath, title);
+            logger.debug("Added screenshot to test: {}", title);
+        });
     }
 
     /**
@@ -180,10 +236,7 @@ public class ExtentReportManager {
      * @param message Info message
      */
     public static void logInfo(String message) {
-        ExtentTest test = getCurrentTest();
-        if (test != null) {
-            test.info(message);
-        }
+        publish(getCurrentTest(), test -> test.info(message));
     }
 
     /**
@@ -191,10 +244,7 @@ public class ExtentReportManager {
      * @param message Pass message
      */
     public static void logPass(String message) {
-        ExtentTest test = getCurrentTest();
-        if (test != null) {
-            test.pass(message);
-        }
+        publish(getCurrentTest(), test -> test.pass(message));
     }
 
     /**
@@ -202,10 +252,7 @@ public class ExtentReportManager {
      * @param message Fail message
      */
     public static void logFail(String message) {
-        ExtentTest test = getCurrentTest();
-        if (test != null) {
-            test.fail(message);
-        }
+        publish(getCurrentTest(), test -> test.fail(message));
     }
 
     /**
@@ -213,10 +260,7 @@ public class ExtentReportManager {
      * @param message Warning message
      */
     public static void logWarning(String message) {
-        ExtentTest test = getCurrentTest();
-        if (test != null) {
-            test.warning(message);
-        }
+        publish(getCurrentTest(), test -> test.warning(message));
     }
 
     /**
@@ -224,10 +268,7 @@ public class ExtentReportManager {
      * @param message Skip message
      */
     public static void logSkip(String message) {
-        ExtentTest test = getCurrentTest();
-        if (test != null) {
-            test.skip(message);
-        }
+        publish(getCurrentTest(), test -> test.skip(message));
     }
 
     /**
@@ -235,10 +276,7 @@ public class ExtentReportManager {
      * @param author Author name
      */
     public static void addAuthor(String author) {
-        ExtentTest test = getCurrentTest();
-        if (test != null) {
-            test.assignAuthor(author);
-        }
+        publish(getCurrentTest(), test -> test.assignAuthor(author));
     }
 
     /**
@@ -246,10 +284,7 @@ public class ExtentReportManager {
      * @param device Device name
      */
     public static void addDevice(String device) {
-        ExtentTest test = getCurrentTest();
-        if (test != null) {
-            test.assignDevice(device);
-        }
+        publish(getCurrentTest(), test -> test.assignDevice(device));
     }
 
     /**
@@ -257,9 +292,156 @@ public class ExtentReportManager {
      * @param category Category name
      */
     public static void addCategory(String category) {
-        ExtentTest test = getCurrentTest();
+        publish(getCurrentTest(), test -> test.assignCategory(category));
+    }
+
+    /**
+     * Mark a test as completed: streams its result record, spills its details if enabled
+     * and counts towards threshold flushing (only while spilling)
+     * @param test ExtentTest instance of the completed test
+     */
+    public static void completeTest(ExtentTest test) {
+        if (test == null || extentReports == null) {
+            return;
+        }
+        ReportEventBus.publish(() -> {
+            completedTests.incrementAndGet();
+            ResultStreamWriter.writeTest(test);
+            completedSinceFlush.incrementAndGet();
+            if (SPILL_ENABLED) {
+                spillTestDetails(test);
+                if (FLUSH_EVERY_TESTS > 0 && completedSinceFlush.get() >= FLUSH_EVERY_TESTS) {
+                    flushIncrementally();
+                }
+            }
+        });
+    }
+
+    /**
+     * Get a one-line summary of incremental flushing and spilling
+     */
+    public static String getFlushStatisticsSummary() {
+        long flushes = incrementalFlushes.get();
+        return String.format("completedTests=%d, incrementalFlushes=%d, avgFlush=%.1fms, spilledTests=%d, spilledLogs=%d",
+                completedTests.get(), flushes, flushes == 0 ? 0.0 : flushNanos.get() / 1_000_000.0 / flushes,
+                spilledTests.get(), spilledLogs.get());
+    }
+
+    /**
+     * Schedule periodic flushes through the report event bus
+     * The timer thread is a daemon and lives until JVM exit, so suites run later in the
+     * same JVM (runner work units) keep flushing periodically
+     */
+    private static void startFlushScheduler() {
+        if (FLUSH_INTERVAL_SECONDS <= 0) {
+            return;
+        }
+        flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-flush-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flushScheduler.scheduleWithFixedDelay(() -> ReportEventBus.publish(ExtentReportManager::flushIncrementally),
+                FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Write the report as it currently stands (runs as a report event, so never concurrently
+     * with other report mutations)
+     */
+    private static void flushIncrementally() {
+        if (completedSinceFlush.getAndSet(0) == 0 && incrementalFlushes.get() > 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        extentReports.flush();
+        flushNanos.addAndGet(System.nanoTime() - start);
+        incrementalFlushes.incrementAndGet();
+        logger.debug("Report flushed incrementally ({} tests completed)", completedTests.get());
+    }
+
+    /**
+     * Write test logs to a per-test HTML file and keep only a summary link in memory
+     * (runs on the report event consumer thread)
+     */
+    private static void spillTestDetails(ExtentTest test) {
+        Test model = test.getModel();
+        List<Log> logs = model.getLogs();
+        if (logs.isEmpty()) {
+            return;
+        }
+
+        String fileName = model.getId() + "_" + model.getName().replaceAll("[^a-zA-Z0-9._-]", "_") + ".html";
+        Path reportsDir = Paths.get(REPORTS_DIR).toAbsolutePath();
+        Path detailsFile = reportsDir.resolve(TEST_DETAILS_DIR_NAME).resolve(fileName);
+        List<Log> spilled = new ArrayList<>(logs);
+
+        try {
+            Files.createDirectories(detailsFile.getParent());
+            try (Writer writer = Files.newBufferedWriter(detailsFile, StandardCharsets.UTF_8)) {
+                // Step details carry links relative to the reports directory (external media), so resolve against it
+                writer.write("<html><head><meta charset='utf-8'><base href='../'><title>" + escapeHtml(model.getName())
+                        + "</title></head><body><h3>" + escapeHtml(model.getName()) + " - " + model.getStatus()
+                        + "</h3><table border='1' cellpadding='4'><tr><th>Time</th><th>Status</th><th>Details</th></tr>\n");
+                for (Log log : spilled) {
+                    writer.write("<tr><td>" + log.getTimestamp() + "</td><td>" + log.getStatus() + "</td><td>"
+                            + (log.getDetails() != null ? log.getDetails() : ""));
+                    Media media = log.getMedia();
+                    if (media != null && media.getPath() != null) {
+                        String link = reportsDir.relativize(Paths.get(media.getPath()).toAbsolutePath()).toString().replace('\\', '/');
+                        writer.write("<br><a href='" + link + "'>" + escapeHtml(media.getPath()) + "</a>");
+                    }
+                    writer.write("</td></tr>\n");
+                }
+                writer.write("</table></body></html>\n");
+            }
+        } catch (IOException e) {
+            logger.error("Failed to spill details of test {}: {}", model.getName(), e.getMessage());
+            return;
+        }
+
+        logs.clear();
+        test.info(spilled.size() + " steps spilled to <a href='" + TEST_DETAILS_DIR_NAME + "/" + fileName
+                + "' target='_blank'>" + fileName + "</a>");
+        spilledTests.incrementAndGet();
+        spilledLogs.addAndGet(spilled.size());
+    }
+
+    /**
+     * Escape text for HTML output
+     */
+    private static String escapeHtml(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    /**
+     * Add a run summary entry to the report system information
+     * @param name Summary entry name
+     * @param value Summary entry value
+     */
+    public static void addRunSummary(String name, String value) {
+        if (extentReports != null) {
+            ReportEventBus.publish(() -> extentReports.setSystemInfo(name, value));
+            logger.info("Run summary - {}: {}", name, value);
+        }
+    }
+
+    /**
+     * Log a step with the given status to a specific test
+     * @param test ExtentTest instance
+     * @param status Step status
+     * @param message Step message
+     */
+    public static void log(ExtentTest test, Status status, String message) {
+        publish(test, target -> target.log(status, message));
+    }
+
+    /**
+     * Enqueue a mutation of a test on the report event bus
+     */
+    private static void publish(ExtentTest test, Consumer<ExtentTest> action) {
         if (test != null) {
-            test.assignCategory(category);
+            ReportEventBus.publish(() -> action.accept(test));
         }
     }
 
@@ -268,8 +450,36 @@ public class ExtentReportManager {
      */
     public static void flushReport() {
         if (extentReports != null) {
-            extentReports.flush();
-            logger.info("ExtentReports flushed successfully");
+            // Screenshots referenced by the report must be on disk before it is written
+            if (!ScreenshotWriter.awaitPendingWrites(SCREENSHOT_WRITE_TIMEOUT_SECONDS)) {
+                logger.warn("Flushing report with {} screenshots still pending", ScreenshotWriter.getPendingCount());
+            }
+            if (!ReportEventBus.drain(REPORT_EVENT_DRAIN_TIMEOUT_SECONDS)) {
+                logger.warn("Flushing report with {} report events still pending", ReportEventBus.getPendingCount());
+            }
+            ReportMediaManager.awaitThumbnails(SCREENSHOT_WRITE_TIMEOUT_SECONDS);
+            long start = System.currentTimeMillis();
+            ReportEventBus.call(() -> {
+                extentReports.flush();
+                ResultStreamWriter.close();
+                return null;
+            });
+            logger.info("ExtentReports flushed successfully in {}ms ({})",
+                    System.currentTimeMillis() - start, ReportEventBus.getStatisticsSummary());
+            logReportSize();
+        }
+    }
+
+    /**
+     * Log size of the written report HTML and its media mode
+     */
+    private static void logReportSize() {
+        try {
+            if (reportFile != null && Files.exists(reportFile)) {
+                logger.info("Report HTML size: {}KB ({})", Files.size(reportFile) / 1024, ReportMediaManager.getStatisticsSummary());
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to read report size: {}", e.getMessage());
         }
     }
 
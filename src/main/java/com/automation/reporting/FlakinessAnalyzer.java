@@ -0,0 +1,292 @@
+package com.automation.reporting;
+
+import com.automation.core.ConfigReader;
+import com.automation.enums.TestStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flakiness scoring over the test history
+ * A test is flaky when its outcome changes between runs without a code change, or when it
+ * needs retries to pass. Each test gets a score between 0 and 1 combining its flip rate
+ * (pass/fail transitions between consecutive runs) and its pass-on-retry rate:
+ * score = 1 - (1 - flipRate) * (1 - retryPassRate). Consistently failing tests score 0.
+ * Failures in the quarantine lane are recorded with their real status (and a quarantined
+ * flag), so quarantined tests keep being scored and leave quarantine once they stabilise.
+ * Tests scoring at or above the threshold are quarantined when quarantine is enabled; the
+ * quarantine set is taken from the history as it was when the run started.
+ *
+ * Configuration (config.properties):
+ *     flaky.min.runs=5
+ *     flaky.quarantine.enabled=false
+ *     flaky.quarantine.threshold=0.3
+ *     flaky.report.file=reports/flakiness.json
+ *
+ * Example:
+ *     double score = FlakinessAnalyzer.getScore("com.automation.tests.LoginTest.testValidLogin");
+ *     boolean quarantined = FlakinessAnalyzer.isQuarantined("com.automation.tests.LoginTest.testValidLogin");
+ *     FlakinessAnalyzer.writeReport();
+ */
+public class FlakinessAnalyzer {
+
+    private static final Logger logger = LogManager.getLogger(FlakinessAnalyzer.class);
+
+    private static final int MIN_RUNS = Math.max(2, ConfigReader.getIntProperty("flaky.min.runs", 5));
+    private static final boolean QUARANTINE_ENABLED = ConfigReader.getBooleanProperty("flaky.quarantine.enabled", false);
+    private static final double THRESHOLD = Double.parseDouble(ConfigReader.getProperty("flaky.quarantine.threshold", "0.3"));
+    private static final Path REPORT_FILE = Paths.get(ConfigReader.getProperty("flaky.report.file", "reports/flakiness.json"));
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    // Scores at the start of the run, used for quarantine decisions
+    private static Map<String, FlakinessScore> startOfRunScores;
+
+    /**
+     * Flakiness score of one test
+     */
+    public static class FlakinessScore {
+        private final String testId;
+        private final int runs;
+        private final int flips;
+        private final int retryPasses;
+        private final int failures;
+        private final double score;
+
+        private FlakinessScore(String testId, int runs, int flips, int retryPasses, int failures, double score) {
+            this.testId = testId;
+            this.runs = runs;
+            this.flips = flips;
+            this.retryPasses = retryPasses;
+            this.failures = failures;
+            this.score = score;
+        }
+
+        public String getTestId() {
+            return testId;
+        }
+
+        public int getRuns() {
+            return runs;
+        }
+
+        public int getFlips() {
+            return flips;
+        }
+
+        public int getRetryPasses() {
+            return retryPasses;
+        }
+
+        public double getFailureRate() {
+            return runs == 0 ? 0.0 : failures / (double) runs;
+        }
+
+        /**
+         * Get score between 0 (stable) and 1 (flips every run); 0 with fewer than flaky.min.runs runs
+         */
+        public double getScore() {
+            return score;
+        }
+
+        public boolean hasEnoughRuns() {
+            return runs >= MIN_RUNS;
+        }
+    }
+
+    /**
+     * Score a test from its recorded history
+     * @param testId Test id (class.method[parameters])
+     * @return Score with the counts it is based on
+     */
+    public static FlakinessScore score(String testId) {
+        int runs = 0;
+        int flips = 0;
+        int retryPasses = 0;
+        int failures = 0;
+        Boolean previousPassed = null;
+
+        for (TestHistoryStore.HistoryEntry entry : TestHistoryStore.getHistory(testId)) {
+            TestStatus status = entry.getStatus();
+            if (status == TestStatus.SKIPPED || status == TestStatus.RUNNING) {
+                continue;
+            }
+            boolean passed = status == TestStatus.PASSED;
+            runs++;
+            if (!passed) {
+                failures++;
+            } else if (entry.getAttempts() > 1) {
+                retryPasses++;
+            }
+            if (previousPassed != null && previousPassed != passed) {
+                flips++;
+            }
+            previousPassed = passed;
+        }
+
+        double score = 0.0;
+        if (runs >= MIN_RUNS) {
+            double flipRate = flips / (double) (runs - 1);
+            double retryPassRate = retryPasses / (double) runs;
+            score = 1 - (1 - flipRate) * (1 - retryPassRate);
+        }
+        return new FlakinessScore(testId, runs, flips, retryPasses, failures, score);
+    }
+
+    /**
+     * Get current score of a test; for a data-driven method id the highest score of its parameter sets
+     * @param testId Test id (class.method or class.method[parameters])
+     * @return Score between 0 and 1
+     */
+    public static double getScore(String testId) {
+        return maxScore(getScores(), testId);
+    }
+
+    /**
+     * Score all tests in the history
+     * @return Scores by test id
+     */
+    public static Map<String, FlakinessScore> getScores() {
+        Map<String, FlakinessScore> scores = new HashMap<>();
+        for (String testId : TestHistoryStore.getTestIds()) {
+            scores.put(testId, score(testId));
+        }
+        return scores;
+    }
+
+    /**
+     * Check if a test runs in the quarantine lane (based on the history at the start of the run)
+     * @param testId Test id (class.method or class.method[parameters])
+     * @return true if quarantine is enabled and the test's score reaches the threshold
+     */
+    public static boolean isQuarantined(String testId) {
+        return QUARANTINE_ENABLED && maxScore(getStartOfRunScores(), testId) >= THRESHOLD;
+    }
+
+    /**
+     * Check if quarantine mode is enabled
+     */
+    public static boolean isQuarantineEnabled() {
+        return QUARANTINE_ENABLED;
+    }
+
+    /**
+     * Write scores of all tests, highest first, to flaky.report.file
+     */
+    public static void writeReport() {
+        writeReport(REPORT_FILE);
+    }
+
+    /**
+     * Write scores of all tests, highest first, as JSON
+     * @param target Target file
+     */
+    public static void writeReport(Path target) {
+        List<FlakinessScore> scores = getSortedScores();
+        ObjectNode root = mapper.createObjectNode();
+        root.put("generatedAt", System.currentTimeMillis());
+        root.put("minRuns", MIN_RUNS);
+        root.put("threshold", THRESHOLD);
+        root.put("quarantineEnabled", QUARANTINE_ENABLED);
+        ArrayNode tests = root.putArray("tests");
+        for (FlakinessScore score : scores) {
+            tests.addObject()
+                    .put("test", score.testId)
+                    .put("score", Math.round(score.score * 1000) / 1000.0)
+                    .put("runs", score.runs)
+                    .put("flips", score.flips)
+                    .put("retryPasses", score.retryPasses)
+                    .put("failureRate", Math.round(score.getFailureRate() * 1000) / 1000.0)
+                    .put("enoughRuns", score.hasEnoughRuns())
+                    .put("flaky", score.score >= THRESHOLD)
+                    .put("quarantined", isQuarantined(score.testId));
+        }
+
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            mapper.writerWithDefaultPrettyPrinter().writeValue(target.toFile(), root);
+            logger.info("Flakiness report written: {} ({} tests)", target, scores.size());
+        } catch (IOException e) {
+            logger.error("Failed to write flakiness report to {}: {}", target, e.getMessage());
+        }
+    }
+
+    /**
+     * Get a one-line summary of flaky tests, with the top scores
+     */
+    public static String getStatisticsSummary() {
+        List<FlakinessScore> scores = getSortedScores();
+        int scored = 0;
+        int flaky = 0;
+        StringBuilder top = new StringBuilder();
+        for (FlakinessScore score : scores) {
+            if (score.hasEnoughRuns()) {
+                scored++;
+            }
+            if (score.score >= THRESHOLD) {
+                flaky++;
+                if (flaky <= 5) {
+                    top.append(top.length() == 0 ? "" : ", ")
+                            .append(String.format("%s(%.2f)", shortName(score.testId), score.score));
+                }
+            }
+        }
+        int quarantined = 0;
+        for (String testId : getStartOfRunScores().keySet()) {
+            if (isQuarantined(testId)) {
+                quarantined++;
+            }
+        }
+        return String.format("scored=%d/%d, flaky=%d (score>=%.2f), quarantined=%d%s%s", scored, scores.size(), flaky,
+                THRESHOLD, quarantined, QUARANTINE_ENABLED ? "" : " (quarantine off)",
+                top.length() == 0 ? "" : ", top: " + top);
+    }
+
+    private static List<FlakinessScore> getSortedScores() {
+        List<FlakinessScore> scores = new ArrayList<>(getScores().values());
+        scores.sort(Comparator.comparingDouble((FlakinessScore score) -> score.score).reversed()
+                .thenComparing(score -> score.testId));
+        return scores;
+    }
+
+    private static synchronized Map<String, FlakinessScore> getStartOfRunScores() {
+        if (startOfRunScores == null) {
+            startOfRunScores = Collections.unmodifiableMap(getScores());
+        }
+        return startOfRunScores;
+    }
+
+    private static double maxScore(Map<String, FlakinessScore> scores, String testId) {
+        FlakinessScore exact = scores.get(testId);
+        if (exact != null) {
+            return exact.score;
+        }
+        double max = 0.0;
+        String prefix = testId + "[";
+        for (FlakinessScore score : scores.values()) {
+            if (score.testId.startsWith(prefix)) {
+                max = Math.max(max, score.score);
+            }
+        }
+        return max;
+    }
+
+    private static String shortName(String testId) {
+        int bracket = testId.indexOf('[');
+        String method = bracket < 0 ? testId : testId.substring(0, bracket);
+        int classEnd = method.lastIndexOf('.', method.lastIndexOf('.') - 1);
+        return testId.substring(classEnd + 1);
+    }
+}
@@ -0,0 +1,245 @@
+package com.automation.reporting;
+
+import com.automation.core.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous event bus in front of ExtentReports
+ * Test threads enqueue report events on a lock-free queue and a single consumer
+ * thread applies them, so ExtentReports is only ever mutated by one thread and
+ * test threads never contend on its internal structures. Events are applied in
+ * enqueue order, which preserves ordering per test. The queue holds at most
+ * report.event.queue.capacity events: when the consumer falls that far behind, publish()
+ * blocks until it catches up, which bounds heap use instead of letting log events pile up.
+ * Events are never applied inline on a full queue, since that would mutate the report from
+ * two threads at once and reorder a test's steps. In synchronous mode events are
+ * applied on the calling thread, still one at a time, so a flush never runs while another
+ * thread mutates the report.
+ *
+ * Configuration (config.properties):
+ *     report.async.events=true             (false applies events on the calling thread)
+ *     report.event.queue.capacity=10000    (publish blocks while this many events are pending)
+ *
+ * Example:
+ *     ReportEventBus.publish(() -> test.info("Step done"));
+ *     ExtentTest test = ReportEventBus.call(() -> extentReports.createTest("Login"));
+ *     ReportEventBus.drain(30);
+ */
+public class ReportEventBus {
+
+    private static final Logger logger = LogManager.getLogger(ReportEventBus.class);
+
+    private static final boolean ASYNC = ConfigReader.getBooleanProperty("report.async.events", true);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final int CAPACITY = Math.max(1, ConfigReader.getIntProperty("report.event.queue.capacity", 10000));
+
+    // Lock-free queue bounded by the permits: publishers take one per event, the consumer returns it
+    private static final Queue<ReportEvent> queue = new ConcurrentLinkedQueue<>();
+    private static final Semaphore capacity = new Semaphore(CAPACITY);
+    private static final Object syncLock = new Object();
+    private static volatile Thread consumer;
+    private static volatile boolean consumerParked;
+
+    // Bus statistics
+    private static final AtomicLong published = new AtomicLong();
+    private static final AtomicLong applied = new AtomicLong();
+    private static final AtomicLong maxDepth = new AtomicLong();
+    private static final LongAdder failed = new LongAdder();
+    private static final LongAdder blocked = new LongAdder();
+    private static final LongAdder publishNanos = new LongAdder();
+    private static final LongAdder latencyNanos = new LongAdder();
+    private static final LongAdder applyNanos = new LongAdder();
+
+    /**
+     * Queued report event
+     */
+    private static class ReportEvent {
+        private final Runnable action;
+        private final long enqueuedAt;
+
+        private ReportEvent(Runnable action, long enqueuedAt) {
+            this.action = action;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * Enqueue a report event without waiting for it to be applied
+     * Blocks only while the queue is full
+     * @param action Mutation of the report or one of its tests
+     */
+    public static void publish(Runnable action) {
+        long start = System.nanoTime();
+
+        if (!ASYNC || Thread.currentThread() == consumer) {
+            synchronized (syncLock) {
+                published.incrementAndGet();
+                apply(new ReportEvent(action, start));
+                applied.incrementAndGet();
+            }
+            return;
+        }
+
+        startConsumer();
+        if (!capacity.tryAcquire()) {
+            blocked.increment();
+            LockSupport.unpark(consumer);
+            capacity.acquireUninterruptibly();
+        }
+        long depth = published.incrementAndGet() - applied.get();
+        queue.offer(new ReportEvent(action, start));
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+
+        if (depth > maxDepth.get()) {
+            maxDepth.accumulateAndGet(depth, Math::max);
+        }
+        publishNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Apply a report event on the consumer thread and wait for its result
+     * Used where the caller needs the result, e.g. the ExtentTest of a new test
+     * @param action Report operation returning a value
+     * @return Value returned by the action
+     */
+    public static <T> T call(Supplier<T> action) {
+        if (!ASYNC || Thread.currentThread() == consumer) {
+            synchronized (syncLock) {
+                return action.get();
+            }
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        publish(() -> {
+            try {
+                result.complete(action.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Wait until every published event has been applied
+     * @param timeoutSeconds Maximum time to wait
+     * @return true if the queue drained in time
+     */
+    public static boolean drain(long timeoutSeconds) {
+        if (!ASYNC || Thread.currentThread() == consumer) {
+            return true;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (applied.get() < published.get()) {
+            if (System.nanoTime() > deadline) {
+                logger.warn("Timed out draining report events: {} pending", getPendingCount());
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    /**
+     * Get number of published events not yet applied
+     */
+    public static long getPendingCount() {
+        return Math.max(0, published.get() - applied.get());
+    }
+
+    /**
+     * Get a one-line summary of event throughput and test-thread cost
+     */
+    public static String getStatisticsSummary() {
+        long count = applied.get();
+        if (count == 0) {
+            return "async=" + ASYNC + ", events=0";
+        }
+        return String.format("async=%s, events=%d, failed=%d, avgPublish=%.2fus, avgApply=%.2fus, "
+                        + "avgLatency=%.2fms, maxQueueDepth=%d/%d, blockedPublishes=%d",
+                ASYNC, count, failed.sum(),
+                ASYNC ? publishNanos.sum() / 1000.0 / Math.max(1, published.get()) : 0.0,
+                applyNanos.sum() / 1000.0 / count, latencyNanos.sum() / 1_000_000.0 / count, maxDepth.get(),
+                CAPACITY, blocked.sum());
+    }
+
+    /**
+     * Start the consumer thread on first use
+     */
+    private static void startConsumer() {
+        if (consumer != null) {
+            return;
+        }
+        synchronized (ReportEventBus.class) {
+            if (consumer != null) {
+                return;
+            }
+            Thread thread = new Thread(ReportEventBus::consume, "report-event-consumer");
+            thread.setDaemon(true);
+            consumer = thread;
+            thread.start();
+            logger.info("Started report event consumer");
+        }
+    }
+
+    /**
+     * Consumer thread loop: apply events in FIFO order, park while the queue is empty
+     */
+    private static void consume() {
+        while (!Thread.currentThread().isInterrupted()) {
+            ReportEvent event = queue.poll();
+            if (event != null) {
+                capacity.release();
+                apply(event);
+                applied.incrementAndGet();
+                continue;
+            }
+
+            consumerParked = true;
+            if (queue.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+            consumerParked = false;
+        }
+    }
+
+    /**
+     * Apply one event, isolating failures (including errors such as a failed assertion
+     * or OutOfMemoryError) from the consumer loop so later events are still applied
+     */
+    private static void apply(ReportEvent event) {
+        long start = System.nanoTime();
+        try {
+            event.action.run();
+        } catch (Throwable e) {
+            failed.increment();
+            logger.error("Failed to apply report event: {}", e.toString());
+        }
+        long end = System.nanoTime();
+        applyNanos.add(end - start);
+        latencyNanos.add(end - event.enqueuedAt);
+    }
+}
@@ -0,0 +1,220 @@
+package com.automation.reporting;
+
+import com.automation.core.ConfigReader;
+import com.automation.utils.ScreenshotWriter;
+import com.aventstack.extentreports.ExtentTest;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Report media manager deciding how screenshots appear in the HTML report
+ * In external mode full-size images stay as separate files; the report only
+ * contains a small lazily loaded thumbnail linking to the full image, which the
+ * browser loads on click. Thumbnails are generated in the background once the
+ * screenshot is on disk.
+ *
+ * Report media modes (report.media.mode):
+ *     embedded - ExtentTest.addScreenCaptureFromPath (full image rendered in the report, linked relative to it)
+ *     external - lazy thumbnail linking to the full image
+ *
+ * Configuration (config.properties):
+ *     report.media.mode=external
+ *     report.media.thumbnail.width=320
+ *
+ * Example:
+ *     ReportMediaManager.attach(test, "reports/screenshots/login.png", "Login page");
+ *     ReportMediaManager.awaitThumbnails(30);
+ */
+public class ReportMediaManager {
+
+    private static final Logger logger = LogManager.getLogger(ReportMediaManager.class);
+
+    private static final boolean EXTERNAL = "external".equalsIgnoreCase(ConfigReader.getProperty("report.media.mode", "external"));
+    private static final int THUMBNAIL_WIDTH = ConfigReader.getIntProperty("report.media.thumbnail.width", 320);
+    private static final String THUMBNAILS_DIR_NAME = "thumbs";
+    private static final float THUMBNAIL_QUALITY = 0.7f;
+
+    private static final Path REPORT_DIR = Paths.get("reports").toAbsolutePath();
+    private static final Set<CompletableFuture<Void>> pendingThumbnails = ConcurrentHashMap.newKeySet();
+    private static final Set<Path> thumbnailTargets = ConcurrentHashMap.newKeySet();
+    private static final ExecutorService thumbnailExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-thumbnailer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Media statistics
+    private static final AtomicLong attached = new AtomicLong();
+    private static final AtomicLong thumbnails = new AtomicLong();
+    private static final AtomicLong thumbnailFailures = new AtomicLong();
+    private static final AtomicLong thumbnailNanos = new AtomicLong();
+    private static final AtomicLong fullBytes = new AtomicLong();
+    private static final AtomicLong thumbnailBytes = new AtomicLong();
+
+    /**
+     * Attach a screenshot to a test according to the configured media mode
+     * Runs on the report event consumer thread
+     * @param test ExtentTest instance
+     * @param screenshotPath Screenshot file path (may still be pending in the writer)
+     * @param title Screenshot title
+     */
+    public static void attach(ExtentTest test, String screenshotPath, String title) {
+        attached.incrementAndGet();
+        if (!EXTERNAL) {
+            try {
+                test.addScreenCaptureFromPath(toReportLink(Paths.get(screenshotPath)), title);
+            } catch (Exception e) {
+                logger.error("Failed to add screenshot: {}", e.getMessage());
+            }
+            return;
+        }
+
+        Path fullImage = Paths.get(screenshotPath);
+        Path thumbnail = getThumbnailPath(fullImage);
+        scheduleThumbnail(fullImage, thumbnail);
+
+        String escapedTitle = escape(title);
+        test.info("<a href='" + toReportLink(fullImage) + "' target='_blank' title='Open full size'>"
+                + "<img src='" + toReportLink(thumbnail) + "' loading='lazy' alt='" + escapedTitle
+                + "' style='max-width:" + THUMBNAIL_WIDTH + "px;border:1px solid #ccc'></a><br>" + escapedTitle);
+    }
+
+    /**
+     * Wait until scheduled thumbnails are written
+     * @param timeoutSeconds Maximum time to wait
+     * @return true if all thumbnails completed in time
+     */
+    public static boolean awaitThumbnails(long timeoutSeconds) {
+        if (pendingThumbnails.isEmpty()) {
+            return true;
+        }
+        try {
+            CompletableFuture.allOf(pendingThumbnails.toArray(new CompletableFuture<?>[0])).get(timeoutSeconds, TimeUnit.SECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            return pendingThumbnails.isEmpty();
+        } catch (TimeoutException e) {
+            logger.warn("Timed out waiting for {} report thumbnails", pendingThumbnails.size());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Get a one-line summary of report media
+     */
+    public static String getStatisticsSummary() {
+        long count = thumbnails.get();
+        return String.format("mode=%s, attached=%d, thumbnails=%d, failed=%d, avgThumbnail=%.1fms, "
+                        + "fullImages=%dKB, thumbnailsSize=%dKB",
+                EXTERNAL ? "external" : "embedded", attached.get(), count, thumbnailFailures.get(),
+                count == 0 ? 0.0 : thumbnailNanos.get() / 1_000_000.0 / count,
+                fullBytes.get() / 1024, thumbnailBytes.get() / 1024);
+    }
+
+    /**
+     * Generate the thumbnail once the full image is written (once per thumbnail file)
+     */
+    private static void scheduleThumbnail(Path fullImage, Path thumbnail) {
+        if (!thumbnailTargets.add(thumbnail)) {
+            return;
+        }
+
+        CompletableFuture<Void> future = ScreenshotWriter.whenWritten(fullImage)
+                .thenRunAsync(() -> writeThumbnail(fullImage, thumbnail), thumbnailExecutor);
+        pendingThumbnails.add(future);
+        future.whenComplete((result, error) -> pendingThumbnails.remove(future));
+    }
+
+    /**
+     * Scale the full image down to the thumbnail width and write it as JPEG
+     */
+    private static void writeThumbnail(Path fullImage, Path thumbnail) {
+        long start = System.nanoTime();
+        try {
+            if (Files.exists(thumbnail)) {
+                return;
+            }
+            BufferedImage source = ImageIO.read(fullImage.toFile());
+            if (source == null) {
+                throw new IOException("Not a readable image: " + fullImage);
+            }
+
+            int width = Math.min(THUMBNAIL_WIDTH, source.getWidth());
+            int height = Math.max(1, (int) Math.round(source.getHeight() * (width / (double) source.getWidth())));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = scaled.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+            graphics.dispose();
+
+            Files.createDirectories(thumbnail.getParent());
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(THUMBNAIL_QUALITY);
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(thumbnail.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(scaled, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+
+            thumbnails.incrementAndGet();
+            fullBytes.addAndGet(Files.size(fullImage));
+            thumbnailBytes.addAndGet(Files.size(thumbnail));
+            thumbnailNanos.addAndGet(System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            thumbnailFailures.incrementAndGet();
+            logger.warn("Failed to create thumbnail for {}: {}", fullImage, e.getMessage());
+        }
+    }
+
+    /**
+     * Get thumbnail path next to the full image (thumbs/<name>.jpg)
+     */
+    private static Path getThumbnailPath(Path fullImage) {
+        String fileName = fullImage.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return fullImage.resolveSibling(THUMBNAILS_DIR_NAME).resolve(baseName + ".jpg");
+    }
+
+    /**
+     * Get link to a file relative to the reports directory
+     */
+    private static String toReportLink(Path file) {
+        return REPORT_DIR.relativize(file.toAbsolutePath()).toString().replace('\\', '/');
+    }
+
+    /**
+     * Escape text for HTML output
+     */
+    private static String escape(String text) {
+        return text == null ? "" : text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("'", "&#39;");
+    }
+}
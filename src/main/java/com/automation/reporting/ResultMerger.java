@@ -0,0 +1,316 @@
+package com.automation.reporting;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Merge tool combining shard results streams (ResultStreamWriter) into one report
+ * Shard files are read record by record and test rows are streamed into the HTML output,
+ * so memory use is bounded by the summary counters, not by the number of tests.
+ * Produces a combined HTML report and a JSON summary.
+ *
+ * Example:
+ *     java -cp <classpath> com.automation.reporting.ResultMerger
+ *     java -cp <classpath> com.automation.reporting.ResultMerger reports/MergedReport.html ci/shard-1.ndjson ci/shard-2.ndjson
+ */
+public class ResultMerger {
+
+    private static final Logger logger = LogManager.getLogger(ResultMerger.class);
+
+    private static final String DEFAULT_OUTPUT = "reports/MergedReport.html";
+    private static final int SLOWEST_TESTS = 10;
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Totals collected while merging
+     */
+    public static class MergeSummary {
+        private final Map<String, Long> statusCounts = new TreeMap<>();
+        private final Map<String, long[]> shardTotals = new LinkedHashMap<>();
+        private final PriorityQueue<JsonNode> slowest = new PriorityQueue<>(
+                Comparator.comparingLong((JsonNode test) -> test.path("durationMs").asLong()));
+        private long tests;
+        private long totalDurationMs;
+        private long earliestStart = Long.MAX_VALUE;
+        private long latestEnd;
+        private long malformedRecords;
+
+        private void add(JsonNode test) {
+            String status = test.path("status").asText("unknown");
+            long duration = test.path("durationMs").asLong();
+            tests++;
+            totalDurationMs += duration;
+            statusCounts.merge(status, 1L, Long::sum);
+            earliestStart = Math.min(earliestStart, test.path("start").asLong(Long.MAX_VALUE));
+            latestEnd = Math.max(latestEnd, test.path("end").asLong());
+
+            long[] shard = shardTotals.computeIfAbsent(test.path("shard").asText(), key -> new long[2]);
+            shard[0]++;
+            shard[1] += duration;
+
+            slowest.add(summaryOf(test));
+            if (slowest.size() > SLOWEST_TESTS) {
+                slowest.poll();
+            }
+        }
+
+        public long getTests() {
+            return tests;
+        }
+
+        public Map<String, Long> getStatusCounts() {
+            return statusCounts;
+        }
+
+        public int getShards() {
+            return shardTotals.size();
+        }
+
+        /**
+         * Get summary as JSON
+         */
+        public ObjectNode toJson() {
+            ObjectNode json = mapper.createObjectNode();
+            json.put("tests", tests);
+            json.put("shards", shardTotals.size());
+            json.put("totalDurationMs", totalDurationMs);
+            json.put("wallClockMs", tests == 0 ? 0 : latestEnd - earliestStart);
+            json.put("malformedRecords", malformedRecords);
+            ObjectNode statuses = json.putObject("statuses");
+            statusCounts.forEach(statuses::put);
+            ObjectNode shards = json.putObject("shardTotals");
+            shardTotals.forEach((shard, totals) -> shards.putObject(shard)
+                    .put("tests", totals[0]).put("durationMs", totals[1]));
+            List<JsonNode> slowestTests = new ArrayList<>(slowest);
+            slowestTests.sort(Collections.reverseOrder(slowest.comparator()));
+            json.putArray("slowestTests").addAll(slowestTests);
+            return json;
+        }
+
+        private static JsonNode summaryOf(JsonNode test) {
+            ObjectNode summary = mapper.createObjectNode();
+            summary.put("name", test.path("name").asText());
+            summary.put("shard", test.path("shard").asText());
+            summary.put("durationMs", test.path("durationMs").asLong());
+            return summary;
+        }
+    }
+
+    /**
+     * Merge shard files from the command line, or all shard files in reports/results
+     * @param args [output html] [shard files...]
+     */
+    public static void main(String[] args) throws IOException {
+        Path output = Paths.get(args.length > 0 ? args[0] : DEFAULT_OUTPUT);
+        List<Path> shardFiles = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            shardFiles.add(Paths.get(args[i]));
+        }
+        if (shardFiles.isEmpty()) {
+            shardFiles = findShardFiles(Paths.get(ResultStreamWriter.RESULTS_DIR));
+        }
+
+        long start = System.currentTimeMillis();
+        MergeSummary summary = merge(shardFiles, output);
+        logger.info("Merged {} shard files ({} tests) into {} in {}ms",
+                shardFiles.size(), summary.getTests(), output, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Find shard files in a directory
+     * @param directory Directory containing shard-*.ndjson files
+     * @return Shard files sorted by name
+     */
+    public static List<Path> findShardFiles(Path directory) throws IOException {
+        List<Path> shardFiles = new ArrayList<>();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "shard-*.ndjson")) {
+                stream.forEach(shardFiles::add);
+            }
+        }
+        Collections.sort(shardFiles);
+        return shardFiles;
+    }
+
+    /**
+     * Stream shard files into a combined HTML report and a JSON summary next to it
+     * @param shardFiles Shard NDJSON files
+     * @param htmlOutput Combined HTML report path
+     * @return MergeSummary with totals
+     * @throws IOException if files cannot be read or written
+     */
+    public static MergeSummary merge(List<Path> shardFiles, Path htmlOutput) throws IOException {
+        return merge(shardFiles, htmlOutput, test -> true);
+    }
+
+    /**
+     * Stream shard files into a combined HTML report, keeping only the selected test records
+     * @param shardFiles Shard NDJSON files
+     * @param htmlOutput Combined HTML report path
+     * @param include Selects the "test" records to merge
+     * @return MergeSummary with totals
+     * @throws IOException if files cannot be read or written
+     */
+    public static MergeSummary merge(List<Path> shardFiles, Path htmlOutput, Predicate<JsonNode> include) throws IOException {
+        MergeSummary summary = new MergeSummary();
+        Path parent = htmlOutput.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+
+        // Rows are streamed to a temporary file so the summary can be placed above them
+        Path rowsFile = Files.createTempFile(parent, "merge-rows", ".html");
+        try {
+            try (BufferedWriter rows = Files.newBufferedWriter(rowsFile, StandardCharsets.UTF_8)) {
+                for (Path shardFile : shardFiles) {
+                    mergeShard(shardFile, rows, summary, include, parent);
+                }
+            }
+
+            try (BufferedWriter html = Files.newBufferedWriter(htmlOutput, StandardCharsets.UTF_8)) {
+                writeHeader(html, summary);
+                try (Reader rows = Files.newBufferedReader(rowsFile, StandardCharsets.UTF_8)) {
+                    rows.transferTo(html);
+                }
+                html.write("</tbody></table></body></html>\n");
+            }
+        } finally {
+            Files.deleteIfExists(rowsFile);
+        }
+
+        Path summaryFile = parent.resolve(htmlOutput.getFileName().toString().replaceFirst("\\.html?$", "") + "-summary.json");
+        mapper.writerWithDefaultPrettyPrinter().writeValue(summaryFile.toFile(), summary.toJson());
+        return summary;
+    }
+
+    /**
+     * Stream one shard file, writing a row per test record
+     */
+    private static void mergeShard(Path shardFile, Writer rows, MergeSummary summary, Predicate<JsonNode> include,
+                                   Path reportDir) throws IOException {
+        try (Reader reader = Files.newBufferedReader(shardFile, StandardCharsets.UTF_8);
+             MappingIterator<JsonNode> records = mapper.readerFor(JsonNode.class).readValues(reader)) {
+            while (records.hasNext()) {
+                JsonNode record;
+                try {
+                    record = records.next();
+                } catch (RuntimeException e) {
+                    // A shard killed mid-write leaves a truncated last line
+                    summary.malformedRecords++;
+                    logger.warn("Skipping malformed record in {}: {}", shardFile, e.getMessage());
+                    break;
+                }
+                if ("test".equals(record.path("type").asText()) && include.test(record)) {
+                    summary.add(record);
+                    writeRow(rows, record, reportDir);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the HTML head and summary section
+     */
+    private static void writeHeader(Writer html, MergeSummary summary) throws IOException {
+        html.write("<!DOCTYPE html><html><head><meta charset='utf-8'><title>Merged Test Report</title><style>"
+                + "body{font-family:sans-serif;font-size:13px} table{border-collapse:collapse;width:100%}"
+                + "td,th{border:1px solid #ddd;padding:4px;vertical-align:top} .pass{color:#2e7d32}"
+                + ".fail{color:#c62828} .skip{color:#f9a825} details{margin:0}</style></head><body>\n");
+        html.write("<h2>Merged Test Report</h2><p>");
+        html.write(summary.getTests() + " tests from " + summary.getShards() + " shards");
+        for (Map.Entry<String, Long> status : summary.getStatusCounts().entrySet()) {
+            html.write(" &middot; " + escape(status.getKey()) + ": " + status.getValue());
+        }
+        html.write("</p>\n<h3>Shards</h3><table><tr><th>Shard</th><th>Tests</th><th>Total duration (s)</th></tr>");
+        for (Map.Entry<String, long[]> shard : summary.shardTotals.entrySet()) {
+            html.write("<tr><td>" + escape(shard.getKey()) + "</td><td>" + shard.getValue()[0] + "</td><td>"
+                    + shard.getValue()[1] / 1000 + "</td></tr>");
+        }
+        html.write("</table>\n<h3>Tests</h3><table><thead><tr><th>Test</th><th>Shard</th><th>Status</th>"
+                + "<th>Duration (ms)</th><th>Steps</th></tr></thead><tbody>\n");
+    }
+
+    /**
+     * Write one test row with collapsible steps
+     * Media paths are recorded relative to the working directory; links are made relative to the report.
+     */
+    private static void writeRow(Writer rows, JsonNode test, Path reportDir) throws IOException {
+        String status = test.path("status").asText();
+        rows.write("<tr><td>" + escape(test.path("name").asText()) + "</td><td>" + escape(test.path("shard").asText())
+                + "</td><td class='" + cssClass(status) + "'>" + escape(status) + "</td><td>"
+                + test.path("durationMs").asLong() + "</td><td><details><summary>"
+                + test.path("steps").size() + " steps</summary>");
+        for (JsonNode step : test.path("steps")) {
+            // Step details are HTML authored by the framework, as in the Extent report
+            rows.write("<div class='" + cssClass(step.path("status").asText()) + "'>" + step.path("details").asText(""));
+            if (step.hasNonNull("media")) {
+                rows.write(" <a href='" + escape(toReportLink(step.path("media").asText(), reportDir)) + "'>screenshot</a>");
+            }
+            rows.write("</div>");
+        }
+        for (JsonNode media : test.path("media")) {
+            if (media.isTextual()) {
+                rows.write("<div><a href='" + escape(toReportLink(media.asText(), reportDir)) + "'>screenshot</a></div>");
+            }
+        }
+        rows.write("</details></td></tr>\n");
+    }
+
+    /**
+     * CSS class of an Extent status ("Pass" -> "pass")
+     */
+    private static String cssClass(String status) {
+        return escape(status.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get link to a media file relative to the report directory; URLs are kept as they are
+     */
+    private static String toReportLink(String mediaPath, Path reportDir) {
+        if (mediaPath.contains("://") || mediaPath.startsWith("data:")) {
+            return mediaPath;
+        }
+        Path file;
+        try {
+            file = Paths.get(mediaPath).toAbsolutePath().normalize();
+        } catch (InvalidPathException e) {
+            return mediaPath;
+        }
+        Path base = reportDir.normalize();
+        if (!file.getRoot().equals(base.getRoot())) {
+            // Different drive: link to the absolute file
+            return file.toUri().toString();
+        }
+        return base.relativize(file).toString().replace('\\', '/');
+    }
+
+    /**
+     * Escape text for HTML output
+     */
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("'", "&#39;");
+    }
+}
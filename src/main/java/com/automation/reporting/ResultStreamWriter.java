@@ -0,0 +1,190 @@
+package com.automation.reporting;
+
+import com.automation.core.ConfigReader;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.model.Log;
+import com.aventstack.extentreports.model.Media;
+import com.aventstack.extentreports.model.NamedAttribute;
+import com.aventstack.extentreports.model.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Per-shard results stream in NDJSON format (one JSON record per line)
+ * Each JVM (surefire fork or CI node) writes reports/results/shard-<id>.ndjson:
+ * a "shard" header record, one "test" record per completed test and an "end" record.
+ * Records are written as tests complete, so a shard file is usable even if the JVM dies.
+ * The file is truncated on the first open in the JVM only; writing after close() reopens
+ * it in append mode and adds a further "end" record with the running total.
+ * ResultMerger streams shard files into one combined report.
+ *
+ * Configuration (config.properties):
+ *     report.results.stream=true
+ *     report.shard.id=                (defaults to surefire fork number, then host-pid)
+ *
+ * Example:
+ *     ResultStreamWriter.writeTest(extentTest);
+ *     ResultStreamWriter.close();
+ */
+public class ResultStreamWriter {
+
+    private static final Logger logger = LogManager.getLogger(ResultStreamWriter.class);
+
+    public static final String RESULTS_DIR = "reports/results";
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("report.results.stream", true);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static BufferedWriter writer;
+    private static boolean truncated;
+    private static String shardId;
+    private static long testsWritten;
+
+    /**
+     * Write a completed test as a "test" record
+     * Reads the test model, so call it on the report event consumer thread
+     * @param test ExtentTest of the completed test
+     */
+    public static synchronized void writeTest(ExtentTest test) {
+        if (!ENABLED || test == null || !open()) {
+            return;
+        }
+
+        Test model = test.getModel();
+        ObjectNode record = mapper.createObjectNode();
+        record.put("type", "test");
+        record.put("shard", shardId);
+        record.put("name", model.getName());
+        record.put("description", model.getDescription());
+        record.put("status", model.getStatus().toString());
+        record.put("start", model.getStartTime().getTime());
+        record.put("end", model.getEndTime().getTime());
+        record.put("durationMs", model.getEndTime().getTime() - model.getStartTime().getTime());
+
+        ArrayNode categories = record.putArray("categories");
+        for (NamedAttribute category : model.getCategorySet()) {
+            categories.add(category.getName());
+        }
+
+        ArrayNode media = record.putArray("media");
+        for (Media item : model.getMedia()) {
+            media.add(item.getPath());
+        }
+
+        ArrayNode steps = record.putArray("steps");
+        for (Log log : model.getLogs()) {
+            ObjectNode step = steps.addObject();
+            step.put("status", log.getStatus().toString());
+            step.put("time", log.getTimestamp().getTime());
+            step.put("details", log.getDetails());
+            if (log.getMedia() != null) {
+                step.put("media", log.getMedia().getPath());
+            }
+        }
+
+        writeRecord(record);
+        testsWritten++;
+    }
+
+    /**
+     * Write the "end" record and close the shard file
+     */
+    public static synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+
+        ObjectNode record = mapper.createObjectNode();
+        record.put("type", "end");
+        record.put("shard", shardId);
+        record.put("tests", testsWritten);
+        record.put("finishedAt", System.currentTimeMillis());
+        writeRecord(record);
+
+        try {
+            writer.close();
+            logger.info("Results stream closed: shard {} ({} tests)", shardId, testsWritten);
+        } catch (IOException e) {
+            logger.error("Failed to close results stream: {}", e.getMessage());
+        }
+        writer = null;
+    }
+
+    /**
+     * Get the shard id of this JVM
+     * @return Configured shard id, surefire fork number, or host-pid
+     */
+    public static String getShardId() {
+        String configured = ConfigReader.getProperty("report.shard.id", "");
+        if (!configured.isEmpty()) {
+            return configured;
+        }
+        String forkNumber = System.getProperty("surefire.forkNumber");
+        if (forkNumber != null) {
+            return "fork" + forkNumber;
+        }
+        String runtimeName = ManagementFactory.getRuntimeMXBean().getName();
+        return runtimeName.replaceAll("[^a-zA-Z0-9.-]", "-");
+    }
+
+    /**
+     * Open the shard file, truncating it and writing the header record on first use only
+     */
+    private static boolean open() {
+        if (writer != null) {
+            return true;
+        }
+
+        shardId = getShardId();
+        Path shardFile = Paths.get(RESULTS_DIR, "shard-" + shardId + ".ndjson");
+        try {
+            Files.createDirectories(shardFile.getParent());
+            writer = Files.newBufferedWriter(shardFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    truncated ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            logger.error("Failed to open results stream {}: {}", shardFile, e.getMessage());
+            return false;
+        }
+
+        if (truncated) {
+            logger.info("Results stream reopened: {}", shardFile);
+            return true;
+        }
+        truncated = true;
+
+        ObjectNode header = mapper.createObjectNode();
+        header.put("type", "shard");
+        header.put("shard", shardId);
+        header.put("startedAt", System.currentTimeMillis());
+        header.put("browser", ConfigReader.getBrowser());
+        header.put("environment", ConfigReader.getEnvironment());
+        writeRecord(header);
+        logger.info("Results stream opened: {}", shardFile);
+        return true;
+    }
+
+    /**
+     * Write one record as a single line and flush it to disk
+     */
+    private static void writeRecord(ObjectNode record) {
+        try {
+            writer.write(mapper.writeValueAsString(record));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            logger.error("Failed to write results record: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package com.automation.reporting;
+
+import com.automation.core.ConfigReader;
+import com.automation.enums.TestStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Embedded file-based history of test executions across runs
+ * Executions are appended as NDJSON lines to a single local file (no server). On first
+ * query the file is read once into an in-memory index holding the latest entries per test,
+ * so lookups are O(1). Appends take an exclusive file lock and re-read the file under it,
+ * so parallel shards on one machine can share the file; the file is compacted to the latest
+ * entries per test once it grows past a multiple of that size. Queries use the index as
+ * loaded (or last refreshed by an append) in this JVM.
+ *
+ * Configuration (config.properties):
+ *     history.enabled=true
+ *     history.file=test-history/history.ndjson
+ *     history.keep.per.test=30
+ *
+ * Example:
+ *     TestHistoryStore.appendRun(TestResultCollector.getRecords());
+ *     long expected = TestHistoryStore.getExpectedDurationMs("com.automation.tests.LoginTest.testValidLogin");
+ *     List<String> slower = TestHistoryStore.findSlowdowns(1.5);
+ */
+public class TestHistoryStore {
+
+    private static final Logger logger = LogManager.getLogger(TestHistoryStore.class);
+
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("history.enabled", true);
+    private static final Path HISTORY_FILE = Paths.get(ConfigReader.getProperty("history.file", "test-history/history.ndjson"));
+    private static final int KEEP_PER_TEST = Math.max(1, ConfigReader.getIntProperty("history.keep.per.test", 30));
+    private static final int COMPACTION_FACTOR = 3;
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static Map<String, Deque<HistoryEntry>> index;
+    private static long fileLines;
+
+    /**
+     * One recorded execution of a test
+     */
+    public static class HistoryEntry {
+        private final String runId;
+        private final long timestamp;
+        private final String testId;
+        private final TestStatus status;
+        private final long durationMs;
+        private final String environment;
+        private final String browser;
+        private final long driverStartupMs;
+        private final int attempts;
+        private final boolean quarantined;
+
+        private HistoryEntry(String runId, long timestamp, String testId, TestStatus status, long durationMs,
+                             String environment, String browser, long driverStartupMs, int attempts,
+                             boolean quarantined) {
+            this.runId = runId;
+            this.timestamp = timestamp;
+            this.testId = testId;
+            this.status = status;
+            this.durationMs = durationMs;
+            this.environment = environment;
+            this.browser = browser;
+            this.driverStartupMs = driverStartupMs;
+            this.attempts = attempts;
+            this.quarantined = quarantined;
+        }
+
+        public String getRunId() {
+            return runId;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getTestId() {
+            return testId;
+        }
+
+        public TestStatus getStatus() {
+            return status;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public String getEnvironment() {
+            return environment;
+        }
+
+        public String getBrowser() {
+            return browser;
+        }
+
+        public long getDriverStartupMs() {
+            return driverStartupMs;
+        }
+
+        /**
+         * Number of executions in the run including retries
+         */
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * true if the test ran in the quarantine lane (a failure was reported as a skip)
+         */
+        public boolean isQuarantined() {
+            return quarantined;
+        }
+
+        private ObjectNode toJson() {
+            ObjectNode json = mapper.createObjectNode();
+            json.put("run", runId);
+            json.put("ts", timestamp);
+            json.put("test", testId);
+            json.put("status", status.name());
+            json.put("durationMs", durationMs);
+            json.put("env", environment);
+            json.put("browser", browser);
+            json.put("driverStartupMs", driverStartupMs);
+            json.put("attempts", attempts);
+            json.put("quarantined", quarantined);
+            return json;
+        }
+
+        private static HistoryEntry fromJson(JsonNode json) {
+            return new HistoryEntry(json.path("run").asText(), json.path("ts").asLong(), json.path("test").asText(),
+                    TestStatus.valueOf(json.path("status").asText()), json.path("durationMs").asLong(),
+                    json.path("env").asText(), json.path("browser").asText(), json.path("driverStartupMs").asLong(-1),
+                    json.path("attempts").asInt(1), json.path("quarantined").asBoolean(false));
+        }
+    }
+
+    /**
+     * Append the finished tests of this run to the history
+     * @param records Records from TestResultCollector (running tests are skipped)
+     * @return Number of entries appended
+     */
+    @SuppressWarnings("try")
+    public static synchronized int appendRun(Collection<TestResultCollector.TestRecord> records) {
+        if (!ENABLED) {
+            return 0;
+        }
+
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        String environment = ConfigReader.getEnvironment();
+        String browser = ConfigReader.getBrowser();
+        List<HistoryEntry> entries = new ArrayList<>();
+        for (TestResultCollector.TestRecord record : records) {
+            if (record.getStatus() != TestStatus.RUNNING) {
+                entries.add(new HistoryEntry(runId, record.getStartMillis(), record.getId(), record.getStatus(),
+                        record.getDurationMs(), environment, browser, record.getDriverStartupMs(),
+                        (int) record.getAttempts(), record.isQuarantined()));
+            }
+        }
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        try (FileChannel channel = openLocked()) {
+            // Re-read under the lock: other processes may have appended or compacted since the index was loaded
+            index = readFile();
+            try (BufferedWriter writer = Files.newBufferedWriter(HISTORY_FILE, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (HistoryEntry entry : entries) {
+                    writer.write(mapper.writeValueAsString(entry.toJson()));
+                    writer.newLine();
+                    addToIndex(entry);
+                }
+            }
+            fileLines += entries.size();
+            if (fileLines > (long) COMPACTION_FACTOR * KEEP_PER_TEST * Math.max(1, index.size())) {
+                compactLocked();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to append test history to {}: {}", HISTORY_FILE, e.getMessage());
+            return 0;
+        }
+
+        logger.info("Appended {} executions of run {} to test history {}", entries.size(), runId, HISTORY_FILE);
+        return entries.size();
+    }
+
+    /**
+     * Get recorded executions of a test, oldest first
+     * @param testId Test id (class.method[parameters])
+     * @return Latest executions, at most history.keep.per.test
+     */
+    public static synchronized List<HistoryEntry> getHistory(String testId) {
+        loadIndex();
+        Deque<HistoryEntry> entries = index.get(testId);
+        return entries == null ? Collections.emptyList() : new ArrayList<>(entries);
+    }
+
+    /**
+     * Get ids of all tests with history
+     */
+    public static synchronized Set<String> getTestIds() {
+        loadIndex();
+        return Collections.unmodifiableSet(new TreeSet<>(index.keySet()));
+    }
+
+    /**
+     * Get expected duration of a test: median of its recorded passing durations
+     * (all durations if it never passed)
+     * @param testId Test id
+     * @return Expected duration in milliseconds, or -1 if there is no history
+     */
+    public static long getExpectedDurationMs(String testId) {
+        List<HistoryEntry> entries = getHistory(testId);
+        long[] passing = entries.stream().filter(entry -> entry.status == TestStatus.PASSED)
+                .mapToLong(HistoryEntry::getDurationMs).toArray();
+        long[] durations = passing.length > 0 ? passing : entries.stream().mapToLong(HistoryEntry::getDurationMs).toArray();
+        return durations.length == 0 ? -1 : median(durations);
+    }
+
+    /**
+     * Get failure rate of a test over its recorded executions
+     * @param testId Test id
+     * @return Fraction of failed executions (0.0 if there is no history)
+     */
+    public static double getFailureRate(String testId) {
+        List<HistoryEntry> entries = getHistory(testId);
+        if (entries.isEmpty()) {
+            return 0.0;
+        }
+        long failed = entries.stream().filter(entry -> entry.status == TestStatus.FAILED).count();
+        return failed / (double) entries.size();
+    }
+
+    /**
+     * Get duration trend of a test: durations of its recorded executions, oldest first
+     * @param testId Test id
+     * @return Durations in milliseconds
+     */
+    public static long[] getDurationTrend(String testId) {
+        return getHistory(testId).stream().mapToLong(HistoryEntry::getDurationMs).toArray();
+    }
+
+    /**
+     * Find tests whose latest passing duration exceeds their earlier median by a factor
+     * @param factor Slowdown factor, e.g. 1.5
+     * @return Test ids with their latest and median durations, slowest relative change first
+     */
+    public static List<String> findSlowdowns(double factor) {
+        Map<String, Double> ratios = new HashMap<>();
+        Map<String, String> descriptions = new HashMap<>();
+
+        for (String testId : getTestIds()) {
+            long[] passing = getHistory(testId).stream().filter(entry -> entry.status == TestStatus.PASSED)
+                    .mapToLong(HistoryEntry::getDurationMs).toArray();
+            if (passing.length < 3) {
+                continue;
+            }
+            long latest = passing[passing.length - 1];
+            long baseline = median(Arrays.copyOf(passing, passing.length - 1));
+            if (baseline > 0 && latest > baseline * factor) {
+                ratios.put(testId, latest / (double) baseline);
+                descriptions.put(testId, String.format("%s: %dms (median %dms)", testId, latest, baseline));
+            }
+        }
+
+        List<String> slowdowns = new ArrayList<>(ratios.keySet());
+        slowdowns.sort((first, second) -> Double.compare(ratios.get(second), ratios.get(first)));
+        slowdowns.replaceAll(descriptions::get);
+        return slowdowns;
+    }
+
+    /**
+     * Get median driver startup time over all recorded executions
+     * @return Median in milliseconds, or -1 if unknown
+     */
+    public static synchronized long getMedianDriverStartupMs() {
+        loadIndex();
+        long[] startups = index.values().stream().flatMap(Collection::stream)
+                .mapToLong(HistoryEntry::getDriverStartupMs).filter(startup -> startup >= 0).toArray();
+        return startups.length == 0 ? -1 : median(startups);
+    }
+
+    /**
+     * Rewrite the history file keeping only the latest entries per test
+     */
+    @SuppressWarnings("try")
+    public static synchronized void compact() {
+        loadIndex();
+        try (FileChannel channel = openLocked()) {
+            compactLocked();
+        } catch (IOException e) {
+            logger.error("Failed to compact test history {}: {}", HISTORY_FILE, e.getMessage());
+        }
+    }
+
+    /**
+     * Compact while holding the history file lock
+     */
+    private static void compactLocked() throws IOException {
+        Path temporary = HISTORY_FILE.resolveSibling(HISTORY_FILE.getFileName() + ".compact");
+        long before = fileLines;
+
+        // Re-read under the lock: other processes may have appended since the index was loaded
+        Map<String, Deque<HistoryEntry>> current = readFile();
+        long kept = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (Deque<HistoryEntry> entries : current.values()) {
+                for (HistoryEntry entry : entries) {
+                    writer.write(mapper.writeValueAsString(entry.toJson()));
+                    writer.newLine();
+                    kept++;
+                }
+            }
+        }
+        Files.move(temporary, HISTORY_FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        index = current;
+        fileLines = kept;
+        logger.info("Compacted test history {}: {} -> {} entries", HISTORY_FILE, before, kept);
+    }
+
+    /**
+     * Load the index from the history file on first use
+     */
+    private static void loadIndex() {
+        if (index != null) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            index = readFile();
+        } catch (IOException e) {
+            logger.error("Failed to read test history {}: {}", HISTORY_FILE, e.getMessage());
+            index = new LinkedHashMap<>();
+        }
+        logger.debug("Loaded test history for {} tests ({} lines) in {}ms",
+                index.size(), fileLines, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Read the history file into a per-test index of the latest entries
+     */
+    private static Map<String, Deque<HistoryEntry>> readFile() throws IOException {
+        Map<String, Deque<HistoryEntry>> entries = new LinkedHashMap<>();
+        fileLines = 0;
+        if (!Files.exists(HISTORY_FILE)) {
+            return entries;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(HISTORY_FILE, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                fileLines++;
+                try {
+                    HistoryEntry entry = HistoryEntry.fromJson(mapper.readTree(line));
+                    Deque<HistoryEntry> testEntries = entries.computeIfAbsent(entry.testId, key -> new ArrayDeque<>());
+                    testEntries.addLast(entry);
+                    if (testEntries.size() > KEEP_PER_TEST) {
+                        testEntries.removeFirst();
+                    }
+                } catch (IOException | IllegalArgumentException e) {
+                    logger.debug("Skipping malformed history line: {}", e.getMessage());
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Add an entry to the index, dropping the oldest beyond the per-test limit
+     */
+    private static void addToIndex(HistoryEntry entry) {
+        Deque<HistoryEntry> entries = index.computeIfAbsent(entry.testId, key -> new ArrayDeque<>());
+        entries.addLast(entry);
+        if (entries.size() > KEEP_PER_TEST) {
+            entries.removeFirst();
+        }
+    }
+
+    /**
+     * Open the lock file next to the history file and take an exclusive lock
+     * Closing the returned channel releases the lock
+     */
+    private static FileChannel openLocked() throws IOException {
+        Path parent = HISTORY_FILE.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        FileChannel channel = FileChannel.open(HISTORY_FILE.resolveSibling(HISTORY_FILE.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.lock();
+        return channel;
+    }
+
+    /**
+     * Median of values (sorts the array)
+     */
+    private static long median(long[] values) {
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+}
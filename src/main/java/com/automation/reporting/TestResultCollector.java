@@ -1,4 +1,445 @@
 package com.automation.reporting;
 
+import com.automation.enums.TestStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe in-memory store of test results and run metrics
+ * Fed by TestListener; records per-test status, duration, retries and groups in a
+ * ConcurrentHashMap, counts statuses with LongAdders and keeps a log2-bucket duration
+ * histogram per group. Queryable during the run, exported as JSON and CSV at suite end.
+ *
+ * Example:
+ *     TestResultCollector.testStarted(id, "LoginTest", "testValidLogin", new String[]{"smoke"});
+ *     TestResultCollector.testFinished(id, TestStatus.PASSED, 1250, null);
+ *     long failed = TestResultCollector.getCount(TestStatus.FAILED);
+ *     TestResultCollector.exportJson(Paths.get("reports/test-results.json"));
+ */
 public class TestResultCollector {
+
+    private static final Logger logger = LogManager.getLogger(TestResultCollector.class);
+
+    private static final String ALL_GROUPS = "(all)";
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final ConcurrentHashMap<String, TestRecord> records = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, DurationHistogram> groupHistograms = new ConcurrentHashMap<>();
+    private static final Map<TestStatus, LongAdder> statusCounts = new EnumMap<>(TestStatus.class);
+    private static final LongAdder retries = new LongAdder();
+
+    static {
+        for (TestStatus status : TestStatus.values()) {
+            statusCounts.put(status, new LongAdder());
+        }
+    }
+
+    /**
+     * Result record of one test (latest attempt)
+     */
+    public static class TestRecord {
+        private final String id;
+        private final String className;
+        private final String methodName;
+        private final List<String> groups;
+        private volatile TestStatus status = TestStatus.RUNNING;
+        private volatile long startMillis;
+        private volatile long durationMs;
+        private volatile String error;
+        private volatile String thread;
+        private volatile long driverStartupMs = -1;
+        private volatile boolean quarantined;
+        private final AtomicLong attempts = new AtomicLong();
+
+        private TestRecord(String id, String className, String methodName, String[] groups) {
+            this.id = id;
+            this.className = className;
+            this.methodName = methodName;
+            this.groups = groups == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(groups.clone()));
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        public List<String> getGroups() {
+            return groups;
+        }
+
+        public TestStatus getStatus() {
+            return status;
+        }
+
+        public long getStartMillis() {
+            return startMillis;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        /**
+         * Driver startup time of the latest attempt, or -1 if unknown
+         */
+        public long getDriverStartupMs() {
+            return driverStartupMs;
+        }
+
+        /**
+         * Number of executions including retries
+         */
+        public long getAttempts() {
+            return attempts.get();
+        }
+
+        /**
+         * true if the test ran in the quarantine lane and its failure was reported as a skip;
+         * the status keeps the real outcome
+         */
+        public boolean isQuarantined() {
+            return quarantined;
+        }
+    }
+
+    /**
+     * Duration histogram with power-of-two millisecond buckets
+     */
+    public static class DurationHistogram {
+        private static final int BUCKETS = 40;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final AtomicLong maxMs = new AtomicLong();
+
+        private void record(long durationMs) {
+            long value = Math.max(0, durationMs);
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value)));
+            count.increment();
+            totalMs.add(value);
+            if (value > maxMs.get()) {
+                maxMs.accumulateAndGet(value, Math::max);
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public double getMeanMs() {
+            long samples = count.sum();
+            return samples == 0 ? 0.0 : totalMs.sum() / (double) samples;
+        }
+
+        public long getMaxMs() {
+            return maxMs.get();
+        }
+
+        /**
+         * Get approximate percentile (upper bound of the bucket containing it)
+         * @param percentile Percentile between 0 and 100
+         * @return Duration in milliseconds
+         */
+        public long getPercentileMs(double percentile) {
+            long samples = count.sum();
+            if (samples == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(samples * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(maxMs.get(), i == 0 ? 0 : (1L << i) - 1);
+                }
+            }
+            return maxMs.get();
+        }
+    }
+
+    /**
+     * Record the start of a test (or of a retry of it)
+     * @param testId Unique test id (class, method and parameters)
+     * @param className Test class name
+     * @param methodName Test method name
+     * @param groups Test groups
+     */
+    public static void testStarted(String testId, String className, String methodName, String[] groups) {
+        TestRecord record = records.computeIfAbsent(testId, id -> new TestRecord(id, className, methodName, groups));
+        if (record.attempts.incrementAndGet() > 1) {
+            retries.increment();
+        }
+        record.startMillis = System.currentTimeMillis();
+        record.thread = Thread.currentThread().getName();
+        record.status = TestStatus.RUNNING;
+        statusCounts.get(TestStatus.RUNNING).increment();
+    }
+
+    /**
+     * Record the outcome of a test
+     * @param testId Unique test id used in testStarted
+     * @param status Final status of this attempt
+     * @param durationMs Duration in milliseconds
+     * @param error Failure or skip reason, or null
+     */
+    public static void testFinished(String testId, TestStatus status, long durationMs, String error) {
+        testFinished(testId, status, durationMs, error, false);
+    }
+
+    /**
+     * Record the outcome of a test, flagging a failure of the quarantine lane
+     * The record keeps the real status; the counts use the reported one, so a quarantined
+     * failure counts as skipped and does not decide the verdict
+     * @param testId Unique test id used in testStarted
+     * @param status Real status of this attempt
+     * @param durationMs Duration in milliseconds
+     * @param error Failure or skip reason, or null
+     * @param quarantined true if the failure was reported as a skip by the quarantine lane
+     */
+    public static void testFinished(String testId, TestStatus status, long durationMs, String error, boolean quarantined) {
+        TestRecord record = records.get(testId);
+        if (record == null) {
+            logger.warn("Result recorded for unknown test: {}", testId);
+            return;
+        }
+
+        record.durationMs = durationMs;
+        record.error = error;
+        record.quarantined = quarantined;
+        record.status = status;
+        statusCounts.get(TestStatus.RUNNING).decrement();
+        statusCounts.get(quarantined ? TestStatus.SKIPPED : status).increment();
+
+        histogramFor(ALL_GROUPS).record(durationMs);
+        for (String group : record.groups) {
+            histogramFor(group).record(durationMs);
+        }
+    }
+
+    /**
+     * Record an attempt that will be retried; it does not count as a final result
+     * @param testId Unique test id used in testStarted
+     * @param durationMs Duration of the failed attempt
+     * @param error Failure reason
+     */
+    public static void testRetrying(String testId, long durationMs, String error) {
+        TestRecord record = records.get(testId);
+        if (record != null) {
+            record.durationMs = durationMs;
+            record.error = error;
+            statusCounts.get(TestStatus.RUNNING).decrement();
+        }
+    }
+
+    /**
+     * Record driver startup time of the current attempt
+     * @param testId Unique test id used in testStarted
+     * @param startupMs Driver startup time in milliseconds
+     */
+    public static void recordDriverStartup(String testId, long startupMs) {
+        TestRecord record = records.get(testId);
+        if (record != null) {
+            record.driverStartupMs = startupMs;
+        }
+    }
+
+    /**
+     * Get record of a test
+     * @param testId Unique test id
+     * @return TestRecord or null if the test has not started
+     */
+    public static TestRecord getRecord(String testId) {
+        return records.get(testId);
+    }
+
+    /**
+     * Get a snapshot of all records
+     */
+    public static List<TestRecord> getRecords() {
+        return new ArrayList<>(records.values());
+    }
+
+    /**
+     * Get records with the given status
+     * @param status Test status
+     * @return Matching records
+     */
+    public static List<TestRecord> getRecords(TestStatus status) {
+        List<TestRecord> matching = new ArrayList<>();
+        for (TestRecord record : records.values()) {
+            if (record.status == status) {
+                matching.add(record);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Get number of test results with the given status
+     * @param status Test status
+     * @return Count (attempts that were retried are not counted)
+     */
+    public static long getCount(TestStatus status) {
+        return statusCounts.get(status).sum();
+    }
+
+    /**
+     * Get total number of retries
+     */
+    public static long getRetryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Get duration histogram of a group
+     * @param group Group name
+     * @return DurationHistogram, or null if no test of the group has finished
+     */
+    public static DurationHistogram getGroupHistogram(String group) {
+        return groupHistograms.get(group);
+    }
+
+    /**
+     * Get a one-line summary of results and durations
+     */
+    public static String getStatisticsSummary() {
+        DurationHistogram all = groupHistograms.get(ALL_GROUPS);
+        return String.format("tests=%d, passed=%d, failed=%d, skipped=%d, retries=%d, p50=%dms, p90=%dms, max=%dms",
+                records.size(), getCount(TestStatus.PASSED), getCount(TestStatus.FAILED), getCount(TestStatus.SKIPPED),
+                getRetryCount(), all == null ? 0 : all.getPercentileMs(50), all == null ? 0 : all.getPercentileMs(90),
+                all == null ? 0 : all.getMaxMs());
+    }
+
+    /**
+     * Export records, counts and group statistics as JSON
+     * @param target Target file
+     */
+    public static void exportJson(Path target) {
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode counts = root.putObject("counts");
+        statusCounts.forEach((status, count) -> counts.put(status.name(), count.sum()));
+        counts.put("RETRIES", getRetryCount());
+
+        ObjectNode groups = root.putObject("groups");
+        new TreeMap<>(groupHistograms).forEach((group, histogram) -> groups.putObject(group)
+                .put("count", histogram.getCount())
+                .put("meanMs", Math.round(histogram.getMeanMs()))
+                .put("p50Ms", histogram.getPercentileMs(50))
+                .put("p90Ms", histogram.getPercentileMs(90))
+                .put("p99Ms", histogram.getPercentileMs(99))
+                .put("maxMs", histogram.getMaxMs()));
+
+        ArrayNode tests = root.putArray("tests");
+        for (TestRecord record : sortedRecords()) {
+            ObjectNode test = tests.addObject();
+            test.put("id", record.id);
+            test.put("class", record.className);
+            test.put("method", record.methodName);
+            test.put("status", record.status.name());
+            test.put("startMillis", record.startMillis);
+            test.put("durationMs", record.durationMs);
+            test.put("attempts", record.getAttempts());
+            test.put("thread", record.thread);
+            test.put("driverStartupMs", record.driverStartupMs);
+            test.put("error", record.error);
+            test.put("quarantined", record.quarantined);
+            ArrayNode testGroups = test.putArray("groups");
+            record.groups.forEach(testGroups::add);
+        }
+
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            mapper.writerWithDefaultPrettyPrinter().writeValue(target.toFile(), root);
+            logger.info("Test results exported: {}", target);
+        } catch (IOException e) {
+            logger.error("Failed to export test results to {}: {}", target, e.getMessage());
+        }
+    }
+
+    /**
+     * Export one CSV row per test
+     * @param target Target file
+     */
+    public static void exportCsv(Path target) {
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+                writer.write("id,class,method,status,startMillis,durationMs,attempts,groups,thread,driverStartupMs,error,quarantined");
+                writer.newLine();
+                for (TestRecord record : sortedRecords()) {
+                    writer.write(String.join(",", csv(record.id), csv(record.className), csv(record.methodName),
+                            record.status.name(), String.valueOf(record.startMillis), String.valueOf(record.durationMs),
+                            String.valueOf(record.getAttempts()), csv(String.join(";", record.groups)),
+                            csv(record.thread), String.valueOf(record.driverStartupMs), csv(record.error),
+                            String.valueOf(record.quarantined)));
+                    writer.newLine();
+                }
+            }
+            logger.info("Test results exported: {}", target);
+        } catch (IOException e) {
+            logger.error("Failed to export test results to {}: {}", target, e.getMessage());
+        }
+    }
+
+    /**
+     * Get histogram of a group, creating it on first use
+     */
+    private static DurationHistogram histogramFor(String group) {
+        DurationHistogram histogram = groupHistograms.get(group);
+        return histogram != null ? histogram : groupHistograms.computeIfAbsent(group, key -> new DurationHistogram());
+    }
+
+    /**
+     * Records sorted by start time for stable exports
+     */
+    private static List<TestRecord> sortedRecords() {
+        List<TestRecord> sorted = getRecords();
+        sorted.sort((first, second) -> Long.compare(first.startMillis, second.startMillis));
+        return sorted;
+    }
+
+    /**
+     * Quote a CSV value
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return "\"" + value.replace("\"", "\"\"").replace("\r", " ").replace("\n", " ") + "\"";
+    }
 }
@@ -0,0 +1,452 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Artifact retention manager for partitioned screenshot storage
+ * Artifacts are written into date/run partitions (reports/screenshots/yyyy-MM-dd/run_HH-mm-ss_pid)
+ * and each partition keeps a small index file with its file count and size. The index is
+ * written when the partition is created and rewritten at most once per second while
+ * artifacts are recorded, so live and killed runs have one too. Retention reads only the
+ * partition indexes and deletes whole partitions, so cleanup time depends on the number of
+ * runs kept, not on the number of files.
+ *
+ * Each JVM holds a file lock on a lock file in its own partition for as long as it runs.
+ * Retention skips partitions whose lock is held by another live JVM and never writes into
+ * a partition it does not own. A partition without an index (written before indexes
+ * existed, or killed before its first index write) is not sized; it only ages out.
+ * Screenshots from before partitioning, stored directly in reports/screenshots, are
+ * deleted once they are older than the retention period.
+ *
+ * Configuration (config.properties):
+ *     artifacts.retention.days=7
+ *     artifacts.retention.max.size.mb=2048
+ *
+ * Example:
+ *     Path partition = ArtifactRetentionManager.getCurrentPartition();
+ *     ArtifactRetentionManager.enforceQuotas();
+ */
+public class ArtifactRetentionManager {
+
+    private static final Logger logger = LogManager.getLogger(ArtifactRetentionManager.class);
+
+    private static final String ARTIFACTS_ROOT = "reports/screenshots";
+    private static final String INDEX_FILE_NAME = "partition.index";
+    private static final String LOCK_FILE_NAME = "partition.lock";
+    private static final String TRASH_DIR_NAME = ".trash";
+    private static final long INDEX_WRITE_INTERVAL_MILLIS = 1000;
+    private static final int RETENTION_DAYS = ConfigReader.getIntProperty("artifacts.retention.days", 7);
+    private static final long MAX_SIZE_BYTES = ConfigReader.getIntProperty("artifacts.retention.max.size.mb", 2048) * 1024L * 1024L;
+
+    private static final Date RUN_STARTED = new Date();
+    private static final Path CURRENT_PARTITION = Paths.get(ARTIFACTS_ROOT,
+            new SimpleDateFormat("yyyy-MM-dd").format(RUN_STARTED),
+            "run_" + new SimpleDateFormat("HH-mm-ss").format(RUN_STARTED) + "_" + ProcessHandle.current().pid());
+
+    private static final LongAdder currentFileCount = new LongAdder();
+    private static final LongAdder currentBytes = new LongAdder();
+    private static final AtomicLong lastIndexWriteAt = new AtomicLong();
+
+    // Held until the JVM exits: marks the current partition as owned by a live run
+    private static FileLock currentPartitionLock;
+
+    /**
+     * Partition entry read from its index
+     */
+    private static class Partition {
+        private final Path path;
+        private final LocalDate date;
+        private final long createdAt;
+        private final long sizeBytes;
+        private final boolean indexed;
+
+        private Partition(Path path, LocalDate date, long createdAt, long sizeBytes, boolean indexed) {
+            this.path = path;
+            this.date = date;
+            this.createdAt = createdAt;
+            this.sizeBytes = sizeBytes;
+            this.indexed = indexed;
+        }
+    }
+
+    /**
+     * Get the partition directory for artifacts of the current run, creating and locking it
+     * on first use
+     * @return Current run partition path
+     */
+    public static Path getCurrentPartition() {
+        claimCurrentPartition();
+        return CURRENT_PARTITION;
+    }
+
+    /**
+     * Create the current partition and lock it for the lifetime of this JVM
+     */
+    private static synchronized void claimCurrentPartition() {
+        if (currentPartitionLock != null) {
+            return;
+        }
+        try {
+            Files.createDirectories(CURRENT_PARTITION);
+            FileChannel channel = FileChannel.open(CURRENT_PARTITION.resolve(LOCK_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            currentPartitionLock = channel.lock();
+        } catch (IOException e) {
+            logger.error("Failed to lock partition {}: {}", CURRENT_PARTITION, e.getMessage());
+        }
+        writeIndex();
+    }
+
+    /**
+     * Record an artifact written into the current partition
+     * @param sizeBytes Artifact size in bytes
+     */
+    public static void recordArtifact(long sizeBytes) {
+        currentFileCount.increment();
+        currentBytes.add(sizeBytes);
+
+        long now = System.currentTimeMillis();
+        long last = lastIndexWriteAt.get();
+        if (now - last >= INDEX_WRITE_INTERVAL_MILLIS && lastIndexWriteAt.compareAndSet(last, now)) {
+            writeIndex();
+        }
+    }
+
+    /**
+     * Write the index file of the current partition
+     */
+    public static void writeCurrentIndex() {
+        if (writeIndex()) {
+            logger.info("Partition index written: {} ({} files, {}KB)",
+                    CURRENT_PARTITION, currentFileCount.sum(), currentBytes.sum() / 1024);
+        }
+    }
+
+    /**
+     * Replace the index file of the current partition (written to a temporary file and moved,
+     * so retention in another JVM never reads a partial index)
+     * @return true if the index was written
+     */
+    private static synchronized boolean writeIndex() {
+        if (!Files.isDirectory(CURRENT_PARTITION)) {
+            return false;
+        }
+
+        Properties index = new Properties();
+        index.setProperty("createdAt", String.valueOf(RUN_STARTED.getTime()));
+        index.setProperty("updatedAt", String.valueOf(System.currentTimeMillis()));
+        index.setProperty("fileCount", String.valueOf(currentFileCount.sum()));
+        index.setProperty("sizeBytes", String.valueOf(currentBytes.sum()));
+
+        Path indexFile = CURRENT_PARTITION.resolve(INDEX_FILE_NAME);
+        Path temporaryFile = CURRENT_PARTITION.resolve(INDEX_FILE_NAME + ".tmp");
+        try {
+            try (OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+                index.store(outputStream, "Artifact partition index");
+            }
+            Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to write partition index {}: {}", CURRENT_PARTITION, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Enforce configured age and total-size quotas
+     * @return Number of partitions removed
+     */
+    public static int enforceQuotas() {
+        return enforceQuotas(RETENTION_DAYS, MAX_SIZE_BYTES);
+    }
+
+    /**
+     * Enforce age and total-size quotas by removing whole partitions, oldest first
+     * The partition of the current run is never removed; unindexed partitions count as empty
+     * towards the size quota. Legacy screenshots in the artifacts root are removed by age.
+     * @param daysToKeep Partitions older than this many days are removed
+     * @param maxSizeBytes Maximum total size of all partitions
+     * @return Number of partitions removed
+     */
+    public static int enforceQuotas(int daysToKeep, long maxSizeBytes) {
+        long start = System.currentTimeMillis();
+        purgeTrash();
+        LocalDate cutoff = LocalDate.now().minusDays(daysToKeep);
+        int legacyRemoved = removeLegacyFiles(cutoff);
+        List<Partition> partitions = listPartitions();
+        partitions.sort(Comparator.comparing((Partition partition) -> partition.date)
+                .thenComparingLong(partition -> partition.createdAt));
+
+        long totalBytes = 0;
+        int unindexed = 0;
+        for (Partition partition : partitions) {
+            totalBytes += partition.sizeBytes;
+            unindexed += partition.indexed ? 0 : 1;
+        }
+
+        int removed = 0;
+        long removedBytes = 0;
+
+        for (Partition partition : partitions) {
+            if (partition.path.equals(CURRENT_PARTITION) || isLockedByLiveRun(partition.path)) {
+                continue;
+            }
+            boolean expired = partition.date.isBefore(cutoff);
+            boolean overQuota = totalBytes - removedBytes > maxSizeBytes;
+            if (!expired && !overQuota) {
+                break;
+            }
+            if (removePartition(partition.path)) {
+                removed++;
+                removedBytes += partition.sizeBytes;
+            }
+        }
+
+        removeEmptyDateDirectories();
+        logger.info("Retention checked {} partitions ({} without index) in {}ms: removed {} ({}KB), kept {}KB, "
+                        + "removed {} legacy files", partitions.size(), unindexed, System.currentTimeMillis() - start,
+                removed, removedBytes / 1024, (totalBytes - removedBytes) / 1024, legacyRemoved);
+        return removed;
+    }
+
+    /**
+     * List partitions with their index data (date directories, then run directories)
+     */
+    private static List<Partition> listPartitions() {
+        List<Partition> partitions = new ArrayList<>();
+        Path root = Paths.get(ARTIFACTS_ROOT);
+        if (!Files.isDirectory(root)) {
+            return partitions;
+        }
+
+        try (DirectoryStream<Path> dateDirectories = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path dateDirectory : dateDirectories) {
+                LocalDate date = parseDate(dateDirectory.getFileName().toString());
+                if (date == null) {
+                    continue;
+                }
+                try (DirectoryStream<Path> runDirectories = Files.newDirectoryStream(dateDirectory, Files::isDirectory)) {
+                    for (Path runDirectory : runDirectories) {
+                        partitions.add(readPartition(runDirectory, date));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to list artifact partitions: {}", e.getMessage());
+        }
+
+        return partitions;
+    }
+
+    /**
+     * Check if another running JVM holds the lock of a partition
+     */
+    private static boolean isLockedByLiveRun(Path runDirectory) {
+        Path lockFile = runDirectory.resolve(LOCK_FILE_NAME);
+        if (!Files.exists(lockFile)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                return true;
+            }
+            lock.release();
+            return false;
+        } catch (OverlappingFileLockException e) {
+            return true;
+        } catch (IOException e) {
+            // Cannot tell: treat as live rather than delete a running partition
+            logger.debug("Failed to check partition lock {}: {}", lockFile, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Read partition index; a partition without index is not walked (its cost would grow with
+     * its file count) and is only removed by age
+     */
+    private static Partition readPartition(Path runDirectory, LocalDate date) throws IOException {
+        Path indexFile = runDirectory.resolve(INDEX_FILE_NAME);
+
+        if (Files.exists(indexFile)) {
+            Properties index = new Properties();
+            try (InputStream inputStream = Files.newInputStream(indexFile)) {
+                index.load(inputStream);
+            }
+            return new Partition(runDirectory, date,
+                    Long.parseLong(index.getProperty("createdAt", "0")),
+                    Long.parseLong(index.getProperty("sizeBytes", "0")), true);
+        }
+
+        logger.debug("Partition without index: {}", runDirectory);
+        return new Partition(runDirectory, date, Files.getLastModifiedTime(runDirectory).toMillis(), 0, false);
+    }
+
+    /**
+     * Delete screenshots stored directly in the artifacts root (the layout before partitioning)
+     * that were last modified before the cutoff date
+     * @return Number of files deleted
+     */
+    private static int removeLegacyFiles(LocalDate cutoff) {
+        Path root = Paths.get(ARTIFACTS_ROOT);
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        long cutoffMillis = cutoff.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, Files::isRegularFile)) {
+            for (Path file : files) {
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() < cutoffMillis && Files.deleteIfExists(file)) {
+                        removed++;
+                    }
+                } catch (IOException e) {
+                    logger.debug("Failed to delete legacy screenshot {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to list legacy screenshots: {}", e.getMessage());
+        }
+        return removed;
+    }
+
+    /**
+     * Move partition into the trash directory and delete it in the background
+     */
+    private static boolean removePartition(Path partition) {
+        Path trash = Paths.get(ARTIFACTS_ROOT, TRASH_DIR_NAME, UUID.randomUUID().toString());
+        try {
+            Files.createDirectories(trash.getParent());
+            Files.move(partition, trash);
+        } catch (IOException e) {
+            logger.error("Failed to remove partition {}: {}", partition, e.getMessage());
+            return false;
+        }
+
+        Thread deleter = new Thread(() -> deleteTree(trash), "artifact-retention-delete");
+        deleter.setDaemon(true);
+        deleter.start();
+        logger.debug("Removed artifact partition: {}", partition);
+        return true;
+    }
+
+    /**
+     * Finish deletions left in the trash directory by earlier runs
+     * Only the entries present now are purged, and the trash directory itself is kept, so
+     * partitions moved in concurrently (by this or another JVM) are left to their own deleter
+     */
+    private static void purgeTrash() {
+        Path trash = Paths.get(ARTIFACTS_ROOT, TRASH_DIR_NAME);
+        if (!Files.isDirectory(trash)) {
+            return;
+        }
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> children = Files.newDirectoryStream(trash)) {
+            children.forEach(entries::add);
+        } catch (IOException e) {
+            logger.debug("Failed to list trash {}: {}", trash, e.getMessage());
+            return;
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        Thread deleter = new Thread(() -> entries.forEach(ArtifactRetentionManager::deleteTree), "artifact-retention-purge");
+        deleter.setDaemon(true);
+        deleter.start();
+    }
+
+    /**
+     * Delete a directory tree, logging but ignoring failures
+     * Files already deleted by a concurrent deleter are skipped
+     */
+    private static void deleteTree(Path directory) {
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    Files.deleteIfExists(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                    if (e instanceof NoSuchFileException) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    throw e;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                    Files.deleteIfExists(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Failed to delete {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove date directories left without partitions
+     */
+    private static void removeEmptyDateDirectories() {
+        try (DirectoryStream<Path> dateDirectories = Files.newDirectoryStream(Paths.get(ARTIFACTS_ROOT), Files::isDirectory)) {
+            for (Path dateDirectory : dateDirectories) {
+                if (parseDate(dateDirectory.getFileName().toString()) == null) {
+                    continue;
+                }
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(dateDirectory)) {
+                    if (!children.iterator().hasNext()) {
+                        Files.delete(dateDirectory);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to remove empty date directories: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Parse partition date directory name
+     */
+    private static LocalDate parseDate(String name) {
+        try {
+            return LocalDate.parse(name);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
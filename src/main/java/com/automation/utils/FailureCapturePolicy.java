@@ -0,0 +1,179 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Failure capture policy for screenshots taken from page-level catch blocks
+ * Coalesces repeated captures within a time window, caps captures per test and,
+ * in deferred mode, replaces intermediate captures with a single failure-time artifact
+ *
+ * Configuration (config.properties):
+ *     screenshot.capture.mode=deferred          (immediate|deferred)
+ *     screenshot.coalesce.window.ms=2000
+ *     screenshot.max.per.test=3
+ *
+ * Statistics are kept per suite: startSuite() resets them, so a JVM running several
+ * suites reports each suite's own counts.
+ *
+ * Example:
+ *     FailureCapturePolicy.startSuite();
+ *     FailureCapturePolicy.startTest("testValidLogin");
+ *     String path = FailureCapturePolicy.captureFailure(screenshotUtils, "element_not_found");
+ *     String failurePath = FailureCapturePolicy.captureTestFailure(screenshotUtils, "testValidLogin");
+ */
+public class FailureCapturePolicy {
+
+    private static final Logger logger = LogManager.getLogger(FailureCapturePolicy.class);
+
+    private static final boolean DEFERRED = !"immediate".equalsIgnoreCase(
+            ConfigReader.getProperty("screenshot.capture.mode", "deferred"));
+    private static final long COALESCE_WINDOW_MILLIS = ConfigReader.getIntProperty("screenshot.coalesce.window.ms", 2000);
+    private static final int MAX_CAPTURES_PER_TEST = ConfigReader.getIntProperty("screenshot.max.per.test", 3);
+
+    private static final ThreadLocal<TestCaptureState> stateThreadLocal = ThreadLocal.withInitial(TestCaptureState::new);
+
+    // Statistics of the current suite
+    private static final AtomicLong capturesTaken = new AtomicLong();
+    private static final AtomicLong capturesCoalesced = new AtomicLong();
+    private static final AtomicLong capturesCapped = new AtomicLong();
+    private static final AtomicLong capturesDeferred = new AtomicLong();
+    private static final AtomicLong captureNanos = new AtomicLong();
+
+    /**
+     * Per-test capture state
+     */
+    private static class TestCaptureState {
+        private String testName = "unknown";
+        private long lastCaptureAt;
+        private int captures;
+        private final List<String> suppressedReasons = new ArrayList<>();
+        private String failureScreenshotPath;
+    }
+
+    /**
+     * Reset statistics at the start of a suite
+     */
+    public static void startSuite() {
+        capturesTaken.set(0);
+        capturesCoalesced.set(0);
+        capturesCapped.set(0);
+        capturesDeferred.set(0);
+        captureNanos.set(0);
+    }
+
+    /**
+     * Reset capture state for a new test on the current thread
+     * @param testName Test name
+     */
+    public static void startTest(String testName) {
+        TestCaptureState state = new TestCaptureState();
+        state.testName = testName;
+        stateThreadLocal.set(state);
+    }
+
+    /**
+     * Request a failure capture from a page-level catch block
+     * @param screenshotUtils ScreenshotUtils bound to the current driver
+     * @param reason Capture reason (used as screenshot name)
+     * @return Screenshot path, or null if the capture was coalesced, capped or deferred
+     */
+    public static String captureFailure(ScreenshotUtils screenshotUtils, String reason) {
+        return captureFailure(screenshotUtils, reason, DEFERRED, System.currentTimeMillis());
+    }
+
+    /**
+     * Request a failure capture in the given mode at the given time
+     */
+    static String captureFailure(ScreenshotUtils screenshotUtils, String reason, boolean deferred, long now) {
+        TestCaptureState state = stateThreadLocal.get();
+
+        if (deferred) {
+            capturesDeferred.incrementAndGet();
+            state.suppressedReasons.add(reason);
+            logger.debug("Deferred failure capture '{}' for test {}", reason, state.testName);
+            return null;
+        }
+
+        if (state.lastCaptureAt > 0 && now - state.lastCaptureAt < COALESCE_WINDOW_MILLIS) {
+            capturesCoalesced.incrementAndGet();
+            state.suppressedReasons.add(reason);
+            logger.debug("Coalesced failure capture '{}' for test {}", reason, state.testName);
+            return null;
+        }
+
+        if (state.captures >= MAX_CAPTURES_PER_TEST) {
+            capturesCapped.incrementAndGet();
+            state.suppressedReasons.add(reason);
+            logger.debug("Capture limit {} reached for test {}, skipping '{}'", MAX_CAPTURES_PER_TEST, state.testName, reason);
+            return null;
+        }
+
+        state.lastCaptureAt = now;
+        state.captures++;
+        return timedCapture(screenshotUtils, reason);
+    }
+
+    /**
+     * Take the single failure-time artifact for the current test
+     * Repeated calls for the same test (listener and teardown) return the first path
+     * @param screenshotUtils ScreenshotUtils bound to the current driver
+     * @param testName Failed test name
+     * @return Screenshot path, or null if capture failed
+     */
+    public static String captureTestFailure(ScreenshotUtils screenshotUtils, String testName) {
+        TestCaptureState state = stateThreadLocal.get();
+        if (state.failureScreenshotPath == null) {
+            state.failureScreenshotPath = timedCapture(screenshotUtils, "FAILURE_" + testName);
+        } else {
+            capturesCoalesced.incrementAndGet();
+        }
+        return state.failureScreenshotPath;
+    }
+
+    /**
+     * Get capture reasons that were suppressed for the current test
+     * @return List of coalesced, capped or deferred capture reasons
+     */
+    public static List<String> getSuppressedReasons() {
+        return new ArrayList<>(stateThreadLocal.get().suppressedReasons);
+    }
+
+    /**
+     * Capture a screenshot and account for its cost
+     */
+    private static String timedCapture(ScreenshotUtils screenshotUtils, String name) {
+        long start = System.nanoTime();
+        String path = screenshotUtils.takeScreenshot(name);
+        captureNanos.addAndGet(System.nanoTime() - start);
+        capturesTaken.incrementAndGet();
+        return path;
+    }
+
+    /**
+     * Get estimated time saved by suppressed captures, based on average capture cost
+     * @return Estimated milliseconds saved
+     */
+    public static long getEstimatedTimeSavedMillis() {
+        long taken = capturesTaken.get();
+        if (taken == 0) {
+            return 0;
+        }
+        long suppressed = capturesCoalesced.get() + capturesCapped.get() + capturesDeferred.get();
+        return suppressed * (captureNanos.get() / taken) / 1_000_000L;
+    }
+
+    /**
+     * Get a one-line summary of capture counts for the current suite
+     */
+    public static String getStatisticsSummary() {
+        return String.format("mode=%s, taken=%d, coalesced=%d, capped=%d, deferred=%d, estimatedTimeSaved=%dms",
+                DEFERRED ? "deferred" : "immediate", capturesTaken.get(), capturesCoalesced.get(),
+                capturesCapped.get(), capturesDeferred.get(), getEstimatedTimeSavedMillis());
+    }
+}
@@ -0,0 +1,112 @@
+package com.automation.utils;
+
+import com.automation.enums.FailureCategory;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Locale;
+
+/**
+ * Classifies test failures into infrastructure, timeout, stale element, missing element
+ * and assertion failures
+ * The cause chain is searched for the most specific signal, so an assertion wrapping a
+ * connection error is still reported as infrastructure. A test whose session was quit by
+ * the watchdog fails with dead-session errors; those report the hang, not the environment,
+ * so such failures are classified as timeouts.
+ *
+ * Example:
+ *     FailureCategory category = FailureClassifier.classify(result.getThrowable());
+ *     if (category.isRetryable()) { ... }
+ */
+public class FailureClassifier {
+
+    private static final int MAX_CAUSE_DEPTH = 10;
+
+    // Browser and driver messages of unreachable hosts or dead sessions
+    private static final String[] INFRASTRUCTURE_MESSAGES = {
+            "net::err_", "connection refused", "chrome not reachable", "disconnected: ",
+            "session deleted because of page crash", "unable to connect", "error forwarding the new session",
+            "502 bad gateway", "503 service unavailable", "504 gateway time"
+    };
+
+    /**
+     * Classify a failure
+     * @param throwable Failure cause, may be null
+     * @return Failure category (UNKNOWN if nothing matches)
+     */
+    public static FailureCategory classify(Throwable throwable) {
+        FailureCategory category = FailureCategory.UNKNOWN;
+        Throwable current = throwable;
+        for (int depth = 0; current != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            FailureCategory found = classifySingle(current);
+            if (found == FailureCategory.INFRASTRUCTURE) {
+                return found;
+            }
+            if (category == FailureCategory.UNKNOWN || found.isRetryable() && !category.isRetryable()) {
+                category = found;
+            }
+            current = current.getCause() != current ? current.getCause() : null;
+        }
+        return category;
+    }
+
+    /**
+     * Classify a failure, treating it as a timeout if the watchdog quit the test's session
+     * @param throwable Failure cause, may be null
+     * @param sessionRescued true if SessionWatchdog rescued the session of the failed test
+     * @return Failure category
+     */
+    public static FailureCategory classify(Throwable throwable, boolean sessionRescued) {
+        return sessionRescued ? FailureCategory.TIMEOUT : classify(throwable);
+    }
+
+    /**
+     * Classify a single throwable without looking at its causes
+     */
+    private static FailureCategory classifySingle(Throwable throwable) {
+        if (throwable instanceof SessionNotCreatedException || throwable instanceof NoSuchSessionException
+                || throwable instanceof UnreachableBrowserException || throwable instanceof ConnectException
+                || throwable instanceof UnknownHostException || throwable instanceof NoRouteToHostException
+                || hasInfrastructureMessage(throwable)) {
+            return FailureCategory.INFRASTRUCTURE;
+        }
+        if (throwable instanceof StaleElementReferenceException) {
+            return FailureCategory.STALE_ELEMENT;
+        }
+        if (throwable instanceof TimeoutException || throwable instanceof ScriptTimeoutException
+                || throwable instanceof SocketTimeoutException
+                || throwable instanceof java.util.concurrent.TimeoutException) {
+            return FailureCategory.TIMEOUT;
+        }
+        if (throwable instanceof NoSuchElementException) {
+            return FailureCategory.ELEMENT_NOT_FOUND;
+        }
+        if (throwable instanceof AssertionError) {
+            return FailureCategory.ASSERTION;
+        }
+        return FailureCategory.UNKNOWN;
+    }
+
+    private static boolean hasInfrastructureMessage(Throwable throwable) {
+        if (!(throwable instanceof WebDriverException) || throwable.getMessage() == null) {
+            return false;
+        }
+        String message = throwable.getMessage().toLowerCase(Locale.ROOT);
+        for (String marker : INFRASTRUCTURE_MESSAGES) {
+            if (message.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
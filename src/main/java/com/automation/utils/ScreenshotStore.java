@@ -0,0 +1,439 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Screenshot store deciding where captured screenshots are persisted
+ * In content-addressed mode files are named by the SHA-256 of the captured bytes,
+ * so identical captures (retries, repeated failure captures) are stored once and
+ * referenced from the report by hash. Optional perceptual matching links near-identical
+ * captures to the first stored copy instead of writing them again: the capture keeps its own
+ * hash, nothing is written for it, and index.tsv records the object it resolves to in a
+ * fourth column. A 9x8 dHash finds candidates, but it averages a 1366x768 page into cells of
+ * roughly 150x96 pixels and barely moves for a full-width error banner, so every candidate is
+ * confirmed on a 32x32 luminance grid: no cell may differ by more than the detail tolerance.
+ * A caret blink or a ticking clock shifts a cell by a few gray levels, a banner by over a hundred.
+ * Stored hashes are indexed by threshold + 1 bands of bits: two hashes within the threshold
+ * agree exactly on at least one band, so a lookup only compares entries sharing a band.
+ * Perceptual matching decodes the capture on the calling thread, because the path it returns
+ * depends on the match.
+ *
+ * Configuration (config.properties):
+ *     screenshot.store.content.addressed=true
+ *     screenshot.store.perceptual=false
+ *     screenshot.store.perceptual.threshold=2   (max differing dHash bits out of 64)
+ *     screenshot.store.perceptual.detail.tolerance=12   (max gray-level difference of a 32x32 cell)
+ *
+ * Example:
+ *     ScreenshotStore.StoredScreenshot stored = ScreenshotStore.save(bytes, "login_page", true);
+ *     String reportPath = stored.getPath().toString();
+ */
+public class ScreenshotStore {
+
+    private static final Logger logger = LogManager.getLogger(ScreenshotStore.class);
+
+    private static final boolean CONTENT_ADDRESSED = ConfigReader.getBooleanProperty("screenshot.store.content.addressed", true);
+    private static final boolean PERCEPTUAL = ConfigReader.getBooleanProperty("screenshot.store.perceptual", false);
+    private static final int PERCEPTUAL_THRESHOLD = Math.max(0, Math.min(63,
+            ConfigReader.getIntProperty("screenshot.store.perceptual.threshold", 2)));
+    private static final int PERCEPTUAL_BANDS = PERCEPTUAL_THRESHOLD + 1;
+    private static final int PERCEPTUAL_DETAIL_TOLERANCE = Math.max(0,
+            ConfigReader.getIntProperty("screenshot.store.perceptual.detail.tolerance", 12));
+    private static final int DETAIL_GRID_SIZE = 32;
+    private static final String OBJECTS_DIR_NAME = "objects";
+    private static final String INDEX_FILE_NAME = "index.tsv";
+
+    private static final ConcurrentHashMap<String, StoredScreenshot> objectsByHash = new ConcurrentHashMap<>();
+    // Guarded by its own monitor: lookup and registration of a capture happen as one step
+    private static final List<Map<Long, List<PerceptualEntry>>> perceptualIndex = new ArrayList<>();
+    private static final ConcurrentLinkedQueue<String> indexLines = new ConcurrentLinkedQueue<>();
+
+    static {
+        for (int band = 0; band < PERCEPTUAL_BANDS; band++) {
+            perceptualIndex.add(new HashMap<>());
+        }
+    }
+
+    // Deduplication statistics
+    private static final AtomicLong saves = new AtomicLong();
+    private static final AtomicLong exactDuplicates = new AtomicLong();
+    private static final AtomicLong nearDuplicates = new AtomicLong();
+    private static final AtomicLong bytesSaved = new AtomicLong();
+
+    /**
+     * Result of a save: target path (known immediately) and write completion
+     */
+    public static class StoredScreenshot {
+        private final Path path;
+        private final String hash;
+        private final CompletableFuture<Path> written;
+
+        private StoredScreenshot(Path path, String hash, CompletableFuture<Path> written) {
+            this.path = path;
+            this.hash = hash;
+            this.written = written;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public CompletableFuture<Path> getWritten() {
+            return written;
+        }
+    }
+
+    /**
+     * Perceptual signature of a stored object
+     */
+    private static class PerceptualEntry {
+        private final long hash;
+        private final int[] detail;
+        private final StoredScreenshot stored;
+
+        private PerceptualEntry(long hash, int[] detail, StoredScreenshot stored) {
+            this.hash = hash;
+            this.detail = detail;
+            this.stored = stored;
+        }
+    }
+
+    /**
+     * Save captured screenshot bytes
+     * @param rawBytes Raw PNG bytes from the driver
+     * @param screenshotName Logical screenshot name
+     * @param async Whether to persist through the background writer
+     * @return StoredScreenshot with the path to reference from reports
+     * @throws IOException if a synchronous write fails
+     */
+    public static StoredScreenshot save(byte[] rawBytes, String screenshotName, boolean async) throws IOException {
+        saves.incrementAndGet();
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss-SSS").format(new Date());
+
+        if (!CONTENT_ADDRESSED) {
+            Path target = Paths.get(getScreenshotsRoot(), screenshotName + "_" + timestamp + "." + ScreenshotEncoder.getFileExtension());
+            return new StoredScreenshot(target, null, persist(rawBytes, target, async));
+        }
+
+        String hash = sha256(rawBytes);
+        Path target = Paths.get(getScreenshotsRoot(), OBJECTS_DIR_NAME, hash.substring(0, 2),
+                hash + "." + ScreenshotEncoder.getFileExtension());
+
+        // Reserve the hash first so concurrent identical captures are written once
+        CompletableFuture<Path> pending = new CompletableFuture<>();
+        StoredScreenshot stored = new StoredScreenshot(target, hash, pending);
+        PerceptualEntry entry = PERCEPTUAL ? perceptualEntry(rawBytes, stored) : null;
+        StoredScreenshot existing;
+
+        if (entry == null) {
+            existing = objectsByHash.putIfAbsent(hash, stored);
+        } else {
+            synchronized (perceptualIndex) {
+                existing = objectsByHash.get(hash);
+                if (existing == null) {
+                    PerceptualEntry similar = findSimilar(entry);
+                    StoredScreenshot reserved = similar == null ? stored
+                            : new StoredScreenshot(similar.stored.path, hash, similar.stored.written);
+                    existing = objectsByHash.putIfAbsent(hash, reserved);
+                    if (existing == null && similar != null) {
+                        return linkTo(similar, reserved, screenshotName, timestamp);
+                    }
+                    if (existing == null) {
+                        register(entry);
+                    }
+                }
+            }
+        }
+
+        indexLines.add(hash + "\t" + screenshotName + "\t" + timestamp);
+        if (existing != null || Files.exists(target)) {
+            exactDuplicates.incrementAndGet();
+            logger.debug("Screenshot '{}' is a duplicate of object {}", screenshotName, hash);
+            if (existing == null) {
+                bytesSaved.addAndGet(Files.size(target));
+                pending.complete(target);
+                return stored;
+            }
+            // Count the stored object's size once it is on disk; nothing is saved if its write fails
+            existing.getWritten().thenAccept(path -> bytesSaved.addAndGet(sizeOf(path)));
+            return existing;
+        }
+
+        persist(rawBytes, target, async).whenComplete((path, error) -> {
+            if (error != null) {
+                objectsByHash.remove(hash);
+                if (entry != null) {
+                    unregister(entry);
+                }
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(path);
+            }
+        });
+        return stored;
+    }
+
+    /**
+     * Write the index of logical screenshot names to object hashes
+     */
+    public static void writeIndex() {
+        if (!CONTENT_ADDRESSED || indexLines.isEmpty()) {
+            return;
+        }
+
+        Path indexFile = Paths.get(getScreenshotsRoot(), OBJECTS_DIR_NAME, INDEX_FILE_NAME);
+        List<String> lines = new ArrayList<>();
+        for (String line = indexLines.poll(); line != null; line = indexLines.poll()) {
+            lines.add(line);
+        }
+
+        try {
+            Files.createDirectories(indexFile.getParent());
+            Files.write(indexFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            logger.info("Screenshot index updated: {} ({} entries)", indexFile, lines.size());
+        } catch (IOException e) {
+            logger.error("Failed to write screenshot index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Get a one-line summary of deduplication for the run
+     */
+    public static String getStatisticsSummary() {
+        long total = saves.get();
+        long duplicates = exactDuplicates.get() + nearDuplicates.get();
+        return String.format("saves=%d, exactDuplicates=%d, nearDuplicates=%d, dedupRatio=%.2f, diskSaved=%dKB",
+                total, exactDuplicates.get(), nearDuplicates.get(),
+                total == 0 ? 0.0 : duplicates / (double) total, bytesSaved.get() / 1024);
+    }
+
+    /**
+     * Get the directory screenshots are currently stored under
+     */
+    private static String getScreenshotsRoot() {
+        return ScreenshotUtils.getScreenshotsDirectory();
+    }
+
+    /**
+     * Encode and write bytes, synchronously or through the writer pipeline
+     */
+    private static CompletableFuture<Path> persist(byte[] rawBytes, Path target, boolean async) throws IOException {
+        if (async) {
+            return ScreenshotWriter.submit(rawBytes, target);
+        }
+
+        ScreenshotWriter.writeNow(ScreenshotEncoder.encode(rawBytes), target);
+        return CompletableFuture.completedFuture(target);
+    }
+
+    /**
+     * Resolve a near-duplicate to the stored object it matched; only the index records the link
+     */
+    private static StoredScreenshot linkTo(PerceptualEntry similar, StoredScreenshot linked,
+                                           String screenshotName, String timestamp) {
+        nearDuplicates.incrementAndGet();
+        indexLines.add(linked.getHash() + "\t" + screenshotName + "\t" + timestamp + "\t" + similar.stored.getHash());
+        logger.debug("Screenshot '{}' ({}) linked to near-duplicate {}", screenshotName, linked.getHash(),
+                similar.stored.getHash());
+
+        // The capture is never encoded, so the stored object's size stands in for the bytes avoided
+        similar.stored.getWritten().whenComplete((path, error) -> {
+            if (error != null) {
+                objectsByHash.remove(linked.getHash(), linked);
+            } else {
+                bytesSaved.addAndGet(sizeOf(path));
+            }
+        });
+        return linked;
+    }
+
+    /**
+     * Compute the perceptual signature of a capture, or null if the bytes are not a readable image
+     */
+    private static PerceptualEntry perceptualEntry(byte[] rawBytes, StoredScreenshot stored) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(rawBytes));
+        if (image == null) {
+            logger.debug("Screenshot {} is not a readable image, storing without perceptual matching", stored.getHash());
+            return null;
+        }
+        return new PerceptualEntry(perceptualHash(image), detailGrid(image), stored);
+    }
+
+    /**
+     * Find a stored object the entry is a near-duplicate of (caller holds the perceptual index lock)
+     */
+    private static PerceptualEntry findSimilar(PerceptualEntry entry) {
+        for (int band = 0; band < PERCEPTUAL_BANDS; band++) {
+            List<PerceptualEntry> candidates = perceptualIndex.get(band).get(bandBits(entry.hash, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (PerceptualEntry candidate : candidates) {
+                if (isNearDuplicate(entry.hash, entry.detail, candidate.hash, candidate.detail)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add an entry to every band of the perceptual index (caller holds the perceptual index lock)
+     */
+    private static void register(PerceptualEntry entry) {
+        for (int band = 0; band < PERCEPTUAL_BANDS; band++) {
+            perceptualIndex.get(band).computeIfAbsent(bandBits(entry.hash, band), key -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    /**
+     * Remove an entry whose object failed to write, so later captures are not linked to it
+     */
+    private static void unregister(PerceptualEntry entry) {
+        synchronized (perceptualIndex) {
+            for (int band = 0; band < PERCEPTUAL_BANDS; band++) {
+                List<PerceptualEntry> candidates = perceptualIndex.get(band).get(bandBits(entry.hash, band));
+                if (candidates != null) {
+                    candidates.remove(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Size of a stored file, 0 if it cannot be read
+     */
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Bits of one band of a perceptual hash (64 bits split into PERCEPTUAL_BANDS near-equal bands)
+     */
+    private static long bandBits(long hash, int band) {
+        int from = band * 64 / PERCEPTUAL_BANDS;
+        int width = (band + 1) * 64 / PERCEPTUAL_BANDS - from;
+        return width == 64 ? hash : (hash >>> from) & ((1L << width) - 1);
+    }
+
+    /**
+     * Check whether two captures would be stored once in perceptual mode
+     */
+    static boolean isNearDuplicate(BufferedImage first, BufferedImage second) {
+        return isNearDuplicate(perceptualHash(first), detailGrid(first), perceptualHash(second), detailGrid(second));
+    }
+
+    /**
+     * Compare signatures: dHash within the threshold and every detail cell within the tolerance
+     */
+    private static boolean isNearDuplicate(long firstHash, int[] firstDetail, long secondHash, int[] secondDetail) {
+        if (Long.bitCount(firstHash ^ secondHash) > PERCEPTUAL_THRESHOLD) {
+            return false;
+        }
+        for (int cell = 0; cell < firstDetail.length; cell++) {
+            if (Math.abs(firstDetail[cell] - secondDetail[cell]) > PERCEPTUAL_DETAIL_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compute 64-bit difference hash (dHash) over a 9x8 grayscale thumbnail
+     */
+    static long perceptualHash(BufferedImage image) {
+        int[] thumbnail = luminanceGrid(image, 9, 8);
+        long hash = 0;
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 8; x++) {
+                hash = (hash << 1) | (thumbnail[y * 9 + x] > thumbnail[y * 9 + x + 1] ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Compute the 32x32 luminance grid used to confirm dHash candidates
+     */
+    private static int[] detailGrid(BufferedImage image) {
+        return luminanceGrid(image, DETAIL_GRID_SIZE, DETAIL_GRID_SIZE);
+    }
+
+    /**
+     * Average luminance (0-255) of each cell of a columns x rows grid laid over the image.
+     * Every pixel is counted; scaling the image down with interpolation would sample only a few.
+     */
+    private static int[] luminanceGrid(BufferedImage image, int columns, int rows) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long[] sums = new long[columns * rows];
+        long[] counts = new long[columns * rows];
+        int[] row = new int[width];
+
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int cellRow = (int) ((long) y * rows / height) * columns;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                int luminance = (299 * ((rgb >> 16) & 0xFF) + 587 * ((rgb >> 8) & 0xFF) + 114 * (rgb & 0xFF)) / 1000;
+                int cell = cellRow + (int) ((long) x * columns / width);
+                sums[cell] += luminance;
+                counts[cell]++;
+            }
+        }
+
+        int[] grid = new int[columns * rows];
+        for (int cell = 0; cell < grid.length; cell++) {
+            grid[cell] = counts[cell] == 0 ? 0 : (int) (sums[cell] / counts[cell]);
+        }
+        return grid;
+    }
+
+    /**
+     * Compute hex SHA-256 of bytes
+     */
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
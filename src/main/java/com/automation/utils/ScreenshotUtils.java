@@ -1,18 +1,34 @@
 package com.automation.utils;
 
-import org.apache.commons.io.FileUtils;
+import com.automation.core.ConfigReader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
 
 import com.automation.reporting.ExtentReportManager;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Screenshot utility class for capturing and managing screenshots
@@ -21,12 +37,32 @@ import java.util.Date;
  * Example:
  *     ScreenshotUtils screenshotUtils = new ScreenshotUtils(driver);
  *     String screenshotPath = screenshotUtils.takeScreenshot("login_page");
+ *     byte[] cartIcon = screenshotUtils.captureElement(By.className("shopping_cart_link"));
  */
 public class ScreenshotUtils {
 
     private static final Logger logger = LogManager.getLogger(ScreenshotUtils.class);
     private final WebDriver driver;
-    private static final String SCREENSHOTS_DIR = "reports/screenshots";
+    // Transcoding always goes to the writer threads, so its cost stays off the test thread
+    private static final boolean ASYNC_WRITES = ConfigReader.getBooleanProperty("screenshot.async.enabled", false)
+            || !ScreenshotEncoder.isPassThrough();
+
+    /**
+     * Capture kinds tracked for latency and size comparison
+     */
+    private enum CaptureKind {
+        FULL, ELEMENT, REGION;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        private void record(long startNanos, int size) {
+            count.increment();
+            nanos.add(System.nanoTime() - startNanos);
+            bytes.add(size);
+        }
+    }
 
     public ScreenshotUtils(WebDriver driver) {
         this.driver = driver;
@@ -37,35 +73,34 @@ public class ScreenshotUtils {
      * Create screenshots directory if it doesn't exist
      */
     private void createScreenshotsDirectory() {
-        File screenshotsDir = new File(SCREENSHOTS_DIR);
+        File screenshotsDir = new File(getScreenshotsDirectory());
         if (!screenshotsDir.exists()) {
             boolean created = screenshotsDir.mkdirs();
             if (created) {
-                logger.info("Created screenshots directory: {}", SCREENSHOTS_DIR);
-            } else {
-                logger.warn("Failed to create screenshots directory: {}", SCREENSHOTS_DIR);
+                logger.info("Created screenshots directory: {}", screenshotsDir);
+            } else if (!screenshotsDir.exists()) {
+                logger.warn("Failed to create screenshots directory: {}", screenshotsDir);
             }
         }
     }
 
     /**
      * Take screenshot with custom name
+     * The file is written by the background writer when screenshot.async.enabled=true or
+     * when the configured encoding transcodes;
+     * identical captures share one content-addressed file (see ScreenshotStore)
      * @param screenshotName Name for the screenshot file
      * @return Full path to the screenshot file
      */
     public String takeScreenshot(String screenshotName) {
-        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss-SSS").format(new Date());
-        String fileName = screenshotName + "_" + timestamp + ".png";
-        String fullPath = SCREENSHOTS_DIR + File.separator + fileName;
-
         try {
+            long start = System.nanoTime();
             TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-            File sourceFile = takesScreenshot.getScreenshotAs(OutputType.FILE);
-            File destFile = new File(fullPath);
-
-            FileUtils.copyFile(sourceFile, destFile);
-            logger.info("Screenshot captured: {}", fullPath);
+            byte[] screenshot = takesScreenshot.getScreenshotAs(OutputType.BYTES);
+            CaptureKind.FULL.record(start, screenshot.length);
+            String fullPath = ScreenshotStore.save(screenshot, screenshotName, ASYNC_WRITES).getPath().toString();
 
+            logger.info("Screenshot captured{}: {}", ASYNC_WRITES ? " (write queued)" : "", fullPath);
             return fullPath;
 
         } catch (IOException e) {
@@ -74,6 +109,172 @@ public class ScreenshotUtils {
         }
     }
 
+    /**
+     * Take screenshot and persist it in the background
+     * @param screenshotName Name for the screenshot file
+     * @return Future completed with the screenshot path once written
+     * @throws IOException if the screenshot cannot be stored
+     */
+    public CompletableFuture<Path> takeScreenshotAsync(String screenshotName) throws IOException {
+        TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
+        byte[] screenshot = takesScreenshot.getScreenshotAs(OutputType.BYTES);
+        return ScreenshotStore.save(screenshot, screenshotName, true).getWritten();
+    }
+
+    /**
+     * Capture a single element, returning the image bytes directly
+     * Uses DevTools Page.captureScreenshot on Chromium drivers with the configured
+     * screenshot format/quality, falling back to WebElement.getScreenshotAs (PNG)
+     * @param locator By locator of the element
+     * @return Encoded image bytes
+     */
+    public byte[] captureElement(By locator) {
+        return captureElement(driver.findElement(locator));
+    }
+
+    /**
+     * Capture a single element, returning the image bytes directly
+     * @param element WebElement to capture
+     * @return Encoded image bytes
+     */
+    public byte[] captureElement(WebElement element) {
+        long start = System.nanoTime();
+        byte[] image = null;
+
+        ChromiumDriver chromiumDriver = getChromiumDriver();
+        if (chromiumDriver != null) {
+            Rectangle rect = element.getRect();
+            image = captureClipWithDevTools(chromiumDriver, rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight());
+        }
+        if (image == null) {
+            image = element.getScreenshotAs(OutputType.BYTES);
+        }
+
+        CaptureKind.ELEMENT.record(start, image.length);
+        logger.debug("Element screenshot captured: {} bytes", image.length);
+        return image;
+    }
+
+    /**
+     * Capture a clipped page region, returning the image bytes directly
+     * Coordinates are CSS pixels relative to the document; the fallback path
+     * crops a viewport screenshot, so the region must be scrolled into view there
+     * @param x Left offset
+     * @param y Top offset
+     * @param width Region width
+     * @param height Region height
+     * @return Encoded image bytes
+     * @throws IOException if the fallback crop cannot be encoded
+     */
+    public byte[] captureRegion(int x, int y, int width, int height) throws IOException {
+        long start = System.nanoTime();
+        byte[] image = null;
+
+        ChromiumDriver chromiumDriver = getChromiumDriver();
+        if (chromiumDriver != null) {
+            image = captureClipWithDevTools(chromiumDriver, x, y, width, height);
+        }
+        if (image == null) {
+            image = cropViewportScreenshot(x, y, width, height);
+        }
+
+        CaptureKind.REGION.record(start, image.length);
+        logger.debug("Region screenshot captured: {} bytes", image.length);
+        return image;
+    }
+
+    /**
+     * Capture a clip through DevTools Page.captureScreenshot
+     * @return Image bytes, or null if the command is unavailable
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] captureClipWithDevTools(ChromiumDriver chromiumDriver, int x, int y, int width, int height) {
+        String format = ScreenshotEncoder.getFileExtension().equals("jpg") ? "jpeg" : ScreenshotEncoder.getFileExtension();
+
+        Map<String, Object> clip = new HashMap<>();
+        clip.put("x", x);
+        clip.put("y", y);
+        clip.put("width", Math.max(1, width));
+        clip.put("height", Math.max(1, height));
+        clip.put("scale", 1);
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("format", format);
+        if (!"png".equals(format)) {
+            parameters.put("quality", ScreenshotEncoder.getQualityPercent());
+        }
+        parameters.put("clip", clip);
+        parameters.put("captureBeyondViewport", true);
+
+        try {
+            Map<String, Object> result = chromiumDriver.executeCdpCommand("Page.captureScreenshot", parameters);
+            return Base64.getDecoder().decode((String) result.get("data"));
+        } catch (WebDriverException e) {
+            logger.debug("DevTools capture unavailable, falling back: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Crop a region out of a viewport screenshot (non-Chromium fallback)
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] cropViewportScreenshot(int x, int y, int width, int height) throws IOException {
+        List<Number> viewport = (List<Number>) ((JavascriptExecutor) driver)
+                .executeScript("return [window.scrollX, window.scrollY, window.devicePixelRatio || 1];");
+        double ratio = viewport.get(2).doubleValue();
+
+        byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(screenshot));
+
+        int left = clamp((int) Math.round((x - viewport.get(0).doubleValue()) * ratio), image.getWidth() - 1);
+        int top = clamp((int) Math.round((y - viewport.get(1).doubleValue()) * ratio), image.getHeight() - 1);
+        int cropWidth = Math.max(1, Math.min((int) Math.round(width * ratio), image.getWidth() - left));
+        int cropHeight = Math.max(1, Math.min((int) Math.round(height * ratio), image.getHeight() - top));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image.getSubimage(left, top, cropWidth, cropHeight), "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Clamp value to the range [0, max]
+     */
+    private static int clamp(int value, int max) {
+        return Math.max(0, Math.min(value, max));
+    }
+
+    /**
+     * Get the underlying ChromiumDriver (Chrome/Edge), unwrapping decorated drivers
+     * @return ChromiumDriver, or null for other browsers and remote sessions
+     */
+    private ChromiumDriver getChromiumDriver() {
+        WebDriver current = driver;
+        while (current instanceof WrapsDriver) {
+            current = ((WrapsDriver) current).getWrappedDriver();
+        }
+        return current instanceof ChromiumDriver ? (ChromiumDriver) current : null;
+    }
+
+    /**
+     * Get capture latency and size per capture kind (full window, element, region)
+     */
+    public static String getCaptureStatisticsSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (CaptureKind kind : CaptureKind.values()) {
+            long count = kind.count.sum();
+            if (summary.length() > 0) {
+                summary.append("; ");
+            }
+            summary.append(kind.name().toLowerCase()).append(": count=").append(count);
+            if (count > 0) {
+                summary.append(String.format(", avgLatency=%.1fms, avgSize=%dKB",
+                        kind.nanos.sum() / 1_000_000.0 / count, kind.bytes.sum() / count / 1024));
+            }
+        }
+        return summary.toString();
+    }
+
     /**
      * Take screenshot with default naming
      * @return Full path to the screenshot file
@@ -151,36 +352,20 @@ public class ScreenshotUtils {
 
     /**
      * Clean up old screenshots (keep only recent ones)
+     * Removes whole run partitions using their index files (see ArtifactRetentionManager)
      * @param daysToKeep Number of days to keep screenshots
      */
     public static void cleanupOldScreenshots(int daysToKeep) {
-        File screenshotsDir = new File(SCREENSHOTS_DIR);
-        if (!screenshotsDir.exists()) {
-            return;
-        }
-
-        long cutoffTime = System.currentTimeMillis() - (daysToKeep * 24L * 60L * 60L * 1000L);
-        File[] files = screenshotsDir.listFiles();
-
-        if (files != null) {
-            int deletedCount = 0;
-            for (File file : files) {
-                if (file.lastModified() < cutoffTime) {
-                    if (file.delete()) {
-                        deletedCount++;
-                    }
-                }
-            }
-            LogManager.getLogger(ScreenshotUtils.class).info("Cleaned up {} old screenshots", deletedCount);
-        }
+        int removed = ArtifactRetentionManager.enforceQuotas(daysToKeep, Long.MAX_VALUE);
+        LogManager.getLogger(ScreenshotUtils.class).info("Cleaned up {} old screenshot partitions", removed);
     }
 
     /**
-     * Get the screenshots directory path
+     * Get the screenshots directory path of the current run partition
      * @return Screenshots directory path
      */
     public static String getScreenshotsDirectory() {
-        return SCREENSHOTS_DIR;
+        return ArtifactRetentionManager.getCurrentPartition().toString();
     }
 
     /**
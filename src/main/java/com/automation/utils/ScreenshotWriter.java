@@ -0,0 +1,285 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous screenshot persistence pipeline
+ * Test threads hand captured bytes to a bounded queue drained by background
+ * writer threads, which encode them (ScreenshotEncoder) and write using NIO channels;
+ * the target path is returned immediately.
+ *
+ * Off by default (screenshot.async.enabled=false): with writes to a local disk the handoff
+ * costs the test thread more than writing itself (ScreenshotWriterBenchmark). Enable it when
+ * writes are slow, e.g. on network storage. ScreenshotUtils also uses it whenever
+ * ScreenshotEncoder transcodes, since encoding costs far more than the handoff.
+ *
+ * Backpressure when the queue is full (screenshot.writer.backpressure):
+ *     block       - test thread waits for a free queue slot
+ *     caller-runs - test thread writes the file itself
+ *
+ * Example:
+ *     CompletableFuture<Path> future = ScreenshotWriter.submit(bytes, Paths.get("reports/screenshots/a.png"));
+ *     ScreenshotWriter.awaitPendingWrites(30);
+ */
+public class ScreenshotWriter {
+
+    private static final Logger logger = LogManager.getLogger(ScreenshotWriter.class);
+
+    private static final int WRITER_THREADS = ConfigReader.getIntProperty("screenshot.writer.threads", 2);
+    private static final int QUEUE_CAPACITY = ConfigReader.getIntProperty("screenshot.writer.queue.capacity", 64);
+    private static final boolean CALLER_RUNS = "caller-runs".equalsIgnoreCase(
+            ConfigReader.getProperty("screenshot.writer.backpressure", "block"));
+
+    private static final BlockingQueue<WriteTask> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    // Tracked per task: several writes to the same target may be pending at once
+    private static final Set<WriteTask> pendingWrites = ConcurrentHashMap.newKeySet();
+    private static volatile boolean started;
+
+    // Pipeline statistics
+    private static final AtomicLong submitted = new AtomicLong();
+    private static final AtomicLong written = new AtomicLong();
+    private static final AtomicLong failed = new AtomicLong();
+    private static final AtomicLong bytesWritten = new AtomicLong();
+    private static final AtomicLong writeNanos = new AtomicLong();
+    private static final AtomicLong blockedNanos = new AtomicLong();
+    private static final AtomicLong callerRuns = new AtomicLong();
+    private static final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private static final AtomicLong firstSubmitAt = new AtomicLong();
+    private static final AtomicLong lastWriteAt = new AtomicLong();
+
+    /**
+     * Source of the bytes to write, evaluated on the writer thread
+     * Returning null means the target is already satisfied and nothing is written
+     */
+    public interface WriteSource {
+        byte[] produce() throws IOException;
+    }
+
+    /**
+     * Queued write request
+     */
+    private static class WriteTask {
+        private final WriteSource source;
+        private final Path target;
+        private final CompletableFuture<Path> future = new CompletableFuture<>();
+
+        private WriteTask(WriteSource source, Path target) {
+            this.source = source;
+            this.target = target;
+        }
+    }
+
+    /**
+     * Submit screenshot bytes for background encoding and persistence
+     * @param bytes Raw PNG bytes from the driver
+     * @param target Target file path
+     * @return Future completed with the path once the file is written
+     */
+    public static CompletableFuture<Path> submit(byte[] bytes, Path target) {
+        return submit(target, () -> ScreenshotEncoder.encode(bytes));
+    }
+
+    /**
+     * Submit a write whose bytes are produced on the writer thread
+     * @param target Target file path
+     * @param source Producer of the bytes to write (encoding, deduplication)
+     * @return Future completed with the path once the file is written
+     */
+    public static CompletableFuture<Path> submit(Path target, WriteSource source) {
+        startWriters();
+        firstSubmitAt.compareAndSet(0, System.currentTimeMillis());
+        submitted.incrementAndGet();
+
+        WriteTask task = new WriteTask(source, target);
+        pendingWrites.add(task);
+        task.future.whenComplete((path, error) -> pendingWrites.remove(task));
+
+        if (!queue.offer(task)) {
+            if (CALLER_RUNS) {
+                callerRuns.incrementAndGet();
+                execute(task);
+                return task.future;
+            }
+
+            long blockStart = System.nanoTime();
+            try {
+                queue.put(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                execute(task);
+                return task.future;
+            } finally {
+                blockedNanos.addAndGet(System.nanoTime() - blockStart);
+            }
+        }
+
+        maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+        return task.future;
+    }
+
+    /**
+     * Write screenshot bytes synchronously on the calling thread
+     * @param bytes Image bytes
+     * @param target Target file path
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeNow(byte[] bytes, Path target) throws IOException {
+        long start = System.nanoTime();
+        Path parent = target.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        writeNanos.addAndGet(System.nanoTime() - start);
+        bytesWritten.addAndGet(bytes.length);
+        written.incrementAndGet();
+        ArtifactRetentionManager.recordArtifact(bytes.length);
+        lastWriteAt.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Wait until all submitted screenshots are written
+     * @param timeoutSeconds Maximum time to wait
+     * @return true if all pending writes completed in time
+     */
+    public static boolean awaitPendingWrites(long timeoutSeconds) {
+        if (pendingWrites.isEmpty()) {
+            return true;
+        }
+
+        int pending = pendingWrites.size();
+        logger.info("Waiting for {} pending screenshot writes", pending);
+
+        try {
+            CompletableFuture.allOf(pendingWrites.stream().map(task -> task.future).toArray(CompletableFuture[]::new))
+                    .get(timeoutSeconds, TimeUnit.SECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            // Individual failures are already logged and counted
+            return pendingWrites.isEmpty();
+        } catch (TimeoutException e) {
+            logger.warn("Timed out waiting for {} screenshot writes", pendingWrites.size());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Get completion of the pending writes to a target
+     * @param target Target file path
+     * @return Future completed once every write to the target submitted so far has finished,
+     *         failed if any of them failed; a completed future if none is pending
+     */
+    public static CompletableFuture<Path> whenWritten(Path target) {
+        CompletableFuture<?>[] pending = pendingWrites.stream().filter(task -> task.target.equals(target))
+                .map(task -> task.future).toArray(CompletableFuture[]::new);
+        if (pending.length == 0) {
+            return CompletableFuture.completedFuture(target);
+        }
+        return CompletableFuture.allOf(pending).thenApply(ignored -> target);
+    }
+
+    /**
+     * Get number of screenshots not yet written
+     */
+    public static int getPendingCount() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * Get a one-line summary of pipeline throughput and backpressure
+     */
+    public static String getStatisticsSummary() {
+        long count = written.get();
+        long wallMillis = Math.max(1, lastWriteAt.get() - firstSubmitAt.get());
+        double megabytes = bytesWritten.get() / (1024.0 * 1024.0);
+
+        return String.format("submitted=%d, written=%d, failed=%d, size=%.1fMB, avgWrite=%.1fms, "
+                        + "throughput=%.1f/s, maxQueueDepth=%d/%d, blocked=%dms, callerRuns=%d",
+                submitted.get(), count, failed.get(), megabytes,
+                count == 0 ? 0.0 : writeNanos.get() / 1_000_000.0 / count,
+                count * 1000.0 / wallMillis, maxQueueDepth.get(), QUEUE_CAPACITY,
+                blockedNanos.get() / 1_000_000L, callerRuns.get());
+    }
+
+    /**
+     * Start background writer threads on first use
+     */
+    private static void startWriters() {
+        if (started) {
+            return;
+        }
+        synchronized (ScreenshotWriter.class) {
+            if (started) {
+                return;
+            }
+            for (int i = 0; i < WRITER_THREADS; i++) {
+                Thread writer = new Thread(ScreenshotWriter::drainQueue, "screenshot-writer-" + i);
+                writer.setDaemon(true);
+                writer.start();
+            }
+            started = true;
+            logger.info("Started {} screenshot writer threads (queue capacity {})", WRITER_THREADS, QUEUE_CAPACITY);
+        }
+    }
+
+    /**
+     * Writer thread loop
+     */
+    private static void drainQueue() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                execute(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Persist a queued task and complete its future
+     */
+    private static void execute(WriteTask task) {
+        try {
+            byte[] bytes = task.source.produce();
+            if (bytes != null) {
+                writeNow(bytes, task.target);
+                logger.debug("Screenshot written: {}", task.target);
+            }
+            task.future.complete(task.target);
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            logger.error("Failed to write screenshot {}: {}", task.target, e.getMessage());
+            task.future.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigReader;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Visual comparison engine for baseline screenshot checks
+ * Compares images through bulk int[] pixel access with per-channel tolerance,
+ * ignored regions and early exit once the allowed mismatch is exceeded.
+ * Large images are split into row bands compared in parallel; a diff image
+ * is produced only when the comparison fails. A missing baseline fails the comparison
+ * unless baselines are being updated, in which case the capture is recorded as baseline.
+ *
+ * Configuration (config.properties):
+ *     visual.baseline.dir=src/test/resources/visual-baselines
+ *     visual.channel.tolerance=16      (0-255 per RGB channel)
+ *     visual.max.diff.ratio=0.001      (fraction of compared pixels allowed to differ)
+ *     visual.parallel=true
+ *     visual.update.baselines=false    (true records missing baselines instead of failing)
+ *
+ * Example:
+ *     VisualComparator comparator = new VisualComparator().ignoreRegion(0, 0, 1920, 60);
+ *     VisualComparator.ComparisonResult result = comparator.compareWithBaseline("product_page", pngBytes);
+ *     Assert.assertTrue(result.isMatch(), result.toString());
+ */
+public class VisualComparator {
+
+    private static final Logger logger = LogManager.getLogger(VisualComparator.class);
+
+    private static final String BASELINE_DIR = ConfigReader.getProperty("visual.baseline.dir", "src/test/resources/visual-baselines");
+    private static final int BAND_HEIGHT = 64;
+    private static final int PARALLEL_THRESHOLD_PIXELS = 256 * 256;
+    private static final boolean UPDATE_BASELINES = ConfigReader.getBooleanProperty("visual.update.baselines", false);
+    private static final AtomicLong diffImageSequence = new AtomicLong();
+
+    private int channelTolerance = ConfigReader.getIntProperty("visual.channel.tolerance", 16);
+    private double maxDiffRatio = Double.parseDouble(ConfigReader.getProperty("visual.max.diff.ratio", "0.001"));
+    private boolean parallel = ConfigReader.getBooleanProperty("visual.parallel", true);
+    private final List<Rectangle> ignoredRegions = new ArrayList<>();
+
+    /**
+     * Outcome of a comparison
+     */
+    public static class ComparisonResult {
+        private final boolean match;
+        private final long mismatchedPixels;
+        private final long comparedPixels;
+        private final long elapsedMicros;
+        private final String reason;
+        private Path diffImagePath;
+
+        private ComparisonResult(boolean match, long mismatchedPixels, long comparedPixels, long elapsedMicros, String reason) {
+            this.match = match;
+            this.mismatchedPixels = mismatchedPixels;
+            this.comparedPixels = comparedPixels;
+            this.elapsedMicros = elapsedMicros;
+            this.reason = reason;
+        }
+
+        public boolean isMatch() {
+            return match;
+        }
+
+        /**
+         * Mismatched pixel count; a lower bound when the comparison exited early
+         */
+        public long getMismatchedPixels() {
+            return mismatchedPixels;
+        }
+
+        public long getComparedPixels() {
+            return comparedPixels;
+        }
+
+        public long getElapsedMicros() {
+            return elapsedMicros;
+        }
+
+        public Path getDiffImagePath() {
+            return diffImagePath;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("match=%s, mismatchedPixels=%d, comparedPixels=%d, elapsed=%.2fms%s%s",
+                    match, mismatchedPixels, comparedPixels, elapsedMicros / 1000.0,
+                    reason != null ? ", reason=" + reason : "",
+                    diffImagePath != null ? ", diff=" + diffImagePath : "");
+        }
+    }
+
+    /**
+     * Set per-channel tolerance
+     * @param tolerance Maximum allowed difference per RGB channel (0-255)
+     * @return this comparator
+     */
+    public VisualComparator withChannelTolerance(int tolerance) {
+        this.channelTolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Set allowed fraction of differing pixels
+     * @param ratio Fraction of compared pixels allowed to differ (0.0-1.0)
+     * @return this comparator
+     */
+    public VisualComparator withMaxDiffRatio(double ratio) {
+        this.maxDiffRatio = ratio;
+        return this;
+    }
+
+    /**
+     * Enable or disable parallel comparison by row bands
+     * @param parallel true to compare bands on the common fork-join pool
+     * @return this comparator
+     */
+    public VisualComparator parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Exclude a region (dynamic content such as clocks or ads) from comparison
+     * @return this comparator
+     */
+    public VisualComparator ignoreRegion(int x, int y, int width, int height) {
+        ignoredRegions.add(new Rectangle(x, y, width, height));
+        return this;
+    }
+
+    /**
+     * Compare a capture with the stored baseline
+     * A missing baseline fails the comparison, or is recorded when visual.update.baselines=true
+     * @param baselineName Baseline name (file name without extension)
+     * @param actualImageBytes Captured image bytes
+     * @return ComparisonResult, with a diff image in the screenshots directory on mismatch
+     * @throws IOException if images cannot be read, decoded or written
+     */
+    public ComparisonResult compareWithBaseline(String baselineName, byte[] actualImageBytes) throws IOException {
+        Path baselinePath = Paths.get(BASELINE_DIR, baselineName + ".png");
+        BufferedImage actual = ImageIO.read(new ByteArrayInputStream(actualImageBytes));
+        if (actual == null) {
+            throw new IOException("Capture for baseline '" + baselineName + "' is not a readable image");
+        }
+
+        if (!Files.exists(baselinePath)) {
+            if (!UPDATE_BASELINES) {
+                logger.error("No baseline for '{}' at {}", baselineName, baselinePath);
+                return new ComparisonResult(false, 0, 0, 0, "no baseline at " + baselinePath
+                        + " (run with visual.update.baselines=true to record it)");
+            }
+            Files.createDirectories(baselinePath.getParent());
+            ImageIO.write(actual, "png", baselinePath.toFile());
+            logger.warn("No baseline for '{}', recorded new baseline: {}", baselineName, baselinePath);
+            return new ComparisonResult(true, 0, 0, 0, "baseline created");
+        }
+
+        BufferedImage baseline = ImageIO.read(baselinePath.toFile());
+        if (baseline == null) {
+            throw new IOException("Baseline '" + baselineName + "' at " + baselinePath + " is not a readable image");
+        }
+        ComparisonResult result = compare(baseline, actual);
+
+        if (!result.isMatch() && result.reason == null) {
+            result.diffImagePath = Paths.get(ScreenshotUtils.getScreenshotsDirectory(), "visual_diff_" + baselineName
+                    + "_" + diffImageSequence.incrementAndGet() + ".png");
+            Files.createDirectories(result.diffImagePath.getParent());
+            ImageIO.write(createDiffImage(baseline, actual), "png", result.diffImagePath.toFile());
+        }
+
+        logger.info("Visual comparison '{}': {}", baselineName, result);
+        return result;
+    }
+
+    /**
+     * Compare two images
+     * @param baseline Baseline image
+     * @param actual Actual image
+     * @return ComparisonResult (no diff image)
+     */
+    public ComparisonResult compare(BufferedImage baseline, BufferedImage actual) {
+        long start = System.nanoTime();
+        int width = baseline.getWidth();
+        int height = baseline.getHeight();
+
+        if (width != actual.getWidth() || height != actual.getHeight()) {
+            return new ComparisonResult(false, (long) width * height, 0, (System.nanoTime() - start) / 1000,
+                    String.format("size differs: baseline %dx%d, actual %dx%d", width, height, actual.getWidth(), actual.getHeight()));
+        }
+
+        int[] expectedPixels = toPixels(baseline);
+        int[] actualPixels = toPixels(actual);
+        int[][] ignoredSpans = buildIgnoredSpans(width, height);
+        if (ignoredSpans == null) {
+            ignoredSpans = new int[height][];
+        }
+
+        long maskedPixels = countMaskedPixels(ignoredSpans);
+        long comparedPixels = (long) width * height - maskedPixels;
+        long allowedMismatches = (long) Math.floor(comparedPixels * maxDiffRatio);
+
+        AtomicLong mismatches = new AtomicLong();
+        int bands = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+        int[][] spans = ignoredSpans;
+
+        IntStream bandStream = IntStream.range(0, bands);
+        if (parallel && (long) width * height >= PARALLEL_THRESHOLD_PIXELS) {
+            bandStream = bandStream.parallel();
+        }
+        bandStream.forEach(band -> compareBand(expectedPixels, actualPixels, width,
+                band * BAND_HEIGHT, Math.min(height, (band + 1) * BAND_HEIGHT), spans, mismatches, allowedMismatches));
+
+        long mismatched = mismatches.get();
+        return new ComparisonResult(mismatched <= allowedMismatches, mismatched, comparedPixels,
+                (System.nanoTime() - start) / 1000, null);
+    }
+
+    /**
+     * Compare a band of rows, stopping once the shared mismatch count exceeds the allowance
+     */
+    private void compareBand(int[] expected, int[] actual, int width, int fromRow, int toRow,
+                             int[][] ignoredSpans, AtomicLong mismatches, long allowedMismatches) {
+        int tolerance = channelTolerance;
+
+        for (int y = fromRow; y < toRow; y++) {
+            if (mismatches.get() > allowedMismatches) {
+                return;
+            }
+
+            int rowStart = y * width;
+            int[] spans = ignoredSpans[y];
+            int rowMismatches = 0;
+
+            for (int x = 0; x < width; x++) {
+                int index = rowStart + x;
+                int a = expected[index];
+                int b = actual[index];
+                if (a == b) {
+                    continue;
+                }
+                if (spans != null && isIgnored(spans, x)) {
+                    continue;
+                }
+                if (Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF)) > tolerance
+                        || Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)) > tolerance
+                        || Math.abs((a & 0xFF) - (b & 0xFF)) > tolerance) {
+                    rowMismatches++;
+                }
+            }
+
+            if (rowMismatches > 0) {
+                mismatches.addAndGet(rowMismatches);
+            }
+        }
+    }
+
+    /**
+     * Build per-row ignored x spans [start0, end0, start1, end1, ...] from ignored regions
+     * @return Span table indexed by row, or null if no regions are ignored
+     */
+    private int[][] buildIgnoredSpans(int width, int height) {
+        if (ignoredRegions.isEmpty()) {
+            return null;
+        }
+
+        List<List<Integer>> rows = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            rows.add(null);
+        }
+
+        Rectangle bounds = new Rectangle(0, 0, width, height);
+        for (Rectangle region : ignoredRegions) {
+            Rectangle clipped = region.intersection(bounds);
+            if (clipped.isEmpty()) {
+                continue;
+            }
+            for (int y = clipped.y; y < clipped.y + clipped.height; y++) {
+                if (rows.get(y) == null) {
+                    rows.set(y, new ArrayList<>());
+                }
+                rows.get(y).add(clipped.x);
+                rows.get(y).add(clipped.x + clipped.width);
+            }
+        }
+
+        int[][] spans = new int[height][];
+        for (int y = 0; y < height; y++) {
+            List<Integer> row = rows.get(y);
+            if (row != null) {
+                spans[y] = row.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+        return spans;
+    }
+
+    /**
+     * Check if x falls into one of the row's ignored spans
+     */
+    private static boolean isIgnored(int[] spans, int x) {
+        for (int i = 0; i < spans.length; i += 2) {
+            if (x >= spans[i] && x < spans[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Count pixels covered by ignored spans (overlapping regions counted once)
+     */
+    private static long countMaskedPixels(int[][] ignoredSpans) {
+        long masked = 0;
+        for (int[] spans : ignoredSpans) {
+            if (spans == null) {
+                continue;
+            }
+            int maxX = 0;
+            for (int i = 1; i < spans.length; i += 2) {
+                maxX = Math.max(maxX, spans[i]);
+            }
+            for (int x = 0; x < maxX; x++) {
+                if (isIgnored(spans, x)) {
+                    masked++;
+                }
+            }
+        }
+        return masked;
+    }
+
+    /**
+     * Get packed RGB pixels, sharing the raster array when the layout allows it
+     */
+    private static int[] toPixels(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int type = image.getType();
+
+        if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+                && image.getRaster().getDataBuffer() instanceof DataBufferInt
+                && image.getRaster().getSampleModel() instanceof SinglePixelPackedSampleModel
+                && ((SinglePixelPackedSampleModel) image.getRaster().getSampleModel()).getScanlineStride() == width
+                && image.getRaster().getSampleModelTranslateX() == 0
+                && image.getRaster().getSampleModelTranslateY() == 0) {
+            int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            if (data.length == width * height) {
+                return data;
+            }
+        }
+
+        return image.getRGB(0, 0, width, height, null, 0, width);
+    }
+
+    /**
+     * Create diff image: faded baseline with differing pixels highlighted in red
+     */
+    private BufferedImage createDiffImage(BufferedImage baseline, BufferedImage actual) {
+        int width = baseline.getWidth();
+        int height = baseline.getHeight();
+        int[] expected = toPixels(baseline);
+        int[] current = toPixels(actual);
+        int[][] ignoredSpans = buildIgnoredSpans(width, height);
+
+        BufferedImage diff = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] output = ((DataBufferInt) diff.getRaster().getDataBuffer()).getData();
+
+        for (int y = 0; y < height; y++) {
+            int[] spans = ignoredSpans != null ? ignoredSpans[y] : null;
+            for (int x = 0; x < width; x++) {
+                int index = y * width + x;
+                int a = expected[index];
+                int b = current[index];
+                boolean differs = a != b && (spans == null || !isIgnored(spans, x))
+                        && (Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF)) > channelTolerance
+                        || Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)) > channelTolerance
+                        || Math.abs((a & 0xFF) - (b & 0xFF)) > channelTolerance);
+
+                if (differs) {
+                    output[index] = 0xFF0000;
+                } else {
+                    int gray = (((a >> 16) & 0xFF) + ((a >> 8) & 0xFF) + (a & 0xFF)) / 3;
+                    int faded = 192 + gray / 4;
+                    output[index] = (faded << 16) | (faded << 8) | faded;
+                }
+            }
+        }
+        return diff;
+    }
+}
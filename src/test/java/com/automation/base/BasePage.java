@@ -1,7 +1,11 @@
 package com.automation.base;
 
+import com.automation.core.DomSnapshot;
+import com.automation.core.PageVerifier;
+import com.automation.utils.FailureCapturePolicy;
 import com.automation.utils.LoggerUtils;
 import com.automation.utils.ScreenshotUtils;
+import com.automation.utils.VisualComparator;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
@@ -9,6 +13,7 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
 
@@ -86,7 +91,7 @@ public class BasePage {
             logger.info("Found element: {}", locator);
             return element;
         } catch (TimeoutException e) {
-            screenshotUtils.takeScreenshot("element_not_found");
+            captureFailure("element_not_found");
             logger.error("Element not found: {}", locator);
             Assert.fail("Element not found: " + locator);
             return null;
@@ -116,7 +121,7 @@ public class BasePage {
             return elements;
         } catch (TimeoutException e) {
             logger.error("Elements not found: {}", locator);
-            screenshotUtils.takeScreenshot("elements_not_found");
+            captureFailure("elements_not_found");
             return List.of(); // Return empty list instead of null
         }
     }
@@ -140,7 +145,7 @@ public class BasePage {
             logger.info("Clicking element: {}", locator);
             element.click();
         } catch (TimeoutException e) {
-            screenshotUtils.takeScreenshot("element_not_clickable");
+            captureFailure("element_not_clickable");
             logger.error("Element not clickable: {}", locator);
             Assert.fail("Element not clickable: " + locator);
         }
@@ -157,7 +162,7 @@ public class BasePage {
             js.executeScript("arguments[0].click();", element);
             logger.info("Clicked element using JavaScript: {}", locator);
         } catch (Exception e) {
-            screenshotUtils.takeScreenshot("js_click_failed");
+            captureFailure("js_click_failed");
             logger.error("JavaScript click failed: {}", locator);
             Assert.fail("JavaScript click failed: " + locator);
         }
@@ -235,7 +240,7 @@ public class BasePage {
             return element;
         } catch (TimeoutException e) {
             logger.error("Element not visible: {}", locator);
-            screenshotUtils.takeScreenshot("element_not_visible");
+            captureFailure("element_not_visible");
             Assert.fail("Element not visible within " + timeout + " seconds: " + locator);
             return null;
         }
@@ -255,7 +260,7 @@ public class BasePage {
             return element;
         } catch (TimeoutException e) {
             logger.error("Element not clickable: {}", locator);
-            screenshotUtils.takeScreenshot("element_not_clickable");
+            captureFailure("element_not_clickable");
             Assert.fail("Element not clickable within " + timeout + " seconds: " + locator);
             return null;
         }
@@ -304,7 +309,7 @@ public class BasePage {
     public void assertElementTextMatches(By locator, String expectedText, String assertMessage) {
         String actualText = getText(locator);
         if (!actualText.equals(expectedText)) {
-            screenshotUtils.takeScreenshot("text_assertion_failed");
+            captureFailure("text_assertion_failed");
             logger.error("{}: Expected = '{}', Actual = '{}'", assertMessage, expectedText, actualText);
         }
         Assert.assertEquals(actualText, expectedText, assertMessage + ": Expected = '" + expectedText + "', Actual = '" + actualText + "'");
@@ -319,13 +324,87 @@ public class BasePage {
     public void assertElementTextContains(By locator, String expectedText, String assertMessage) {
         String actualText = getText(locator);
         if (!actualText.contains(expectedText)) {
-            screenshotUtils.takeScreenshot("text_contains_assertion_failed");
+            captureFailure("text_contains_assertion_failed");
             logger.error("{}: Expected text '{}' not found in actual text '{}'", assertMessage, expectedText, actualText);
         }
         Assert.assertTrue(actualText.contains(expectedText),
                 assertMessage + ": Expected text '" + expectedText + "' not found in actual text '" + actualText + "'");
     }
 
+    /**
+     * Start a batched verification evaluated in one script call per polling round
+     * @return PageVerifier with the default timeout
+     */
+    public PageVerifier verify() {
+        return verify(DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Start a batched verification with custom timeout
+     * @param timeout Timeout in seconds
+     * @return PageVerifier that takes a screenshot when expectations fail
+     */
+    public PageVerifier verify(int timeout) {
+        return new PageVerifier(driver, timeout)
+                .onFailure(failures -> captureFailure("verification_failed"));
+    }
+
+    /**
+     * Capture a DOM snapshot of the current page for read-only verifications
+     * @return DomSnapshot of the whole document
+     */
+    public DomSnapshot takeDomSnapshot() {
+        DomSnapshot snapshot = DomSnapshot.capture(driver);
+        logger.info("Captured DOM snapshot of: {}", snapshot.getUrl());
+        return snapshot;
+    }
+
+    /**
+     * Capture a DOM snapshot of the subtree under the given element
+     * The capture script resolves the root itself, so this is a single round trip
+     * @param rootLocator By locator of the subtree root
+     * @return DomSnapshot of the subtree
+     * @throws NoSuchElementException if the root is not on the page
+     */
+    public DomSnapshot takeDomSnapshot(By rootLocator) {
+        DomSnapshot snapshot = DomSnapshot.capture(driver, rootLocator);
+        logger.info("Captured DOM snapshot of subtree: {}", rootLocator);
+        return snapshot;
+    }
+
+    /**
+     * Assert the current viewport matches a stored visual baseline
+     * @param baselineName Baseline name (recorded when visual.update.baselines=true)
+     * @param comparator VisualComparator with page-specific tolerance and ignored regions
+     */
+    public void assertVisualMatch(String baselineName, VisualComparator comparator) {
+        try {
+            byte[] capture = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+            VisualComparator.ComparisonResult result = comparator.compareWithBaseline(baselineName, capture);
+            Assert.assertTrue(result.isMatch(), "Visual mismatch for '" + baselineName + "': " + result);
+        } catch (IOException e) {
+            logger.error("Visual comparison failed for '{}': {}", baselineName, e.getMessage());
+            throw new RuntimeException("Visual comparison failed for: " + baselineName, e);
+        }
+    }
+
+    /**
+     * Assert the current viewport matches a stored visual baseline using configured tolerance
+     * @param baselineName Baseline name (recorded when visual.update.baselines=true)
+     */
+    public void assertVisualMatch(String baselineName) {
+        assertVisualMatch(baselineName, new VisualComparator());
+    }
+
+    /**
+     * Capture failure evidence through the capture policy (coalesced, capped or deferred)
+     * @param reason Capture reason used as screenshot name
+     * @return Screenshot path, or null if the capture was suppressed
+     */
+    protected String captureFailure(String reason) {
+        return FailureCapturePolicy.captureFailure(screenshotUtils, reason);
+    }
+
     /**
      * Wait for specified seconds
      * @param seconds Seconds to wait
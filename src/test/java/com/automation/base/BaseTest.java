@@ -1,16 +1,42 @@
 package com.automation.base;
 
+import com.automation.core.AuthStateCache;
+import com.automation.core.CircuitBreaker;
+import com.automation.core.CommandRecorder;
+import com.automation.core.ConcurrencyGovernor;
+import com.automation.core.DomSnapshot;
 import com.automation.core.DriverFactory;
+import com.automation.core.EnvironmentHealthCheck;
+import com.automation.core.SessionWatchdog;
+import com.automation.listeners.DurationAwareMethodInterceptor;
+import com.automation.listeners.QuarantineListener;
+import com.automation.listeners.RetryListener;
+import com.automation.listeners.ShardingMethodInterceptor;
 import com.automation.reporting.ExtentReportManager;
+import com.automation.reporting.FlakinessAnalyzer;
+import com.automation.reporting.ReportEventBus;
+import com.automation.reporting.ReportMediaManager;
+import com.automation.reporting.TestResultCollector;
+import com.automation.runner.RunnerWorker;
+import com.automation.utils.ArtifactRetentionManager;
+import com.automation.utils.FailureCapturePolicy;
 import com.automation.utils.LoggerUtils;
+import com.automation.utils.ScreenshotEncoder;
+import com.automation.utils.ScreenshotStore;
 import com.automation.utils.ScreenshotUtils;
+import com.automation.utils.ScreenshotWriter;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 import org.testng.ITestResult;
+import org.testng.SkipException;
 import org.testng.annotations.*;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Base Test class implementation
@@ -29,65 +55,165 @@ import java.lang.reflect.Method;
  */
 public class BaseTest {
 
+    // Runner workers run one suite per work unit; suite setup runs once per worker JVM
+    private static final AtomicBoolean workerSuiteStarted = new AtomicBoolean();
+
     protected WebDriver driver;
-    protected Logger logger;
+    protected Logger logger = LoggerUtils.getLogger(getClass());
     protected ScreenshotUtils screenshotUtils;
     protected ExtentTest extentTest;
 
     @BeforeSuite
     public void beforeSuite() {
+        if (RunnerWorker.isWorker() && !workerSuiteStarted.compareAndSet(false, true)) {
+            return;
+        }
         logger = LoggerUtils.getLogger(this.getClass());
         logger.info("===== Starting Test Suite =====");
+        ArtifactRetentionManager.enforceQuotas();
+        FailureCapturePolicy.startSuite();
         ExtentReportManager.initializeReport();
+        EnvironmentHealthCheck.runPreflight();
     }
 
     @BeforeMethod
     public void beforeMethod(Method method) {
         logger.info("===== Starting Test: {} =====", method.getName());
+        // Drop state of the previous method, afterMethod also runs when this setup does not finish
+        extentTest = null;
+        screenshotUtils = null;
+
+        // Fast-skip while the application's environment is known to be down
+        String application = CircuitBreaker.applicationOf(getClass());
+        if (CircuitBreaker.isOpen(application)) {
+            CircuitBreaker.recordSkip(application);
+            throw new SkipException(CircuitBreaker.getOpenReason(application));
+        }
+
+        // Reset failure capture state for this test
+        FailureCapturePolicy.startTest(method.getName());
+        CommandRecorder.startTest(getClass().getSimpleName() + "." + method.getName());
 
         // Create ExtentTest instance for each test method
         extentTest = ExtentReportManager.createTest(method.getName(),
                 getTestDescription(method));
 
+        // Wait for a worker slot (no-op unless the concurrency governor is enabled)
+        ConcurrencyGovernor.acquire();
+
+        // Watch the session created below; the time budget starts once it is attached
+        SessionWatchdog.startTest(method.getName());
+
         // Create WebDriver instance
-        driver = DriverFactory.createDriver();
+        try {
+            driver = DriverFactory.createDriver();
+        } catch (RuntimeException e) {
+            // Recorded with the circuit breaker by TestListener.onConfigurationFailure
+            ConcurrencyGovernor.release();
+            SessionWatchdog.endTest();
+            CommandRecorder.stopTest(false);
+            throw e;
+        }
         screenshotUtils = new ScreenshotUtils(driver);
 
         logger.info("Driver initialized for test: {}", method.getName());
     }
 
-    @AfterMethod
+    @AfterMethod(alwaysRun = true)
     public void afterMethod(ITestResult result) {
         String testName = result.getMethod().getMethodName();
+        try {
+            reportOutcome(result, testName);
+        } finally {
+            // Always quit the driver and release the worker slot, also after a failed setup
+            DriverFactory.quitDriver();
+            ConcurrencyGovernor.release();
+        }
+        logger.info("===== Completed Test: {} =====", testName);
+    }
+
+    /**
+     * Log the outcome of a test to the report and keep its failure artifacts
+     */
+    private void reportOutcome(ITestResult result, String testName) {
+        String rescueReason = SessionWatchdog.getRescueReason();
 
         if (result.getStatus() == ITestResult.FAILURE) {
             logger.error("Test failed: {}", testName);
             logger.error("Failure reason: {}", result.getThrowable().getMessage());
 
-            // Take screenshot on failure
-            String screenshotPath = screenshotUtils.takeScreenshot("test_failure_" + testName);
+            // Take single failure-time screenshot (shared with TestListener); a rescued session
+            // is gone and was already captured by the watchdog
+            String screenshotPath = rescueReason == null && screenshotUtils != null
+                    ? FailureCapturePolicy.captureTestFailure(screenshotUtils, testName) : null;
 
             // Add failure information to ExtentReport
-            extentTest.fail("Test failed: " + result.getThrowable().getMessage());
-            extentTest.addScreenCaptureFromPath(screenshotPath, "Failure Screenshot");
+            ExtentReportManager.log(extentTest, Status.FAIL, "Test failed: " + result.getThrowable().getMessage());
+            if (screenshotPath != null) {
+                ExtentReportManager.addScreenshot(extentTest, screenshotPath, "Failure Screenshot");
+            }
+
+            List<String> suppressedCaptures = FailureCapturePolicy.getSuppressedReasons();
+            if (!suppressedCaptures.isEmpty()) {
+                ExtentReportManager.log(extentTest, Status.INFO, "Suppressed intermediate captures: " + suppressedCaptures);
+            }
 
         } else if (result.getStatus() == ITestResult.SUCCESS) {
             logger.info("Test passed: {}", testName);
-            extentTest.pass("Test completed successfully");
+            ExtentReportManager.log(extentTest, Status.PASS, "Test completed successfully");
 
         } else if (result.getStatus() == ITestResult.SKIP) {
             logger.info("Test skipped: {}", testName);
-            extentTest.skip("Test was skipped: " + result.getThrowable().getMessage());
+            ExtentReportManager.log(extentTest, Status.SKIP, "Test was skipped: "
+                    + (result.getThrowable() != null ? result.getThrowable().getMessage() : "unknown reason"));
         }
 
-        // Quit driver
-        DriverFactory.quitDriver();
-        logger.info("===== Completed Test: {} =====", testName);
+        if (rescueReason != null) {
+            ExtentReportManager.log(extentTest, Status.WARNING, "Session rescued by watchdog: " + rescueReason);
+        }
+
+        // Keep the command recording of failed tests for offline replay
+        Path recording = CommandRecorder.stopTest(result.getStatus() == ITestResult.FAILURE);
+        if (recording != null) {
+            ExtentReportManager.log(extentTest, Status.INFO, "Command recording: " + recording);
+        }
+
+        // Count towards incremental flushing and spill details if enabled
+        ExtentReportManager.completeTest(extentTest);
     }
 
     @AfterSuite
     public void afterSuite() {
+        // Runner workers tear down after their last unit (RunnerWorker calls this directly)
+        if (!RunnerWorker.isSuiteFinished()) {
+            return;
+        }
         logger.info("===== Test Suite Completed =====");
+        ExtentReportManager.addRunSummary("DOM Snapshots", DomSnapshot.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Failure Captures", FailureCapturePolicy.getStatisticsSummary());
+        ScreenshotWriter.awaitPendingWrites(60);
+        ExtentReportManager.addRunSummary("Screenshot Writes", ScreenshotWriter.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Screenshot Encoding", ScreenshotEncoder.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Screenshot Captures", ScreenshotUtils.getCaptureStatisticsSummary());
+        ExtentReportManager.addRunSummary("Screenshot Deduplication", ScreenshotStore.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Report Events", ReportEventBus.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Report Flushing", ExtentReportManager.getFlushStatisticsSummary());
+        ExtentReportManager.addRunSummary("Test Results", TestResultCollector.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Scheduling", DurationAwareMethodInterceptor.getMakespanSummary());
+        ExtentReportManager.addRunSummary("Sharding", ShardingMethodInterceptor.getShardSummary());
+        ExtentReportManager.addRunSummary("Report Media", ReportMediaManager.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Auth Setup", AuthStateCache.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Environment Health", EnvironmentHealthCheck.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Circuit Breaker", CircuitBreaker.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Retries", RetryListener.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Flakiness", FlakinessAnalyzer.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Quarantine Lane", QuarantineListener.getStatisticsSummary());
+        ConcurrencyGovernor.stop();
+        ExtentReportManager.addRunSummary("Concurrency", ConcurrencyGovernor.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Session Watchdog", SessionWatchdog.getStatisticsSummary());
+        ExtentReportManager.addRunSummary("Command Recording", CommandRecorder.getStatisticsSummary());
+        ScreenshotStore.writeIndex();
+        ArtifactRetentionManager.writeCurrentIndex();
         ExtentReportManager.flushReport();
     }
 
@@ -107,7 +233,7 @@ public class BaseTest {
      */
     protected void logStep(String stepDescription) {
         logger.info("Step: {}", stepDescription);
-        extentTest.info("Step: " + stepDescription);
+        ExtentReportManager.log(extentTest, Status.INFO, "Step: " + stepDescription);
     }
 
     /**
@@ -115,7 +241,7 @@ public class BaseTest {
      */
     protected void logInfo(String message) {
         logger.info(message);
-        extentTest.info(message);
+        ExtentReportManager.log(extentTest, Status.INFO, message);
     }
 
     /**
@@ -123,7 +249,7 @@ public class BaseTest {
      */
     protected void logWarning(String message) {
         logger.warn(message);
-        extentTest.warning(message);
+        ExtentReportManager.log(extentTest, Status.WARNING, message);
     }
 
     /**
@@ -131,6 +257,6 @@ public class BaseTest {
      */
     protected void logError(String message) {
         logger.error(message);
-        extentTest.fail(message);
+        ExtentReportManager.log(extentTest, Status.FAIL, message);
     }
 }
\ No newline at end of file
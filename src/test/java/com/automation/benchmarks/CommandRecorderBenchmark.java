@@ -0,0 +1,174 @@
+package com.automation.benchmarks;
+
+import com.automation.core.CommandRecorder;
+import com.automation.core.DriverDecorator;
+import com.automation.core.ReplayWebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for the cost of command recording and the speed of offline replay
+ * A login-and-list page flow of 16 commands runs against an in-memory driver that answers
+ * instantly, so the scores are the framework cost alone (a local chromedriver command takes
+ * about 1-5ms):
+ * - raw: undecorated driver
+ * - eventFiring: Selenium's EventFiringDecorator with an empty listener (for reference)
+ * - decorated: DriverDecorator with an empty listener
+ * - recording: CommandRecorder, one recording per flow, deleted as for a passing test
+ * - replay: the flow re-executed from a recording by ReplayWebDriver
+ *
+ * Example:
+ *     mvn test-compile exec:exec -Pbenchmarks -Djmh.args="CommandRecorderBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Drecording.enabled=true", "-Drecording.keep=failed",
+        "-Drecording.dir=target/benchmark-recordings", "-Dreplay.enabled=false"})
+public class CommandRecorderBenchmark {
+
+    @State(Scope.Thread)
+    public static class Session {
+
+        @Param({"raw", "eventFiring", "decorated", "recording", "replay"})
+        public String mode;
+
+        private WebDriver driver;
+        private Path recording;
+        private int flows;
+
+        @Setup
+        public void setUp() {
+            driver = fakeDriver();
+            if ("eventFiring".equals(mode)) {
+                driver = new EventFiringDecorator<WebDriver>(new WebDriverListener() { }).decorate(driver);
+            } else if ("decorated".equals(mode)) {
+                driver = DriverDecorator.decorate(driver, new WebDriverListener() { });
+            } else if ("replay".equals(mode)) {
+                CommandRecorder.startTest("CommandRecorderBenchmark.replaySource");
+                WebDriver recorded = CommandRecorder.record(driver);
+                flow(recorded);
+                recording = CommandRecorder.stopTest(true);
+            }
+        }
+
+        /**
+         * Driver for the next flow
+         */
+        WebDriver next() {
+            if ("recording".equals(mode)) {
+                CommandRecorder.startTest("CommandRecorderBenchmark.flow" + (flows++ % 100));
+                return CommandRecorder.record(driver);
+            }
+            if ("replay".equals(mode)) {
+                return ReplayWebDriver.load(recording);
+            }
+            return driver;
+        }
+
+        void done() {
+            if ("recording".equals(mode)) {
+                CommandRecorder.stopTest(false);
+            }
+        }
+    }
+
+    @Benchmark
+    public int pageFlow(Session session) {
+        int length = flow(session.next());
+        session.done();
+        return length;
+    }
+
+    /**
+     * Log in, list the products and read their names (16 commands)
+     */
+    static int flow(WebDriver driver) {
+        driver.get("https://www.saucedemo.com/");
+        int length = driver.getTitle().length();
+        driver.findElement(By.id("user-name")).sendKeys("standard_user");
+        driver.findElement(By.id("password")).sendKeys("secret_sauce");
+        driver.findElement(By.id("login-button")).click();
+        for (WebElement item : driver.findElements(By.className("inventory_item_name"))) {
+            length += item.getText().length();
+        }
+        Object state = ((JavascriptExecutor) driver).executeScript("return document.readyState");
+        return length + String.valueOf(state).length();
+    }
+
+    /**
+     * In-memory driver answering every command instantly
+     */
+    static WebDriver fakeDriver() {
+        List<WebElement> items = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            items.add(fakeElement("Product " + i));
+        }
+        WebElement input = fakeElement("");
+        return (WebDriver) Proxy.newProxyInstance(CommandRecorderBenchmark.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getTitle":
+                            return "Swag Labs";
+                        case "getCurrentUrl":
+                            return "https://www.saucedemo.com/inventory.html";
+                        case "findElement":
+                            return input;
+                        case "findElements":
+                            return items;
+                        case "executeScript":
+                            return "complete";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "FakeDriver";
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    private static WebElement fakeElement(String text) {
+        return (WebElement) Proxy.newProxyInstance(CommandRecorderBenchmark.class.getClassLoader(),
+                new Class<?>[]{WebElement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getText":
+                            return text;
+                        case "isDisplayed":
+                            return true;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "FakeElement[" + text + "]";
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
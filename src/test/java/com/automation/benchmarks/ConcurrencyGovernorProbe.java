@@ -0,0 +1,57 @@
+package com.automation.benchmarks;
+
+import com.automation.core.ConcurrencyGovernor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency governor probe with simulated tests
+ * Runs simulated tests on a pool of governor.max.workers threads gated by
+ * ConcurrencyGovernor and prints the resulting limits and throughput; the timeline is
+ * written to reports/concurrency-timeline.csv. Each test spends the given share of its
+ * duration on the CPU and waits for the rest, like a browser test waiting on the page.
+ *
+ * Example:
+ *     java -Dgovernor.enabled=true -Dgovernor.sample.seconds=1 -cp <test classpath> \
+ *         com.automation.benchmarks.ConcurrencyGovernorProbe 200 500 0.2
+ */
+public class ConcurrencyGovernorProbe {
+
+    public static void main(String[] args) throws Exception {
+        int tests = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long testMillis = args.length > 1 ? Long.parseLong(args[1]) : 500;
+        double cpuShare = args.length > 2 ? Double.parseDouble(args[2]) : 0.2;
+
+        ExecutorService workers = Executors.newFixedThreadPool(ConcurrencyGovernor.getMaxWorkers());
+        for (int i = 0; i < tests; i++) {
+            workers.submit(() -> {
+                ConcurrencyGovernor.acquire();
+                try {
+                    burnCpu(Math.round(testMillis * cpuShare));
+                    Thread.sleep(Math.round(testMillis * (1 - cpuShare)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    ConcurrencyGovernor.release();
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        ConcurrencyGovernor.stop();
+        System.out.println(ConcurrencyGovernor.getStatisticsSummary());
+    }
+
+    private static void burnCpu(long millis) {
+        long end = System.nanoTime() + millis * 1_000_000;
+        double value = 0;
+        while (System.nanoTime() < end) {
+            value += Math.sqrt(value + 1);
+        }
+        if (value < 0) {
+            System.out.println(value);
+        }
+    }
+}
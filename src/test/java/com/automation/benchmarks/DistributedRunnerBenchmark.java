@@ -0,0 +1,125 @@
+package com.automation.benchmarks;
+
+import com.automation.runner.CoordinatorClient;
+import com.automation.runner.RunCoordinator;
+import com.automation.runner.WorkUnit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wall-clock comparison of surefire-style forks with the distributed runner
+ * A synthetic suite of classes with skewed method durations is run on real worker JVMs
+ * over the runner protocol; workers sleep for the duration of each unit.
+ * - surefire suite XML: the whole suite runs in one fork (computed, not run)
+ * - surefire forks: forkCount=N, reuseForks=true; whole classes are sent to the next free fork
+ * - runner: single methods, longest expected first, taken by the next free worker
+ * A last run of empty units measures the coordination cost per unit.
+ *
+ * Example:
+ *     java -cp <test classpath> com.automation.benchmarks.DistributedRunnerBenchmark 4 0.01
+ */
+public class DistributedRunnerBenchmark {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "worker".equals(args[0])) {
+            runWorker(Integer.parseInt(args[1]), args[2]);
+            return;
+        }
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        double scale = args.length > 1 ? Double.parseDouble(args[1]) : 0.01;
+
+        // Classes of 2-14 tests, log-normal durations around 8s (scaled)
+        Random random = new Random(42);
+        List<WorkUnit> methodUnits = new ArrayList<>();
+        List<WorkUnit> classUnits = new ArrayList<>();
+        long totalMs = 0;
+        long longestMs = 0;
+        for (int c = 0; c < 12; c++) {
+            String className = "com.example.Test" + c;
+            int methods = 2 + random.nextInt(13);
+            List<String> names = new ArrayList<>();
+            long classMs = 0;
+            for (int m = 0; m < methods; m++) {
+                long durationMs = Math.max(1, Math.round(Math.min(60_000, 8_000 * Math.exp(random.nextGaussian() * 0.8)) * scale));
+                names.add("test" + m);
+                methodUnits.add(new WorkUnit("bench", className, Collections.singletonList("test" + m), durationMs));
+                classMs += durationMs;
+                longestMs = Math.max(longestMs, durationMs);
+            }
+            classUnits.add(new WorkUnit("bench", className, names, classMs));
+            totalMs += classMs;
+        }
+        methodUnits.sort(Comparator.comparingLong(WorkUnit::getExpectedMs).reversed());
+
+        System.out.printf("%d tests in %d classes, %.1fs total, %d workers%n", methodUnits.size(), classUnits.size(),
+                totalMs / 1000.0, workers);
+        System.out.printf("  lower bound:              %.1fs%n", Math.max(totalMs / (double) workers, longestMs) / 1000.0);
+        System.out.printf("  surefire suite XML:       %.1fs (one fork)%n", totalMs / 1000.0);
+        System.out.printf("  surefire forks (classes): %.1fs%n", run(classUnits, workers) / 1000.0);
+        System.out.printf("  runner (methods):         %.1fs%n", run(methodUnits, workers) / 1000.0);
+
+        List<WorkUnit> emptyUnits = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            emptyUnits.add(new WorkUnit("bench", "com.example.Empty", Collections.singletonList("test" + i), 0));
+        }
+        long startupMs = run(emptyUnits.subList(0, workers), workers);
+        long emptyMs = run(emptyUnits, workers);
+        System.out.printf("  coordination: %d empty units in %dms, %dms of it worker startup (%.0fus per unit)%n",
+                emptyUnits.size(), emptyMs, startupMs, (emptyMs - startupMs) * 1000.0 / emptyUnits.size());
+    }
+
+    /**
+     * Run units on worker JVMs
+     * @return Wall-clock time from the first worker start to the last unit in milliseconds
+     */
+    private static long run(List<WorkUnit> units, int workerCount) throws Exception {
+        AtomicInteger results = new AtomicInteger();
+        List<Process> workers = new ArrayList<>();
+        long start = System.currentTimeMillis();
+        long elapsed;
+        try (RunCoordinator coordinator = new RunCoordinator(units, result -> results.incrementAndGet(), 0)) {
+            coordinator.start();
+            for (int i = 1; i <= workerCount; i++) {
+                workers.add(new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                        "-cp", System.getProperty("java.class.path"), DistributedRunnerBenchmark.class.getName(),
+                        "worker", String.valueOf(coordinator.getPort()), "worker-" + i).inheritIO().start());
+            }
+            if (!coordinator.awaitCompletion(TimeUnit.MINUTES.toMillis(10))) {
+                throw new IllegalStateException("Benchmark run did not complete: " + coordinator.getStatisticsSummary());
+            }
+            elapsed = System.currentTimeMillis() - start;
+            System.out.printf("    %s, results=%d%n", coordinator.getStatisticsSummary(), results.get());
+        }
+        for (Process worker : workers) {
+            worker.waitFor(30, TimeUnit.SECONDS);
+        }
+        return elapsed;
+    }
+
+    private static void runWorker(int port, String workerId) throws IOException, InterruptedException {
+        try (CoordinatorClient client = new CoordinatorClient(port, workerId)) {
+            WorkUnit unit;
+            while ((unit = client.next()) != null) {
+                Thread.sleep(unit.getExpectedMs());
+                for (String method : unit.getMethods()) {
+                    ObjectNode result = mapper.createObjectNode();
+                    result.put("id", unit.getClassName() + "." + method);
+                    result.put("status", "PASSED");
+                    client.sendResult(result);
+                }
+            }
+        }
+    }
+}
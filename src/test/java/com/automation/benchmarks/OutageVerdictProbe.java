@@ -0,0 +1,114 @@
+package com.automation.benchmarks;
+
+import com.automation.core.CircuitBreaker;
+import com.automation.core.EnvironmentHealthCheck;
+import com.automation.utils.FailureClassifier;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.Map;
+
+/**
+ * Time-to-verdict probe for simulated environment outages
+ * Starts a local stand-in server and measures how long the pre-flight health check takes
+ * to declare it down (5xx answers, refused connections, hanging responses), then how long
+ * a run of simulated tests takes when the server dies mid-run with and without the
+ * circuit breaker. Each simulated test is one request with a page-load style timeout.
+ *
+ * Example:
+ *     java -cp <test classpath> com.automation.benchmarks.OutageVerdictProbe 40 2000
+ */
+public class OutageVerdictProbe {
+
+    private static volatile String mode = "up";
+
+    public static void main(String[] args) throws Exception {
+        int tests = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int testTimeoutMs = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String current = path.startsWith("/hang") ? "hang" : path.startsWith("/down") ? "503" : mode;
+            if ("hang".equals(current)) {
+                sleep(60_000);
+            }
+            byte[] body = "stand-in".getBytes();
+            exchange.sendResponseHeaders("up".equals(current) ? 200 : 503, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+
+        System.setProperty("outage503.base.url", baseUrl + "down");
+        System.setProperty("refused.base.url", "http://127.0.0.1:" + freePort() + "/");
+        System.setProperty("hanging.base.url", baseUrl + "hang");
+        System.setProperty("midrun.base.url", baseUrl);
+        System.setProperty("health.check.applications", "outage503,refused,hanging,midrun");
+        System.setProperty("health.check.timeout.ms", String.valueOf(testTimeoutMs));
+        System.setProperty("circuit.breaker.probe.seconds", "3600");
+
+        long start = System.currentTimeMillis();
+        Map<String, EnvironmentHealthCheck.HealthResult> results = EnvironmentHealthCheck.runPreflight();
+        System.out.printf("Pre-flight verdict for all applications in %dms%n", System.currentTimeMillis() - start);
+        results.values().forEach(result -> System.out.printf("  %s -> circuit %s%n", result,
+                CircuitBreaker.isOpen(result.getApplication()) ? "open" : "closed"));
+
+        // Mid-run outage: healthy at start, hanging afterwards (like a dead backend behind a proxy)
+        mode = "hang";
+        System.out.printf("Mid-run outage, %d tests, %dms timeout per test:%n", tests, testTimeoutMs);
+        System.out.printf("  without breaker: %dms%n", runTests(tests, testTimeoutMs, baseUrl, null));
+        System.out.printf("  with breaker:    %dms (%s)%n", runTests(tests, testTimeoutMs, baseUrl, "midrun"),
+                CircuitBreaker.getStatisticsSummary());
+
+        server.stop(0);
+        System.exit(0);
+    }
+
+    /**
+     * Run simulated tests sequentially, skipping them while the circuit is open
+     */
+    private static long runTests(int tests, int timeoutMs, String baseUrl, String application) {
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < tests; i++) {
+            if (application != null && CircuitBreaker.isOpen(application)) {
+                CircuitBreaker.recordSkip(application);
+                continue;
+            }
+            try {
+                HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl).openConnection();
+                connection.setConnectTimeout(timeoutMs);
+                connection.setReadTimeout(timeoutMs);
+                try (InputStream body = connection.getInputStream()) {
+                    body.skip(Long.MAX_VALUE);
+                }
+            } catch (IOException e) {
+                if (application != null) {
+                    CircuitBreaker.recordFailure(application, FailureClassifier.classify(e));
+                }
+            }
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
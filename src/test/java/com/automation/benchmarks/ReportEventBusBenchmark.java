@@ -0,0 +1,108 @@
+package com.automation.benchmarks;
+
+import com.automation.reporting.ReportEventBus;
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JMH benchmark for report logging contention across test threads
+ * Compares direct ExtentTest calls from many threads with publishing through ReportEventBus.
+ * Each operation logs a batch of steps:
+ * - directLog: ExtentTest calls on the test thread
+ * - eventBusLog: publish, then drain, so the score includes applying the events on the consumer
+ * - eventBusPublish: publish only, the time a test thread spends per step; the bus is drained
+ *   before each batch, outside the measurement
+ * Scores are per step. Run once per thread count to measure contention at 4, 16 and 64 threads.
+ *
+ * Example:
+ *     mvn test-compile exec:exec -Pbenchmarks -Djmh.args="ReportEventBusBenchmark -t 4"
+ *     mvn test-compile exec:exec -Pbenchmarks -Djmh.args="ReportEventBusBenchmark -t 16"
+ *     mvn test-compile exec:exec -Pbenchmarks -Djmh.args="ReportEventBusBenchmark -t 64"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportEventBusBenchmark {
+
+    private static final int STEPS = 100;
+
+    @State(Scope.Benchmark)
+    public static class Report {
+        private ExtentReports extentReports;
+        private final AtomicInteger testCounter = new AtomicInteger();
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            extentReports = new ExtentReports();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            ReportEventBus.drain(60);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TestThread {
+        private ExtentTest test;
+
+        @Setup(Level.Iteration)
+        public void setUp(Report report) {
+            test = ReportEventBus.call(() -> report.extentReports.createTest("test-" + report.testCounter.incrementAndGet()));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DrainedBus {
+
+        @Setup(Level.Invocation)
+        public void drain() {
+            ReportEventBus.drain(60);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void directLog(TestThread thread) {
+        for (int i = 0; i < STEPS; i++) {
+            thread.test.info("Step executed");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void eventBusLog(TestThread thread) {
+        ExtentTest test = thread.test;
+        for (int i = 0; i < STEPS; i++) {
+            ReportEventBus.publish(() -> test.info("Step executed"));
+        }
+        ReportEventBus.drain(60);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void eventBusPublish(TestThread thread, DrainedBus bus) {
+        ExtentTest test = thread.test;
+        for (int i = 0; i < STEPS; i++) {
+            ReportEventBus.publish(() -> test.info("Step executed"));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.automation.benchmarks;
+
+import com.automation.reporting.ExtentReportManager;
+import com.automation.reporting.ReportEventBus;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * Peak heap probe for a synthetic suite reported through ExtentReportManager
+ * Runs N synthetic tests with M steps each and prints peak heap usage, so runs with and
+ * without incremental flushing/spilling can be compared. Use a fixed heap size (-Xmx) and
+ * the same arguments for both runs.
+ *
+ * Example:
+ *     java -Xmx2g -Dreport.spill.enabled=false -cp <test classpath> com.automation.benchmarks.ReportMemoryProbe 10000 20
+ *     java -Xmx2g -Dreport.spill.enabled=true  -cp <test classpath> com.automation.benchmarks.ReportMemoryProbe 10000 20
+ */
+public class ReportMemoryProbe {
+
+    public static void main(String[] args) {
+        int tests = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int stepsPerTest = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        ExtentReportManager.initializeReport();
+        resetPeakUsage();
+        long start = System.currentTimeMillis();
+
+        for (int i = 0; i < tests; i++) {
+            ExtentReportManager.createTest("syntheticTest" + i, "Synthetic test " + i);
+            for (int step = 0; step < stepsPerTest; step++) {
+                ExtentReportManager.logInfo("Step " + step + " of synthetic test " + i
+                        + ": clicked element By.id: submit-button and verified page state");
+            }
+            ExtentReportManager.logPass("Test completed successfully");
+            ExtentReportManager.completeTest(ExtentReportManager.getCurrentTest());
+            ExtentReportManager.removeTest();
+
+            // Keep producers from outrunning the consumer, as real tests would
+            if (i % 500 == 0) {
+                ReportEventBus.drain(60);
+            }
+        }
+
+        ExtentReportManager.flushReport();
+        System.out.printf("tests=%d, stepsPerTest=%d, spill=%s, elapsed=%dms, peakHeap=%dMB%n",
+                tests, stepsPerTest, System.getProperty("report.spill.enabled", "config"),
+                System.currentTimeMillis() - start, peakHeapBytes() / (1024 * 1024));
+        System.out.println(ExtentReportManager.getFlushStatisticsSummary());
+    }
+
+    private static void resetPeakUsage() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
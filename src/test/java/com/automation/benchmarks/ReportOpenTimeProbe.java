@@ -0,0 +1,156 @@
+package com.automation.benchmarks;
+
+import com.automation.core.ConfigReader;
+import com.automation.core.DriverFactory;
+import com.automation.reporting.ExtentReportManager;
+import com.automation.utils.ScreenshotUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Report size and open-time probe
+ * Prints each given report's HTML size and the images a browser fetches when opening it
+ * (eager) or only when scrolled to (lazy), then opens it in a headless browser several times
+ * and prints the median load time (navigation start to load event end), to compare report
+ * media modes on the same large run. Load times are skipped when no browser can be started.
+ *
+ * With --generate the probe first writes a synthetic run of N tests with one screenshot each
+ * in the configured report.media.mode and prints the report path. Spill is turned off so all
+ * test details, and their images, are in the report HTML.
+ *
+ * Example:
+ *     java -Dreport.media.mode=embedded -cp <test classpath> com.automation.benchmarks.ReportOpenTimeProbe --generate 1000
+ *     java -Dreport.media.mode=external -cp <test classpath> com.automation.benchmarks.ReportOpenTimeProbe --generate 1000
+ *     java -cp <test classpath> com.automation.benchmarks.ReportOpenTimeProbe reports/ExtentReport_embedded.html reports/ExtentReport_external.html
+ */
+public class ReportOpenTimeProbe {
+
+    private static final int RUNS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && "--generate".equals(args[0])) {
+            System.out.println(generate(Integer.parseInt(args[1])));
+            return;
+        }
+
+        for (String report : args) {
+            printMedia(Paths.get(report).toAbsolutePath());
+        }
+
+        WebDriver driver;
+        try {
+            driver = DriverFactory.createDriver(ConfigReader.getBrowser(), true);
+        } catch (Exception e) {
+            System.out.println("No browser available, load times skipped: " + e.getMessage());
+            return;
+        }
+        try {
+            for (String report : args) {
+                Path reportFile = Paths.get(report).toAbsolutePath();
+                long[] loadTimes = new long[RUNS];
+                for (int run = 0; run < RUNS; run++) {
+                    driver.get("about:blank");
+                    driver.get(reportFile.toUri().toString());
+                    loadTimes[run] = ((Number) ((JavascriptExecutor) driver).executeScript(
+                            "var t = performance.timing; return t.loadEventEnd - t.navigationStart;")).longValue();
+                }
+                Arrays.sort(loadTimes);
+                System.out.printf("%s: medianLoad=%dms, minLoad=%dms%n",
+                        reportFile.getFileName(), loadTimes[RUNS / 2], loadTimes[0]);
+            }
+        } finally {
+            DriverFactory.quitDriver();
+        }
+    }
+
+    /**
+     * Print HTML size and the count and size of eagerly and lazily loaded images
+     */
+    private static void printMedia(Path reportFile) throws Exception {
+        Document document = Jsoup.parse(reportFile.toFile(), StandardCharsets.UTF_8.name());
+        long eagerCount = 0;
+        long eagerBytes = 0;
+        long lazyCount = 0;
+        long lazyBytes = 0;
+        for (Element image : document.select("img[src]")) {
+            Path source = reportFile.getParent().resolve(image.attr("src")).normalize();
+            long size = Files.exists(source) ? Files.size(source) : 0;
+            if ("lazy".equals(image.attr("loading"))) {
+                lazyCount++;
+                lazyBytes += size;
+            } else {
+                eagerCount++;
+                eagerBytes += size;
+            }
+        }
+        System.out.printf("%s: size=%dKB, eagerImages=%d (%dKB), lazyImages=%d (%dKB)%n",
+                reportFile.getFileName(), Files.size(reportFile) / 1024,
+                eagerCount, eagerBytes / 1024, lazyCount, lazyBytes / 1024);
+    }
+
+    /**
+     * Write a synthetic run with one failure screenshot per test and return the report path
+     */
+    private static Path generate(int tests) throws Exception {
+        System.setProperty("report.spill.enabled", "false");
+        ExtentReportManager.initializeReport();
+        Random random = new Random(42);
+        Path screenshots = Paths.get(ScreenshotUtils.getScreenshotsDirectory());
+        Files.createDirectories(screenshots);
+
+        for (int i = 0; i < tests; i++) {
+            Path screenshot = screenshots.resolve("FAILURE_syntheticTest" + i + ".png");
+            ImageIO.write(syntheticPage(random), "png", screenshot.toFile());
+
+            ExtentReportManager.createTest("syntheticTest" + i, "Synthetic test " + i);
+            ExtentReportManager.logFail("Expected product list to be sorted");
+            ExtentReportManager.addScreenshot(screenshot.toString(), "Failure screenshot");
+            ExtentReportManager.completeTest(ExtentReportManager.getCurrentTest());
+            ExtentReportManager.removeTest();
+        }
+        ExtentReportManager.flushReport();
+
+        try (Stream<Path> reports = Files.list(Paths.get("reports"))) {
+            return reports.filter(path -> path.getFileName().toString().startsWith("ExtentReport_"))
+                    .max(Comparator.comparingLong(path -> path.toFile().lastModified()))
+                    .orElseThrow(IllegalStateException::new);
+        }
+    }
+
+    /**
+     * 1366x768 page with a header and a grid of product images
+     */
+    private static BufferedImage syntheticPage(Random random) {
+        BufferedImage image = new BufferedImage(1366, 768, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 1366, 768);
+        graphics.setColor(new Color(0x333333));
+        graphics.fillRect(0, 0, 1366, 60);
+        for (int card = 0; card < 12; card++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillRect(40 + (card % 4) * 330, 120 + (card / 4) * 200, 280, 150);
+            graphics.setColor(Color.DARK_GRAY);
+            graphics.drawString("Product " + random.nextInt(1000) + " $" + random.nextInt(100) + ".99",
+                    40 + (card % 4) * 330, 290 + (card / 4) * 200);
+        }
+        graphics.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,91 @@
+package com.automation.benchmarks;
+
+import com.automation.reporting.ResultMerger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH benchmark for merging shard results streams into one report
+ * Generates 50 synthetic shard files and measures ResultMerger end to end.
+ *
+ * Example:
+ *     mvn test-compile exec:exec -Pbenchmarks -Djmh.args=ResultMergeBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResultMergeBenchmark {
+
+    @Param({"50"})
+    public int shards;
+
+    @Param({"200"})
+    public int testsPerShard;
+
+    private Path directory;
+    private List<Path> shardFiles;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("merge-benchmark");
+        shardFiles = new ArrayList<>();
+
+        for (int shard = 0; shard < shards; shard++) {
+            Path shardFile = directory.resolve("shard-" + shard + ".ndjson");
+            try (BufferedWriter writer = Files.newBufferedWriter(shardFile, StandardCharsets.UTF_8)) {
+                writer.write("{\"type\":\"shard\",\"shard\":\"" + shard + "\",\"startedAt\":0}\n");
+                for (int test = 0; test < testsPerShard; test++) {
+                    long start = 1_000L * test;
+                    writer.write("{\"type\":\"test\",\"shard\":\"" + shard + "\",\"name\":\"test" + test
+                            + "\",\"status\":\"" + (test % 20 == 0 ? "fail" : "pass") + "\",\"start\":" + start
+                            + ",\"end\":" + (start + 850) + ",\"durationMs\":850,\"categories\":[\"regression\"],"
+                            + "\"media\":[],\"steps\":[");
+                    for (int step = 0; step < 10; step++) {
+                        writer.write((step > 0 ? "," : "") + "{\"status\":\"info\",\"time\":" + (start + step)
+                                + ",\"details\":\"Step " + step + " executed\"}");
+                    }
+                    writer.write("]}\n");
+                }
+                writer.write("{\"type\":\"end\",\"shard\":\"" + shard + "\",\"tests\":" + testsPerShard + "}\n");
+            }
+            shardFiles.add(shardFile);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long merge() throws IOException {
+        return ResultMerger.merge(shardFiles, directory.resolve("MergedReport.html")).getTests();
+    }
+}
@@ -0,0 +1,119 @@
+package com.automation.benchmarks;
+
+import com.automation.utils.ScreenshotEncoder;
+import com.automation.utils.ScreenshotWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for screenshot persistence throughput under 16 parallel test threads
+ * Each operation persists one 1366x768 PNG screenshot:
+ * - sync: encode and write on the test thread (the blocking path before the pipeline)
+ * - async: ScreenshotWriter.submit; with a full queue the test thread blocks, so in steady
+ *   state the score is the throughput of the writer threads
+ * Writer statistics (throughput, queue depth, blocked time) are printed after each iteration.
+ *
+ * Example:
+ *     mvn test-compile exec:exec -Pbenchmarks -Djmh.args="ScreenshotWriterBenchmark"
+ *     mvn test-compile exec:exec -Pbenchmarks -Djmh.args="ScreenshotWriterBenchmark -jvmArgsAppend -Dscreenshot.writer.threads=4"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class ScreenshotWriterBenchmark {
+
+    private static final Path OUTPUT_DIR = Paths.get("target", "benchmark-screenshots");
+    private static final int FILES_PER_THREAD = 32;
+
+    @State(Scope.Benchmark)
+    public static class Screenshot {
+
+        @Param({"sync", "async"})
+        public String mode;
+
+        private byte[] png;
+
+        @Setup
+        public void setUp() throws IOException {
+            png = syntheticPng(1366, 768);
+        }
+
+        @TearDown(Level.Iteration)
+        public void awaitWrites() {
+            ScreenshotWriter.awaitPendingWrites(60);
+            if ("async".equals(mode)) {
+                System.out.println(ScreenshotWriter.getStatisticsSummary());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TargetFiles {
+        private final String prefix = "t" + Thread.currentThread().getId() + "_";
+        private int next;
+
+        Path next() {
+            return OUTPUT_DIR.resolve(prefix + (next++ % FILES_PER_THREAD) + ".png");
+        }
+    }
+
+    @Benchmark
+    public Object persist(Screenshot screenshot, TargetFiles files) throws IOException {
+        Path target = files.next();
+        if ("sync".equals(screenshot.mode)) {
+            ScreenshotWriter.writeNow(ScreenshotEncoder.encode(screenshot.png), target);
+            return target;
+        }
+        return ScreenshotWriter.submit(screenshot.png, target);
+    }
+
+    /**
+     * Page-like PNG: flat background, coloured blocks and text-like noise
+     */
+    static byte[] syntheticPng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        Random random = new Random(42);
+        for (int i = 0; i < 40; i++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillRect(random.nextInt(width), random.nextInt(height), 40 + random.nextInt(300), 20 + random.nextInt(120));
+        }
+        graphics.setColor(Color.DARK_GRAY);
+        for (int i = 0; i < 4000; i++) {
+            graphics.fillRect(random.nextInt(width), random.nextInt(height), 1 + random.nextInt(6), 2 + random.nextInt(8));
+        }
+        graphics.dispose();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
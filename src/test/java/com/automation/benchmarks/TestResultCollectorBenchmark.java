@@ -0,0 +1,55 @@
+package com.automation.benchmarks;
+
+import com.automation.enums.TestStatus;
+import com.automation.reporting.TestResultCollector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for TestResultCollector overhead under parallel recording
+ * Each operation records a full test lifecycle (start and finish) from many threads;
+ * compare the per-test cost with typical UI test durations (seconds).
+ *
+ * Example:
+ *     mvn test-compile exec:exec -Pbenchmarks -Djmh.args="TestResultCollectorBenchmark -t 16"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class TestResultCollectorBenchmark {
+
+    private static final String[] GROUPS = {"regression", "products"};
+
+    @State(Scope.Thread)
+    public static class ThreadCounter {
+        private final String prefix = "com.automation.tests.SyntheticTest.test" + Thread.currentThread().getId() + "_";
+        private int next;
+    }
+
+    @Benchmark
+    public void recordTestLifecycle(ThreadCounter counter) {
+        // A bounded id space keeps the map size stable while exercising the retry path
+        String testId = counter.prefix + (counter.next++ & 1023);
+        TestResultCollector.testStarted(testId, "SyntheticTest", "test", GROUPS);
+        TestResultCollector.testFinished(testId, (counter.next & 15) == 0 ? TestStatus.FAILED : TestStatus.PASSED,
+                counter.next & 4095, null);
+    }
+
+    @Benchmark
+    public long queryCounts() {
+        return TestResultCollector.getCount(TestStatus.PASSED) + TestResultCollector.getCount(TestStatus.FAILED);
+    }
+}
@@ -0,0 +1,122 @@
+package com.automation.benchmarks;
+
+import com.automation.utils.VisualComparator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for 1080p visual comparisons
+ * Compares the bulk int[] engine (sequential and parallel) against a naive getRGB loop
+ *
+ * Example:
+ *     mvn test-compile exec:exec -Pbenchmarks -Djmh.args=VisualComparatorBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VisualComparatorBenchmark {
+
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    private BufferedImage baseline;
+    private BufferedImage identical;
+    private BufferedImage heavilyChanged;
+
+    private VisualComparator sequential;
+    private VisualComparator parallel;
+    private VisualComparator masked;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        baseline = randomImage(42);
+        identical = copy(baseline);
+        heavilyChanged = randomImage(7);
+
+        // Slight noise within tolerance, so the identical path still inspects channels
+        Random random = new Random(1);
+        for (int i = 0; i < 10_000; i++) {
+            int x = random.nextInt(WIDTH);
+            int y = random.nextInt(HEIGHT);
+            identical.setRGB(x, y, identical.getRGB(x, y) ^ 0x010101);
+        }
+
+        sequential = new VisualComparator().withChannelTolerance(16).withMaxDiffRatio(0.001).parallel(false);
+        parallel = new VisualComparator().withChannelTolerance(16).withMaxDiffRatio(0.001).parallel(true);
+        masked = new VisualComparator().withChannelTolerance(16).withMaxDiffRatio(0.001).parallel(true)
+                .ignoreRegion(0, 0, WIDTH, 80)
+                .ignoreRegion(1500, 200, 400, 600);
+    }
+
+    @Benchmark
+    public boolean naiveGetRgbLoop() {
+        long mismatches = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                if (baseline.getRGB(x, y) != identical.getRGB(x, y)) {
+                    mismatches++;
+                }
+            }
+        }
+        return mismatches == 0;
+    }
+
+    @Benchmark
+    public boolean matchSequential() {
+        return sequential.compare(baseline, identical).isMatch();
+    }
+
+    @Benchmark
+    public boolean matchParallel() {
+        return parallel.compare(baseline, identical).isMatch();
+    }
+
+    @Benchmark
+    public boolean matchParallelWithMasks() {
+        return masked.compare(baseline, identical).isMatch();
+    }
+
+    @Benchmark
+    public boolean mismatchEarlyExit() {
+        return sequential.compare(baseline, heavilyChanged).isMatch();
+    }
+
+    private static BufferedImage randomImage(long seed) {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(seed);
+        // Blocky content resembles rendered pages better than per-pixel noise
+        for (int y = 0; y < HEIGHT; y += 8) {
+            for (int x = 0; x < WIDTH; x += 8) {
+                int color = random.nextInt(0xFFFFFF);
+                for (int dy = 0; dy < 8 && y + dy < HEIGHT; dy++) {
+                    for (int dx = 0; dx < 8 && x + dx < WIDTH; dx++) {
+                        image.setRGB(x + dx, y + dy, color);
+                    }
+                }
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage copy(BufferedImage source) {
+        BufferedImage copy = new BufferedImage(source.getWidth(), source.getHeight(), source.getType());
+        copy.setData(source.getData());
+        return copy;
+    }
+}
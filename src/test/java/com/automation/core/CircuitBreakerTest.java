@@ -0,0 +1,56 @@
+package com.automation.core;
+
+import com.automation.enums.FailureCategory;
+import com.automation.utils.FailureClassifier;
+import org.openqa.selenium.NoSuchSessionException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for CircuitBreaker failure counting
+ * The applications used here have no base URL configured, so their health probe reports
+ * them as up.
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class CircuitBreakerTest {
+
+    private static final NoSuchSessionException DEAD_SESSION = new NoSuchSessionException("Session ID is null");
+
+    @Test(description = "Sessions quit by the watchdog do not open the circuit of a healthy application")
+    public void rescuedSessionsNeedAFailedProbe() {
+        String application = "rescuedapp";
+        for (int i = 0; i < 5; i++) {
+            CircuitBreaker.recordFailure(application, FailureClassifier.classify(DEAD_SESSION, true));
+        }
+
+        Assert.assertFalse(CircuitBreaker.isOpen(application));
+        Assert.assertNull(CircuitBreaker.getOpenReason(application));
+    }
+
+    @Test(description = "Consecutive dead sessions without a rescue open the circuit at the threshold")
+    public void deadSessionsOpenTheCircuit() {
+        String application = "deadsessionapp";
+        CircuitBreaker.recordFailure(application, FailureClassifier.classify(DEAD_SESSION, false));
+        CircuitBreaker.recordFailure(application, FailureClassifier.classify(DEAD_SESSION, false));
+        Assert.assertNull(CircuitBreaker.getOpenReason(application));
+
+        CircuitBreaker.recordFailure(application, FailureClassifier.classify(DEAD_SESSION, false));
+        Assert.assertNotNull(CircuitBreaker.getOpenReason(application));
+    }
+
+    @Test(description = "Repeated timeouts reuse a health probe younger than the probe interval")
+    public void timeoutsReuseARecentProbe() {
+        String application = "timeoutapp";
+        CircuitBreaker.recordFailure(application, FailureCategory.TIMEOUT);
+        EnvironmentHealthCheck.HealthResult probe = EnvironmentHealthCheck.getLastResult(application);
+        Assert.assertNotNull(probe, "The first timeout should probe the application");
+
+        for (int i = 0; i < 5; i++) {
+            CircuitBreaker.recordFailure(application, FailureCategory.TIMEOUT);
+        }
+
+        Assert.assertSame(EnvironmentHealthCheck.getLastResult(application), probe);
+        Assert.assertFalse(CircuitBreaker.isOpen(application));
+    }
+}
@@ -0,0 +1,64 @@
+package com.automation.core;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+/**
+ * Unit tests for CommandRecorder redaction of secrets in recorded commands
+ * The driver is a JDK proxy whose web storage holds a token.
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class CommandRecorderTest {
+
+    private static final String TOKEN = "eyJhbGciOiJIUzI1NiJ9.secret-session-token";
+
+    @Test(description = "Web storage read by AuthStateCache is recorded only as its size")
+    public void redactsCapturedAuthState() throws Exception {
+        CommandRecorder.startTest("CommandRecorderTest.redactsCapturedAuthState");
+        WebDriver driver = CommandRecorder.record(fakeDriver());
+
+        AuthStateCache.ensureLoggedIn(driver, "recorder-test:" + System.nanoTime(), "https://app.test/",
+                "https://app.test/inventory", session -> { }, session -> true);
+        Object visibleResult = ((JavascriptExecutor) driver).executeScript("return window.localStorage.getItem('token');");
+
+        Path recording = CommandRecorder.stopTest(true);
+        Assert.assertNotNull(recording, "Recording of a failed test should be kept");
+        String lines = new String(Files.readAllBytes(recording), StandardCharsets.UTF_8);
+        Files.delete(recording);
+
+        Assert.assertEquals(visibleResult, Collections.singletonMap("token", TOKEN));
+        Assert.assertTrue(lines.contains("\"r\":{\"@map\":1}"), lines);
+        Assert.assertEquals(lines.split(TOKEN, -1).length - 1, 1,
+                "Only the script result outside AuthStateCache should be recorded verbatim:\n" + lines);
+    }
+
+    private static WebDriver fakeDriver() {
+        WebDriver.Options options = (WebDriver.Options) Proxy.newProxyInstance(CommandRecorderTest.class.getClassLoader(),
+                new Class<?>[]{WebDriver.Options.class}, (proxy, method, args) ->
+                        "getCookies".equals(method.getName()) ? Collections.emptySet() : null);
+        return (WebDriver) Proxy.newProxyInstance(CommandRecorderTest.class.getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "manage":
+                            return options;
+                        case "executeScript":
+                            return Collections.singletonMap("token", TOKEN);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+}
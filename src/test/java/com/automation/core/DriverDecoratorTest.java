@@ -0,0 +1,165 @@
+package com.automation.core;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for DriverDecorator wrapping, unwrapping and identity of decorated objects
+ * The driver and elements are JDK proxies standing in for a remote driver.
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class DriverDecoratorTest {
+
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    private final List<Object> scriptArguments = new ArrayList<>();
+    private WebDriver rawDriver;
+    private WebElement rawElement;
+    private WebElement otherRawElement;
+    private WebDriver driver;
+
+    /**
+     * Records the calls the decorator reports
+     */
+    private class RecordingListener implements WebDriverListener {
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            calls.add(method.getName());
+        }
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        calls.clear();
+        scriptArguments.clear();
+        rawDriver = fake(WebDriver.class, new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "findElement":
+                    return rawElement;
+                case "findElements":
+                    return Arrays.asList(rawElement, otherRawElement);
+                case "executeScript":
+                    scriptArguments.addAll(Arrays.asList((Object[]) args[1]));
+                    return ((Object[]) args[1])[0];
+                case "getTitle":
+                    return "Products";
+                default:
+                    return objectMethod(proxy, method, args, "driver");
+            }
+        });
+        rawElement = fakeElement("element");
+        otherRawElement = fakeElement("other element");
+        driver = DriverDecorator.decorate(rawDriver, new RecordingListener());
+    }
+
+    @Test(description = "Found elements are decorated and unwrap to the driver's elements")
+    public void foundElementsAreDecorated() {
+        WebElement element = driver.findElement(By.id("cart"));
+
+        Assert.assertNotSame(element, rawElement);
+        Assert.assertSame(((WrapsElement) element).getWrappedElement(), rawElement);
+        Assert.assertEquals(element.getText(), "element text");
+        Assert.assertEquals(calls, Arrays.asList("findElement", "getText"));
+    }
+
+    @Test(description = "The driver of a decorated element is the decorated driver, so its calls stay recorded")
+    public void elementWrapsTheDecoratedDriver() {
+        WebElement element = driver.findElement(By.id("cart"));
+
+        WebDriver elementDriver = ((WrapsDriver) element).getWrappedDriver();
+
+        Assert.assertSame(elementDriver, driver);
+        Assert.assertEquals(elementDriver.getTitle(), "Products");
+        Assert.assertEquals(calls, Arrays.asList("findElement", "getTitle"));
+        Assert.assertSame(((WrapsDriver) driver).getWrappedDriver(), rawDriver);
+    }
+
+    @Test(description = "Every element of a found list is decorated")
+    public void foundListsAreDecorated() {
+        List<WebElement> elements = driver.findElements(By.cssSelector(".item"));
+
+        Assert.assertEquals(elements.size(), 2);
+        Assert.assertSame(((WrapsElement) elements.get(0)).getWrappedElement(), rawElement);
+        Assert.assertSame(((WrapsElement) elements.get(1)).getWrappedElement(), otherRawElement);
+        Assert.assertEquals(elements.get(1).getText(), "other element text");
+    }
+
+    @Test(description = "Decorated arguments, also inside arrays and lists, reach the driver unwrapped")
+    public void argumentsAreUnwrapped() {
+        WebElement element = driver.findElement(By.id("cart"));
+        List<WebElement> elements = driver.findElements(By.cssSelector(".item"));
+
+        Object result = ((JavascriptExecutor) driver).executeScript("arguments[0].click()", element, elements);
+
+        Assert.assertSame(scriptArguments.get(0), rawElement);
+        Assert.assertEquals(scriptArguments.get(1), Arrays.asList(rawElement, otherRawElement));
+        Assert.assertSame(((List<?>) scriptArguments.get(1)).get(1), otherRawElement);
+        Assert.assertNotSame(result, rawElement, "Returned elements are decorated");
+        Assert.assertSame(((WrapsElement) result).getWrappedElement(), rawElement);
+    }
+
+    @Test(description = "Two decorations of the same element are equal, hash alike and are not reported as calls")
+    public void equalityFollowsTheTargets() {
+        WebElement first = driver.findElement(By.id("cart"));
+        WebElement second = driver.findElement(By.id("cart"));
+        WebElement other = driver.findElements(By.cssSelector(".item")).get(1);
+        calls.clear();
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(first.hashCode(), second.hashCode());
+        Assert.assertEquals(first.hashCode(), rawElement.hashCode());
+        Assert.assertNotEquals(first, other);
+        Assert.assertEquals(first.toString(), "element");
+        Assert.assertTrue(calls.isEmpty(), "Object methods should not reach the listener: " + calls);
+    }
+
+    private WebElement fakeElement(String name) {
+        return fake(WebElement.class, new Class<?>[]{WebElement.class, WrapsDriver.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getText":
+                    return name + " text";
+                case "getWrappedDriver":
+                    return rawDriver;
+                default:
+                    return objectMethod(proxy, method, args, name);
+            }
+        });
+    }
+
+    /**
+     * Identity-based equals/hashCode and a fixed toString, like a remote driver object
+     */
+    private static Object objectMethod(Object proxy, Method method, Object[] args, String name) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return name;
+            default:
+                throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private static <T> T fake(Class<T> type, Class<?>[] interfaces, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(DriverDecoratorTest.class.getClassLoader(), interfaces, handler));
+    }
+}
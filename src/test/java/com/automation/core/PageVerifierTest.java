@@ -0,0 +1,79 @@
+package com.automation.core;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Unit tests for PageVerifier aggregation of failed expectations and group polling
+ * The driver is a JDK proxy returning one scripted evaluation result per round.
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class PageVerifierTest {
+
+    private final Deque<List<Object>> rounds = new ArrayDeque<>();
+    private int scriptCalls;
+    private WebDriver driver;
+
+    @BeforeMethod
+    public void setUp() {
+        rounds.clear();
+        scriptCalls = 0;
+        driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class}, (proxy, method, args) -> {
+                    if ("executeScript".equals(method.getName())) {
+                        scriptCalls++;
+                        return rounds.size() > 1 ? rounds.poll() : rounds.peek();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Test(description = "Every failed expectation is collected and listed in one assertion error")
+    public void reportsAllFailures() {
+        rounds.add(Arrays.asList(null, "element not found", "text was 'Cart'"));
+        List<String> handled = new ArrayList<>();
+
+        AssertionError error = Assert.expectThrows(AssertionError.class, () -> new PageVerifier(driver, 0)
+                .expectVisible(By.id("inventory_container"), "Product container should be displayed")
+                .expectCount(By.className("inventory_item"), 6, "Six products should be listed")
+                .expectTextEquals(By.className("title"), "Products", "Page title should match")
+                .onFailure(handled::addAll)
+                .verifyAll());
+
+        String message = error.getMessage();
+        Assert.assertTrue(message.startsWith("2 of 3 expectations failed"), message);
+        Assert.assertTrue(message.contains("Six products should be listed [By.className: inventory_item count = 6]: element not found"), message);
+        Assert.assertTrue(message.contains("Page title should match [By.className: title text = 'Products']: text was 'Cart'"), message);
+        Assert.assertFalse(message.contains("Product container should be displayed"), message);
+        Assert.assertEquals(handled.size(), 2);
+        Assert.assertEquals(scriptCalls, 1, "All expectations should be evaluated in one script call");
+    }
+
+    @Test(description = "The group is polled until every expectation passes")
+    public void pollsUntilAllPass() {
+        rounds.add(Arrays.asList("element not found", null));
+        rounds.add(Arrays.asList(null, null));
+        List<String> handled = new ArrayList<>();
+
+        new PageVerifier(driver, 5)
+                .expectVisible(By.id("inventory_container"), "Product container should be displayed")
+                .expectTextContains(By.className("title"), "Product", "Page title should mention products")
+                .onFailure(handled::addAll)
+                .verifyAll();
+
+        Assert.assertEquals(scriptCalls, 2);
+        Assert.assertTrue(handled.isEmpty(), handled.toString());
+    }
+}
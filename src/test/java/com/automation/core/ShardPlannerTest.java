@@ -0,0 +1,83 @@
+package com.automation.core;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unit tests for ShardPlanner longest-processing-time packing
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class ShardPlannerTest {
+
+    @Test(description = "Items are packed longest first onto the least loaded shard")
+    public void packsLongestFirst() {
+        Map<String, Long> durations = new HashMap<>();
+        durations.put("a", 10L);
+        durations.put("b", 9L);
+        durations.put("c", 8L);
+        durations.put("d", 3L);
+        durations.put("e", 2L);
+
+        ShardPlanner.Plan plan = ShardPlanner.plan(durations, 2);
+
+        Assert.assertTrue(plan.isBalanced());
+        Assert.assertEquals(plan.getShard("a"), 0);
+        Assert.assertEquals(plan.getShard("b"), 1);
+        Assert.assertEquals(plan.getShard("c"), 1);
+        Assert.assertEquals(plan.getShard("d"), 0);
+        Assert.assertEquals(plan.getShard("e"), 0);
+        Assert.assertEquals(plan.getExpectedLoadsMs(), new long[]{15, 17});
+        Assert.assertEquals(plan.getMakespanMs(), 17);
+    }
+
+    @Test(description = "Every node computes the same plan regardless of map iteration order")
+    public void planIsIndependentOfInputOrder() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            keys.add("com.example.Test" + (i % 7) + ".method" + i);
+        }
+        Map<String, Long> forward = new LinkedHashMap<>();
+        for (String key : keys) {
+            // Many equal durations and some unknown ones, so ties and the median fallback are exercised
+            forward.put(key, key.hashCode() % 5 == 0 ? -1L : 1000L * (Math.abs(key.hashCode()) % 4));
+        }
+        Collections.reverse(keys);
+        Map<String, Long> reversed = new LinkedHashMap<>();
+        for (String key : keys) {
+            reversed.put(key, forward.get(key));
+        }
+
+        ShardPlanner.Plan first = ShardPlanner.plan(forward, 3);
+        ShardPlanner.Plan second = ShardPlanner.plan(reversed, 3);
+
+        Assert.assertEquals(second.getFingerprint(), first.getFingerprint());
+        for (String key : keys) {
+            Assert.assertEquals(second.getShard(key), first.getShard(key), "Shard of " + key);
+        }
+        Assert.assertEquals(second.getExpectedLoadsMs(), first.getExpectedLoadsMs());
+    }
+
+    @Test(description = "Without any recorded durations items are spread round-robin in key order")
+    public void roundRobinWithoutTimings() {
+        Map<String, Long> durations = new HashMap<>();
+        durations.put("c", -1L);
+        durations.put("a", -1L);
+        durations.put("b", -1L);
+
+        ShardPlanner.Plan plan = ShardPlanner.plan(durations, 2);
+
+        Assert.assertFalse(plan.isBalanced());
+        Assert.assertEquals(plan.getShard("a"), 0);
+        Assert.assertEquals(plan.getShard("b"), 1);
+        Assert.assertEquals(plan.getShard("c"), 0);
+        Assert.assertEquals(plan.getShard("unplanned"), -1);
+    }
+}
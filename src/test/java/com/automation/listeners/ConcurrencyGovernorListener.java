@@ -0,0 +1,43 @@
+package com.automation.listeners;
+
+import com.automation.core.ConcurrencyGovernor;
+import com.automation.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+
+/**
+ * Sizes TestNG thread pools for the concurrency governor
+ * With governor.enabled the suite and its <test> pools get governor.max.workers threads;
+ * how many of them run tests at a time is decided by ConcurrencyGovernor.
+ *
+ * Example (testng.xml):
+ *     <listener class-name="com.automation.listeners.ConcurrencyGovernorListener"/>
+ */
+public class ConcurrencyGovernorListener implements IAlterSuiteListener {
+
+    private static final Logger logger = LoggerUtils.getLogger(ConcurrencyGovernorListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!ConcurrencyGovernor.isEnabled()) {
+            return;
+        }
+
+        int maxWorkers = ConcurrencyGovernor.getMaxWorkers();
+        for (XmlSuite suite : suites) {
+            if (suite.getParallel() == null || suite.getParallel() == XmlSuite.ParallelMode.NONE) {
+                continue;
+            }
+            suite.setThreadCount(Math.max(suite.getThreadCount(), maxWorkers));
+            for (XmlTest test : suite.getTests()) {
+                test.setThreadCount(Math.max(test.getThreadCount(), maxWorkers));
+            }
+            logger.info("Suite '{}' thread pool sized to {} for the concurrency governor", suite.getName(),
+                    suite.getThreadCount());
+        }
+    }
+}
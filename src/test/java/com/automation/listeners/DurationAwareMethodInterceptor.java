@@ -0,0 +1,284 @@
+package com.automation.listeners;
+
+import com.automation.core.ConfigReader;
+import com.automation.reporting.TestHistoryStore;
+import com.automation.reporting.TestResultCollector;
+import com.automation.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.xml.XmlSuite;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestNG method interceptor ordering tests longest-processing-time first
+ * Expected durations come from TestHistoryStore; tests without history fall back to the
+ * median of their class, then of the whole run, then to scheduler.default.duration.ms.
+ * Methods linked through dependsOnMethods/dependsOnGroups are kept together as one chain
+ * in dependency order, chains are ordered by total expected duration, and explicit
+ * priorities still take precedence. Predicted makespan (list scheduling over the thread
+ * count) is reported next to the actual makespan. Methods are only reordered with
+ * parallel="methods": otherwise a <test>, class or instance runs on a single thread, where
+ * the order does not change the makespan.
+ *
+ * Configuration (config.properties):
+ *     scheduler.duration.aware=true
+ *     scheduler.default.duration.ms=30000
+ *
+ * Example (testng.xml):
+ *     <listener class-name="com.automation.listeners.DurationAwareMethodInterceptor"/>
+ */
+public class DurationAwareMethodInterceptor implements IMethodInterceptor {
+
+    private static final Logger logger = LoggerUtils.getLogger(DurationAwareMethodInterceptor.class);
+
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("scheduler.duration.aware", true);
+    private static final long DEFAULT_DURATION_MS = ConfigReader.getIntProperty("scheduler.default.duration.ms", 30000);
+
+    // Predicted makespan per <test>: [declaration order, duration-aware order]
+    private static final Map<String, long[]> predictions = new ConcurrentHashMap<>();
+
+    /**
+     * Chain of methods that must run in dependency order
+     */
+    private static class Chain {
+        private final List<IMethodInstance> methods = new ArrayList<>();
+        private int priority = Integer.MAX_VALUE;
+        private long totalDurationMs;
+        private int firstIndex = Integer.MAX_VALUE;
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ENABLED || methods.size() < 2) {
+            return methods;
+        }
+
+        Map<IMethodInstance, Long> expected = estimateDurations(methods);
+        int threads = getThreadCount(context);
+        if (threads < 2) {
+            long declared = predictMakespan(methods, expected, 1);
+            predictions.put(context.getName(), new long[]{declared, declared});
+            logger.info("Keeping declaration order for '{}': parallel={} runs its methods on one thread per "
+                    + "test, class or instance", context.getName(), context.getCurrentXmlTest().getParallel());
+            return methods;
+        }
+
+        List<Chain> chains = buildChains(methods, expected);
+        chains.sort(Comparator.comparingInt((Chain chain) -> chain.priority)
+                .thenComparing(Comparator.comparingLong((Chain chain) -> chain.totalDurationMs).reversed())
+                .thenComparingInt(chain -> chain.firstIndex));
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        for (Chain chain : chains) {
+            ordered.addAll(chain.methods);
+        }
+
+        long declared = predictMakespan(methods, expected, threads);
+        long scheduled = predictMakespan(ordered, expected, threads);
+        predictions.put(context.getName(), new long[]{declared, scheduled});
+        logger.info("Duration-aware order for '{}': {} methods in {} chains on {} threads, predicted makespan {}s "
+                        + "(declaration order {}s)", context.getName(), ordered.size(), chains.size(), threads,
+                scheduled / 1000, declared / 1000);
+        return ordered;
+    }
+
+    /**
+     * Get predicted vs actual makespan for the run
+     * Actual makespan is taken from TestResultCollector (first start to last finish)
+     */
+    public static String getMakespanSummary() {
+        if (predictions.isEmpty()) {
+            return "not scheduled";
+        }
+
+        long declared = 0;
+        long predicted = 0;
+        for (long[] prediction : predictions.values()) {
+            declared += prediction[0];
+            predicted += prediction[1];
+        }
+
+        long firstStart = Long.MAX_VALUE;
+        long lastEnd = 0;
+        for (TestResultCollector.TestRecord record : TestResultCollector.getRecords()) {
+            firstStart = Math.min(firstStart, record.getStartMillis());
+            lastEnd = Math.max(lastEnd, record.getStartMillis() + record.getDurationMs());
+        }
+        long actual = lastEnd > firstStart ? lastEnd - firstStart : 0;
+
+        return String.format("predicted=%ds, actual=%ds, declarationOrderPrediction=%ds, error=%+.0f%%",
+                predicted / 1000, actual / 1000, declared / 1000,
+                predicted == 0 ? 0.0 : (actual - predicted) * 100.0 / predicted);
+    }
+
+    /**
+     * Expected duration per method: history, then class median, then run median, then default
+     */
+    private Map<IMethodInstance, Long> estimateDurations(List<IMethodInstance> methods) {
+        Map<IMethodInstance, Long> expected = new HashMap<>();
+        Map<String, List<Long>> knownByClass = new HashMap<>();
+        List<Long> known = new ArrayList<>();
+
+        for (IMethodInstance instance : methods) {
+            ITestNGMethod method = instance.getMethod();
+            long duration = getRecordedDurationMs(method);
+            if (duration >= 0) {
+                expected.put(instance, duration);
+                knownByClass.computeIfAbsent(method.getRealClass().getName(), key -> new ArrayList<>()).add(duration);
+                known.add(duration);
+            }
+        }
+
+        long runMedian = known.isEmpty() ? DEFAULT_DURATION_MS : median(known);
+        int estimated = 0;
+        for (IMethodInstance instance : methods) {
+            if (!expected.containsKey(instance)) {
+                List<Long> classDurations = knownByClass.get(instance.getMethod().getRealClass().getName());
+                expected.put(instance, classDurations != null ? median(classDurations) : runMedian);
+                estimated++;
+            }
+        }
+
+        if (estimated > 0) {
+            logger.debug("No history for {} of {} methods, using class/run medians", estimated, methods.size());
+        }
+        return expected;
+    }
+
+    /**
+     * Expected duration from history; data-driven methods sum the medians of their recorded parameter sets
+     * @param method Test method
+     * @return Expected duration in milliseconds, or -1 if the method has no history
+     */
+    static long getRecordedDurationMs(ITestNGMethod method) {
+        long duration = TestHistoryStore.getExpectedDurationMs(getTestId(method));
+        if (duration >= 0) {
+            return duration;
+        }
+
+        String prefix = getTestId(method) + "[";
+        long total = 0;
+        boolean found = false;
+        for (String testId : TestHistoryStore.getTestIds()) {
+            if (testId.startsWith(prefix)) {
+                total += TestHistoryStore.getExpectedDurationMs(testId);
+                found = true;
+            }
+        }
+        return found ? total : -1;
+    }
+
+    /**
+     * Group methods connected by dependsOnMethods/dependsOnGroups into chains in dependency order
+     */
+    private List<Chain> buildChains(List<IMethodInstance> methods, Map<IMethodInstance, Long> expected) {
+        MethodDependencyGraph graph = new MethodDependencyGraph(methods);
+        List<Chain> chains = new ArrayList<>();
+        for (List<Integer> component : graph.getComponents()) {
+            Chain chain = new Chain();
+            for (int index : topologicalOrder(component, graph, methods, expected)) {
+                IMethodInstance instance = methods.get(index);
+                chain.methods.add(instance);
+                chain.totalDurationMs += expected.get(instance);
+                chain.priority = Math.min(chain.priority, instance.getMethod().getPriority());
+                chain.firstIndex = Math.min(chain.firstIndex, index);
+            }
+            chains.add(chain);
+        }
+        return chains;
+    }
+
+    /**
+     * Kahn's algorithm within a chain, preferring longer methods among those ready
+     */
+    private List<Integer> topologicalOrder(List<Integer> component, MethodDependencyGraph graph,
+                                           List<IMethodInstance> methods, Map<IMethodInstance, Long> expected) {
+        Map<Integer, Integer> remaining = new HashMap<>();
+        Map<Integer, List<Integer>> dependents = new HashMap<>();
+        for (int index : component) {
+            remaining.put(index, graph.getDependencies(index).size());
+            for (int dependency : graph.getDependencies(index)) {
+                dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(index);
+            }
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>(Comparator
+                .comparingLong((Integer index) -> expected.get(methods.get(index))).reversed()
+                .thenComparingInt(index -> index));
+        remaining.forEach((index, count) -> {
+            if (count == 0) {
+                ready.add(index);
+            }
+        });
+
+        List<Integer> order = new ArrayList<>(component.size());
+        while (!ready.isEmpty()) {
+            int index = ready.poll();
+            order.add(index);
+            for (int dependent : dependents.getOrDefault(index, new ArrayList<>())) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        // Cyclic dependencies are reported by TestNG itself; keep declaration order for the rest
+        for (int index : component) {
+            if (!order.contains(index)) {
+                order.add(index);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Predict makespan by list scheduling methods in order onto the least loaded thread
+     */
+    private long predictMakespan(List<IMethodInstance> order, Map<IMethodInstance, Long> expected, int threads) {
+        long[] loads = new long[Math.max(1, threads)];
+        for (IMethodInstance instance : order) {
+            int least = 0;
+            for (int i = 1; i < loads.length; i++) {
+                if (loads[i] < loads[least]) {
+                    least = i;
+                }
+            }
+            loads[least] += expected.get(instance);
+        }
+        return Arrays.stream(loads).max().orElse(0);
+    }
+
+    /**
+     * Number of threads the methods of this <test> are spread over
+     * Only parallel="methods" spreads them; with tests, classes or instances each unit runs on one thread
+     */
+    private int getThreadCount(ITestContext context) {
+        XmlSuite.ParallelMode parallel = context.getCurrentXmlTest().getParallel();
+        return parallel == XmlSuite.ParallelMode.METHODS
+                ? Math.max(1, context.getCurrentXmlTest().getThreadCount()) : 1;
+    }
+
+    /**
+     * Test id as recorded by TestListener (class.method)
+     */
+    static String getTestId(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        sorted.sort(null);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,92 @@
+package com.automation.listeners;
+
+import org.testng.IMethodInstance;
+import org.testng.ITestNGMethod;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dependency graph of intercepted methods (dependsOnMethods/dependsOnGroups)
+ * Methods are referred to by their index in the intercepted list; connected methods
+ * form components that interceptors keep together.
+ */
+class MethodDependencyGraph {
+
+    private final List<List<Integer>> dependencies = new ArrayList<>();
+    private final List<List<Integer>> components = new ArrayList<>();
+
+    MethodDependencyGraph(List<IMethodInstance> methods) {
+        int size = methods.size();
+        int[] parent = new int[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+
+        Map<String, Integer> indexByName = new HashMap<>();
+        Map<String, List<Integer>> indexesByGroup = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            ITestNGMethod method = methods.get(i).getMethod();
+            indexByName.put(method.getQualifiedName(), i);
+            for (String group : method.getGroups()) {
+                indexesByGroup.computeIfAbsent(group, key -> new ArrayList<>()).add(i);
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            List<Integer> dependsOn = new ArrayList<>();
+            ITestNGMethod method = methods.get(i).getMethod();
+            for (String dependency : method.getMethodsDependedUpon()) {
+                Integer index = indexByName.get(dependency);
+                if (index != null) {
+                    dependsOn.add(index);
+                }
+            }
+            for (String group : method.getGroupsDependedUpon()) {
+                dependsOn.addAll(indexesByGroup.getOrDefault(group, new ArrayList<>()));
+            }
+            dependsOn.remove(Integer.valueOf(i));
+            dependencies.add(dependsOn);
+            for (int dependency : dependsOn) {
+                union(parent, i, dependency);
+            }
+        }
+
+        Map<Integer, List<Integer>> members = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            members.computeIfAbsent(find(parent, i), key -> new ArrayList<>()).add(i);
+        }
+        components.addAll(members.values());
+    }
+
+    /**
+     * Get indexes a method depends on
+     * @param index Method index
+     * @return Indexes of methods that must run first
+     */
+    List<Integer> getDependencies(int index) {
+        return dependencies.get(index);
+    }
+
+    /**
+     * Get connected components in order of their first method, members in declaration order
+     */
+    List<List<Integer>> getComponents() {
+        return components;
+    }
+
+    private static int find(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    private static void union(int[] parent, int first, int second) {
+        parent[find(parent, first)] = find(parent, second);
+    }
+}
@@ -0,0 +1,115 @@
+package com.automation.listeners;
+
+import com.automation.reporting.FlakinessAnalyzer;
+import com.automation.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Quarantine lane for flaky tests (see FlakinessAnalyzer)
+ * Quarantined tests are moved behind all other methods of their <test>, so they only use
+ * workers the main lane no longer needs, and their failures are reported as skips with
+ * the original error, so they do not decide the verdict. Register it after the other
+ * method interceptors so the lane is appended to the final order.
+ *
+ * Configuration (config.properties):
+ *     flaky.quarantine.enabled=true
+ *
+ * Example (testng.xml):
+ *     <listener class-name="com.automation.listeners.QuarantineListener"/>
+ */
+public class QuarantineListener implements IMethodInterceptor, IInvokedMethodListener {
+
+    private static final Logger logger = LoggerUtils.getLogger(QuarantineListener.class);
+
+    // Result attribute marking a failure reported as a skip
+    private static final String QUARANTINED_FAILURE_ATTRIBUTE = "quarantinedFailure";
+
+    private static final AtomicInteger lanePassed = new AtomicInteger();
+    private static final AtomicInteger laneFailed = new AtomicInteger();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!FlakinessAnalyzer.isQuarantineEnabled()) {
+            return methods;
+        }
+
+        List<IMethodInstance> main = new ArrayList<>(methods.size());
+        List<IMethodInstance> quarantine = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            String testId = DurationAwareMethodInterceptor.getTestId(instance.getMethod());
+            (FlakinessAnalyzer.isQuarantined(testId) ? quarantine : main).add(instance);
+        }
+        if (!quarantine.isEmpty()) {
+            logger.info("Quarantine lane for '{}': {} of {} methods run last", context.getName(),
+                    quarantine.size(), methods.size());
+            main.addAll(quarantine);
+        }
+        return main;
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (!method.isTestMethod() || !isQuarantined(result)) {
+            return;
+        }
+
+        if (result.getStatus() == ITestResult.SUCCESS) {
+            lanePassed.incrementAndGet();
+        } else if (result.getStatus() == ITestResult.FAILURE) {
+            laneFailed.incrementAndGet();
+            Throwable failure = result.getThrowable();
+            SkipException skip = new SkipException(String.format("Quarantined (flakiness %.2f), failure ignored for verdict: %s",
+                    FlakinessAnalyzer.getScore(getTestId(result)), failure != null ? failure.getMessage() : "unknown"));
+            skip.initCause(failure);
+            result.setAttribute(QUARANTINED_FAILURE_ATTRIBUTE, Boolean.TRUE);
+            result.setThrowable(skip);
+            result.setStatus(ITestResult.SKIP);
+        }
+    }
+
+    /**
+     * Check if a test result belongs to the quarantine lane
+     * @param result Test result
+     * @return true if quarantined by its parameterized or method-level id
+     */
+    public static boolean isQuarantined(ITestResult result) {
+        return FlakinessAnalyzer.isQuarantineEnabled() && FlakinessAnalyzer.isQuarantined(getTestId(result));
+    }
+
+    /**
+     * Check if a skipped result is a failure of the quarantine lane reported as a skip
+     * @param result Test result
+     * @return true if the test really failed
+     */
+    public static boolean isQuarantinedFailure(ITestResult result) {
+        return Boolean.TRUE.equals(result.getAttribute(QUARANTINED_FAILURE_ATTRIBUTE));
+    }
+
+    /**
+     * Get a one-line summary of the quarantine lane outcomes
+     */
+    public static String getStatisticsSummary() {
+        return String.format("passed=%d, failuresIgnored=%d", lanePassed.get(), laneFailed.get());
+    }
+
+    /**
+     * Test id as recorded by TestListener (class.method[parameters])
+     */
+    private static String getTestId(ITestResult result) {
+        String id = result.getTestClass().getName() + "." + result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0 ? id : id + Arrays.toString(parameters);
+    }
+}
@@ -0,0 +1,48 @@
+package com.automation.listeners;
+
+import org.openqa.selenium.TimeoutException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Optional;
+import org.testng.annotations.Parameters;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class run by RetryListenerTest through its own TestNG instance
+ * One test times out on the first attempt and passes on the next, the other fails an
+ * assertion. It is kept out of the *Test naming pattern so surefire does not run it directly.
+ */
+public class RetryFixture {
+
+    static final AtomicInteger timeoutInvocations = new AtomicInteger();
+    static final AtomicInteger assertionInvocations = new AtomicInteger();
+    static final List<String> setupLabels = new CopyOnWriteArrayList<>();
+
+    static void reset() {
+        timeoutInvocations.set(0);
+        assertionInvocations.set(0);
+        setupLabels.clear();
+    }
+
+    @BeforeMethod
+    @Parameters("label")
+    public void setUp(@Optional("default") String label) {
+        setupLabels.add(label);
+    }
+
+    @Test
+    public void passesOnSecondAttempt() {
+        if (timeoutInvocations.incrementAndGet() == 1) {
+            throw new TimeoutException("first attempt timed out");
+        }
+    }
+
+    @Test
+    public void failsAssertion() {
+        assertionInvocations.incrementAndGet();
+        throw new AssertionError("expected 6 products");
+    }
+}
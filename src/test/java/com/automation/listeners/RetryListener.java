@@ -1,4 +1,146 @@
 package com.automation.listeners;
 
-public class RetryListener {
+import com.automation.core.ConfigReader;
+import com.automation.core.SessionWatchdog;
+import com.automation.enums.FailureCategory;
+import com.automation.utils.FailureClassifier;
+import com.automation.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAnnotationTransformer;
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.annotations.ITestAnnotation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retry engine for failures classified as retryable (infrastructure, timeouts, stale elements)
+ * Assertion failures, missing elements and unknown failures are never retried, nor are
+ * tests in the quarantine lane (QuarantineListener) or tests whose hung session was quit by
+ * the watchdog (a rerun would hang again for the whole budget).
+ *
+ * Retries are immediate: the TestNG retry analyzer reruns a test on its worker right after the
+ * failed attempt, with its full TestNG lifecycle. Retries are not deferred to the end of the
+ * suite and are not run on prewarmed sessions.
+ *
+ * Configuration (config.properties):
+ *     retry.failed.tests=true
+ *     retry.count=2
+ *
+ * Example (testng.xml):
+ *     <listener class-name="com.automation.listeners.RetryListener"/>
+ */
+public class RetryListener implements IAnnotationTransformer, ITestListener {
+
+    private static final Logger logger = LoggerUtils.getLogger(RetryListener.class);
+
+    private static final boolean ENABLED = ConfigReader.getBooleanProperty("retry.failed.tests", true);
+    private static final int RETRY_COUNT = ConfigReader.getIntProperty("retry.count", 2);
+
+    // Retry statistics
+    private static final Map<FailureCategory, AtomicInteger> retriedByCategory = new EnumMap<>(FailureCategory.class);
+    private static final Map<FailureCategory, AtomicInteger> notRetriedByCategory = new EnumMap<>(FailureCategory.class);
+    private static final AtomicInteger passedOnRetry = new AtomicInteger();
+    private static final AtomicInteger failedAfterRetry = new AtomicInteger();
+    private static final AtomicInteger attempts = new AtomicInteger();
+
+    static {
+        for (FailureCategory category : FailureCategory.values()) {
+            retriedByCategory.put(category, new AtomicInteger());
+            notRetriedByCategory.put(category, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Retry analyzer set on every test that has none of its own
+     */
+    public static class Analyzer implements IRetryAnalyzer {
+        private int retries;
+
+        @Override
+        public boolean retry(ITestResult result) {
+            if (retries >= RETRY_COUNT || QuarantineListener.isQuarantined(result)
+                    || (retries == 0 ? !classifyFirstFailure(result) : !isRetryable(result))) {
+                return false;
+            }
+            retries++;
+            attempts.incrementAndGet();
+            logger.info("Retrying {} (attempt {}/{})", result.getMethod().getQualifiedName(), retries, RETRY_COUNT);
+            return true;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        Class<?> current = annotation.getRetryAnalyzerClass();
+        if (ENABLED && (current == null || "DisabledRetryAnalyzer".equals(current.getSimpleName()))) {
+            annotation.setRetryAnalyzer(Analyzer.class);
+        }
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        if (wasRetried(result)) {
+            passedOnRetry.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        if (wasRetried(result)) {
+            failedAfterRetry.incrementAndGet();
+        }
+    }
+
+    /**
+     * Get a one-line summary of retries per category and their outcome
+     */
+    public static String getStatisticsSummary() {
+        if (!ENABLED) {
+            return "disabled";
+        }
+        return String.format("attempts=%d, passedOnRetry=%d, failedAfterRetry=%d, retried=%s, notRetried=%s",
+                attempts.get(), passedOnRetry.get(), failedAfterRetry.get(), formatCounts(retriedByCategory),
+                formatCounts(notRetriedByCategory));
+    }
+
+    /**
+     * Check if the final outcome of a test came after at least one retry
+     */
+    private static boolean wasRetried(ITestResult result) {
+        IRetryAnalyzer analyzer = result.getMethod().getRetryAnalyzer(result);
+        return analyzer instanceof Analyzer && ((Analyzer) analyzer).retries > 0;
+    }
+
+    /**
+     * Classify the first failure of a test and count it as retried or not retried
+     * Runs on the test's thread before its @AfterMethod, while the watchdog still knows the session
+     */
+    private static boolean classifyFirstFailure(ITestResult result) {
+        boolean rescued = SessionWatchdog.isRescued();
+        FailureCategory category = FailureClassifier.classify(result.getThrowable(), rescued);
+        boolean retryable = category.isRetryable() && !rescued;
+        (retryable ? retriedByCategory : notRetriedByCategory).get(category).incrementAndGet();
+        return retryable;
+    }
+
+    private static boolean isRetryable(ITestResult result) {
+        return !SessionWatchdog.isRescued() && FailureClassifier.classify(result.getThrowable()).isRetryable();
+    }
+
+    private static String formatCounts(Map<FailureCategory, AtomicInteger> counts) {
+        StringBuilder formatted = new StringBuilder("{");
+        counts.forEach((category, count) -> {
+            if (count.get() > 0) {
+                formatted.append(formatted.length() > 1 ? ", " : "").append(category.name().toLowerCase()).append('=').append(count.get());
+            }
+        });
+        return formatted.append('}').toString();
+    }
 }
@@ -0,0 +1,84 @@
+package com.automation.listeners;
+
+import org.testng.Assert;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.TestNG;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Integration test for RetryListener classified retries through a real TestNG run
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class RetryListenerTest {
+
+    private final RecordingListener recorder = new RecordingListener();
+
+    /**
+     * Records the outcomes listeners are notified of
+     */
+    private static class RecordingListener implements ITestListener {
+        private final List<ITestResult> successes = Collections.synchronizedList(new ArrayList<>());
+        private final List<ITestResult> failures = Collections.synchronizedList(new ArrayList<>());
+        private final List<ITestResult> skips = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onTestSuccess(ITestResult result) {
+            successes.add(result);
+        }
+
+        @Override
+        public void onTestFailure(ITestResult result) {
+            failures.add(result);
+        }
+
+        @Override
+        public void onTestSkipped(ITestResult result) {
+            skips.add(result);
+        }
+    }
+
+    @BeforeClass
+    public void runFixture() {
+        RetryFixture.reset();
+        TestNG testng = new TestNG(false);
+        testng.setVerbose(0);
+        testng.setTestClasses(new Class<?>[]{RetryFixture.class});
+        testng.addListener(new RetryListener());
+        testng.addListener(recorder);
+        testng.run();
+    }
+
+    @Test(description = "A timeout is retried immediately with its setup and the retry's success is reported")
+    public void retriesTimeoutImmediately() {
+        Assert.assertEquals(RetryFixture.timeoutInvocations.get(), 2, "Test should run once and be retried once");
+        Assert.assertEquals(recorder.skips.size(), 1, "First attempt should be reported as a retried skip");
+        Assert.assertTrue(recorder.skips.get(0).wasRetried());
+        Assert.assertEquals(recorder.successes.size(), 1);
+        Assert.assertEquals(recorder.successes.get(0).getMethod().getMethodName(), "passesOnSecondAttempt");
+        Assert.assertEquals(RetryFixture.setupLabels, Arrays.asList("default", "default", "default"),
+                "Setup should run with its @Optional value before every attempt of both tests");
+    }
+
+    @Test(description = "An assertion failure is not retried")
+    public void doesNotRetryAssertionFailures() {
+        Assert.assertEquals(RetryFixture.assertionInvocations.get(), 1);
+        Assert.assertEquals(recorder.failures.size(), 1);
+        Assert.assertEquals(recorder.failures.get(0).getMethod().getMethodName(), "failsAssertion");
+    }
+
+    @Test(description = "Retry outcomes feed the statistics summary")
+    public void countsRetryOutcomes() {
+        String summary = RetryListener.getStatisticsSummary();
+        Assert.assertTrue(summary.contains("passedOnRetry=1"), summary);
+        Assert.assertTrue(summary.contains("retried={timeout=1}"), summary);
+        Assert.assertTrue(summary.contains("notRetried={assertion=1}"), summary);
+    }
+}
@@ -0,0 +1,118 @@
+package com.automation.listeners;
+
+import com.automation.core.ShardPlanner;
+import com.automation.utils.LoggerUtils;
+import org.apache.logging.log4j.Logger;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestNG method interceptor running only this node's slice of the test methods
+ * Methods linked through dependsOnMethods/dependsOnGroups are planned as one item, so a
+ * dependency chain never spans shards. Items are balanced by recorded durations
+ * (ShardPlanner); every node must see the same history file (e.g. restored from the CI
+ * cache) to compute the same plan - compare the logged fingerprints to check.
+ * Register it before DurationAwareMethodInterceptor so only the slice gets ordered.
+ *
+ * Configuration (system properties or config.properties):
+ *     shard.index=0
+ *     shard.total=1
+ *
+ * Example:
+ *     mvn test -Dshard.index=2 -Dshard.total=4
+ */
+public class ShardingMethodInterceptor implements IMethodInterceptor {
+
+    private static final Logger logger = LoggerUtils.getLogger(ShardingMethodInterceptor.class);
+
+    // Plan description per <test>
+    private static final Map<String, String> plans = new ConcurrentHashMap<>();
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!ShardPlanner.isShardingEnabled() || methods.isEmpty()) {
+            return methods;
+        }
+
+        int shardIndex = ShardPlanner.getShardIndex();
+        int shardTotal = ShardPlanner.getShardTotal();
+
+        MethodDependencyGraph graph = new MethodDependencyGraph(methods);
+        Map<String, List<Integer>> itemMembers = new HashMap<>();
+        Map<String, Long> itemDurations = new HashMap<>();
+        for (List<Integer> component : graph.getComponents()) {
+            String key = getItemKey(component, methods, itemMembers);
+            long total = 0;
+            boolean known = false;
+            for (int index : component) {
+                long duration = DurationAwareMethodInterceptor.getRecordedDurationMs(methods.get(index).getMethod());
+                if (duration >= 0) {
+                    total += duration;
+                    known = true;
+                }
+            }
+            itemMembers.put(key, component);
+            itemDurations.put(key, known ? total : -1L);
+        }
+
+        ShardPlanner.Plan plan = ShardPlanner.plan(itemDurations, shardTotal);
+        boolean[] selected = new boolean[methods.size()];
+        itemMembers.forEach((key, component) -> {
+            if (plan.getShard(key) == shardIndex) {
+                component.forEach(index -> selected[index] = true);
+            }
+        });
+
+        List<IMethodInstance> slice = new ArrayList<>();
+        for (int i = 0; i < methods.size(); i++) {
+            if (selected[i]) {
+                slice.add(methods.get(i));
+            }
+        }
+
+        plans.put(context.getName(), String.format("%d/%d methods, expected %ds, %s", slice.size(), methods.size(),
+                plan.getExpectedLoadsMs()[shardIndex] / 1000, plan.describe()));
+        logger.info("Shard {}/{} of '{}': running {} of {} methods ({})", shardIndex, shardTotal, context.getName(),
+                slice.size(), methods.size(), plan.describe());
+        return slice;
+    }
+
+    /**
+     * Get a summary of this node's shard per <test>
+     */
+    public static String getShardSummary() {
+        if (plans.isEmpty()) {
+            return "not sharded";
+        }
+        StringBuilder summary = new StringBuilder(String.format("shard %d/%d",
+                ShardPlanner.getShardIndex(), ShardPlanner.getShardTotal()));
+        plans.forEach((test, plan) -> summary.append("; ").append(test).append(": ").append(plan));
+        return summary.toString();
+    }
+
+    /**
+     * Stable key of a component: its smallest test id, suffixed if several instances share it
+     */
+    private static String getItemKey(List<Integer> component, List<IMethodInstance> methods,
+                                     Map<String, List<Integer>> existing) {
+        String key = null;
+        for (int index : component) {
+            String testId = DurationAwareMethodInterceptor.getTestId(methods.get(index).getMethod());
+            if (key == null || testId.compareTo(key) < 0) {
+                key = testId;
+            }
+        }
+        String unique = key;
+        for (int occurrence = 2; existing.containsKey(unique); occurrence++) {
+            unique = key + "#" + occurrence;
+        }
+        return unique;
+    }
+}
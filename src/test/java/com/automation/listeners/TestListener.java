@@ -1,27 +1,62 @@
 package com.automation.listeners;
 
+import com.automation.core.CircuitBreaker;
 import com.automation.core.DriverFactory;
+import com.automation.core.SessionWatchdog;
+import com.automation.enums.TestStatus;
 import com.automation.reporting.ExtentReportManager;
+import com.automation.reporting.FlakinessAnalyzer;
+import com.automation.reporting.TestHistoryStore;
+import com.automation.reporting.TestResultCollector;
+import com.automation.runner.RunnerWorker;
+import com.automation.utils.FailureCapturePolicy;
+import com.automation.utils.FailureClassifier;
 import com.automation.utils.LoggerUtils;
 import com.automation.utils.ScreenshotUtils;
 import org.apache.logging.log4j.Logger;
+import org.testng.IConfigurationListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
+import java.nio.file.Paths;
+import java.util.Arrays;
+
 /**
  * TestNG Listener for handling test events
- * Integrates with ExtentReports and logging
+ * Integrates with ExtentReports, TestResultCollector and logging, and feeds failures of
+ * tests and of their @BeforeMethod setup (including subclass setup) to the circuit breaker.
+ * Failures of sessions quit by the watchdog count as timeouts, which need a failed health
+ * probe before they count towards opening the circuit.
  */
-public class TestListener implements ITestListener {
+public class TestListener implements ITestListener, ISuiteListener, IConfigurationListener {
 
     private static final Logger logger = LoggerUtils.getLogger(TestListener.class);
 
+    private static final String RESULTS_JSON = "reports/test-results.json";
+    private static final String RESULTS_CSV = "reports/test-results.csv";
+
+    @Override
+    public void onFinish(ISuite suite) {
+        logger.info("Test results for suite {}: {}", suite.getName(), TestResultCollector.getStatisticsSummary());
+        // Results of runner workers are exported by the coordinator (DistributedRunner)
+        if (RunnerWorker.isWorker()) {
+            return;
+        }
+        TestResultCollector.exportJson(Paths.get(RESULTS_JSON));
+        TestResultCollector.exportCsv(Paths.get(RESULTS_CSV));
+        TestHistoryStore.appendRun(TestResultCollector.getRecords());
+        FlakinessAnalyzer.writeReport();
+    }
+
     @Override
     public void onTestStart(ITestResult result) {
         String testName = result.getMethod().getMethodName();
         String className = result.getTestClass().getName();
 
         logger.info("========== STARTING TEST: {} in {} ==========", testName, className);
+        TestResultCollector.testStarted(getTestId(result), className, testName, result.getMethod().getGroups());
 
         // Create ExtentTest for the current test
         String description = result.getMethod().getDescription();
@@ -46,6 +81,8 @@ public class TestListener implements ITestListener {
         long duration = result.getEndMillis() - result.getStartMillis();
 
         logger.info("TEST PASSED: {} (Duration: {}ms)", testName, duration);
+        recordOutcome(result, TestStatus.PASSED, duration, null);
+        CircuitBreaker.recordSuccess(CircuitBreaker.applicationOf(result.getTestClass().getRealClass()));
 
         ExtentReportManager.logPass("Test completed successfully");
         ExtentReportManager.logInfo("Execution time: " + duration + "ms");
@@ -62,12 +99,15 @@ public class TestListener implements ITestListener {
 
         logger.error("TEST FAILED: {} (Duration: {}ms)", testName, duration);
         logger.error("Failure reason: {}", errorMessage);
+        recordOutcome(result, TestStatus.FAILED, duration, errorMessage);
+        CircuitBreaker.recordFailure(CircuitBreaker.applicationOf(result.getTestClass().getRealClass()),
+                FailureClassifier.classify(result.getThrowable(), SessionWatchdog.isRescued()));
 
-        // Take screenshot on failure
+        // Take screenshot on failure (not of a session the watchdog already quit)
         try {
-            if (DriverFactory.getDriver() != null) {
+            if (DriverFactory.getDriver() != null && !SessionWatchdog.isRescued()) {
                 ScreenshotUtils screenshotUtils = new ScreenshotUtils(DriverFactory.getDriver());
-                String screenshotPath = screenshotUtils.takeFailureScreenshot(testName);
+                String screenshotPath = FailureCapturePolicy.captureTestFailure(screenshotUtils, testName);
 
                 if (screenshotPath != null) {
                     ExtentReportManager.addScreenshot(screenshotPath, "Failure Screenshot");
@@ -94,6 +134,15 @@ public class TestListener implements ITestListener {
                 result.getThrowable().getMessage() : "Unknown reason";
 
         logger.warn("TEST SKIPPED: {} - Reason: {}", testName, skipReason);
+        long duration = result.getEndMillis() - result.getStartMillis();
+        if (result.wasRetried()) {
+            TestResultCollector.testRetrying(getTestId(result), duration, skipReason);
+        } else if (QuarantineListener.isQuarantinedFailure(result)) {
+            // Reported as a skip, recorded as the failure it was so flakiness scoring sees it
+            recordOutcome(result, TestStatus.FAILED, duration, skipReason, true);
+        } else {
+            recordOutcome(result, TestStatus.SKIPPED, duration, skipReason);
+        }
 
         ExtentReportManager.logSkip("Test skipped: " + skipReason);
 
@@ -101,14 +150,51 @@ public class TestListener implements ITestListener {
         ExtentReportManager.removeTest();
     }
 
+    @Override
+    public void onConfigurationFailure(ITestResult result) {
+        // A failed @BeforeMethod skips the test, so onTestFailure never sees the cause
+        if (result.getMethod().isBeforeMethodConfiguration()) {
+            CircuitBreaker.recordFailure(CircuitBreaker.applicationOf(result.getTestClass().getRealClass()),
+                    FailureClassifier.classify(result.getThrowable(), SessionWatchdog.isRescued()));
+        }
+    }
+
     @Override
     public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
         String testName = result.getMethod().getMethodName();
         logger.warn("TEST FAILED BUT WITHIN SUCCESS PERCENTAGE: {}", testName);
+        recordOutcome(result, TestStatus.FAILED_WITHIN_SUCCESS_PERCENTAGE,
+                result.getEndMillis() - result.getStartMillis(), null);
 
         ExtentReportManager.logWarning("Test failed but within success percentage");
 
         // Clean up ExtentTest from ThreadLocal
         ExtentReportManager.removeTest();
     }
-}
\ No newline at end of file
+
+    /**
+     * Record final outcome and driver startup time of a test in TestResultCollector
+     */
+    private static void recordOutcome(ITestResult result, TestStatus status, long duration, String error) {
+        recordOutcome(result, status, duration, error, false);
+    }
+
+    private static void recordOutcome(ITestResult result, TestStatus status, long duration, String error,
+                                      boolean quarantined) {
+        String testId = getTestId(result);
+        long driverStartup = DriverFactory.takeLastStartupMillis();
+        if (driverStartup >= 0) {
+            TestResultCollector.recordDriverStartup(testId, driverStartup);
+        }
+        TestResultCollector.testFinished(testId, status, duration, error, quarantined);
+    }
+
+    /**
+     * Build unique test id from class, method and parameters
+     */
+    private static String getTestId(ITestResult result) {
+        String id = result.getTestClass().getName() + "." + result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        return parameters == null || parameters.length == 0 ? id : id + Arrays.toString(parameters);
+    }
+}
@@ -1,6 +1,7 @@
 package com.automation.pages.saucedemo;
 
 import com.automation.base.BasePage;
+import com.automation.core.AuthStateCache;
 import com.automation.core.ConfigReader;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -64,6 +65,19 @@ public class LoginPageSaucedemo extends BasePage {
         login(username, password);
     }
 
+    /**
+     * Log in with valid credentials, restoring a cached session of the user when available
+     * @return true if a cached session was restored, false if the UI login ran
+     */
+    public boolean loginWithCachedSession() {
+        String baseUrl = ConfigReader.getBaseUrl("saucedemo");
+        String username = ConfigReader.getUsername("saucedemo");
+
+        return AuthStateCache.ensureLoggedIn(driver, "saucedemo:" + username, baseUrl, baseUrl + "inventory.html",
+                d -> loginWithValidCredentials(),
+                d -> d.getCurrentUrl().contains("inventory") && !d.findElements(swagLabsLogo).isEmpty());
+    }
+
     /**
      * Enter username only
      * @param username Username to enter
@@ -117,7 +131,7 @@ public class LoginPageSaucedemo extends BasePage {
             Assert.assertTrue(logoDisplayed, "Swag Labs logo should be displayed after successful login");
             logger.info("Login verification successful - Swag Labs logo is displayed");
         } catch (AssertionError e) {
-            screenshotUtils.takeFailureScreenshot("login_verification_failed");
+            captureFailure("login_verification_failed");
             logger.error("Login verification failed: {}", e.getMessage());
             throw e;
         }
@@ -136,7 +150,7 @@ public class LoginPageSaucedemo extends BasePage {
                     "Error message mismatch");
             logger.info("Error message verification successful: {}", actualErrorMessage);
         } catch (AssertionError e) {
-            screenshotUtils.takeFailureScreenshot("error_message_verification_failed");
+            captureFailure("error_message_verification_failed");
             logger.error("Error message verification failed: {}", e.getMessage());
             throw e;
         }
@@ -232,9 +246,11 @@ public class LoginPageSaucedemo extends BasePage {
     public void verifyLoginPageLoaded() {
         logger.info("Verifying login page is loaded");
 
-        Assert.assertTrue(isUsernameFieldDisplayed(), "Username field should be displayed");
-        Assert.assertTrue(isPasswordFieldDisplayed(), "Password field should be displayed");
-        Assert.assertTrue(isLoginButtonEnabled(), "Login button should be enabled");
+        verify()
+                .expectVisible(usernameTextbox, "Username field should be displayed")
+                .expectVisible(passwordTextbox, "Password field should be displayed")
+                .expectEnabled(loginButton, "Login button should be enabled")
+                .verifyAll();
 
         logger.info("Login page verification successful");
     }
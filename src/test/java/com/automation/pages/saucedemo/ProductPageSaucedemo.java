@@ -1,6 +1,7 @@
 package com.automation.pages.saucedemo;
 
 import com.automation.base.BasePage;
+import com.automation.core.DomSnapshot;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -49,9 +50,11 @@ public class ProductPageSaucedemo extends BasePage {
     public void verifyProductPageLoaded() {
         logger.info("Verifying product page is loaded");
 
-        Assert.assertTrue(isElementDisplayed(productContainer), "Product container should be displayed");
-        Assert.assertTrue(isElementDisplayed(cartIcon), "Cart icon should be displayed");
-        Assert.assertTrue(isElementDisplayed(sortDropdown), "Sort dropdown should be displayed");
+        verify()
+                .expectVisible(productContainer, "Product container should be displayed")
+                .expectVisible(cartIcon, "Cart icon should be displayed")
+                .expectVisible(sortDropdown, "Sort dropdown should be displayed")
+                .verifyAll();
 
         logger.info("Product page verification successful");
     }
@@ -94,6 +97,34 @@ public class ProductPageSaucedemo extends BasePage {
         return productPrices;
     }
 
+    /**
+     * Verify total number of products displayed
+     *
+     * @param expectedCount Expected number of products
+     */
+    public void verifyTotalProductCount(int expectedCount) {
+        logger.info("Verifying total product count: {}", expectedCount);
+
+        int actualCount = findElements(productCards).size();
+        Assert.assertEquals(actualCount, expectedCount, "Total product count mismatch");
+
+        logger.info("Total product count verification successful: {}", expectedCount);
+    }
+
+    /**
+     * Verify product is available for purchase (Add to Cart button should be displayed)
+     *
+     * @param productName Name of the product
+     */
+    public void verifyProductAvailable(String productName) {
+        logger.info("Verifying product is available: {}", productName);
+
+        Assert.assertTrue(isAddToCartButtonDisplayed(productName),
+                "Add to Cart button should be displayed for available product: " + productName);
+
+        logger.info("Product is available: {}", productName);
+    }
+
     /**
      * Add product to cart by name
      *
@@ -108,6 +139,21 @@ public class ProductPageSaucedemo extends BasePage {
         logger.info("Product added to cart successfully: {}", productName);
     }
 
+    /**
+     * Add multiple products to cart by name
+     *
+     * @param productNames Names of the products to add
+     */
+    public void addMultipleProductsToCart(List<String> productNames) {
+        logger.info("Adding {} products to cart", productNames.size());
+
+        for (String productName : productNames) {
+            addProductToCart(productName);
+        }
+
+        logger.info("Products added to cart successfully: {}", productNames);
+    }
+
     /**
      * Remove product from cart by name
      *
@@ -180,6 +226,17 @@ public class ProductPageSaucedemo extends BasePage {
         logger.info("Product successfully verified as added to cart: {}", productName);
     }
 
+    /**
+     * Check if cart badge is displayed
+     *
+     * @return true if cart badge is displayed, false otherwise
+     */
+    public boolean isCartBadgeDisplayed() {
+        boolean displayed = isElementDisplayed(cartBadge);
+        logger.info("Cart badge is {}", displayed ? "displayed" : "not displayed");
+        return displayed;
+    }
+
     /**
      * Get cart item count from badge
      *
@@ -219,6 +276,62 @@ public class ProductPageSaucedemo extends BasePage {
         clickElement(cartIcon);
     }
 
+    /**
+     * Get currently selected sort option
+     *
+     * @return Visible text of the selected sort option
+     */
+    public String getCurrentSortOption() {
+        Select select = new Select(findElement(sortDropdown));
+        String currentOption = select.getFirstSelectedOption().getText().trim();
+        logger.info("Current sort option: {}", currentOption);
+        return currentOption;
+    }
+
+    /**
+     * Get all sort options available in the dropdown
+     *
+     * @return List of sort option texts
+     */
+    public List<String> getAllSortOptions() {
+        Select select = new Select(findElement(sortDropdown));
+        List<String> options = new ArrayList<>();
+
+        for (WebElement option : select.getOptions()) {
+            options.add(option.getText().trim());
+        }
+
+        logger.info("Found {} sort options: {}", options.size(), options);
+        return options;
+    }
+
+    /**
+     * Click hamburger menu button
+     */
+    public void clickHamburgerMenu() {
+        logger.info("Clicking hamburger menu");
+        clickElement(hamburgerMenu);
+        waitForElementVisible(menuItems, 10);
+    }
+
+    /**
+     * Verify hamburger menu items
+     *
+     * @param expectedItems Expected menu item texts
+     */
+    public void verifyHamburgerMenuItems(List<String> expectedItems) {
+        logger.info("Verifying hamburger menu items: {}", expectedItems);
+
+        List<String> actualItems = new ArrayList<>();
+        for (WebElement item : findElements(menuItems)) {
+            actualItems.add(item.getText().trim());
+        }
+
+        Assert.assertTrue(actualItems.containsAll(expectedItems),
+                "Hamburger menu items mismatch. Expected: " + expectedItems + ", Actual: " + actualItems);
+        logger.info("Hamburger menu items verification successful: {}", actualItems);
+    }
+
     /**
      * Select sort option from dropdown
      *
@@ -233,4 +346,74 @@ public class ProductPageSaucedemo extends BasePage {
 
         logger.info("Sort option selected successfully: {}", sortOption);
     }
+
+    /**
+     * Verify products are sorted by name in ascending order (A to Z)
+     */
+    public void verifyProductsSortedByNameAscending() {
+        logger.info("Verifying products are sorted by name (A to Z)");
+
+        List<String> productNames = takeDomSnapshot(productContainer).getTexts(productCards);
+        List<String> expectedOrder = new ArrayList<>(productNames);
+        Collections.sort(expectedOrder);
+
+        Assert.assertEquals(productNames, expectedOrder, "Products should be sorted by name (A to Z)");
+        logger.info("Products are sorted by name (A to Z): {}", productNames);
+    }
+
+    /**
+     * Verify products are sorted by name in descending order (Z to A)
+     */
+    public void verifyProductsSortedByNameDescending() {
+        logger.info("Verifying products are sorted by name (Z to A)");
+
+        List<String> productNames = takeDomSnapshot(productContainer).getTexts(productCards);
+        List<String> expectedOrder = new ArrayList<>(productNames);
+        expectedOrder.sort(Collections.reverseOrder());
+
+        Assert.assertEquals(productNames, expectedOrder, "Products should be sorted by name (Z to A)");
+        logger.info("Products are sorted by name (Z to A): {}", productNames);
+    }
+
+    /**
+     * Verify products are sorted by price (low to high)
+     */
+    public void verifyProductsSortedByPriceLowToHigh() {
+        logger.info("Verifying products are sorted by price (low to high)");
+
+        List<Double> prices = getProductPricesFromSnapshot(takeDomSnapshot(productContainer));
+        List<Double> expectedOrder = new ArrayList<>(prices);
+        Collections.sort(expectedOrder);
+
+        Assert.assertEquals(prices, expectedOrder, "Products should be sorted by price (low to high)");
+        logger.info("Products are sorted by price (low to high): {}", prices);
+    }
+
+    /**
+     * Verify products are sorted by price (high to low)
+     */
+    public void verifyProductsSortedByPriceHighToLow() {
+        logger.info("Verifying products are sorted by price (high to low)");
+
+        List<Double> prices = getProductPricesFromSnapshot(takeDomSnapshot(productContainer));
+        List<Double> expectedOrder = new ArrayList<>(prices);
+        expectedOrder.sort(Collections.reverseOrder());
+
+        Assert.assertEquals(prices, expectedOrder, "Products should be sorted by price (high to low)");
+        logger.info("Products are sorted by price (high to low): {}", prices);
+    }
+
+    /**
+     * Read all product prices from a DOM snapshot
+     *
+     * @param snapshot DOM snapshot of the product container
+     * @return List of product prices in display order
+     */
+    private List<Double> getProductPricesFromSnapshot(DomSnapshot snapshot) {
+        List<Double> prices = new ArrayList<>();
+        for (String price : snapshot.getTexts(productPrices)) {
+            prices.add(Double.parseDouble(price.replace("$", "").trim()));
+        }
+        return prices;
+    }
 }
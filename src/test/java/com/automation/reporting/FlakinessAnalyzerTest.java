@@ -0,0 +1,107 @@
+package com.automation.reporting;
+
+import com.automation.core.ConfigReader;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for FlakinessAnalyzer flip and pass-on-retry scoring
+ * Histories are written as history lines, oldest first: P = passed, R = passed on retry,
+ * F = failed, S = skipped.
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class FlakinessAnalyzerTest {
+
+    private static final Path HISTORY_FILE = Paths.get(ConfigReader.getProperty("history.file", "test-history/history.ndjson"));
+    private static final double DELTA = 1e-9;
+
+    @BeforeClass
+    public void writeHistory() throws IOException {
+        List<String> lines = new ArrayList<>();
+        addHistory(lines, "flaky.Alternating.test", "PFPFP");
+        addHistory(lines, "flaky.RetryPass.test", "PPPRP");
+        addHistory(lines, "flaky.Mixed.test", "PPFRP");
+        addHistory(lines, "flaky.AlwaysFails.test", "FFFFF");
+        addHistory(lines, "flaky.WithSkips.test", "PSPSPPP");
+        addHistory(lines, "flaky.TooFewRuns.test", "PFPF");
+
+        Files.createDirectories(HISTORY_FILE.toAbsolutePath().getParent());
+        Files.write(HISTORY_FILE, lines, StandardCharsets.UTF_8);
+        // Compaction re-reads the file, refreshing the index loaded by earlier tests in this JVM
+        TestHistoryStore.compact();
+    }
+
+    @Test(description = "Outcome changing on every run scores 1")
+    public void alternatingOutcomesScoreOne() {
+        FlakinessAnalyzer.FlakinessScore score = FlakinessAnalyzer.score("flaky.Alternating.test");
+
+        Assert.assertEquals(score.getRuns(), 5);
+        Assert.assertEquals(score.getFlips(), 4);
+        Assert.assertEquals(score.getScore(), 1.0, DELTA);
+    }
+
+    @Test(description = "Passing on retry counts towards the score without a flip")
+    public void retryPassesRaiseTheScore() {
+        FlakinessAnalyzer.FlakinessScore score = FlakinessAnalyzer.score("flaky.RetryPass.test");
+
+        Assert.assertEquals(score.getFlips(), 0);
+        Assert.assertEquals(score.getRetryPasses(), 1);
+        Assert.assertEquals(score.getScore(), 0.2, DELTA);
+    }
+
+    @Test(description = "Flip rate and retry-pass rate combine as 1 - (1 - flipRate) * (1 - retryPassRate)")
+    public void flipsAndRetryPassesCombine() {
+        FlakinessAnalyzer.FlakinessScore score = FlakinessAnalyzer.score("flaky.Mixed.test");
+
+        Assert.assertEquals(score.getFlips(), 2);
+        Assert.assertEquals(score.getRetryPasses(), 1);
+        Assert.assertEquals(score.getFailureRate(), 0.2, DELTA);
+        Assert.assertEquals(score.getScore(), 1 - (1 - 2 / 4.0) * (1 - 1 / 5.0), DELTA);
+    }
+
+    @Test(description = "Consistently failing tests are broken, not flaky")
+    public void consistentFailuresScoreZero() {
+        FlakinessAnalyzer.FlakinessScore score = FlakinessAnalyzer.score("flaky.AlwaysFails.test");
+
+        Assert.assertEquals(score.getFailureRate(), 1.0, DELTA);
+        Assert.assertEquals(score.getScore(), 0.0, DELTA);
+    }
+
+    @Test(description = "Skipped runs neither count as runs nor break a streak")
+    public void skippedRunsAreIgnored() {
+        FlakinessAnalyzer.FlakinessScore score = FlakinessAnalyzer.score("flaky.WithSkips.test");
+
+        Assert.assertEquals(score.getRuns(), 5);
+        Assert.assertEquals(score.getFlips(), 0);
+        Assert.assertEquals(score.getScore(), 0.0, DELTA);
+    }
+
+    @Test(description = "Tests with fewer than flaky.min.runs runs are not scored")
+    public void tooFewRunsScoreZero() {
+        FlakinessAnalyzer.FlakinessScore score = FlakinessAnalyzer.score("flaky.TooFewRuns.test");
+
+        Assert.assertFalse(score.hasEnoughRuns());
+        Assert.assertEquals(score.getFlips(), 3);
+        Assert.assertEquals(score.getScore(), 0.0, DELTA);
+    }
+
+    private static void addHistory(List<String> lines, String testId, String outcomes) {
+        for (int i = 0; i < outcomes.length(); i++) {
+            char outcome = outcomes.charAt(i);
+            String status = outcome == 'F' ? "FAILED" : outcome == 'S' ? "SKIPPED" : "PASSED";
+            int attempts = outcome == 'R' ? 2 : 1;
+            lines.add(String.format("{\"run\":\"run%d\",\"ts\":%d,\"test\":\"%s\",\"status\":\"%s\",\"durationMs\":1000,"
+                    + "\"attempts\":%d}", i, i, testId, status, attempts));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.automation.reporting;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for ResultMerger handling of shards killed mid-write
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class ResultMergerTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("result-merger-test");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test(description = "A truncated last line is counted as malformed and the complete records are merged")
+    public void skipsTruncatedLastLine() throws IOException {
+        Path truncated = writeShard("shard-a.ndjson",
+                "{\"type\":\"shard\",\"shard\":\"a\"}",
+                testRecord("a", "LoginTest.valid", "Pass", 1200),
+                testRecord("a", "LoginTest.locked", "Fail", 800),
+                "{\"type\":\"test\",\"shard\":\"a\",\"name\":\"LoginTest.tim");
+        Path complete = writeShard("shard-b.ndjson",
+                "{\"type\":\"shard\",\"shard\":\"b\"}",
+                testRecord("b", "CartTest.add", "Pass", 500),
+                "{\"type\":\"end\",\"shard\":\"b\",\"tests\":1}");
+        Path report = directory.resolve("MergedReport.html");
+
+        ResultMerger.MergeSummary summary = ResultMerger.merge(Arrays.asList(truncated, complete), report);
+
+        Assert.assertEquals(summary.getTests(), 3, "Records before the truncated line and of later shards are merged");
+        Assert.assertEquals(summary.getShards(), 2);
+        Assert.assertEquals(summary.getStatusCounts().get("Pass"), Long.valueOf(2));
+        Assert.assertEquals(summary.getStatusCounts().get("Fail"), Long.valueOf(1));
+        Assert.assertEquals(summary.toJson().path("malformedRecords").asLong(), 1);
+
+        String html = new String(Files.readAllBytes(report), StandardCharsets.UTF_8);
+        Assert.assertTrue(html.contains("CartTest.add"), "Complete shard should be in the report");
+        Assert.assertFalse(html.contains("LoginTest.tim"), "Truncated record should not be in the report");
+        Assert.assertTrue(html.endsWith("</tbody></table></body></html>\n"), "Report should be closed");
+        Assert.assertTrue(Files.exists(directory.resolve("MergedReport-summary.json")));
+    }
+
+    @Test(description = "A shard that holds only a partial header merges as empty")
+    public void mergesShardWithOnlyPartialHeader() throws IOException {
+        Path shard = writeShard("shard-c.ndjson", "{\"type\":\"sha");
+
+        ResultMerger.MergeSummary summary = ResultMerger.merge(Arrays.asList(shard), directory.resolve("Merged.html"));
+
+        Assert.assertEquals(summary.getTests(), 0);
+        Assert.assertEquals(summary.toJson().path("malformedRecords").asLong(), 1);
+    }
+
+    private Path writeShard(String name, String... lines) throws IOException {
+        Path shard = directory.resolve(name);
+        // No newline after the last line, like a writer killed mid-record
+        Files.write(shard, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        return shard;
+    }
+
+    private static String testRecord(String shard, String name, String status, long durationMs) {
+        return String.format("{\"type\":\"test\",\"shard\":\"%s\",\"name\":\"%s\",\"status\":\"%s\",\"start\":1000,"
+                + "\"end\":%d,\"durationMs\":%d,\"steps\":[]}", shard, name, status, 1000 + durationMs, durationMs);
+    }
+}
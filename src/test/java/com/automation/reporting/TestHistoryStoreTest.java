@@ -0,0 +1,83 @@
+package com.automation.reporting;
+
+import com.automation.core.ConfigReader;
+import com.automation.enums.TestStatus;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for TestHistoryStore appends and compaction
+ * Lines written straight to the history file stand in for another shard appending
+ * after this JVM loaded its index.
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class TestHistoryStoreTest {
+
+    private static final Path HISTORY_FILE = Paths.get(ConfigReader.getProperty("history.file", "test-history/history.ndjson"));
+    private static final int KEEP_PER_TEST = ConfigReader.getIntProperty("history.keep.per.test", 30);
+
+    @BeforeMethod
+    public void deleteHistory() throws IOException {
+        Files.deleteIfExists(HISTORY_FILE);
+    }
+
+    @Test(description = "Append re-reads the file under the lock and keeps entries of other shards")
+    public void appendKeepsEntriesWrittenByAnotherShard() throws IOException {
+        TestHistoryStore.getTestIds();
+        writeExternalEntries("history.Other.test", 1, 0);
+
+        int appended = TestHistoryStore.appendRun(finishedRecords("history.Own.test", 1500));
+
+        Assert.assertEquals(appended, 1);
+        Assert.assertEquals(TestHistoryStore.getHistory("history.Other.test").size(), 1,
+                "Entry appended by another shard should be in the refreshed index");
+        Assert.assertEquals(TestHistoryStore.getExpectedDurationMs("history.Own.test"), 1500);
+        Assert.assertEquals(Files.readAllLines(HISTORY_FILE).size(), 2, "Both entries should stay in the file");
+    }
+
+    @Test(description = "Append past the compaction limit rewrites the file with the latest entries per test")
+    public void appendCompactsToLatestEntriesPerTest() throws IOException {
+        int external = 3 * KEEP_PER_TEST + 10;
+        writeExternalEntries("history.Compacted.test", external, 0);
+
+        TestHistoryStore.appendRun(finishedRecords("history.Compacted.test", 100_000));
+
+        List<TestHistoryStore.HistoryEntry> history = TestHistoryStore.getHistory("history.Compacted.test");
+        Assert.assertEquals(history.size(), KEEP_PER_TEST);
+        Assert.assertEquals(history.get(history.size() - 1).getDurationMs(), 100_000, "Own entry should be the latest");
+        Assert.assertEquals(history.get(0).getDurationMs(), external - KEEP_PER_TEST + 1,
+                "Oldest kept entry should be the first one within the limit");
+        Assert.assertEquals(Files.readAllLines(HISTORY_FILE).size(), KEEP_PER_TEST, "File should be compacted");
+    }
+
+    /**
+     * Append history lines directly to the file, as another process would
+     */
+    private static void writeExternalEntries(String testId, int count, long firstDurationMs) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            lines.add(String.format("{\"run\":\"other\",\"ts\":%d,\"test\":\"%s\",\"status\":\"PASSED\",\"durationMs\":%d}",
+                    i, testId, firstDurationMs + i));
+        }
+        Files.createDirectories(HISTORY_FILE.toAbsolutePath().getParent());
+        Files.write(HISTORY_FILE, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static List<TestResultCollector.TestRecord> finishedRecords(String testId, long durationMs) {
+        TestResultCollector.testStarted(testId, "history.Test", "test", new String[0]);
+        TestResultCollector.testFinished(testId, TestStatus.PASSED, durationMs, null);
+        return Collections.singletonList(TestResultCollector.getRecord(testId));
+    }
+}
@@ -0,0 +1,97 @@
+package com.automation.runner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Worker side of the runner protocol
+ * Messages are JSON objects, one per line, over a loopback socket:
+ * hello and next from the worker, run (a WorkUnit) or done from the coordinator,
+ * result records from the worker after each unit.
+ *
+ * Example:
+ *     try (CoordinatorClient client = new CoordinatorClient(port, "worker-1")) {
+ *         WorkUnit unit;
+ *         while ((unit = client.next()) != null) {
+ *             ...
+ *             client.sendResult(result);
+ *         }
+ *     }
+ */
+public class CoordinatorClient implements Closeable {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final BufferedWriter writer;
+
+    /**
+     * Connect to the coordinator on this host
+     * @param port Coordinator port
+     * @param workerId Worker id reported to the coordinator
+     * @throws IOException if the coordinator cannot be reached
+     */
+    public CoordinatorClient(int port, String workerId) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+        ObjectNode hello = mapper.createObjectNode();
+        hello.put("type", "hello");
+        hello.put("worker", workerId);
+        send(hello);
+    }
+
+    /**
+     * Ask for the next unit; also tells the coordinator the previous unit is complete
+     * @return Next unit, or null when the run is complete
+     * @throws IOException if the connection fails
+     */
+    public WorkUnit next() throws IOException {
+        ObjectNode next = mapper.createObjectNode();
+        next.put("type", "next");
+        send(next);
+
+        String line = reader.readLine();
+        if (line == null) {
+            throw new EOFException("Coordinator closed the connection");
+        }
+        JsonNode message = mapper.readTree(line);
+        return "run".equals(message.path("type").asText()) ? WorkUnit.fromJson(message) : null;
+    }
+
+    /**
+     * Send the result record of one test of the current unit
+     * @param result Result fields (see DistributedRunner)
+     * @throws IOException if the connection fails
+     */
+    public void sendResult(ObjectNode result) throws IOException {
+        result.put("type", "result");
+        send(result);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private void send(ObjectNode message) throws IOException {
+        writer.write(mapper.writeValueAsString(message));
+        writer.newLine();
+        writer.flush();
+    }
+}
@@ -0,0 +1,374 @@
+package com.automation.runner;
+
+import com.automation.core.ConfigReader;
+import com.automation.enums.TestStatus;
+import com.automation.reporting.FlakinessAnalyzer;
+import com.automation.reporting.ResultMerger;
+import com.automation.reporting.ResultStreamWriter;
+import com.automation.reporting.TestHistoryStore;
+import com.automation.reporting.TestResultCollector;
+import com.automation.utils.LoggerUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinator of a multi-JVM test run on one host
+ * Surefire forks cannot take work from each other, and a suite XML runs in a single fork.
+ * This runner splits the suite into work units (single test methods, or dependency-linked
+ * methods of one class), orders them longest expected first from the test history, and
+ * starts worker JVMs (RunnerWorker) that take units one at a time from a RunCoordinator
+ * over a loopback socket, so a worker that finishes early takes over the remaining work.
+ * Every JVM has its own heap, GC and driver threads. Results are replayed into
+ * TestResultCollector and exported like a normal run (results JSON/CSV, test history,
+ * flakiness report); the workers' result streams are merged into one HTML report.
+ * A test reported more than once because its unit was handed out again keeps one result:
+ * the last one a worker reported, or the coordinator's failure if no worker reported it.
+ *
+ * Units are selected by reflection from the suite XML: @Test methods of the listed classes,
+ * filtered by method includes/excludes and by the <test>'s included and excluded groups.
+ *
+ * Configuration (config.properties):
+ *     runner.workers=2               (0 = number of CPU cores)
+ *     runner.worker.jvm.args=-Xmx512m
+ *     runner.max.reassign=1
+ *     runner.timeout.minutes=120
+ *
+ * Example:
+ *     java -cp <test classpath> com.automation.runner.DistributedRunner src/test/resources/testng-suites/parallel-tests.xml
+ *     java -Drunner.workers=6 -Dheadless=true -cp <test classpath> com.automation.runner.DistributedRunner
+ */
+public class DistributedRunner {
+
+    private static final Logger logger = LoggerUtils.getLogger(DistributedRunner.class);
+
+    private static final String DEFAULT_SUITE = "src/test/resources/testng-suites/parallel-tests.xml";
+    private static final String REPORT_FILE = "reports/DistributedReport.html";
+    private static final String RESULTS_JSON = "reports/test-results.json";
+    private static final String RESULTS_CSV = "reports/test-results.csv";
+    private static final Path WORKER_LOG_DIR = Paths.get("reports", "runner");
+    private static final String WORKER_SHARD_GLOB = "shard-runner-worker-*.ndjson";
+    private static final long DEFAULT_DURATION_MS = ConfigReader.getIntProperty("scheduler.default.duration.ms", 30000);
+    private static final long WORKER_SHUTDOWN_SECONDS = 120;
+
+    // JVM and runner properties that are not forwarded to workers
+    private static final String[] LOCAL_PROPERTY_PREFIXES = {"java.", "jdk.", "sun.", "os.", "user.", "file.", "line.",
+            "path.", "awt.", "native.", "stdout.", "stderr.", "runner.coordinator.", "runner.worker.id", "runner.suite",
+            "report.shard.id"};
+
+    // Last result per test id, in arrival order
+    private static final Map<String, JsonNode> results = new LinkedHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        String suitePath = args.length > 0 ? args[0] : DEFAULT_SUITE;
+        int workerCount = ConfigReader.getIntProperty("runner.workers", 2);
+        if (workerCount <= 0) {
+            workerCount = Runtime.getRuntime().availableProcessors();
+        }
+        int maxReassign = ConfigReader.getIntProperty("runner.max.reassign", 1);
+        long timeoutMillis = TimeUnit.MINUTES.toMillis(ConfigReader.getIntProperty("runner.timeout.minutes", 120));
+
+        XmlSuite suite = new Parser(suitePath).parseToList().get(0);
+        List<WorkUnit> units = discoverUnits(suite);
+        logger.info("Distributed run of {}: {} units on {} workers", suite.getName(), units.size(), workerCount);
+        deleteWorkerShards();
+
+        boolean complete;
+        String coordinatorSummary;
+        List<Process> workers = new ArrayList<>();
+        try (RunCoordinator coordinator = new RunCoordinator(units, DistributedRunner::recordResult, maxReassign)) {
+            coordinator.start();
+            Files.createDirectories(WORKER_LOG_DIR);
+            for (int i = 1; i <= workerCount; i++) {
+                workers.add(launchWorker(i, coordinator.getPort(), suitePath));
+            }
+
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (!(complete = coordinator.awaitCompletion(1000))) {
+                if (System.currentTimeMillis() > deadline) {
+                    logger.error("Distributed run timed out after {} minutes", TimeUnit.MILLISECONDS.toMinutes(timeoutMillis));
+                    workers.forEach(Process::destroyForcibly);
+                    coordinator.failRemaining("Distributed run timed out");
+                } else if (workers.stream().noneMatch(Process::isAlive)) {
+                    coordinator.failRemaining("All runner workers exited");
+                }
+            }
+
+            for (Process worker : workers) {
+                if (!worker.waitFor(WORKER_SHUTDOWN_SECONDS, TimeUnit.SECONDS)) {
+                    worker.destroyForcibly();
+                }
+            }
+            coordinatorSummary = coordinator.getStatisticsSummary();
+        }
+
+        replayResults();
+        TestResultCollector.exportJson(Paths.get(RESULTS_JSON));
+        TestResultCollector.exportCsv(Paths.get(RESULTS_CSV));
+        TestHistoryStore.appendRun(TestResultCollector.getRecords());
+        FlakinessAnalyzer.writeReport();
+        mergeReports();
+
+        logger.info("Distributed run finished: {}", coordinatorSummary);
+        logger.info("Test results: {}", TestResultCollector.getStatisticsSummary());
+        boolean failed = !complete || TestResultCollector.getCount(TestStatus.FAILED) > 0;
+        System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * Split a suite into work units, longest expected first
+     * @param suite Parsed suite XML
+     * @return Units of all <test> elements
+     */
+    public static List<WorkUnit> discoverUnits(XmlSuite suite) throws ClassNotFoundException {
+        List<WorkUnit> units = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                units.addAll(discoverUnits(test, xmlClass));
+            }
+        }
+        units.sort(Comparator.comparingLong(WorkUnit::getExpectedMs).reversed());
+        return units;
+    }
+
+    /**
+     * Select the test methods of one class and group dependency-linked methods into one unit
+     */
+    private static List<WorkUnit> discoverUnits(XmlTest test, XmlClass xmlClass) throws ClassNotFoundException {
+        Class<?> testClass = Class.forName(xmlClass.getName());
+        Test classAnnotation = testClass.getAnnotation(Test.class);
+
+        Map<String, Test> selected = new LinkedHashMap<>();
+        Method[] methods = testClass.getMethods();
+        Arrays.sort(methods, Comparator.comparing(Method::getName));
+        for (Method method : methods) {
+            Test annotation = method.getAnnotation(Test.class);
+            boolean isTest = annotation != null || classAnnotation != null && method.getDeclaringClass() == testClass;
+            if (!isTest || annotation != null && !annotation.enabled() || !isSelected(test, xmlClass, method.getName(),
+                    groupsOf(classAnnotation, annotation))) {
+                continue;
+            }
+            selected.put(method.getName(), annotation);
+        }
+
+        // Methods connected through dependsOnMethods run together; dependsOnGroups keeps the class together
+        Map<String, String> component = new HashMap<>();
+        selected.keySet().forEach(name -> component.put(name, name));
+        boolean wholeClass = false;
+        for (Map.Entry<String, Test> entry : selected.entrySet()) {
+            Test annotation = entry.getValue();
+            if (annotation == null) {
+                continue;
+            }
+            wholeClass |= annotation.dependsOnGroups().length > 0;
+            for (String dependency : annotation.dependsOnMethods()) {
+                String dependencyName = dependency.substring(dependency.lastIndexOf('.') + 1);
+                if (component.containsKey(dependencyName)) {
+                    component.put(find(component, entry.getKey()), find(component, dependencyName));
+                }
+            }
+        }
+
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (String name : selected.keySet()) {
+            groups.computeIfAbsent(wholeClass ? "" : find(component, name), key -> new ArrayList<>()).add(name);
+        }
+        List<WorkUnit> units = new ArrayList<>();
+        for (List<String> unitMethods : groups.values()) {
+            long expectedMs = 0;
+            for (String method : unitMethods) {
+                long duration = TestHistoryStore.getExpectedDurationMs(testClass.getName() + "." + method);
+                expectedMs += duration >= 0 ? duration : DEFAULT_DURATION_MS;
+            }
+            units.add(new WorkUnit(test.getName(), testClass.getName(), unitMethods, expectedMs));
+        }
+        return units;
+    }
+
+    /**
+     * Apply method includes/excludes of the class and included/excluded groups of the <test>
+     */
+    private static boolean isSelected(XmlTest test, XmlClass xmlClass, String methodName, List<String> groups) {
+        List<XmlInclude> includes = xmlClass.getIncludedMethods();
+        if (!includes.isEmpty() && includes.stream().noneMatch(include -> methodName.matches(include.getName()))) {
+            return false;
+        }
+        if (xmlClass.getExcludedMethods().stream().anyMatch(methodName::matches)) {
+            return false;
+        }
+        List<String> included = test.getIncludedGroups();
+        if (!included.isEmpty() && groups.stream().noneMatch(group -> included.stream().anyMatch(group::matches))) {
+            return false;
+        }
+        return groups.stream().noneMatch(group -> test.getExcludedGroups().stream().anyMatch(group::matches));
+    }
+
+    private static List<String> groupsOf(Test classAnnotation, Test methodAnnotation) {
+        List<String> groups = new ArrayList<>();
+        if (classAnnotation != null) {
+            groups.addAll(Arrays.asList(classAnnotation.groups()));
+        }
+        if (methodAnnotation != null) {
+            groups.addAll(Arrays.asList(methodAnnotation.groups()));
+        }
+        return groups;
+    }
+
+    private static String find(Map<String, String> component, String name) {
+        String root = name;
+        while (!component.get(root).equals(root)) {
+            root = component.get(root);
+        }
+        return root;
+    }
+
+    /**
+     * Start a worker JVM with the same classpath and the forwarded system properties
+     */
+    private static Process launchWorker(int index, int port, String suitePath) throws IOException {
+        String workerId = "worker-" + index;
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmArgs = ConfigReader.getProperty("runner.worker.jvm.args", "-Xmx512m").trim();
+        if (!jvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (Arrays.stream(LOCAL_PROPERTY_PREFIXES).noneMatch(key::startsWith)) {
+                command.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        command.add("-Drunner.coordinator.port=" + port);
+        command.add("-Drunner.worker.id=" + workerId);
+        command.add("-Drunner.suite=" + suitePath);
+        command.add("-Dreport.shard.id=runner-" + workerId);
+        command.add(RunnerWorker.class.getName());
+
+        File log = WORKER_LOG_DIR.resolve(workerId + ".log").toFile();
+        logger.info("Starting runner {} (log: {})", workerId, log);
+        return new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+    }
+
+    /**
+     * Keep a result record, replacing an earlier one of the same test
+     * A failure created by the coordinator for a lost unit does not replace a worker's result.
+     */
+    private static synchronized void recordResult(JsonNode result) {
+        String testId = result.path("id").asText();
+        JsonNode previous = results.get(testId);
+        if (previous != null && result.path("synthetic").asBoolean(false)) {
+            logger.info("Keeping {} result of {} from {}", previous.path("status").asText(), testId,
+                    previous.path("worker").asText());
+            return;
+        }
+        if (previous != null) {
+            logger.info("{} reported again by {}, replacing the result from {}", testId, result.path("worker").asText(),
+                    previous.path("worker").asText());
+        }
+        results.put(testId, result);
+        logger.info("{} {} on {} ({}ms)", result.path("status").asText(), testId, result.path("worker").asText(),
+                result.path("durationMs").asLong());
+    }
+
+    /**
+     * Replay the kept results into TestResultCollector, including retried attempts
+     */
+    private static synchronized void replayResults() {
+        for (JsonNode result : results.values()) {
+            replayResult(result);
+        }
+    }
+
+    private static void replayResult(JsonNode result) {
+        String testId = result.path("id").asText();
+        List<String> groupList = new ArrayList<>();
+        result.path("groups").forEach(group -> groupList.add(group.asText()));
+        String[] groups = groupList.toArray(new String[0]);
+        String className = result.path("className").asText();
+        String methodName = result.path("methodName").asText();
+        String error = result.path("error").isTextual() ? result.path("error").asText() : null;
+
+        for (long attempt = 1; attempt < result.path("attempts").asLong(1); attempt++) {
+            TestResultCollector.testStarted(testId, className, methodName, groups);
+            TestResultCollector.testRetrying(testId, 0, error);
+        }
+        TestResultCollector.testStarted(testId, className, methodName, groups);
+        long driverStartupMs = result.path("driverStartupMs").asLong(-1);
+        if (driverStartupMs >= 0) {
+            TestResultCollector.recordDriverStartup(testId, driverStartupMs);
+        }
+        TestResultCollector.testFinished(testId, TestStatus.valueOf(result.path("status").asText("FAILED")),
+                result.path("durationMs").asLong(), error, result.path("quarantined").asBoolean(false));
+    }
+
+    /**
+     * Delete worker result streams left by an earlier run, so they are not merged into this one
+     */
+    private static void deleteWorkerShards() throws IOException {
+        for (Path shardFile : findWorkerShards()) {
+            Files.deleteIfExists(shardFile);
+            logger.info("Deleted stale worker results stream {}", shardFile);
+        }
+    }
+
+    /**
+     * Find the workers' result streams, sorted by name
+     */
+    private static List<Path> findWorkerShards() throws IOException {
+        List<Path> shardFiles = new ArrayList<>();
+        Path resultsDir = Paths.get(ResultStreamWriter.RESULTS_DIR);
+        if (Files.isDirectory(resultsDir)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(resultsDir, WORKER_SHARD_GLOB)) {
+                stream.forEach(shardFiles::add);
+            }
+        }
+        shardFiles.sort(Comparator.naturalOrder());
+        return shardFiles;
+    }
+
+    /**
+     * Merge the result streams of this run's workers into one report
+     * Rows of a worker whose result was replaced (its unit was handed out again) are left out.
+     */
+    private static void mergeReports() {
+        Set<String> keptRows = new HashSet<>();
+        synchronized (DistributedRunner.class) {
+            for (JsonNode result : results.values()) {
+                keptRows.add("runner-" + result.path("worker").asText() + "/" + result.path("methodName").asText());
+            }
+        }
+        try {
+            List<Path> shardFiles = findWorkerShards();
+            ResultMerger.MergeSummary summary = ResultMerger.merge(shardFiles, Paths.get(REPORT_FILE),
+                    test -> keptRows.contains(test.path("shard").asText() + "/" + test.path("name").asText()));
+            logger.info("Merged {} worker streams ({} tests) into {}", shardFiles.size(), summary.getTests(), REPORT_FILE);
+        } catch (IOException e) {
+            logger.error("Failed to merge worker reports: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.automation.runner;
+
+import com.automation.utils.LoggerUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Coordinator side of the runner protocol
+ * Listens on a loopback port and hands out work units one at a time to whichever worker
+ * asks next, so fast workers take over the remaining work of slow ones. Result records
+ * are passed to the result handler as they arrive. A unit whose worker disconnects
+ * before asking for the next one is handed out again up to maxReassign times, then
+ * reported as failed with result records marked "synthetic", which do not replace a result
+ * the worker already sent. A worker asking for work while the queue is empty waits until the
+ * units in flight are complete, in case one of them is handed out again.
+ *
+ * Example:
+ *     try (RunCoordinator coordinator = new RunCoordinator(units, result -> ..., 1)) {
+ *         coordinator.start();
+ *         // launch workers with coordinator.getPort()
+ *         coordinator.awaitCompletion(TimeUnit.MINUTES.toMillis(30));
+ *     }
+ */
+public class RunCoordinator implements Closeable {
+
+    private static final Logger logger = LoggerUtils.getLogger(RunCoordinator.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final ServerSocket server;
+    private final Consumer<JsonNode> resultHandler;
+    private final int maxReassign;
+    private final int totalUnits;
+
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private final Deque<WorkUnit> queue;
+    private final Map<String, Integer> assignments = new HashMap<>();
+    private final Map<String, WorkerStats> workers = new LinkedHashMap<>();
+    private int inFlight;
+    private int completed;
+    private int reassigned;
+    private int failed;
+    private long startedAt;
+    private long finishedAt;
+
+    /**
+     * Units and busy time of one worker
+     */
+    private static class WorkerStats {
+        private int units;
+        private long busyMillis;
+        private int results;
+    }
+
+    /**
+     * Create a coordinator on an ephemeral loopback port
+     * @param units Units in the order they are handed out
+     * @param resultHandler Receives every result record (called from connection threads)
+     * @param maxReassign Times a unit is handed out again after its worker disconnected
+     * @throws IOException if the server socket cannot be opened
+     */
+    public RunCoordinator(List<WorkUnit> units, Consumer<JsonNode> resultHandler, int maxReassign) throws IOException {
+        this.queue = new ArrayDeque<>(units);
+        this.totalUnits = units.size();
+        this.resultHandler = resultHandler;
+        this.maxReassign = maxReassign;
+        this.server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    /**
+     * Start accepting workers
+     */
+    public void start() {
+        synchronized (lock) {
+            startedAt = System.currentTimeMillis();
+        }
+        Thread acceptor = new Thread(this::acceptWorkers, "runner-coordinator");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Runner coordinator listening on port {} with {} units", getPort(), totalUnits);
+    }
+
+    /**
+     * Get the port workers connect to
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Wait until all units are complete
+     * @param timeoutMillis Maximum time to wait
+     * @return true if all units are complete
+     */
+    public boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (lock) {
+            while (completed < totalUnits) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                lock.wait(remaining);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Report queued units as failed, e.g. when no worker is left to run them
+     * @param reason Failure reason recorded for their tests
+     */
+    public void failRemaining(String reason) {
+        synchronized (lock) {
+            WorkUnit unit;
+            while ((unit = queue.poll()) != null) {
+                failUnit(unit, "coordinator", reason);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Get a one-line summary of dispatched units and worker utilization
+     */
+    public String getStatisticsSummary() {
+        synchronized (lock) {
+            long wallMillis = (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+            long busyMillis = 0;
+            StringBuilder perWorker = new StringBuilder();
+            for (Map.Entry<String, WorkerStats> entry : workers.entrySet()) {
+                WorkerStats stats = entry.getValue();
+                busyMillis += stats.busyMillis;
+                perWorker.append(perWorker.length() == 0 ? "" : ", ")
+                        .append(String.format("%s=%d/%ds", entry.getKey(), stats.units, stats.busyMillis / 1000));
+            }
+            double utilization = workers.isEmpty() || wallMillis <= 0 ? 0.0
+                    : busyMillis / (double) (workers.size() * wallMillis);
+            return String.format("units=%d/%d, workers=%d, wall=%.1fs, utilization=%.0f%%, reassigned=%d, failed=%d, "
+                            + "units/busy per worker: %s", completed, totalUnits, workers.size(), wallMillis / 1000.0,
+                    utilization * 100, reassigned, failed, perWorker);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void acceptWorkers() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread connection = new Thread(() -> serve(socket), "runner-connection");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    logger.error("Failed to accept runner worker: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Serve one worker until it disconnects or the run is complete
+     */
+    private void serve(Socket socket) {
+        String workerId = socket.getRemoteSocketAddress().toString();
+        WorkUnit current = null;
+        long currentStart = 0;
+
+        try (Socket connection = socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8))) {
+            connection.setTcpNoDelay(true);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode message = mapper.readTree(line);
+                switch (message.path("type").asText()) {
+                    case "hello":
+                        workerId = message.path("worker").asText(workerId);
+                        Thread.currentThread().setName("runner-" + workerId);
+                        synchronized (lock) {
+                            workers.putIfAbsent(workerId, new WorkerStats());
+                        }
+                        logger.info("Runner worker {} connected", workerId);
+                        break;
+
+                    case "result":
+                        ((ObjectNode) message).put("worker", workerId);
+                        resultHandler.accept(message);
+                        synchronized (lock) {
+                            workers.computeIfAbsent(workerId, id -> new WorkerStats()).results++;
+                        }
+                        break;
+
+                    case "next":
+                        if (current != null) {
+                            complete(workerId, System.currentTimeMillis() - currentStart);
+                            current = null;
+                        }
+                        current = take();
+                        if (current == null) {
+                            writer.write("{\"type\":\"done\"}");
+                            writer.newLine();
+                            writer.flush();
+                            return;
+                        }
+                        currentStart = System.currentTimeMillis();
+                        writer.write(mapper.writeValueAsString(current.toJson(mapper)));
+                        writer.newLine();
+                        writer.flush();
+                        break;
+
+                    default:
+                        logger.warn("Unknown message from runner worker {}: {}", workerId, line);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Connection to runner worker {} failed: {}", workerId, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (current != null) {
+                workerLost(workerId, current);
+            }
+        }
+    }
+
+    /**
+     * Take the next unit, waiting while the queue is empty but units are still in flight
+     * @return Next unit, or null if the run is complete
+     */
+    private WorkUnit take() throws InterruptedException {
+        synchronized (lock) {
+            while (queue.isEmpty() && inFlight > 0) {
+                lock.wait();
+            }
+            WorkUnit unit = queue.poll();
+            if (unit != null) {
+                inFlight++;
+                assignments.merge(unit.getId(), 1, Integer::sum);
+            }
+            return unit;
+        }
+    }
+
+    private void complete(String workerId, long busyMillis) {
+        synchronized (lock) {
+            inFlight--;
+            completed++;
+            WorkerStats stats = workers.computeIfAbsent(workerId, id -> new WorkerStats());
+            stats.units++;
+            stats.busyMillis += busyMillis;
+            if (completed == totalUnits) {
+                finishedAt = System.currentTimeMillis();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Hand out the unit of a disconnected worker again, or fail it after maxReassign attempts
+     */
+    private void workerLost(String workerId, WorkUnit unit) {
+        synchronized (lock) {
+            inFlight--;
+            if (assignments.getOrDefault(unit.getId(), 0) <= maxReassign) {
+                logger.warn("Runner worker {} disconnected while running {}, handing it out again", workerId, unit);
+                queue.addFirst(unit);
+                reassigned++;
+            } else {
+                failUnit(unit, workerId, "Runner worker " + workerId + " disconnected while running the test");
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Report every method of a unit as failed (caller holds the lock)
+     */
+    private void failUnit(WorkUnit unit, String workerId, String reason) {
+        logger.error("Unit {} failed: {}", unit, reason);
+        for (String method : unit.getMethods()) {
+            ObjectNode result = mapper.createObjectNode();
+            result.put("type", "result");
+            result.put("id", unit.getClassName() + "." + method);
+            result.put("className", unit.getClassName());
+            result.put("methodName", method);
+            result.putArray("groups");
+            result.put("status", "FAILED");
+            result.put("durationMs", 0);
+            result.put("error", reason);
+            result.put("attempts", 1);
+            result.put("worker", workerId);
+            result.put("synthetic", true);
+            resultHandler.accept(result);
+        }
+        failed++;
+        completed++;
+        if (completed == totalUnits) {
+            finishedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.automation.runner;
+
+import com.automation.base.BaseTest;
+import com.automation.reporting.TestResultCollector;
+import com.automation.utils.LoggerUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.Logger;
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Worker JVM of the distributed runner
+ * Asks the coordinator for one unit at a time and runs it as a TestNG suite of its own,
+ * built from the unit's <test> in the suite XML (parameters, groups and suite listeners
+ * are kept). Suite setup runs before the first unit and suite teardown after the last one,
+ * not around every unit (see BaseTest). Results recorded by TestListener are sent to the
+ * coordinator after each unit; the report is streamed to reports/results/shard-<id>.ndjson
+ * and merged by the coordinator.
+ *
+ * Launched by DistributedRunner with:
+ *     -Drunner.coordinator.port=<port> -Drunner.worker.id=<id> -Drunner.suite=<suite xml>
+ */
+public class RunnerWorker {
+
+    private static final Logger logger = LoggerUtils.getLogger(RunnerWorker.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static volatile boolean finishing;
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(System.getProperty("runner.coordinator.port"));
+        String workerId = System.getProperty("runner.worker.id", "worker");
+        XmlSuite suite = new Parser(System.getProperty("runner.suite")).parseToList().get(0);
+
+        int units = 0;
+        try (CoordinatorClient client = new CoordinatorClient(port, workerId)) {
+            WorkUnit unit;
+            while ((unit = client.next()) != null) {
+                long start = System.currentTimeMillis();
+                runUnit(suite, unit);
+                for (TestResultCollector.TestRecord record : getRecords(unit, start)) {
+                    client.sendResult(toResult(record));
+                }
+                units++;
+            }
+        } finally {
+            finishing = true;
+            new BaseTest().afterSuite();
+            logger.info("Runner worker {} finished after {} units", workerId, units);
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Check if this JVM is a runner worker
+     */
+    public static boolean isWorker() {
+        return System.getProperty("runner.coordinator.port") != null;
+    }
+
+    /**
+     * Check if suite teardown should run: always outside a worker, after the last unit in a worker
+     */
+    public static boolean isSuiteFinished() {
+        return !isWorker() || finishing;
+    }
+
+    /**
+     * Run one unit as a single-test suite
+     */
+    private static void runUnit(XmlSuite suite, WorkUnit unit) {
+        XmlSuite unitSuite = new XmlSuite();
+        unitSuite.setName(suite.getName());
+        unitSuite.setParameters(suite.getParameters());
+        unitSuite.setListeners(suite.getListeners());
+        unitSuite.setParallel(XmlSuite.ParallelMode.NONE);
+        unitSuite.setVerbose(0);
+
+        XmlTest source = findTest(suite, unit.getTestName());
+        XmlTest test = new XmlTest(unitSuite);
+        test.setName(unit.getTestName());
+        if (source != null) {
+            test.setParameters(source.getLocalParameters());
+            test.setIncludedGroups(source.getIncludedGroups());
+            test.setExcludedGroups(source.getExcludedGroups());
+        }
+
+        XmlClass xmlClass = new XmlClass(unit.getClassName());
+        List<XmlInclude> includes = new ArrayList<>();
+        for (String method : unit.getMethods()) {
+            includes.add(new XmlInclude(method));
+        }
+        xmlClass.setIncludedMethods(includes);
+        test.setXmlClasses(Collections.singletonList(xmlClass));
+
+        TestNG testng = new TestNG(false);
+        testng.setUseDefaultListeners(false);
+        testng.setXmlSuites(Collections.singletonList(unitSuite));
+        testng.run();
+    }
+
+    private static XmlTest findTest(XmlSuite suite, String testName) {
+        for (XmlTest test : suite.getTests()) {
+            if (test.getName().equals(testName)) {
+                return test;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get records of the unit's methods started since the unit began
+     */
+    private static List<TestResultCollector.TestRecord> getRecords(WorkUnit unit, long since) {
+        List<TestResultCollector.TestRecord> records = new ArrayList<>();
+        for (TestResultCollector.TestRecord record : TestResultCollector.getRecords()) {
+            if (record.getStartMillis() >= since && record.getClassName().equals(unit.getClassName())
+                    && unit.getMethods().contains(record.getMethodName())) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static ObjectNode toResult(TestResultCollector.TestRecord record) {
+        ObjectNode result = mapper.createObjectNode();
+        result.put("id", record.getId());
+        result.put("className", record.getClassName());
+        result.put("methodName", record.getMethodName());
+        ArrayNode groups = result.putArray("groups");
+        record.getGroups().forEach(groups::add);
+        result.put("status", record.getStatus().name());
+        result.put("durationMs", record.getDurationMs());
+        result.put("error", record.getError());
+        result.put("driverStartupMs", record.getDriverStartupMs());
+        result.put("attempts", record.getAttempts());
+        result.put("quarantined", record.isQuarantined());
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package com.automation.runner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit of work handed to a runner worker
+ * One test method, or the methods of one class that must run in the same TestNG run
+ * because they depend on each other (dependsOnMethods/dependsOnGroups).
+ *
+ * Example:
+ *     WorkUnit unit = new WorkUnit("SauceDemoParallelTests", "com.automation.tests.saucedemo.LoginTestSaucedemo",
+ *             Collections.singletonList("testValidLogin"), 12000);
+ */
+public class WorkUnit {
+
+    private final String testName;
+    private final String className;
+    private final List<String> methods;
+    private final long expectedMs;
+
+    /**
+     * Create a work unit
+     * @param testName Name of the <test> in the suite XML
+     * @param className Test class name
+     * @param methods Test method names
+     * @param expectedMs Expected duration in milliseconds (used for ordering)
+     */
+    public WorkUnit(String testName, String className, List<String> methods, long expectedMs) {
+        this.testName = testName;
+        this.className = className;
+        this.methods = Collections.unmodifiableList(new ArrayList<>(methods));
+        this.expectedMs = expectedMs;
+    }
+
+    public String getId() {
+        return testName + "/" + className + "#" + String.join(",", methods);
+    }
+
+    public String getTestName() {
+        return testName;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public List<String> getMethods() {
+        return methods;
+    }
+
+    public long getExpectedMs() {
+        return expectedMs;
+    }
+
+    /**
+     * Serialize as a "run" message
+     */
+    ObjectNode toJson(ObjectMapper mapper) {
+        ObjectNode json = mapper.createObjectNode();
+        json.put("type", "run");
+        json.put("test", testName);
+        json.put("class", className);
+        json.put("expectedMs", expectedMs);
+        ArrayNode methodNames = json.putArray("methods");
+        methods.forEach(methodNames::add);
+        return json;
+    }
+
+    /**
+     * Read a "run" message
+     */
+    static WorkUnit fromJson(JsonNode json) {
+        List<String> methodNames = new ArrayList<>();
+        json.path("methods").forEach(method -> methodNames.add(method.asText()));
+        return new WorkUnit(json.path("test").asText(), json.path("class").asText(), methodNames,
+                json.path("expectedMs").asLong());
+    }
+
+    @Override
+    public String toString() {
+        return getId();
+    }
+}
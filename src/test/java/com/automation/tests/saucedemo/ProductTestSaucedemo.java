@@ -26,12 +26,13 @@ public class ProductTestSaucedemo extends BaseTest {
         loginPage = new LoginPageSaucedemo(driver);
         productPage = new ProductPageSaucedemo(driver);
 
-        loginPage.openSauceDemoWebsite();
-        loginPage.loginWithValidCredentials();
+        long start = System.currentTimeMillis();
+        boolean restored = loginPage.loginWithCachedSession();
         loginPage.verifySuccessfulLogin();
         productPage.verifyProductPageLoaded();
 
-        logInfo("Setup completed - User logged in successfully");
+        logInfo(String.format("Setup completed - User logged in successfully in %dms (%s)",
+                System.currentTimeMillis() - start, restored ? "cached session restored" : "UI login"));
     }
 
     @Test(groups = {"smoke", "product", "saucedemo"},
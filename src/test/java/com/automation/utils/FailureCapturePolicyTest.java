@@ -0,0 +1,90 @@
+package com.automation.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for FailureCapturePolicy per-suite statistics, coalescing and per-test cap
+ * Deferred captures need no driver; immediate captures go to a ScreenshotUtils stub that
+ * records the requested names. Uses the configured 2000ms window and cap of 3.
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class FailureCapturePolicyTest {
+
+    @Test(description = "Deferred captures are counted for the current suite only")
+    public void countsCapturesPerSuite() {
+        FailureCapturePolicy.startSuite();
+        FailureCapturePolicy.startTest("firstSuiteTest");
+        Assert.assertNull(FailureCapturePolicy.captureFailure(null, "element_not_found"));
+        Assert.assertNull(FailureCapturePolicy.captureFailure(null, "timeout"));
+        Assert.assertTrue(FailureCapturePolicy.getStatisticsSummary().contains("deferred=2"),
+                FailureCapturePolicy.getStatisticsSummary());
+
+        FailureCapturePolicy.startSuite();
+        FailureCapturePolicy.startTest("secondSuiteTest");
+        Assert.assertNull(FailureCapturePolicy.captureFailure(null, "element_not_found"));
+
+        String summary = FailureCapturePolicy.getStatisticsSummary();
+        Assert.assertTrue(summary.contains("deferred=1"), summary);
+        Assert.assertTrue(summary.contains("taken=0"), summary);
+        Assert.assertEquals(FailureCapturePolicy.getSuppressedReasons().size(), 1);
+    }
+
+    @Test(description = "Immediate captures within the coalesce window are dropped")
+    public void coalescesWithinWindow() {
+        RecordingScreenshotUtils screenshotUtils = new RecordingScreenshotUtils();
+        FailureCapturePolicy.startSuite();
+        FailureCapturePolicy.startTest("coalescingTest");
+
+        Assert.assertNotNull(FailureCapturePolicy.captureFailure(screenshotUtils, "element_not_found", false, 10_000));
+        Assert.assertNull(FailureCapturePolicy.captureFailure(screenshotUtils, "timeout", false, 11_000));
+        Assert.assertNull(FailureCapturePolicy.captureFailure(screenshotUtils, "stale_element", false, 11_999));
+        Assert.assertNotNull(FailureCapturePolicy.captureFailure(screenshotUtils, "click_intercepted", false, 13_000));
+
+        Assert.assertEquals(screenshotUtils.names, Arrays.asList("element_not_found", "click_intercepted"));
+        Assert.assertEquals(FailureCapturePolicy.getSuppressedReasons(), Arrays.asList("timeout", "stale_element"));
+        String summary = FailureCapturePolicy.getStatisticsSummary();
+        Assert.assertTrue(summary.contains("taken=2, coalesced=2, capped=0"), summary);
+    }
+
+    @Test(description = "Immediate captures beyond the per-test cap are dropped until the next test")
+    public void capsCapturesPerTest() {
+        RecordingScreenshotUtils screenshotUtils = new RecordingScreenshotUtils();
+        FailureCapturePolicy.startSuite();
+        FailureCapturePolicy.startTest("cappedTest");
+
+        for (int i = 1; i <= 5; i++) {
+            FailureCapturePolicy.captureFailure(screenshotUtils, "failure" + i, false, i * 10_000L);
+        }
+
+        Assert.assertEquals(screenshotUtils.names, Arrays.asList("failure1", "failure2", "failure3"));
+        Assert.assertEquals(FailureCapturePolicy.getSuppressedReasons(), Arrays.asList("failure4", "failure5"));
+        String summary = FailureCapturePolicy.getStatisticsSummary();
+        Assert.assertTrue(summary.contains("taken=3, coalesced=0, capped=2"), summary);
+
+        FailureCapturePolicy.startTest("nextTest");
+        Assert.assertNotNull(FailureCapturePolicy.captureFailure(screenshotUtils, "failure6", false, 60_000));
+    }
+
+    /**
+     * ScreenshotUtils without a driver that records requested screenshot names
+     */
+    private static class RecordingScreenshotUtils extends ScreenshotUtils {
+        private final List<String> names = new ArrayList<>();
+
+        RecordingScreenshotUtils() {
+            super(null);
+        }
+
+        @Override
+        public String takeScreenshot(String screenshotName) {
+            names.add(screenshotName);
+            return getScreenshotsDirectory() + screenshotName + ".png";
+        }
+    }
+}
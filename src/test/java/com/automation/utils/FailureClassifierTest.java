@@ -0,0 +1,84 @@
+package com.automation.utils;
+
+import com.automation.enums.FailureCategory;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.ConnectException;
+
+/**
+ * Unit tests for FailureClassifier cause-chain precedence
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class FailureClassifierTest {
+
+    @Test(description = "Single failures map to their category")
+    public void classifiesSingleFailures() {
+        Assert.assertEquals(FailureClassifier.classify(null), FailureCategory.UNKNOWN);
+        Assert.assertEquals(FailureClassifier.classify(new AssertionError("expected 3")), FailureCategory.ASSERTION);
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("waited 10s")), FailureCategory.TIMEOUT);
+        Assert.assertEquals(FailureClassifier.classify(new StaleElementReferenceException("stale")),
+                FailureCategory.STALE_ELEMENT);
+        Assert.assertEquals(FailureClassifier.classify(new NoSuchElementException("#missing")),
+                FailureCategory.ELEMENT_NOT_FOUND);
+        Assert.assertEquals(FailureClassifier.classify(new IllegalStateException("bug")), FailureCategory.UNKNOWN);
+    }
+
+    @Test(description = "Infrastructure anywhere in the chain wins over everything else")
+    public void infrastructureCauseWins() {
+        AssertionError assertion = new AssertionError("page did not load");
+        assertion.initCause(new ConnectException("Connection refused"));
+        WebDriverException browserError = new WebDriverException("unknown error: net::ERR_CONNECTION_RESET");
+
+        Assert.assertEquals(FailureClassifier.classify(assertion), FailureCategory.INFRASTRUCTURE);
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("wait", browserError)),
+                FailureCategory.INFRASTRUCTURE);
+    }
+
+    @Test(description = "A retryable cause replaces a non-retryable outer failure, but not the other way round")
+    public void retryableCausesTakePrecedence() {
+        AssertionError assertion = new AssertionError("price not shown");
+        assertion.initCause(new StaleElementReferenceException("stale"));
+
+        Assert.assertEquals(FailureClassifier.classify(assertion), FailureCategory.STALE_ELEMENT);
+        Assert.assertEquals(FailureClassifier.classify(new NoSuchElementException("#cart", new TimeoutException("slow"))),
+                FailureCategory.TIMEOUT);
+        Assert.assertEquals(FailureClassifier.classify(new TimeoutException("wait", new NoSuchElementException("#cart"))),
+                FailureCategory.TIMEOUT);
+    }
+
+    @Test(description = "Unknown wrappers are looked through")
+    public void unknownWrappersAreSkipped() {
+        RuntimeException wrapper = new RuntimeException("invocation failed", new AssertionError("expected 3"));
+
+        Assert.assertEquals(FailureClassifier.classify(wrapper), FailureCategory.ASSERTION);
+    }
+
+    @Test(description = "Only the first ten throwables of the chain are inspected")
+    public void causeDepthIsBounded() {
+        Throwable chain = new ConnectException("Connection refused");
+        for (int i = 0; i < 10; i++) {
+            chain = new RuntimeException("wrapper " + i, chain);
+        }
+
+        Assert.assertEquals(FailureClassifier.classify(chain), FailureCategory.UNKNOWN);
+        Assert.assertEquals(FailureClassifier.classify(chain.getCause()), FailureCategory.INFRASTRUCTURE);
+    }
+
+    @Test(description = "Dead-session errors of a session quit by the watchdog are timeouts, not infrastructure")
+    public void rescuedSessionsAreTimeouts() {
+        NoSuchSessionException deadSession = new NoSuchSessionException("Session ID is null");
+        UnreachableBrowserException unreachable = new UnreachableBrowserException("Could not start a new session");
+
+        Assert.assertEquals(FailureClassifier.classify(deadSession, true), FailureCategory.TIMEOUT);
+        Assert.assertEquals(FailureClassifier.classify(unreachable, true), FailureCategory.TIMEOUT);
+        Assert.assertEquals(FailureClassifier.classify(deadSession, false), FailureCategory.INFRASTRUCTURE);
+    }
+}
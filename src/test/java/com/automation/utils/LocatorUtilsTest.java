@@ -0,0 +1,58 @@
+package com.automation.utils;
+
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+/**
+ * Unit tests for LocatorUtils CSS translation
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class LocatorUtilsTest {
+
+    @Test(description = "CSS-compatible locators translate to equivalent selectors")
+    public void translatesCssCompatibleLocators() {
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.id("user-name")), "[id=\"user-name\"]");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.name("q")), "[name=\"q\"]");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.className("inventory_item")), ".inventory_item");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.tagName("h3")), "h3");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.cssSelector("div > a[href]")), "div > a[href]");
+    }
+
+    @Test(description = "Quotes and backslashes in attribute values are escaped")
+    public void escapesAttributeValues() {
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.id("say \"hi\"")), "[id=\"say \\\"hi\\\"\"]");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.name("a\\b")), "[name=\"a\\\\b\"]");
+    }
+
+    @Test(description = "Class names are escaped like CSS.escape()")
+    public void escapesClassNames() {
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.className("col-6:hover")), ".col-6\\:hover");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.className("a.b")), ".a\\.b");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.className("1st")), ".\\31 st");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.className("-2x")), ".-\\32 x");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.className("-")), ".\\-");
+        Assert.assertEquals(LocatorUtils.toCssSelector(By.className("_private-1")), "._private-1");
+    }
+
+    @Test(description = "Locators without a CSS equivalent are rejected")
+    public void rejectsNonCssLocators() {
+        Assert.assertFalse(LocatorUtils.isCssCompatible(By.xpath("//h3")));
+        Assert.assertThrows(IllegalArgumentException.class, () -> LocatorUtils.toCssSelector(By.xpath("//h3")));
+        Assert.assertThrows(IllegalArgumentException.class, () -> LocatorUtils.toCssSelector(By.linkText("Home")));
+    }
+
+    @Test(description = "Script locators use css where possible and keep xpath and link text as is")
+    public void buildsScriptLocators() {
+        Map<String, String> css = LocatorUtils.toScriptLocator(By.className("title"));
+        Assert.assertEquals(css.get("using"), "css");
+        Assert.assertEquals(css.get("value"), ".title");
+
+        Map<String, String> xpath = LocatorUtils.toScriptLocator(By.xpath("//h3"));
+        Assert.assertEquals(xpath.get("using"), "xpath");
+        Assert.assertEquals(xpath.get("value"), "//h3");
+    }
+}
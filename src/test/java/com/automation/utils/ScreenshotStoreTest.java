@@ -0,0 +1,75 @@
+package com.automation.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Unit tests for ScreenshotStore perceptual near-duplicate matching
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class ScreenshotStoreTest {
+
+    private static final int WIDTH = 1366;
+    private static final int HEIGHT = 768;
+
+    @Test(description = "A re-render with a blinking caret is a near-duplicate")
+    public void linksCaretBlink() {
+        BufferedImage page = page();
+        BufferedImage rerender = page();
+        fill(rerender, new Color(0x000000), 700, 300, 1, 16);
+
+        Assert.assertTrue(ScreenshotStore.isNearDuplicate(page, rerender));
+    }
+
+    @Test(description = "A full-width error banner is not a near-duplicate, although its dHash is within 2 bits")
+    public void keepsErrorBannerApart() {
+        BufferedImage page = page();
+        BufferedImage withBanner = page();
+        fill(withBanner, new Color(0xE2231A), 0, 60, WIDTH, 40);
+        fill(withBanner, Color.WHITE, 20, 74, 260, 12);
+
+        int distance = Long.bitCount(ScreenshotStore.perceptualHash(page) ^ ScreenshotStore.perceptualHash(withBanner));
+        Assert.assertTrue(distance <= 2, "dHash distance " + distance);
+        Assert.assertFalse(ScreenshotStore.isNearDuplicate(page, withBanner));
+    }
+
+    @Test(description = "A different page is not a near-duplicate")
+    public void keepsDifferentPagesApart() {
+        BufferedImage other = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        fill(other, Color.WHITE, 0, 0, WIDTH, HEIGHT);
+        fill(other, new Color(0x132322), 0, 0, WIDTH, 400);
+
+        Assert.assertFalse(ScreenshotStore.isNearDuplicate(page(), other));
+    }
+
+    /**
+     * Product listing: header bar, a grid of product images and lines of text
+     */
+    private static BufferedImage page() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        fill(image, Color.WHITE, 0, 0, WIDTH, HEIGHT);
+        fill(image, new Color(0x333333), 0, 0, WIDTH, 60);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 12; i++) {
+            fill(image, new Color(random.nextInt(0xFFFFFF)), 40 + (i % 4) * 330, 120 + (i / 4) * 200, 280, 150);
+        }
+        for (int i = 0; i < 30; i++) {
+            fill(image, Color.DARK_GRAY, 40 + (i % 3) * 440, 100 + (i / 3) * 62, 200, 10);
+        }
+        return image;
+    }
+
+    private static void fill(BufferedImage image, Color color, int x, int y, int width, int height) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(x, y, width, height);
+        graphics.dispose();
+    }
+}
@@ -0,0 +1,99 @@
+package com.automation.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unit tests for VisualComparator tolerance, ignored regions, early exit and unreadable images
+ *
+ * Run: mvn test -Punit-tests
+ */
+public class VisualComparatorTest {
+
+    private static final int WHITE = 0xFFFFFF;
+
+    @Test(description = "Channel differences within the tolerance are not mismatches")
+    public void toleratesSmallChannelDifferences() {
+        BufferedImage baseline = filled(10, 10, WHITE);
+        BufferedImage actual = filled(10, 10, WHITE);
+        actual.setRGB(3, 4, 0xF5F5F5);
+
+        VisualComparator.ComparisonResult tolerant = new VisualComparator().parallel(false)
+                .withChannelTolerance(16).withMaxDiffRatio(0).compare(baseline, actual);
+        VisualComparator.ComparisonResult strict = new VisualComparator().parallel(false)
+                .withChannelTolerance(5).withMaxDiffRatio(0).compare(baseline, actual);
+
+        Assert.assertTrue(tolerant.isMatch(), tolerant.toString());
+        Assert.assertEquals(tolerant.getMismatchedPixels(), 0);
+        Assert.assertFalse(strict.isMatch(), strict.toString());
+        Assert.assertEquals(strict.getMismatchedPixels(), 1);
+    }
+
+    @Test(description = "Ignored regions are skipped and overlapping regions are counted once")
+    public void skipsIgnoredRegions() {
+        BufferedImage baseline = filled(100, 100, WHITE);
+        BufferedImage actual = filled(100, 100, WHITE);
+        paint(actual, 10, 10, 10, 10);
+        paint(actual, 15, 15, 10, 10);
+
+        VisualComparator.ComparisonResult result = new VisualComparator().parallel(false).withMaxDiffRatio(0)
+                .ignoreRegion(10, 10, 10, 10).ignoreRegion(15, 15, 10, 10).compare(baseline, actual);
+        // A ratio of 1 disables the early exit, so every unmasked difference is counted
+        VisualComparator.ComparisonResult partlyMasked = new VisualComparator().parallel(false).withMaxDiffRatio(1)
+                .ignoreRegion(10, 10, 10, 10).compare(baseline, actual);
+
+        Assert.assertTrue(result.isMatch(), result.toString());
+        Assert.assertEquals(result.getMismatchedPixels(), 0);
+        Assert.assertEquals(result.getComparedPixels(), 100 * 100 - (100 + 100 - 25));
+        Assert.assertEquals(partlyMasked.getMismatchedPixels(), 100 - 25);
+    }
+
+    @Test(description = "Comparison stops once the allowed mismatch is exceeded")
+    public void exitsEarlyOnceAllowanceIsExceeded() {
+        BufferedImage baseline = filled(200, 200, WHITE);
+        BufferedImage actual = filled(200, 200, 0x000000);
+
+        VisualComparator.ComparisonResult result = new VisualComparator().parallel(false).withMaxDiffRatio(0)
+                .compare(baseline, actual);
+
+        Assert.assertFalse(result.isMatch());
+        Assert.assertEquals(result.getMismatchedPixels(), 200, "Only the first row should have been compared");
+        Assert.assertEquals(result.getComparedPixels(), 200 * 200);
+    }
+
+    @Test(description = "Images of different sizes never match")
+    public void failsOnSizeDifference() {
+        VisualComparator.ComparisonResult result = new VisualComparator().compare(filled(10, 10, WHITE), filled(10, 11, WHITE));
+
+        Assert.assertFalse(result.isMatch());
+        Assert.assertTrue(result.toString().contains("size differs"), result.toString());
+    }
+
+    @Test(description = "Undecodable capture bytes fail with an IOException naming the baseline",
+            expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = ".*'login_page'.*")
+    public void rejectsUndecodableCapture() throws IOException {
+        new VisualComparator().compareWithBaseline("login_page", "not an image".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void paint(BufferedImage image, int fromX, int fromY, int width, int height) {
+        for (int y = fromY; y < fromY + height; y++) {
+            for (int x = fromX; x < fromX + width; x++) {
+                image.setRGB(x, y, 0x000000);
+            }
+        }
+    }
+
+    private static BufferedImage filled(int width, int height, int rgb) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+        return image;
+    }
+}